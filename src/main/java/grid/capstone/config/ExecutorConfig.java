@@ -0,0 +1,160 @@
+package grid.capstone.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Dedicated, bounded thread pools for work which shouldn't
+ * compete with the request threads for an unbounded pool.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Configuration
+public class ExecutorConfig {
+
+    public static final String SLOT_SEARCH_EXECUTOR = "slotSearchExecutor";
+    public static final String MAIL_EXECUTOR = "mailExecutor";
+    public static final String LOGIN_EXECUTOR = "loginExecutor";
+    public static final String IMPORT_EXECUTOR = "importExecutor";
+    public static final String IMPORT_HASH_POOL = "importHashPool";
+    public static final String STREAMING_EXECUTOR = "streamingExecutor";
+
+
+    /**
+     * Pool computing free slots of many doctors in parallel.
+     * When it is saturated the calling thread does the work itself,
+     * which slows the caller down instead of queueing without bound.
+     */
+    @Bean(SLOT_SEARCH_EXECUTOR)
+    public ThreadPoolTaskExecutor slotSearchExecutor(
+            @Value("${slot.search.threads:4}") int threads,
+            @Value("${slot.search.queue-capacity:500}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("slot-search-");
+        return executor;
+    }
+
+    /**
+     * Pool the outbox dispatcher sends emails on, its size bounds
+     * how many connections are open to the mail server at once and
+     * its queue how many groups of emails wait for one. A full queue
+     * rejects the group, the dispatcher then spills or drops it.
+     */
+    @Bean(MAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor mailExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${mail.threads:2}") int threads,
+            @Value("${mail.queue-capacity:20}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setThreadNamePrefix("mail-");
+
+        Gauge.builder("mail.queue.depth", executor, pool -> pool.getThreadPoolExecutor().getQueue().size())
+                .description("Groups of emails waiting for a connection to the mail server")
+                .register(meterRegistry);
+
+        return executor;
+    }
+
+    /**
+     * Pool the password hashes of logins are checked on, so a burst
+     * of logins can only take this many cores and never the request
+     * threads. A full queue rejects the login, which is answered with
+     * 429 instead of waiting.
+     */
+    @Bean(LOGIN_EXECUTOR)
+    public ThreadPoolTaskExecutor loginExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${auth.login.threads:2}") int threads,
+            @Value("${auth.login.queue-capacity:50}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setThreadNamePrefix("login-");
+
+        Gauge.builder("auth.login.queue.depth", executor, pool -> pool.getThreadPoolExecutor().getQueue().size())
+                .description("Logins waiting for their password to be checked")
+                .register(meterRegistry);
+
+        return executor;
+    }
+
+    /**
+     * Pool bulk patient imports run on, one file at a time per thread.
+     * A full queue rejects the import, which is answered with 429.
+     */
+    @Bean(IMPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor importExecutor(
+            @Value("${patient.import.threads:1}") int threads,
+            @Value("${patient.import.queue-capacity:4}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setThreadNamePrefix("patient-import-");
+        return executor;
+    }
+
+    /**
+     * Pool the passwords of imported patients are hashed on, a chunk
+     * of rows at a time. Kept apart from the common pool and from the
+     * login pool, so an import never slows logins down beyond the
+     * cores it is given here.
+     */
+    @Bean(name = IMPORT_HASH_POOL, destroyMethod = "shutdown")
+    public ForkJoinPool importHashPool(
+            @Value("${patient.import.hash-parallelism:2}") int parallelism
+    ) {
+        return new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Pool streamed responses, such as the calendar feed, are written
+     * on once the request thread has been released. When it is saturated
+     * the request thread writes the response itself, so a burst of feeds
+     * is bounded by the web server's threads instead of a thread each.
+     */
+    @Bean(STREAMING_EXECUTOR)
+    public ThreadPoolTaskExecutor streamingExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${mvc.async.threads:8}") int threads,
+            @Value("${mvc.async.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("streaming-");
+
+        Gauge.builder("mvc.async.queue.depth", executor, pool -> pool.getThreadPoolExecutor().getQueue().size())
+                .description("Streamed responses waiting for a thread to be written on")
+                .register(meterRegistry);
+
+        return executor;
+    }
+
+}
@@ -0,0 +1,57 @@
+package grid.capstone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limits of the rate limiting filter, per group of routes. A request
+ * falls in the first group with a pattern matching its path and, if
+ * the group lists methods, one of its methods; requests in no group
+ * are not limited.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    //Most clients tracked at once, the least recently seen go first past it
+    private long maxKeys = 100_000;
+
+    //Clients unseen for this long are forgotten, they would have a full bucket again anyway
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private List<Group> groups = new ArrayList<>();
+
+
+    @Data
+    public static class Group {
+
+        private String name;
+
+        //Path patterns, e.g. /api/v1/appointments/**
+        private List<String> paths = new ArrayList<>();
+
+        //Empty for every method
+        private List<String> methods = new ArrayList<>();
+
+        //Requests a client can make in a burst
+        private int capacity;
+
+        //Requests a client can make per second once the burst is spent
+        private double refillPerSecond;
+
+        //Field of the JSON body keying anonymous clients along with their address, e.g. the email of a login
+        private String keyField;
+
+    }
+
+}
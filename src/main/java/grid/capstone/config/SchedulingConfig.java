@@ -0,0 +1,14 @@
+package grid.capstone.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,8 +1,14 @@
 package grid.capstone.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import grid.capstone.filter.CsrfCookieFilter;
 import grid.capstone.filter.JwtTokenFilter;
+import grid.capstone.filter.RateLimitFilter;
+import grid.capstone.service.jwt.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,8 +20,11 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -27,6 +36,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 
 /**
  * @author Javaughn Stephenson
@@ -35,18 +45,27 @@ import java.util.Collections;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     public static final String ROLE_DOCTOR = "DOCTOR";
     public static final String ROLE_PATIENT = "PATIENT";
 
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
 
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
     private final JwtTokenFilter jwtTokenFilter;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   RateLimitProperties rateLimitProperties,
+                                                   JwtService jwtService,
+                                                   ObjectMapper objectMapper,
+                                                   MeterRegistry meterRegistry) throws Exception {
         return http
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
@@ -54,6 +73,7 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf
                         .csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse())
                         .ignoringRequestMatchers("api/v1/auth/login")
+                        .ignoringRequestMatchers("/api/v1/auth/refresh", "/api/v1/auth/logout")
                         .ignoringRequestMatchers(request ->
                                 HttpMethod.POST.matches(request.getMethod()) &&
                                         "/api/v1/doctors".equals(request.getRequestURI())
@@ -70,10 +90,16 @@ public class SecurityConfig {
                 .authorizeHttpRequests(request -> request
                         //Public Api's
                         .requestMatchers("/api/v1/auth/login").permitAll()
+                        //The refresh token is the credential, the access token may have expired
+                        .requestMatchers(HttpMethod.POST, "/api/v1/auth/refresh", "/api/v1/auth/logout").permitAll()
                         .requestMatchers(HttpMethod.POST,"/api/v1/doctors").permitAll()
+                        .requestMatchers(HttpMethod.GET,"/api/v1/doctors/search").permitAll()
                         .requestMatchers(HttpMethod.POST,"/api/v1/patients").permitAll()
+                        //The feed key in the url is the credential, checked by the controller
+                        .requestMatchers(HttpMethod.GET, "/api/v1/appointments/calendar.ics").permitAll()
 
                         //Private Api's
+                        .requestMatchers("/api/v1/patients/import", "/api/v1/patients/import/**").hasRole(ROLE_DOCTOR)
                         .requestMatchers("/api/v1/patients", "/api/v1/patients/**").hasAnyRole(ROLE_DOCTOR, ROLE_PATIENT)
 
                         .requestMatchers(HttpMethod.POST,"/api/v1/expenses/**").hasRole(ROLE_DOCTOR)
@@ -81,12 +107,20 @@ public class SecurityConfig {
 
                         .requestMatchers(HttpMethod.POST,"/api/v1/medical-record/**").hasRole(ROLE_DOCTOR)
 
+                        .requestMatchers(HttpMethod.POST,"/api/v1/appointments/batch").hasRole(ROLE_DOCTOR)
+                        .requestMatchers(HttpMethod.PUT,"/api/v1/doctors/*/digest").hasRole(ROLE_DOCTOR)
+
 
                         .anyRequest().authenticated()
                 )
 
 
                 .addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class)
+                //Built here rather than as a bean so it only runs inside the security chain
+                .addFilterBefore(
+                        new RateLimitFilter(rateLimitProperties, jwtService, objectMapper, meterRegistry),
+                        JwtTokenFilter.class
+                )
                 .addFilterAfter(new CsrfCookieFilter(), CsrfFilter.class)
                 .build();
 
@@ -118,17 +152,42 @@ public class SecurityConfig {
 
 
 
+    /*
+     * Logins whose stored hash was made with another algorithm or a
+     * lower cost than the current one are rehashed on success, through
+     * the password service, so hashes move to new settings as users
+     * come back instead of all at once.
+     */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
+    /*
+     * New hashes are made with the configured algorithm and prefixed
+     * with its id, hashes made with any of the others still match.
+     * Hashes saved before the prefix was added are BCrypt.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.password.algorithm:bcrypt}") String algorithm,
+            @Value("${auth.password.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${auth.password.argon2.memory-kb:19456}") int argon2Memory,
+            @Value("${auth.password.argon2.iterations:2}") int argon2Iterations,
+            @Value("${auth.password.argon2.parallelism:1}") int argon2Parallelism
+    ) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, Map.of(
+                BCRYPT, bcrypt,
+                ARGON2, new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2Memory, argon2Iterations)
+        ));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
 }
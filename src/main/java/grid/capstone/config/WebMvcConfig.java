@@ -0,0 +1,41 @@
+package grid.capstone.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Runs asynchronous responses on a bounded pool. Without it Spring MVC
+ * falls back to a new thread per streamed response, as the custom
+ * executors stop Boot from creating its own application task executor.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ThreadPoolTaskExecutor> streamingExecutor;
+    private final Duration timeout;
+
+    //A provider, as web slice tests load this without the executors
+    public WebMvcConfig(@Qualifier(ExecutorConfig.STREAMING_EXECUTOR) ObjectProvider<ThreadPoolTaskExecutor> streamingExecutor,
+                        @Value("${mvc.async.timeout:PT30S}") Duration timeout) {
+        this.streamingExecutor = streamingExecutor;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        streamingExecutor.ifAvailable(configurer::setTaskExecutor);
+        configurer.setDefaultTimeout(timeout.toMillis());
+    }
+
+}
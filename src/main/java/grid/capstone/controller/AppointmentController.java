@@ -1,16 +1,30 @@
 package grid.capstone.controller;
 
 import grid.capstone.dto.v1.AppointmentDTO;
+import grid.capstone.dto.v1.AppointmentPageDTO;
+import grid.capstone.dto.v1.AppointmentSeriesDTO;
+import grid.capstone.dto.v1.BatchBookingResultDTO;
+import grid.capstone.dto.v1.CalendarFeedKeyDTO;
 import grid.capstone.model.Appointment;
+import grid.capstone.service.appointment.AppointmentBatchService;
+import grid.capstone.service.appointment.AppointmentSeriesService;
 import grid.capstone.service.appointment.AppointmentService;
+import grid.capstone.service.calendar.CalendarService;
+import grid.capstone.service.security.AuthenticatedUser;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -27,9 +41,18 @@ import java.util.Optional;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentBatchService appointmentBatchService;
+    private final AppointmentSeriesService appointmentSeriesService;
+    private final CalendarService calendarService;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService,
+                                 AppointmentBatchService appointmentBatchService,
+                                 AppointmentSeriesService appointmentSeriesService,
+                                 CalendarService calendarService) {
         this.appointmentService = appointmentService;
+        this.appointmentBatchService = appointmentBatchService;
+        this.appointmentSeriesService = appointmentSeriesService;
+        this.calendarService = calendarService;
     }
 
     @PostMapping
@@ -42,6 +65,29 @@ public class AppointmentController {
                 .build();
     }
 
+    @PostMapping("/batch")
+    public List<BatchBookingResultDTO> createAppointments(@RequestBody List<AppointmentDTO> appointmentDTOs) {
+
+        log.info("Batch of {} appointments", appointmentDTOs.size());
+
+        return appointmentBatchService.createAppointments(appointmentDTOs);
+    }
+
+    @PostMapping("/series")
+    public ResponseEntity<HttpStatus> createSeries(@Valid @RequestBody AppointmentSeriesDTO appointmentSeriesDTO) {
+        return ResponseEntity
+                .status(appointmentSeriesService.createSeries(appointmentSeriesDTO))
+                .build();
+    }
+
+    @GetMapping("/series")
+    public List<AppointmentSeriesDTO> getSeries(
+            @RequestParam Optional<Long> patientId,
+            @RequestParam Optional<Long> doctorId
+    ) {
+        return appointmentSeriesService.getSeries(patientId, doctorId);
+    }
+
     @GetMapping
     public List<Appointment> getFilteredAppointments(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate>  dateFilter,
@@ -51,6 +97,62 @@ public class AppointmentController {
         return appointmentService.getFilteredAppointments(dateFilter, patientId, doctorId);
     }
 
+    @GetMapping("/summaries")
+    public AppointmentPageDTO getAppointmentSummaries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> to,
+            @RequestParam Optional<Long> patientId,
+            @RequestParam Optional<Long> doctorId,
+            @RequestParam Optional<String> cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return appointmentService.getAppointmentSummaries(from, to, patientId, doctorId, cursor, size);
+    }
+
+    //Public, calendar apps can't send a token so the key in the url is the credential
+    @GetMapping("/calendar.ics")
+    public ResponseEntity<StreamingResponseBody> getCalendar(
+            @RequestParam Optional<Long> patientId,
+            @RequestParam Optional<Long> doctorId,
+            @RequestParam(required = false) String key,
+            WebRequest webRequest
+    ) {
+        if (!calendarService.isFeedKeyValid(patientId, doctorId, key)) {
+            throw new AccessDeniedException("Calendar feed key is not valid for this calendar");
+        }
+
+        String version = calendarService.getCalendarVersion(patientId, doctorId);
+
+        //Sets the 304 status itself when the client's copy is still current
+        if (webRequest.checkNotModified(version)) {
+            return null;
+        }
+
+        return ResponseEntity
+                .ok()
+                .eTag(version)
+                .contentType(new MediaType("text", "calendar", StandardCharsets.UTF_8))
+                .body(outputStream -> calendarService.writeCalendar(patientId, doctorId, outputStream));
+    }
+
+    //Replaces the key of the caller's own feed, subscriptions with the old key stop updating
+    @PostMapping("/calendar/key")
+    public CalendarFeedKeyDTO createCalendarKey(Authentication authentication) {
+        AuthenticatedUser user = authenticatedUser(authentication);
+
+        return CalendarFeedKeyDTO.builder()
+                .key(calendarService.createFeedKey(user.role(), user.id()))
+                .build();
+    }
+
+    @DeleteMapping("/calendar/key")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revokeCalendarKey(Authentication authentication) {
+        AuthenticatedUser user = authenticatedUser(authentication);
+
+        calendarService.revokeFeedKey(user.role(), user.id());
+    }
+
     @PutMapping("/{appointmentId}")
     public ResponseEntity<HttpStatus> updateAppointment(
             @PathVariable Long appointmentId,
@@ -61,4 +163,10 @@ public class AppointmentController {
                 .build();
     }
 
+
+    private static AuthenticatedUser authenticatedUser(Authentication authentication) {
+        return AuthenticatedUser.of(authentication)
+                .orElseThrow(() -> new AccessDeniedException("Calendar feeds belong to a doctor or patient"));
+    }
+
 }
@@ -1,15 +1,23 @@
 package grid.capstone.controller;
 
 import grid.capstone.dto.v1.AuthRequest;
+import grid.capstone.dto.v1.AuthResponse;
+import grid.capstone.dto.v1.RefreshRequest;
 import grid.capstone.service.auth.AuthService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.security.Principal;
+
 /**
  * @author Javaughn Stephenson
  * @since 18/07/2023
@@ -23,15 +31,43 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@RequestBody AuthRequest authRequest) {
+    public ResponseEntity<AuthResponse> loginUser(@RequestBody AuthRequest authRequest) {
+        return withTokenHeader(authService.login(authRequest));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshRequest refreshRequest) {
+        return withTokenHeader(authService.refresh(refreshRequest.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@Valid @RequestBody RefreshRequest refreshRequest,
+                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ")
+                ? authHeader.substring(7)
+                : null;
+
+        authService.logout(refreshRequest.getRefreshToken(), accessToken);
+    }
+
+    @PostMapping("/logout-all")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logoutEverywhere(Principal principal) {
+        authService.logoutEverywhere(principal.getName());
+    }
+
+
+    private ResponseEntity<AuthResponse> withTokenHeader(AuthResponse tokens) {
 
         // Set the token in the response header
         HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.AUTHORIZATION, "Bearer " + authService.login(authRequest));
+        headers.add(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.getAccessToken());
 
 
-        // Return the token in the response header
-        return ResponseEntity.ok().headers(headers).build();
+        // Return the token in the response header, and the refresh token in the body
+        return ResponseEntity.ok().headers(headers).body(tokens);
     }
 
 
@@ -2,10 +2,14 @@ package grid.capstone.controller;
 
 import grid.capstone.dto.v1.ExceptionDTO;
 import grid.capstone.exception.AppointmentConflictException;
+import grid.capstone.exception.InvalidRequestException;
 import grid.capstone.exception.ResourceNotFoundException;
+import grid.capstone.exception.TooManyRequestsException;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -42,9 +46,47 @@ public class ControllerAdvice {
                 .message("Appointment conflict")
                 .details(exception.getMessage())
                 .timestamp(LocalTime.now())
+                .alternatives(exception.getAlternatives())
                 .build();
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ExceptionDTO invalidRequest(InvalidRequestException exception) {
+        return ExceptionDTO.builder()
+                .status(HttpStatus.BAD_REQUEST)
+                .message("Invalid request")
+                .details(exception.getMessage())
+                .timestamp(LocalTime.now())
+                .build();
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public ExceptionDTO accessDenied(AccessDeniedException exception) {
+        return ExceptionDTO.builder()
+                .status(HttpStatus.FORBIDDEN)
+                .message("Access denied")
+                .details(exception.getMessage())
+                .timestamp(LocalTime.now())
+                .build();
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ExceptionDTO> tooManyRequests(TooManyRequestsException exception) {
+        //Retry-After is in whole seconds, rounded up so clients never come back early
+        long seconds = Math.max(1, (exception.getRetryAfter().toMillis() + 999) / 1000);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(ExceptionDTO.builder()
+                        .status(HttpStatus.TOO_MANY_REQUESTS)
+                        .message("Too many requests")
+                        .details(exception.getMessage())
+                        .timestamp(LocalTime.now())
+                        .build());
+    }
+
     //For validation error handling
     @ExceptionHandler(ConstraintViolationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -2,13 +2,22 @@ package grid.capstone.controller;
 
 import grid.capstone.dto.v1.DoctorDTO;
 import grid.capstone.dto.v1.DoctorSignUp;
+import grid.capstone.dto.v1.SlotDTO;
 import grid.capstone.model.Doctor;
+import grid.capstone.model.Role;
 import grid.capstone.service.doctor.DoctorService;
+import grid.capstone.service.schedule.SlotService;
+import grid.capstone.service.security.AuthenticatedUser;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,9 +31,11 @@ import java.util.Optional;
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final SlotService slotService;
 
-    public DoctorController(DoctorService doctorService) {
+    public DoctorController(DoctorService doctorService, SlotService slotService) {
         this.doctorService = doctorService;
+        this.slotService = slotService;
     }
 
     @GetMapping
@@ -40,6 +51,16 @@ public class DoctorController {
         );
     }
 
+    //Public, results are cached briefly so repeated searches don't reach the database
+    @GetMapping("/search")
+    public List<DoctorDTO> searchDoctors(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "0") Integer page
+    ) {
+        return doctorService.searchDoctors(q, size, page);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public HttpStatus saveDoctor(@RequestBody DoctorSignUp doctorSignUp) {
@@ -53,6 +74,44 @@ public class DoctorController {
         return doctorService.getDoctor(doctorId);
     }
 
+    @GetMapping("/{doctorId}/slots")
+    public List<SlotDTO> getFreeSlots(
+            @PathVariable Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "30") Integer duration
+    ) {
+        return slotService.getFreeSlots(doctorId, from, to, duration);
+    }
+
+    @GetMapping("/slots/earliest")
+    public List<SlotDTO> getEarliestSlots(
+            @RequestParam String specialization,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "30") Integer duration,
+            @RequestParam(defaultValue = "10") Integer limit
+    ) {
+        return slotService.getEarliestSlots(specialization, from, to, duration, limit);
+    }
+
+    //Doctors can only change their own digest setting
+    @PutMapping("/{doctorId}/digest")
+    public HttpStatus updateDigest(@PathVariable Long doctorId, @RequestParam boolean enabled,
+                                   Authentication authentication) {
+        //The id comes from the uid claim, tokens issued without it load the doctor instead
+        Long authenticatedId = AuthenticatedUser.of(authentication)
+                .filter(user -> user.role() == Role.ROLE_DOCTOR)
+                .map(AuthenticatedUser::id)
+                .orElse(null);
+
+        if (!doctorId.equals(authenticatedId)) {
+            throw new AccessDeniedException("Doctor " + doctorId + " is not the authenticated doctor");
+        }
+
+        return doctorService.updateDigest(doctorId, enabled);
+    }
+
 
 
 }
@@ -1,13 +1,19 @@
 package grid.capstone.controller;
 
+import grid.capstone.dto.v1.PatientImportDTO;
 import grid.capstone.dto.v1.PatientSignUp;
 import grid.capstone.model.Patient;
+import grid.capstone.service.patient.PatientImportService;
 import grid.capstone.service.patient.PatientService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,9 +27,12 @@ import java.util.Optional;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientImportService patientImportService;
 
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService,
+                             PatientImportService patientImportService) {
         this.patientService = patientService;
+        this.patientImportService = patientImportService;
     }
 
     @GetMapping
@@ -47,6 +56,23 @@ public class PatientController {
                 .build();
     }
 
+    //The body is spooled as it arrives and imported after the response, poll the import for progress
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<PatientImportDTO> importPatients(@RequestParam Long doctorId,
+                                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                           InputStream body) {
 
+        PatientImportDTO patientImport = patientImportService.startImport(body, contentType, doctorId);
+
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/v1/patients/import/" + patientImport.getId()))
+                .body(patientImport);
+    }
+
+    @GetMapping("/import/{importId}")
+    public PatientImportDTO getImport(@PathVariable Long importId) {
+        return patientImportService.getImport(importId);
+    }
 
 }
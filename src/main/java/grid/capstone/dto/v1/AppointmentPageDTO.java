@@ -0,0 +1,26 @@
+package grid.capstone.dto.v1;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentPageDTO {
+
+    private List<AppointmentSummaryDTO> appointments;
+
+    //Pass back as the cursor to get the next page, null on the last page
+    private String nextCursor;
+
+}
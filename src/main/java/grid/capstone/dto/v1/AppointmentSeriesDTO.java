@@ -0,0 +1,58 @@
+package grid.capstone.dto.v1;
+
+import grid.capstone.model.Frequency;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentSeriesDTO {
+
+    private Long id;
+
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "Patient ID is required")
+    private Long patientId;
+
+    @NotNull(message = "Frequency is required")
+    private Frequency frequency;
+
+    @Min(value = 1, message = "Interval must be at least 1")
+    @Builder.Default
+    private Integer intervalCount = 1;
+
+    @NotNull(message = "Start date is required")
+    @FutureOrPresent(message = "Start date must be in the future or present")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+
+    @NotNull(message = "End time is required")
+    private LocalTime endTime;
+
+    @NotBlank(message = "Reason is required")
+    private String reason;
+
+}
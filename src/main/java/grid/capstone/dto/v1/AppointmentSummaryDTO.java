@@ -0,0 +1,35 @@
+package grid.capstone.dto.v1;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Flat, read only view of an appointment for listings,
+ * selected column by column instead of loading entities.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentSummaryDTO {
+
+    private Long id;
+    private Long doctorId;
+    private String doctorName;
+    private Long patientId;
+    private String patientName;
+    private LocalDate appointmentDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private String reason;
+
+}
@@ -0,0 +1,22 @@
+package grid.capstone.dto.v1;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AuthResponse {
+    private String accessToken;
+    //Seconds the access token is valid for
+    private long expiresIn;
+    private String refreshToken;
+}
@@ -0,0 +1,34 @@
+package grid.capstone.dto.v1;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single appointment of a batch booking,
+ * reported at the same index it had in the request.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchBookingResultDTO {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        NOT_FOUND,
+        CONFLICT
+    }
+
+    private Integer index;
+    private Status status;
+    private Long appointmentId;
+    private String message;
+
+}
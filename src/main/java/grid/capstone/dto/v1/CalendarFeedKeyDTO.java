@@ -0,0 +1,20 @@
+package grid.capstone.dto.v1;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CalendarFeedKeyDTO {
+    //Goes in the key parameter of the feed's url, it is only shown once
+    private String key;
+}
@@ -1,5 +1,6 @@
 package grid.capstone.dto.v1;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.http.HttpStatus;
 
 import java.time.LocalTime;
+import java.util.List;
 
 /**
  * @author Javaughn Stephenson
@@ -24,4 +26,8 @@ public class ExceptionDTO {
     private String details;
     private LocalTime timestamp;
 
+    //Only filled in for appointment conflicts
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<SlotDTO> alternatives;
+
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package grid.capstone.dto.v1;
+
+import grid.capstone.model.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk patient import. Every row read ends up in
+ * exactly one of created, duplicates (repeated in the file),
+ * existing (already signed up) or invalid.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientImportDTO {
+    private Long id;
+    private ImportStatus status;
+    private Long doctorId;
+    private int read;
+    private int created;
+    private int duplicates;
+    private int existing;
+    private int invalid;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
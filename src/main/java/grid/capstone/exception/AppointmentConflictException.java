@@ -1,5 +1,9 @@
 package grid.capstone.exception;
 
+import grid.capstone.dto.v1.SlotDTO;
+
+import java.util.List;
+
 /**
  * @author Javaughn Stephenson
  * @since 11/07/2023
@@ -7,8 +11,20 @@ package grid.capstone.exception;
 
 public class AppointmentConflictException extends RuntimeException{
 
+    //Free slots near the one asked for, offered back to the client instead of another guess
+    private final List<SlotDTO> alternatives;
+
     public AppointmentConflictException(String message) {
+        this(message, List.of());
+    }
+
+    public AppointmentConflictException(String message, List<SlotDTO> alternatives) {
         super(message);
+        this.alternatives = List.copyOf(alternatives);
+    }
+
+    public List<SlotDTO> getAlternatives() {
+        return alternatives;
     }
 
 }
@@ -0,0 +1,39 @@
+package grid.capstone.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Tells which database constraint a failed write broke, so a service
+ * can let the database check uniqueness or a foreign key and still
+ * answer with its own error.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+
+    /**
+     * Checks if the write failed on the named constraint or unique
+     * index. Postgres reports names in lower case.
+     *
+     * @param ex the exception thrown by the write
+     * @param constraint name of the constraint
+     * @return true if that constraint was violated
+     */
+    public static boolean violates(DataIntegrityViolationException ex, String constraint) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return constraint.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,14 @@
+package grid.capstone.exception;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public class InvalidRequestException extends RuntimeException{
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,24 @@
+package grid.capstone.exception;
+
+import java.time.Duration;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public class TooManyRequestsException extends RuntimeException{
+
+    //How long the client is asked to wait before trying again
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+}
@@ -1,12 +1,14 @@
 package grid.capstone.filter;
 
 import grid.capstone.service.jwt.JwtService;
+import grid.capstone.service.jwt.TokenRevocations;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,21 +19,42 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
+ * Authenticates requests by their bearer token. In stateless mode the
+ * principal is built from the claims of the token, so no account is
+ * loaded; only tokens issued before the claims were added, or with
+ * stateless mode off, fall back to the user details service.
+ * Revoked tokens, and tokens of revoked accounts, are turned away
+ * without a query in the common case.
+ *
  * @author Javaughn Stephenson
  * @since 17/07/2023
  */
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class JwtTokenFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
 
     private final UserDetailsService userDetailsService;
 
+    private final TokenRevocations tokenRevocations;
+
+    private final boolean stateless;
+
+    public JwtTokenFilter(JwtService jwtService,
+                          UserDetailsService userDetailsService,
+                          TokenRevocations tokenRevocations,
+                          @Value("${jwt.stateless:true}") boolean stateless) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocations = tokenRevocations;
+        this.stateless = stateless;
+    }
+
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -47,8 +70,12 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         //Extract JWT Token from header
         final String token = authHeader.substring(7);
 
-        //Check if JWT token is not valid
-        if (!jwtService.isTokenValid(token)) {
+        //Verify the token once and keep its claims
+        final Optional<Claims> claims = jwtService.verify(token);
+
+        if (claims.isEmpty() ||
+                tokenRevocations.isRevoked(claims.get().getSubject(), claims.get().getIssuedAt()) ||
+                tokenRevocations.isRevoked(claims.get().getId())) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -56,10 +83,7 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
         try {
             // Get user identity and set it on the spring security context
-            UserDetails userDetails = userDetailsService
-                    .loadUserByUsername(jwtService.extractUsername(token));
-
-
+            UserDetails userDetails = principal(claims.get());
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     userDetails,
@@ -82,4 +106,17 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
 
     }
+
+    private UserDetails principal(Claims claims) {
+        if (stateless) {
+            Optional<? extends UserDetails> principal = jwtService.principal(claims);
+
+            if (principal.isPresent()) {
+                return principal.get();
+            }
+        }
+
+        //Tokens issued without the id and role claims still need the account
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
 }
@@ -0,0 +1,351 @@
+package grid.capstone.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import grid.capstone.config.RateLimitProperties;
+import grid.capstone.dto.v1.ExceptionDTO;
+import grid.capstone.service.jwt.JwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how fast each client can call each group of routes, with a
+ * token bucket per client and group. Clients are told apart by the
+ * subject of a valid token, or by their address when there is none.
+ * Groups like the login can add a field of the body to the address,
+ * so the people sharing a proxy or NAT each get their own bucket.
+ * Requests over the limit are answered with 429 and a Retry-After
+ * header without going any further down the chain.
+ * <p>
+ * The buckets are kept in a bounded cache which forgets clients once
+ * they have been idle for a while, and are updated with a single
+ * compare-and-set, so the filter never blocks.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    //Larger bodies are not read for the key field, their client is keyed on the address alone
+    private static final int MAX_KEYED_BODY = 8 * 1024;
+
+    private record BucketKey(String group, String client) {
+    }
+
+    private static final class Route {
+        private final String name;
+        private final List<PathPattern> paths;
+        private final Set<String> methods;
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final String keyField;
+        private final Counter rejected;
+
+        private Route(RateLimitProperties.Group group, MeterRegistry meterRegistry) {
+            if (group.getCapacity() < 1 || group.getRefillPerSecond() <= 0) {
+                throw new IllegalArgumentException("Rate limit group " + group.getName() + " needs a capacity and refill above zero");
+            }
+
+            this.name = group.getName();
+            this.paths = group.getPaths().stream()
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+            this.methods = Set.copyOf(group.getMethods());
+            this.intervalNanos = (long) (NANOS_PER_SECOND / group.getRefillPerSecond());
+            this.burstNanos = intervalNanos * group.getCapacity();
+            this.keyField = group.getKeyField() == null || group.getKeyField().isBlank() ? null : group.getKeyField();
+            this.rejected = Counter.builder("rate.limit.rejected")
+                    .tag("group", group.getName())
+                    .register(meterRegistry);
+        }
+
+        private boolean matches(String method, PathContainer path) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+
+            for (PathPattern pattern : paths) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /*
+     * The bucket is kept as the time it will be full again rather than
+     * as a count of tokens, so taking a token is moving that time one
+     * interval forward (the generic cell rate algorithm). A request is
+     * let through while the bucket would not be over its burst, i.e.
+     * while that time stays within the burst of now.
+     */
+    private static final class Bucket {
+        private final AtomicLong fullAt;
+
+        private Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        private long tryTake(Route route, long now) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + route.intervalNanos;
+                long over = next - now - route.burstNanos;
+
+                if (over > 0) {
+                    return over;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    //Replays a body read for its key field to the rest of the chain
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<Route> routes;
+    private final Cache<BucketKey, Bucket> buckets;
+
+    public RateLimitFilter(RateLimitProperties properties,
+                           JwtService jwtService,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.enabled = properties.isEnabled();
+        this.routes = properties.getGroups().stream()
+                .map(group -> new Route(group, meterRegistry))
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+
+        Gauge.builder("rate.limit.clients", buckets, Cache::estimatedSize)
+                .description("Client and route group pairs being tracked")
+                .register(meterRegistry);
+    }
+
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Route route = route(request);
+
+        if (route != null && route.keyField != null) {
+            request = buffered(request);
+        }
+
+        long waitNanos = admit(request, route);
+
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        //Retry-After is in whole seconds, rounded up so clients never come back early
+        long seconds = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ExceptionDTO.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .message("Too many requests")
+                .details("Rate limit reached, try again in " + seconds + " second(s)")
+                .timestamp(LocalTime.now())
+                .build());
+    }
+
+    /**
+     * Takes a token for the request from its client's bucket.
+     *
+     * @param request the request
+     * @return 0 if the request may go on, otherwise how many
+     * nanoseconds until it would be let through
+     */
+    public long admit(HttpServletRequest request) {
+        return admit(request, route(request));
+    }
+
+
+    private long admit(HttpServletRequest request, Route route) {
+        if (route == null) {
+            return 0;
+        }
+
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(new BucketKey(route.name, client(request, route)), key -> new Bucket(now));
+        long waitNanos = bucket.tryTake(route, now);
+
+        if (waitNanos > 0) {
+            route.rejected.increment();
+        }
+
+        return waitNanos;
+    }
+
+
+    private Route route(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+
+        for (Route route : routes) {
+            if (route.matches(request.getMethod(), path)) {
+                return route;
+            }
+        }
+
+        return null;
+    }
+
+    /*
+     * Only a token which verifies names the client, otherwise anyone
+     * could spend someone else's limit or dodge their own by making up
+     * subjects. Verified tokens are cached, so this is a lookup. The
+     * address is the one the container reports, which is the client's
+     * behind a proxy only when server.forward-headers-strategy trusts
+     * it; forwarded headers are not read here.
+     */
+    private String client(HttpServletRequest request, Route route) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String subject = jwtService.verify(authHeader.substring(7))
+                    .map(Claims::getSubject)
+                    .orElse(null);
+
+            if (subject != null) {
+                return "user:" + subject;
+            }
+        }
+
+        String address = "ip:" + request.getRemoteAddr();
+
+        if (route.keyField != null && request instanceof BufferedBodyRequest buffered) {
+            String value = field(buffered.body, route.keyField);
+
+            if (value != null) {
+                return address + "|" + route.keyField + ":" + value;
+            }
+        }
+
+        return address;
+    }
+
+    private HttpServletRequest buffered(HttpServletRequest request) throws IOException {
+        int length = request.getContentLength();
+
+        if (length < 0 || length > MAX_KEYED_BODY) {
+            return request;
+        }
+
+        return new BufferedBodyRequest(request, request.getInputStream().readNBytes(length));
+    }
+
+    //A body which is not JSON, or lacks the field, leaves the client keyed on the address
+    private String field(byte[] body, String name) {
+        try {
+            JsonNode tree = objectMapper.readTree(body);
+            JsonNode value = tree != null ? tree.get(name) : null;
+
+            return value != null && value.isTextual()
+                    ? value.asText().trim().toLowerCase(Locale.ROOT)
+                    : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package grid.capstone.mapper;
+
+import grid.capstone.dto.v1.AppointmentSeriesDTO;
+import grid.capstone.model.AppointmentSeries;
+import org.mapstruct.InheritInverseConfiguration;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Mapper(componentModel = "spring")
+public interface AppointmentSeriesMapper {
+
+    AppointmentSeriesMapper INSTANCE = Mappers.getMapper(AppointmentSeriesMapper.class);
+
+    @Mapping(source = "doctor.id", target = "doctorId")
+    @Mapping(source = "patient.id", target = "patientId")
+    AppointmentSeriesDTO toDTO(AppointmentSeries appointmentSeries);
+
+    @InheritInverseConfiguration
+    AppointmentSeries toEntity(AppointmentSeriesDTO appointmentSeriesDTO);
+
+}
@@ -8,6 +8,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 import static grid.capstone.util.UpdateUtil.updateHelper;
@@ -55,6 +56,15 @@ public class Appointment {
     @JsonIgnore
     private MedicalRecord medicalRecord;
 
+    //Maintained by the database on every insert and update
+    @Column(insertable = false, updatable = false)
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
+    //Set on the occurrences expanded from a series, which have no row of their own
+    @Transient
+    private Long seriesId;
+
 
     public void updateObject(Appointment appointment) {
         updateHelper(appointment.getAppointmentDate(), this::setAppointmentDate);
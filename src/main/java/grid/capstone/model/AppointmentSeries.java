@@ -0,0 +1,154 @@
+package grid.capstone.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recurring appointment stored as a single row. Occurrences fall
+ * every {@code intervalCount} weeks or months from {@code startDate}
+ * up to {@code endDate} and are only ever computed for the window
+ * being looked at, never for the whole horizon.
+ * <p>
+ * Monthly occurrences keep the day of the month of the start date,
+ * moved back to the last day of shorter months.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@ToString(exclude = {"doctor", "patient"})
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+public class AppointmentSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private Frequency frequency;
+
+    private Integer intervalCount;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    private String reason;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id")
+    @JsonIgnore
+    private Doctor doctor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id")
+    @JsonIgnore
+    private Patient patient;
+
+
+    /**
+     * Checks if the series has an occurrence on the date,
+     * in constant time.
+     *
+     * @param date the date
+     * @return true if an occurrence falls on the date
+     */
+    public boolean occursOn(LocalDate date) {
+        if (date.isBefore(startDate) || date.isAfter(endDate)) {
+            return false;
+        }
+
+        return switch (frequency) {
+            case WEEKLY -> ChronoUnit.DAYS.between(startDate, date) % (7L * intervalCount) == 0;
+            case MONTHLY -> {
+                long months = ChronoUnit.MONTHS.between(YearMonth.from(startDate), YearMonth.from(date));
+                yield months % intervalCount == 0 && startDate.plusMonths(months).equals(date);
+            }
+        };
+    }
+
+    /**
+     * Dates of the occurrences within [from, to]. The first one is
+     * found arithmetically, so a window far from the start date
+     * costs the same as one right at it.
+     *
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return dates of the occurrences in order
+     */
+    public List<LocalDate> occurrencesBetween(LocalDate from, LocalDate to) {
+        LocalDate first = from.isAfter(startDate) ? from : startDate;
+        LocalDate last = to.isBefore(endDate) ? to : endDate;
+
+        List<LocalDate> dates = new ArrayList<>();
+
+        if (first.isAfter(last)) {
+            return dates;
+        }
+
+        switch (frequency) {
+            case WEEKLY -> {
+                long period = 7L * intervalCount;
+                long skipped = Math.floorDiv(ChronoUnit.DAYS.between(startDate, first) + period - 1, period);
+
+                for (LocalDate date = startDate.plusDays(skipped * period); !date.isAfter(last); date = date.plusDays(period)) {
+                    dates.add(date);
+                }
+            }
+            case MONTHLY -> {
+                long months = ChronoUnit.MONTHS.between(YearMonth.from(startDate), YearMonth.from(first));
+
+                //Always count from the start date so short months don't shift later occurrences
+                for (long n = months / intervalCount; ; n++) {
+                    LocalDate date = startDate.plusMonths(n * intervalCount);
+
+                    if (date.isAfter(last)) {
+                        break;
+                    }
+                    if (!date.isBefore(first)) {
+                        dates.add(date);
+                    }
+                }
+            }
+        }
+
+        return dates;
+    }
+
+    /**
+     * Occurrences within [from, to] as booked intervals,
+     * tagged with the id of the series.
+     *
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return the booked intervals in date order
+     */
+    public List<BookedInterval> intervalsBetween(LocalDate from, LocalDate to) {
+        return occurrencesBetween(from, to).stream()
+                .map(date -> BookedInterval.builder()
+                        .seriesId(id)
+                        .doctorId(doctor.getId())
+                        .patientId(patient.getId())
+                        .date(date)
+                        .startTime(startTime)
+                        .endTime(endTime)
+                        .build())
+                .toList();
+    }
+
+}
@@ -0,0 +1,29 @@
+package grid.capstone.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+/**
+ * Flat view of a doctor's {@link Availability} row, used when
+ * computing free slots so the doctor entity isn't loaded.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AvailabilityWindow {
+
+    private Long doctorId;
+    private String dayOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+
+}
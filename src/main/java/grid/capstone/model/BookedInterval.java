@@ -0,0 +1,49 @@
+package grid.capstone.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Flat view of a booked appointment holding only what is
+ * needed to reason about a schedule, so schedule lookups
+ * don't have to hydrate the doctor and patient graphs.
+ * Occurrences of an {@link AppointmentSeries} have no
+ * appointment id, they carry the id of their series instead.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookedInterval {
+
+    private Long appointmentId;
+    private Long seriesId;
+    private Long doctorId;
+    private Long patientId;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+
+
+    //Used by the JPQL constructor expressions over single appointments
+    public BookedInterval(Long appointmentId, Long doctorId, Long patientId,
+                          LocalDate date, LocalTime startTime, LocalTime endTime) {
+        this(appointmentId, null, doctorId, patientId, date, startTime, endTime);
+    }
+
+
+    //Checks if this interval clashes with the [startTime, endTime) interval
+    public boolean overlaps(LocalTime startTime, LocalTime endTime) {
+        return this.startTime.isBefore(endTime) && startTime.isBefore(this.endTime);
+    }
+
+}
@@ -0,0 +1,56 @@
+package grid.capstone.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Flat view of an appointment or of a whole series, holding only
+ * what a calendar event needs. Series entries carry their recurrence
+ * and {@code date} is the first occurrence.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CalendarEntry {
+
+    private Long appointmentId;
+    private Long seriesId;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private String reason;
+    private String doctorName;
+    private String patientName;
+    private LocalDateTime updatedAt;
+    private Frequency frequency;
+    private Integer intervalCount;
+    private LocalDate until;
+
+
+    //Used by the JPQL constructor expression over single appointments
+    public CalendarEntry(Long appointmentId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                         String reason, String doctorName, String patientName, LocalDateTime updatedAt) {
+        this(appointmentId, null, date, startTime, endTime, reason, doctorName, patientName,
+                updatedAt, null, null, null);
+    }
+
+    //Used by the JPQL constructor expression over series
+    public CalendarEntry(Long seriesId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                         String reason, String doctorName, String patientName,
+                         Frequency frequency, Integer intervalCount, LocalDate until) {
+        this(null, seriesId, date, startTime, endTime, reason, doctorName, patientName,
+                null, frequency, intervalCount, until);
+    }
+
+}
@@ -0,0 +1,34 @@
+package grid.capstone.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat view of a doctor or patient with just enough
+ * to address them, used where loading the whole entity
+ * graph for many people at once would be wasteful.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class Contact {
+
+    private Long id;
+    private String name;
+    private String email;
+    private boolean digestEnabled;
+
+
+    //Used by the JPQL constructor expressions over patients
+    public Contact(Long id, String name, String email) {
+        this(id, name, email, false);
+    }
+
+}
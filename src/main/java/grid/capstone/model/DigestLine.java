@@ -0,0 +1,34 @@
+package grid.capstone.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One appointment in a doctor's digest, with the doctor's
+ * address so all the digests can be read in one query.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DigestLine {
+
+    private Long doctorId;
+    private String doctorName;
+    private String doctorEmail;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private String patientName;
+    private String reason;
+
+}
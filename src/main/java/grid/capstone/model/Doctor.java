@@ -42,11 +42,16 @@ public class Doctor implements UserDetails {
 
     private String specialization;
 
+    private String department;
+
     @NotNull(message = "Age is required")
     private Integer age;
 
     private String biography;
 
+    //Booking notifications come as a periodic digest instead of one email each
+    private boolean digestEnabled;
+
     @JsonIgnore
     private String password;
 
@@ -0,0 +1,11 @@
+package grid.capstone.model;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public enum Frequency {
+    WEEKLY,
+    MONTHLY
+}
@@ -0,0 +1,14 @@
+package grid.capstone.model;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    //Stopped part way, the rows imported before stay
+    FAILED
+}
@@ -0,0 +1,32 @@
+package grid.capstone.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An email waiting in the outbox. {@code attempts} counts the
+ * delivery attempts so far, including the one in progress, and
+ * {@code queuedMillis} how long it had been queued when claimed.
+ * An email with a {@code dedupeKey} is only queued once per key.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OutboxEmail {
+
+    private Long id;
+    private String recipient;
+    private String subject;
+    private String body;
+    private Integer attempts;
+    private Long queuedMillis;
+    private String dedupeKey;
+
+}
@@ -0,0 +1,13 @@
+package grid.capstone.model;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    //Gave up after the maximum number of attempts
+    DEAD
+}
@@ -0,0 +1,70 @@
+package grid.capstone.repository;
+
+import grid.capstone.model.Appointment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Writes appointments straight through JDBC batches, bypassing
+ * the persistence context, for imports of thousands of rows.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class AppointmentBatchRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    /**
+     * Reserves ids from the appointment sequence in one round trip,
+     * so the rows can be inserted in batches with known ids.
+     *
+     * @param count number of ids
+     * @return the reserved ids
+     */
+    public List<Long> nextIds(int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval('appointment_id_seq') FROM generate_series(1, ?)",
+                Long.class,
+                count
+        );
+    }
+
+    /**
+     * Inserts appointments which already have their id set.
+     *
+     * @param appointments the appointments to insert
+     */
+    public void insertAll(List<Appointment> appointments) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO appointment
+                            (id, doctor_id, patient_id, appointment_date, start_time, end_time, reason, medical_record_id)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                appointments,
+                BATCH_SIZE,
+                (statement, appointment) -> {
+                    statement.setLong(1, appointment.getId());
+                    statement.setLong(2, appointment.getDoctor().getId());
+                    statement.setLong(3, appointment.getPatient().getId());
+                    statement.setObject(4, appointment.getAppointmentDate());
+                    statement.setObject(5, appointment.getStartTime());
+                    statement.setObject(6, appointment.getEndTime());
+                    statement.setString(7, appointment.getReason());
+                    //The column is a serial, leaving it out would fill it from its sequence
+                    statement.setNull(8, Types.BIGINT);
+                }
+        );
+    }
+
+}
@@ -1,13 +1,23 @@
 package grid.capstone.repository;
 
 import grid.capstone.model.Appointment;
-import grid.capstone.model.Doctor;
-import grid.capstone.model.Patient;
+import grid.capstone.model.BookedInterval;
+import grid.capstone.model.CalendarEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @author Javaughn Stephenson
@@ -16,9 +26,188 @@ import java.util.List;
 
 
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment>, AppointmentRepositoryCustom {
 
-    List<Appointment> findByPatient(Patient patient);
-    List<Appointment> findByDoctor(Doctor doctor);
+    /**
+     * Checks if the doctor or the patient already has an appointment
+     * on the given date which overlaps the [startTime, endTime) interval.
+     * Only rows for that date are touched, using the
+     * (doctor_id, appointment_date, start_time) and
+     * (patient_id, appointment_date, start_time) indexes.
+     *
+     * @param doctorId id of the doctor
+     * @param patientId id of the patient
+     * @param date date of the appointment
+     * @param startTime start of the candidate interval
+     * @param endTime end of the candidate interval
+     * @param excludeId id of the appointment being updated, null when creating
+     * @return true if there is an overlapping appointment
+     */
+    @Query("""
+            SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END
+            FROM Appointment a
+            WHERE a.appointmentDate = :date
+              AND (a.doctor.id = :doctorId OR a.patient.id = :patientId)
+              AND a.startTime < :endTime
+              AND a.endTime > :startTime
+              AND (:excludeId IS NULL OR a.id <> :excludeId)
+            """)
+    boolean existsOverlapping(@Param("doctorId") Long doctorId,
+                              @Param("patientId") Long patientId,
+                              @Param("date") LocalDate date,
+                              @Param("startTime") LocalTime startTime,
+                              @Param("endTime") LocalTime endTime,
+                              @Param("excludeId") Long excludeId);
+
+    //Confirms conflicts the schedule index found, reading those appointments by id and taking no lock
+    @Query("""
+            SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END
+            FROM Appointment a
+            WHERE a.id IN :ids
+              AND a.appointmentDate = :date
+              AND (a.doctor.id = :doctorId OR a.patient.id = :patientId)
+              AND a.startTime < :endTime
+              AND a.endTime > :startTime
+            """)
+    boolean existsOverlappingAmong(@Param("ids") List<Long> ids,
+                                   @Param("doctorId") Long doctorId,
+                                   @Param("patientId") Long patientId,
+                                   @Param("date") LocalDate date,
+                                   @Param("startTime") LocalTime startTime,
+                                   @Param("endTime") LocalTime endTime);
+
+    @Query("""
+            SELECT new grid.capstone.model.BookedInterval(
+                a.id, a.doctor.id, a.patient.id, a.appointmentDate, a.startTime, a.endTime)
+            FROM Appointment a
+            WHERE a.doctor.id = :doctorId AND a.appointmentDate = :date
+            ORDER BY a.startTime
+            """)
+    List<BookedInterval> findDoctorDay(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
+
+    @Query("""
+            SELECT new grid.capstone.model.BookedInterval(
+                a.id, a.doctor.id, a.patient.id, a.appointmentDate, a.startTime, a.endTime)
+            FROM Appointment a
+            WHERE a.patient.id = :patientId AND a.appointmentDate = :date
+            ORDER BY a.startTime
+            """)
+    List<BookedInterval> findPatientDay(@Param("patientId") Long patientId, @Param("date") LocalDate date);
+
+    @Query("""
+            SELECT new grid.capstone.model.BookedInterval(
+                a.id, a.doctor.id, a.patient.id, a.appointmentDate, a.startTime, a.endTime)
+            FROM Appointment a
+            WHERE a.doctor.id IN :doctorIds AND a.appointmentDate BETWEEN :from AND :to
+            ORDER BY a.doctor.id, a.appointmentDate, a.startTime
+            """)
+    List<BookedInterval> findDoctorsBetween(@Param("doctorIds") Collection<Long> doctorIds,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+
+    /**
+     * Every appointment between the two dates which belongs to one
+     * of the doctors or one of the patients. Used to check a whole
+     * batch of bookings against the database in a single round trip.
+     *
+     * @param doctorIds ids of the doctors
+     * @param patientIds ids of the patients
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return the booked intervals
+     */
+    @Query("""
+            SELECT new grid.capstone.model.BookedInterval(
+                a.id, a.doctor.id, a.patient.id, a.appointmentDate, a.startTime, a.endTime)
+            FROM Appointment a
+            WHERE a.appointmentDate BETWEEN :from AND :to
+              AND (a.doctor.id IN :doctorIds OR a.patient.id IN :patientIds)
+            """)
+    List<BookedInterval> findBookedBetween(@Param("doctorIds") Collection<Long> doctorIds,
+                                           @Param("patientIds") Collection<Long> patientIds,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+
+    /**
+     * Dates between the two days on which the doctor or the patient
+     * has an appointment overlapping the [startTime, endTime) interval.
+     * Used to check a new series without expanding it into rows.
+     *
+     * @param doctorId id of the doctor
+     * @param patientId id of the patient
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @param startTime start of the daily interval
+     * @param endTime end of the daily interval
+     * @return the dates with an overlapping appointment
+     */
+    @Query("""
+            SELECT DISTINCT a.appointmentDate
+            FROM Appointment a
+            WHERE (a.doctor.id = :doctorId OR a.patient.id = :patientId)
+              AND a.appointmentDate BETWEEN :from AND :to
+              AND a.startTime < :endTime
+              AND a.endTime > :startTime
+            """)
+    List<LocalDate> findOverlappingDates(@Param("doctorId") Long doctorId,
+                                         @Param("patientId") Long patientId,
+                                         @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to,
+                                         @Param("startTime") LocalTime startTime,
+                                         @Param("endTime") LocalTime endTime);
+
+    /**
+     * Streams the doctor's or the patient's appointments as calendar
+     * entries. Rows are pulled from the database a batch at a time,
+     * so the stream must be consumed, and closed, inside a transaction.
+     *
+     * @param doctorId id of the doctor, null for any
+     * @param patientId id of the patient, null for any
+     * @return the calendar entries in date order
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new grid.capstone.model.CalendarEntry(
+                a.id, a.appointmentDate, a.startTime, a.endTime, a.reason, d.name, p.name, a.updatedAt)
+            FROM Appointment a JOIN a.doctor d JOIN a.patient p
+            WHERE (:doctorId IS NULL OR d.id = :doctorId)
+              AND (:patientId IS NULL OR p.id = :patientId)
+            ORDER BY a.appointmentDate, a.startTime, a.id
+            """)
+    Stream<CalendarEntry> streamCalendar(@Param("doctorId") Long doctorId, @Param("patientId") Long patientId);
+
+    /**
+     * A page of the appointments on the date starting in [from, to),
+     * ordered by id. Used to load upcoming reminders without looking
+     * at the rest of the table.
+     *
+     * @param date date of the appointments
+     * @param from earliest start, inclusive
+     * @param to latest start, exclusive, null for the end of the day
+     * @param afterId id of the last appointment of the previous page, 0 for the first page
+     * @param page size of the page
+     * @return the booked intervals
+     */
+    @Query("""
+            SELECT new grid.capstone.model.BookedInterval(
+                a.id, a.doctor.id, a.patient.id, a.appointmentDate, a.startTime, a.endTime)
+            FROM Appointment a
+            WHERE a.appointmentDate = :date
+              AND a.startTime >= :from
+              AND (:to IS NULL OR a.startTime < :to)
+              AND a.id > :afterId
+            ORDER BY a.id
+            """)
+    List<BookedInterval> findStartingBetween(@Param("date") LocalDate date,
+                                             @Param("from") LocalTime from,
+                                             @Param("to") LocalTime to,
+                                             @Param("afterId") Long afterId,
+                                             Pageable page);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.doctor JOIN FETCH a.patient WHERE a.id IN :ids")
+    List<Appointment> findWithPeopleByIdIn(@Param("ids") Collection<Long> ids);
 
 }
@@ -0,0 +1,26 @@
+package grid.capstone.repository;
+
+import grid.capstone.dto.v1.AppointmentSummaryDTO;
+import grid.capstone.model.Appointment;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Selects only the columns of {@link AppointmentSummaryDTO} for the
+     * appointments matching the specification, ordered by date, start
+     * time and id, without loading any entity.
+     *
+     * @param specification filters to apply
+     * @param limit maximum number of rows
+     * @return the summaries
+     */
+    List<AppointmentSummaryDTO> findSummaries(Specification<Appointment> specification, int limit);
+}
@@ -0,0 +1,67 @@
+package grid.capstone.repository;
+
+import grid.capstone.dto.v1.AppointmentSummaryDTO;
+import grid.capstone.model.Appointment;
+import grid.capstone.model.Doctor;
+import grid.capstone.model.Patient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public class AppointmentRepositoryCustomImpl implements AppointmentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+
+    @Override
+    public List<AppointmentSummaryDTO> findSummaries(Specification<Appointment> specification, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AppointmentSummaryDTO> query = criteriaBuilder.createQuery(AppointmentSummaryDTO.class);
+        Root<Appointment> root = query.from(Appointment.class);
+
+        //Plain joins for the names, nothing is fetched so the eager associations stay untouched
+        Join<Appointment, Doctor> doctor = root.join("doctor");
+        Join<Appointment, Patient> patient = root.join("patient");
+
+        query.select(criteriaBuilder.construct(
+                AppointmentSummaryDTO.class,
+                root.get("id"),
+                doctor.get("id"),
+                doctor.get("name"),
+                patient.get("id"),
+                patient.get("name"),
+                root.get("appointmentDate"),
+                root.get("startTime"),
+                root.get("endTime"),
+                root.get("reason")
+        ));
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.orderBy(
+                criteriaBuilder.asc(root.get("appointmentDate")),
+                criteriaBuilder.asc(root.get("startTime")),
+                criteriaBuilder.asc(root.get("id"))
+        );
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
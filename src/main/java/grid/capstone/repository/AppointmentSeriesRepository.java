@@ -0,0 +1,125 @@
+package grid.capstone.repository;
+
+import grid.capstone.model.AppointmentSeries;
+import grid.capstone.model.CalendarEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queries only narrow the series down to the ones whose range covers
+ * the window, whether an occurrence actually falls on a given day is
+ * decided by {@link AppointmentSeries#occursOn(LocalDate)}.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+public interface AppointmentSeriesRepository extends JpaRepository<AppointmentSeries, Long> {
+
+    @Query("""
+            SELECT s FROM AppointmentSeries s
+            WHERE (s.doctor.id = :doctorId OR s.patient.id = :patientId)
+              AND s.startDate <= :to AND s.endDate >= :from
+              AND s.startTime < :endTime AND s.endTime > :startTime
+            """)
+    List<AppointmentSeries> findOverlapping(@Param("doctorId") Long doctorId,
+                                            @Param("patientId") Long patientId,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to,
+                                            @Param("startTime") LocalTime startTime,
+                                            @Param("endTime") LocalTime endTime);
+
+    @Query("""
+            SELECT s FROM AppointmentSeries s
+            WHERE s.doctor.id IN :doctorIds
+              AND s.startDate <= :to AND s.endDate >= :from
+            """)
+    List<AppointmentSeries> findDoctorsBetween(@Param("doctorIds") Collection<Long> doctorIds,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
+
+    @Query("""
+            SELECT s FROM AppointmentSeries s
+            WHERE s.patient.id IN :patientIds
+              AND s.startDate <= :to AND s.endDate >= :from
+            """)
+    List<AppointmentSeries> findPatientsBetween(@Param("patientIds") Collection<Long> patientIds,
+                                                @Param("from") LocalDate from,
+                                                @Param("to") LocalDate to);
+
+    @Query("""
+            SELECT s FROM AppointmentSeries s
+            WHERE (:doctorId IS NULL OR s.doctor.id = :doctorId)
+              AND (:patientId IS NULL OR s.patient.id = :patientId)
+              AND s.startDate <= :date AND s.endDate >= :date
+            ORDER BY s.startTime
+            """)
+    List<AppointmentSeries> findActiveOn(@Param("doctorId") Long doctorId,
+                                         @Param("patientId") Long patientId,
+                                         @Param("date") LocalDate date);
+
+    @Query("""
+            SELECT s FROM AppointmentSeries s
+            WHERE (:doctorId IS NULL OR s.doctor.id = :doctorId)
+              AND (:patientId IS NULL OR s.patient.id = :patientId)
+              AND s.startDate <= :to AND s.endDate >= :from
+            """)
+    List<AppointmentSeries> findActiveBetween(@Param("doctorId") Long doctorId,
+                                              @Param("patientId") Long patientId,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to);
+
+    /**
+     * The series running on the date whose occurrences start in
+     * [from, to), without checking that they occur on that date.
+     * Used to load upcoming reminders.
+     *
+     * @param date the date
+     * @param from earliest start, inclusive
+     * @param to latest start, exclusive, null for the end of the day
+     * @return the series
+     */
+    @Query("""
+            SELECT s FROM AppointmentSeries s
+            WHERE s.startDate <= :date AND s.endDate >= :date
+              AND s.startTime >= :from
+              AND (:to IS NULL OR s.startTime < :to)
+            ORDER BY s.id
+            """)
+    List<AppointmentSeries> findStartingBetween(@Param("date") LocalDate date,
+                                                @Param("from") LocalTime from,
+                                                @Param("to") LocalTime to);
+
+    @Query("SELECT s FROM AppointmentSeries s JOIN FETCH s.doctor JOIN FETCH s.patient WHERE s.id IN :ids")
+    List<AppointmentSeries> findWithPeopleByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            SELECT s FROM AppointmentSeries s
+            WHERE (:doctorId IS NULL OR s.doctor.id = :doctorId)
+              AND (:patientId IS NULL OR s.patient.id = :patientId)
+            ORDER BY s.startDate, s.startTime
+            """)
+    List<AppointmentSeries> findAllFor(@Param("doctorId") Long doctorId,
+                                       @Param("patientId") Long patientId);
+
+    @Query("""
+            SELECT new grid.capstone.model.CalendarEntry(
+                s.id, s.startDate, s.startTime, s.endTime, s.reason, d.name, p.name,
+                s.frequency, s.intervalCount, s.endDate)
+            FROM AppointmentSeries s JOIN s.doctor d JOIN s.patient p
+            WHERE (:doctorId IS NULL OR d.id = :doctorId)
+              AND (:patientId IS NULL OR p.id = :patientId)
+            ORDER BY s.startDate, s.startTime
+            """)
+    List<CalendarEntry> findCalendarFor(@Param("doctorId") Long doctorId,
+                                        @Param("patientId") Long patientId);
+
+}
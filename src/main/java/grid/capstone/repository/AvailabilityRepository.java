@@ -1,9 +1,15 @@
 package grid.capstone.repository;
 
 import grid.capstone.model.Availability;
+import grid.capstone.model.AvailabilityWindow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * @author Javaughn Stephenson
  * @since 15/06/2023
@@ -11,4 +17,13 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AvailabilityRepository extends JpaRepository<Availability, Long> {
+
+    @Query("""
+            SELECT new grid.capstone.model.AvailabilityWindow(
+                av.doctor.id, av.dayOfWeek, av.startTime, av.endTime)
+            FROM Availability av
+            WHERE av.doctor.id IN :doctorIds
+            """)
+    List<AvailabilityWindow> findWindowsByDoctorIds(@Param("doctorIds") Collection<Long> doctorIds);
+
 }
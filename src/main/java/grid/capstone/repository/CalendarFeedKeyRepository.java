@@ -0,0 +1,47 @@
+package grid.capstone.repository;
+
+import grid.capstone.model.Role;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to the keys of the calendar feeds, by the hash of the
+ * key and the account it was made for.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class CalendarFeedKeyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    //Replaces the account's key, the old one stops working
+    public void save(Role ownerRole, Long ownerId, String keyHash) {
+        jdbcTemplate.update("""
+                        INSERT INTO calendar_feed_key (owner_role, owner_id, key_hash) VALUES (?, ?, ?)
+                        ON CONFLICT (owner_role, owner_id) DO UPDATE SET key_hash = excluded.key_hash, created_at = now()
+                        """,
+                ownerRole.name(), ownerId, keyHash
+        );
+    }
+
+    public boolean exists(Role ownerRole, Long ownerId, String keyHash) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM calendar_feed_key WHERE owner_role = ? AND owner_id = ? AND key_hash = ?)",
+                Boolean.class, ownerRole.name(), ownerId, keyHash
+        ));
+    }
+
+    public int delete(Role ownerRole, Long ownerId) {
+        return jdbcTemplate.update(
+                "DELETE FROM calendar_feed_key WHERE owner_role = ? AND owner_id = ?",
+                ownerRole.name(), ownerId
+        );
+    }
+
+}
@@ -0,0 +1,52 @@
+package grid.capstone.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Fingerprints the appointments and series of a calendar, so a
+ * client holding the current version can be answered without
+ * streaming the calendar again.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class CalendarVersionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    /**
+     * Sums a hash of each appointment's id and last change, and of
+     * each series' id. Unlike the latest change, the sum moves when
+     * a transaction which started earlier commits later, as
+     * updated_at is the start of the transaction writing the row.
+     * Series are never updated in place, so their ids are enough.
+     *
+     * @param doctorId id of the doctor, null for any
+     * @param patientId id of the patient, null for any
+     * @return the fingerprint, equal as long as the calendar is
+     */
+    public String findVersion(Long doctorId, Long patientId) {
+        return jdbcTemplate.queryForObject("""
+                        SELECT concat_ws('|',
+                            (SELECT count(*) || ':' || coalesce(sum(hashtext(id || '@' || updated_at)), 0)
+                             FROM appointment
+                             WHERE (?::bigint IS NULL OR doctor_id = ?::bigint)
+                               AND (?::bigint IS NULL OR patient_id = ?::bigint)),
+                            (SELECT count(*) || ':' || coalesce(sum(hashtext(id::text)), 0)
+                             FROM appointment_series
+                             WHERE (?::bigint IS NULL OR doctor_id = ?::bigint)
+                               AND (?::bigint IS NULL OR patient_id = ?::bigint)))
+                        """,
+                String.class,
+                doctorId, doctorId, patientId, patientId,
+                doctorId, doctorId, patientId, patientId
+        );
+    }
+
+}
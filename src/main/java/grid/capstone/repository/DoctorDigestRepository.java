@@ -0,0 +1,128 @@
+package grid.capstone.repository;
+
+import grid.capstone.model.DigestLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Reads and moves forward the doctors' digests. A doctor is due a
+ * digest while {@code digest_sent_until} is set, which it is from
+ * opting in until the digest following opting out.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class DoctorDigestRepository {
+
+    //Advisory lock key, apart from the ones taken by bookings
+    private static final int DIGEST = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    /**
+     * Turns the digest of the doctor on or off. Turning it on starts
+     * the digest from now, turning it off keeps what is still to be
+     * sent in the next one.
+     *
+     * @param doctorId id of the doctor
+     * @param enabled true to get digests
+     * @return false if there is no such doctor
+     */
+    public boolean setEnabled(Long doctorId, boolean enabled) {
+        return jdbcTemplate.update("""
+                        UPDATE doctor
+                        SET digest_enabled = ?,
+                            digest_sent_until = CASE WHEN ? THEN COALESCE(digest_sent_until, localtimestamp) ELSE digest_sent_until END
+                        WHERE id = ?
+                        """,
+                enabled, enabled, doctorId
+        ) > 0;
+    }
+
+    /**
+     * Takes the digest lock for the surrounding transaction,
+     * without waiting for it.
+     *
+     * @return false if another instance holds it
+     */
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?, 0)", Boolean.class, DIGEST));
+    }
+
+    /**
+     * How far the next digests go: the database's clock less the
+     * settle time, so bookings which were still being committed
+     * when a digest was read make it into the next one.
+     *
+     * @param settle how long bookings are given to commit
+     * @return the end of the digests, exclusive of later changes
+     */
+    public LocalDateTime until(Duration settle) {
+        return jdbcTemplate.queryForObject(
+                "SELECT localtimestamp - ? * INTERVAL '1 millisecond'", LocalDateTime.class, settle.toMillis());
+    }
+
+    /**
+     * Every appointment changed since the last digest of its doctor,
+     * for all the doctors due a digest, in one query. Lines of a
+     * doctor are next to each other, in schedule order.
+     *
+     * @param until end of the digests, inclusive
+     * @return the lines of all the digests
+     */
+    public List<DigestLine> findLines(LocalDateTime until) {
+        return jdbcTemplate.query("""
+                        SELECT d.id AS doctor_id, d.name AS doctor_name, d.email AS doctor_email,
+                               a.appointment_date, a.start_time, a.end_time, p.name AS patient_name, a.reason
+                        FROM doctor d
+                        JOIN appointment a ON a.doctor_id = d.id
+                        JOIN patient p ON p.id = a.patient_id
+                        WHERE d.digest_sent_until IS NOT NULL
+                          AND d.email IS NOT NULL
+                          AND a.updated_at > d.digest_sent_until
+                          AND a.updated_at <= ?
+                        ORDER BY d.id, a.appointment_date, a.start_time
+                        """,
+                (resultSet, rowNum) -> DigestLine.builder()
+                        .doctorId(resultSet.getLong("doctor_id"))
+                        .doctorName(resultSet.getString("doctor_name"))
+                        .doctorEmail(resultSet.getString("doctor_email"))
+                        .date(resultSet.getObject("appointment_date", LocalDate.class))
+                        .startTime(resultSet.getObject("start_time", LocalTime.class))
+                        .endTime(resultSet.getObject("end_time", LocalTime.class))
+                        .patientName(resultSet.getString("patient_name"))
+                        .reason(resultSet.getString("reason"))
+                        .build(),
+                until
+        );
+    }
+
+    /**
+     * Marks the digests up to {@code until} as sent. Doctors who opted
+     * out are done with digests after this one.
+     *
+     * @param until end of the digests which were sent
+     */
+    public void markSent(LocalDateTime until) {
+        jdbcTemplate.update("""
+                        UPDATE doctor
+                        SET digest_sent_until = CASE WHEN digest_enabled THEN ? END
+                        WHERE digest_sent_until < ?
+                        """,
+                until, until
+        );
+    }
+
+}
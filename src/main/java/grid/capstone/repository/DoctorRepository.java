@@ -1,10 +1,15 @@
 package grid.capstone.repository;
 
+import grid.capstone.model.Contact;
 import grid.capstone.model.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,7 +18,9 @@ import java.util.Optional;
  */
 
 @Repository
-public interface DoctorRepository extends JpaRepository<Doctor, Long>, JpaSpecificationExecutor<Doctor> {
+public interface DoctorRepository extends JpaRepository<Doctor, Long>, JpaSpecificationExecutor<Doctor>, DoctorRepositoryCustom {
     Optional<Doctor> findByEmail(String email);
-    boolean existsByEmail(String email);
+
+    @Query("SELECT new grid.capstone.model.Contact(d.id, d.name, d.email, d.digestEnabled) FROM Doctor d WHERE d.id IN :ids")
+    List<Contact> findContacts(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,24 @@
+package grid.capstone.repository;
+
+import grid.capstone.model.Doctor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public interface DoctorRepositoryCustom {
+
+    /**
+     * Selects only the ids of the doctors matching the specification,
+     * so the doctors and their eager availabilities are not loaded.
+     *
+     * @param specification doctor specification
+     * @return ids of the matching doctors
+     */
+    List<Long> findIds(Specification<Doctor> specification);
+
+}
@@ -0,0 +1,114 @@
+package grid.capstone.repository;
+
+import grid.capstone.dto.v1.DoctorDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Searches the doctor directory. On Postgres the search runs against
+ * the {@code search_vector} column and its GIN index, ranked so that
+ * matches on the name or specialization come before matches on skills
+ * and those before the biography. Databases without full text search,
+ * like the H2 tests run on, get a plain substring match instead,
+ * chosen with {@code doctor.search.full-text}.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+public class DoctorSearchRepository {
+
+    //Words past these are ignored by the substring match, each one adds a scan of four columns
+    private static final int MAX_TERMS = 5;
+
+    private static final RowMapper<DoctorDTO> DOCTOR = (rs, rowNum) -> DoctorDTO.builder()
+            .id(rs.getLong("id"))
+            .name(rs.getString("name"))
+            .department(rs.getString("department"))
+            .biography(rs.getString("biography"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean fullText;
+
+    public DoctorSearchRepository(JdbcTemplate jdbcTemplate,
+                                  @Value("${doctor.search.full-text:true}") boolean fullText) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fullText = fullText;
+    }
+
+
+    /**
+     * Finds the doctors matching the text, best match first.
+     *
+     * @param text what the user typed, quotes, or and - work as in web search engines
+     * @param limit maximum number of doctors
+     * @param offset number of doctors to skip
+     * @return the matching doctors
+     */
+    public List<DoctorDTO> search(String text, int limit, int offset) {
+        return fullText
+                ? searchFullText(text, limit, offset)
+                : searchSubstrings(text, limit, offset);
+    }
+
+
+    private List<DoctorDTO> searchFullText(String text, int limit, int offset) {
+        return jdbcTemplate.query("""
+                        SELECT d.id, d.name, d.department, d.biography
+                        FROM doctor d, websearch_to_tsquery('english', ?) query
+                        WHERE d.search_vector @@ query
+                        ORDER BY ts_rank_cd(d.search_vector, query) DESC, d.id
+                        LIMIT ? OFFSET ?
+                        """,
+                DOCTOR,
+                text, limit, offset
+        );
+    }
+
+    //Every word has to be found in one of the columns
+    private List<DoctorDTO> searchSubstrings(String text, int limit, int offset) {
+        String[] terms = Arrays.stream(text.toLowerCase(Locale.ROOT).split("\\s+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .toArray(String[]::new);
+
+        StringBuilder sql = new StringBuilder("SELECT d.id, d.name, d.department, d.biography FROM doctor d WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+
+        for (String term : terms) {
+            sql.append("""
+                     AND (lower(d.name) LIKE ? ESCAPE '\\'
+                      OR lower(d.specialization) LIKE ? ESCAPE '\\'
+                      OR lower(CAST(d.skills AS VARCHAR)) LIKE ? ESCAPE '\\'
+                      OR lower(d.biography) LIKE ? ESCAPE '\\')
+                    """);
+
+            String pattern = "%" + escape(term) + "%";
+            for (int i = 0; i < 4; i++) {
+                args.add(pattern);
+            }
+        }
+
+        sql.append(" ORDER BY d.name, d.id LIMIT ? OFFSET ?");
+        args.add(limit);
+        args.add(offset);
+
+        return jdbcTemplate.query(sql.toString(), DOCTOR, args.toArray());
+    }
+
+    private static String escape(String term) {
+        return term.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+}
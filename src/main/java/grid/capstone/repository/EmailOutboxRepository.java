@@ -0,0 +1,160 @@
+package grid.capstone.repository;
+
+import grid.capstone.model.OutboxEmail;
+import grid.capstone.model.OutboxStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC access to the email outbox. Writes join the caller's
+ * transaction, so an email is only queued if the change it
+ * announces is committed.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class EmailOutboxRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    /**
+     * Queues the emails. One whose dedupe key is already in the outbox
+     * is left out, whoever queued the other one.
+     *
+     * @param emails emails to queue
+     */
+    public void enqueueAll(Collection<OutboxEmail> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO email_outbox (recipient, subject, body, dedupe_key) VALUES (?, ?, ?, ?)
+                        ON CONFLICT (dedupe_key) DO NOTHING
+                        """,
+                emails,
+                BATCH_SIZE,
+                (statement, email) -> {
+                    statement.setString(1, email.getRecipient());
+                    statement.setString(2, email.getSubject());
+                    statement.setString(3, email.getBody());
+                    statement.setString(4, email.getDedupeKey());
+                }
+        );
+    }
+
+    /**
+     * Claims up to {@code limit} due emails in a single statement.
+     * Rows locked by another dispatcher are skipped instead of waited
+     * on, and claimed rows are leased: they are not due again until
+     * the lease runs out, which is how emails claimed by an instance
+     * that died get picked up again.
+     *
+     * @param limit maximum number of emails
+     * @param lease how long the emails are reserved for this caller
+     * @return the claimed emails, with the attempt being made counted
+     */
+    public List<OutboxEmail> claimDue(int limit, Duration lease) {
+        return jdbcTemplate.query("""
+                        UPDATE email_outbox
+                        SET attempts = attempts + 1,
+                            next_attempt_at = now() + (? * INTERVAL '1 millisecond')
+                        WHERE id IN (
+                            SELECT id FROM email_outbox
+                            WHERE status = ? AND next_attempt_at <= now()
+                            ORDER BY next_attempt_at
+                            LIMIT ?
+                            FOR UPDATE SKIP LOCKED
+                        )
+                        RETURNING id, recipient, subject, body, attempts,
+                            (EXTRACT(EPOCH FROM (clock_timestamp() - created_at)) * 1000)::BIGINT AS queued_millis
+                        """,
+                (resultSet, rowNum) -> OutboxEmail.builder()
+                        .id(resultSet.getLong("id"))
+                        .recipient(resultSet.getString("recipient"))
+                        .subject(resultSet.getString("subject"))
+                        .body(resultSet.getString("body"))
+                        .attempts(resultSet.getInt("attempts"))
+                        .queuedMillis(resultSet.getLong("queued_millis"))
+                        .build(),
+                lease.toMillis(),
+                OutboxStatus.PENDING.name(),
+                limit
+        );
+    }
+
+    public void markSent(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE email_outbox SET status = ?, sent_at = now(), last_error = NULL WHERE id = ?",
+                ids,
+                BATCH_SIZE,
+                (statement, id) -> {
+                    statement.setString(1, OutboxStatus.SENT.name());
+                    statement.setLong(2, id);
+                }
+        );
+    }
+
+    /**
+     * Hands claimed emails back to the outbox without counting the
+     * attempt, for emails which could not even be tried.
+     *
+     * @param ids ids of the emails
+     */
+    public void release(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE email_outbox SET attempts = attempts - 1, next_attempt_at = now() WHERE id = ?",
+                ids,
+                BATCH_SIZE,
+                (statement, id) -> statement.setLong(1, id)
+        );
+    }
+
+    public void reschedule(Long id, Duration delay, String error) {
+        jdbcTemplate.update(
+                "UPDATE email_outbox SET next_attempt_at = now() + (? * INTERVAL '1 millisecond'), last_error = ? WHERE id = ?",
+                delay.toMillis(), error, id
+        );
+    }
+
+    public void markDead(Long id, String error) {
+        jdbcTemplate.update(
+                "UPDATE email_outbox SET status = ?, dead_at = now(), last_error = ? WHERE id = ?",
+                OutboxStatus.DEAD.name(), error, id
+        );
+    }
+
+    public int deleteSentBefore(Duration age) {
+        return jdbcTemplate.update(
+                "DELETE FROM email_outbox WHERE status = ? AND sent_at < now() - (? * INTERVAL '1 millisecond')",
+                OutboxStatus.SENT.name(), age.toMillis()
+        );
+    }
+
+    public int deleteDeadBefore(Duration age) {
+        return jdbcTemplate.update(
+                "DELETE FROM email_outbox WHERE status = ? AND dead_at < now() - (? * INTERVAL '1 millisecond')",
+                OutboxStatus.DEAD.name(), age.toMillis()
+        );
+    }
+
+}
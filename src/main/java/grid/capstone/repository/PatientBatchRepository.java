@@ -0,0 +1,117 @@
+package grid.capstone.repository;
+
+import grid.capstone.model.Patient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Writes patients straight through JDBC, a chunk of rows per
+ * statement, bypassing the persistence context, for imports of
+ * thousands of rows.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class PatientBatchRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    /**
+     * Finds which of the emails already have a patient, in one query
+     * served by the unique index on lower(email).
+     *
+     * @param emails emails in lower case
+     * @return the ones taken, in lower case
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+
+        return new HashSet<>(jdbcTemplate.query(
+                "SELECT lower(email) FROM patient WHERE lower(email) = ANY(?)",
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("text", emails.toArray())),
+                (rs, rowNum) -> rs.getString(1)
+        ));
+    }
+
+    /**
+     * Inserts patients whose password is already hashed. A patient
+     * whose email was taken in the meantime is left out.
+     *
+     * @param patients the patients to insert
+     * @return how many were inserted
+     */
+    public int insertAll(List<Patient> patients) {
+        int inserted = 0;
+
+        for (int from = 0; from < patients.size(); from += BATCH_SIZE) {
+            inserted += insertChunk(patients.subList(from, Math.min(from + BATCH_SIZE, patients.size())));
+        }
+
+        return inserted;
+    }
+
+
+    /*
+    One statement per chunk with a column of values per array. Only the
+    rows which were inserted come back, so rows skipped by ON CONFLICT
+    aren't counted, which a batch can't tell once the driver rewrites it
+     */
+    private int insertChunk(List<Patient> patients) {
+        return jdbcTemplate.query("""
+                        INSERT INTO patient
+                            (name, address, phone_number, email, age, blood_group, religion, occupation,
+                             gender, marital_status, description, role, password, doctor_id)
+                        SELECT * FROM unnest(
+                            ?::text[], ?::text[], ?::text[], ?::text[], ?::int[], ?::text[], ?::text[], ?::text[],
+                            ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::bigint[])
+                        ON CONFLICT DO NOTHING
+                        RETURNING 1
+                        """,
+                statement -> {
+                    Connection connection = statement.getConnection();
+
+                    statement.setArray(1, connection.createArrayOf("text", column(patients, Patient::getName)));
+                    statement.setArray(2, connection.createArrayOf("text", column(patients, Patient::getAddress)));
+                    statement.setArray(3, connection.createArrayOf("text", column(patients, Patient::getPhoneNumber)));
+                    statement.setArray(4, connection.createArrayOf("text", column(patients, Patient::getEmail)));
+                    statement.setArray(5, connection.createArrayOf("int4", column(patients, Patient::getAge)));
+                    statement.setArray(6, connection.createArrayOf("text", column(patients, Patient::getBloodGroup)));
+                    statement.setArray(7, connection.createArrayOf("text", column(patients, Patient::getReligion)));
+                    statement.setArray(8, connection.createArrayOf("text", column(patients, Patient::getOccupation)));
+                    statement.setArray(9, connection.createArrayOf("text", column(patients,
+                            patient -> patient.getGender() == null ? null : patient.getGender().toString())));
+                    statement.setArray(10, connection.createArrayOf("text", column(patients, Patient::getMaritalStatus)));
+                    statement.setArray(11, connection.createArrayOf("text", column(patients, Patient::getDescription)));
+                    statement.setArray(12, connection.createArrayOf("text", column(patients, patient -> patient.getRole().name())));
+                    statement.setArray(13, connection.createArrayOf("text", column(patients, Patient::getPassword)));
+                    //The column is a serial, leaving it out would fill it from its sequence
+                    statement.setArray(14, connection.createArrayOf("int8", column(patients,
+                            patient -> patient.getDoctor() == null ? null : patient.getDoctor().getId())));
+                },
+                (rs, rowNum) -> 1
+        ).size();
+    }
+
+    private static Object[] column(List<Patient> patients, Function<Patient, ?> value) {
+        return patients.stream()
+                .map(value)
+                .toArray();
+    }
+
+}
@@ -0,0 +1,97 @@
+package grid.capstone.repository;
+
+import grid.capstone.dto.v1.PatientImportDTO;
+import grid.capstone.model.ImportStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Keeps the progress of bulk patient imports.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class PatientImportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    /**
+     * Records a new import, queued.
+     *
+     * @param doctorId doctor the patients are assigned to, may be null
+     * @return the import
+     */
+    public PatientImportDTO create(Long doctorId) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO patient_import (doctor_id) VALUES (?)
+                        RETURNING id, status, doctor_id, read_rows, created, duplicates, existing, invalid,
+                                  error, created_at, updated_at
+                        """,
+                (rs, rowNum) -> map(rs),
+                doctorId
+        );
+    }
+
+    public Optional<PatientImportDTO> findById(Long id) {
+        return jdbcTemplate.query("""
+                                SELECT id, status, doctor_id, read_rows, created, duplicates, existing, invalid,
+                                       error, created_at, updated_at
+                                FROM patient_import
+                                WHERE id = ?
+                                """,
+                        (rs, rowNum) -> map(rs),
+                        id
+                ).stream()
+                .findFirst();
+    }
+
+    /**
+     * Saves the status and counts of the import.
+     *
+     * @param progress the import as it is now
+     */
+    public void update(PatientImportDTO progress) {
+        jdbcTemplate.update("""
+                        UPDATE patient_import
+                        SET status = ?, read_rows = ?, created = ?, duplicates = ?, existing = ?, invalid = ?,
+                            error = ?, updated_at = now()
+                        WHERE id = ?
+                        """,
+                progress.getStatus().name(),
+                progress.getRead(),
+                progress.getCreated(),
+                progress.getDuplicates(),
+                progress.getExisting(),
+                progress.getInvalid(),
+                progress.getError(),
+                progress.getId()
+        );
+    }
+
+
+    private static PatientImportDTO map(ResultSet rs) throws SQLException {
+        return PatientImportDTO.builder()
+                .id(rs.getLong("id"))
+                .status(ImportStatus.valueOf(rs.getString("status")))
+                .doctorId(rs.getObject("doctor_id", Long.class))
+                .read(rs.getInt("read_rows"))
+                .created(rs.getInt("created"))
+                .duplicates(rs.getInt("duplicates"))
+                .existing(rs.getInt("existing"))
+                .invalid(rs.getInt("invalid"))
+                .error(rs.getString("error"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                .build();
+    }
+
+}
@@ -1,9 +1,13 @@
 package grid.capstone.repository;
 
+import grid.capstone.model.Contact;
 import grid.capstone.model.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,5 +21,6 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     List<Patient> findAllByDoctorId(Long doctorId);
     Optional<Patient> findByEmail(String email);
 
-    boolean existsByEmail(String email);
+    @Query("SELECT new grid.capstone.model.Contact(p.id, p.name, p.email) FROM Patient p WHERE p.id IN :ids")
+    List<Contact> findContacts(@Param("ids") Collection<Long> ids);
 }
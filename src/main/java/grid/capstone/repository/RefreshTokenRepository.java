@@ -0,0 +1,70 @@
+package grid.capstone.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * JDBC access to the refresh tokens, by the hash of the token.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class RefreshTokenRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    public void save(String tokenHash, String email, Duration ttl) {
+        jdbcTemplate.update(
+                "INSERT INTO refresh_token (token_hash, email, expires_at) VALUES (?, ?, localtimestamp + ? * INTERVAL '1 second')",
+                tokenHash, email, ttl.toSeconds()
+        );
+    }
+
+    /**
+     * Uses the token up, in one statement, so of two requests
+     * presenting the same token only one gets its email back.
+     * Tokens issued before their account was revoked are refused,
+     * for as long as the revocation is kept; {@link #revokeAll} makes
+     * that permanent.
+     *
+     * @param tokenHash hash of the token
+     * @return the email of the account, empty if the token is
+     * unknown, expired, already used or its account was revoked since
+     */
+    public Optional<String> consume(String tokenHash) {
+        return jdbcTemplate.queryForList("""
+                        UPDATE refresh_token
+                        SET revoked_at = localtimestamp
+                        WHERE token_hash = ? AND revoked_at IS NULL AND expires_at > localtimestamp
+                          AND NOT EXISTS (
+                              SELECT 1 FROM revoked_account
+                              WHERE revoked_account.email = refresh_token.email
+                                AND revoked_account.revoked_at >= refresh_token.created_at
+                          )
+                        RETURNING email
+                        """,
+                String.class, tokenHash
+        ).stream().findFirst();
+    }
+
+    //Revokes every unused token of the account, outliving the revoked_account row
+    public int revokeAll(String email) {
+        return jdbcTemplate.update(
+                "UPDATE refresh_token SET revoked_at = localtimestamp WHERE email = ? AND revoked_at IS NULL",
+                email
+        );
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM refresh_token WHERE expires_at < localtimestamp");
+    }
+
+}
@@ -0,0 +1,60 @@
+package grid.capstone.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC access to the accounts whose tokens issued up to a moment
+ * are revoked, by their email.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class RevokedAccountRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    //Revoking an account again moves the moment forward
+    public LocalDateTime revoke(String email) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO revoked_account (email) VALUES (?)
+                        ON CONFLICT (email) DO UPDATE SET revoked_at = clock_timestamp()
+                        RETURNING revoked_at
+                        """,
+                LocalDateTime.class, email
+        );
+    }
+
+    //Accounts revoked at or after the time, with when they were revoked
+    public Map<String, LocalDateTime> findRevokedSince(LocalDateTime since) {
+        Map<String, LocalDateTime> revoked = new HashMap<>();
+
+        jdbcTemplate.query(
+                "SELECT email, revoked_at FROM revoked_account WHERE revoked_at >= ?",
+                rs -> {
+                    revoked.put(rs.getString(1), rs.getObject(2, LocalDateTime.class));
+                },
+                since
+        );
+
+        return revoked;
+    }
+
+    public int deleteRevokedBefore(Duration age) {
+        return jdbcTemplate.update(
+                "DELETE FROM revoked_account WHERE revoked_at < localtimestamp - ? * INTERVAL '1 second'",
+                age.toSeconds()
+        );
+    }
+
+}
@@ -0,0 +1,58 @@
+package grid.capstone.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * JDBC access to the access tokens revoked before their expiry,
+ * by their jti.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class RevokedTokenRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    public void revoke(String jti, Instant expiresAt) {
+        jdbcTemplate.update(
+                "INSERT INTO revoked_token (jti, expires_at) VALUES (?, ?) ON CONFLICT (jti) DO NOTHING",
+                jti, LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault())
+        );
+    }
+
+    public boolean exists(String jti) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM revoked_token WHERE jti = ?)", Boolean.class, jti));
+    }
+
+    public LocalDateTime now() {
+        return jdbcTemplate.queryForObject("SELECT localtimestamp", LocalDateTime.class);
+    }
+
+    //Tokens revoked at or after the time, whether or not they have expired since
+    public List<String> findRevokedSince(LocalDateTime since) {
+        return jdbcTemplate.queryForList(
+                "SELECT jti FROM revoked_token WHERE revoked_at >= ?", String.class, since);
+    }
+
+    public List<String> findUnexpired() {
+        return jdbcTemplate.queryForList(
+                "SELECT jti FROM revoked_token WHERE expires_at > localtimestamp", String.class);
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM revoked_token WHERE expires_at < localtimestamp");
+    }
+
+}
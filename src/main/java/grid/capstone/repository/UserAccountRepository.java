@@ -0,0 +1,71 @@
+package grid.capstone.repository;
+
+import grid.capstone.model.Role;
+import grid.capstone.model.UserAccount;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Looks accounts up in the {@code user_account} view, doctors and
+ * patients alike.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class UserAccountRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    /**
+     * Finds the account with the email in one query, ignoring case
+     * as the unique indexes on email do. A doctor wins over a patient
+     * with the same email, as it did when the two tables were probed
+     * one after the other.
+     *
+     * @param email the email of the account
+     * @return the account, empty if there is none
+     */
+    public Optional<UserAccount> findByEmail(String email) {
+        return jdbcTemplate.query("""
+                                SELECT user_id, email, password, role
+                                FROM user_account
+                                WHERE lower(email) = lower(?)
+                                ORDER BY role
+                                LIMIT 1
+                                """,
+                        (rs, rowNum) -> UserAccount.builder()
+                                .id(rs.getLong("user_id"))
+                                .email(rs.getString("email"))
+                                .password(rs.getString("password"))
+                                .role(Role.valueOf(rs.getString("role")))
+                                .build(),
+                        email
+                ).stream()
+                .findFirst();
+    }
+
+    /**
+     * Replaces the password hash of the account, in the table the
+     * account is kept in.
+     *
+     * @param account the account
+     * @param password the new hash
+     * @return false if the account no longer exists
+     */
+    public boolean updatePassword(UserAccount account, String password) {
+        String sql = switch (account.getRole()) {
+            case ROLE_DOCTOR -> "UPDATE doctor SET password = ? WHERE id = ?";
+            case ROLE_PATIENT -> "UPDATE patient SET password = ? WHERE id = ?";
+        };
+
+        return jdbcTemplate.update(sql, password, account.getId()) > 0;
+    }
+
+}
@@ -0,0 +1,26 @@
+package grid.capstone.service.appointment;
+
+import grid.capstone.dto.v1.AppointmentDTO;
+import grid.capstone.dto.v1.BatchBookingResultDTO;
+import grid.capstone.exception.InvalidRequestException;
+
+import java.util.List;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public interface AppointmentBatchService {
+
+    /**
+     * Books a whole list of appointments at once. Every appointment
+     * is accepted or rejected on its own; earlier appointments in
+     * the list win conflicts against later ones.
+     *
+     * @param appointmentDTOs the appointments to book
+     * @return one result per appointment, in request order
+     * @throws InvalidRequestException when the batch is empty or too large
+     */
+    List<BatchBookingResultDTO> createAppointments(List<AppointmentDTO> appointmentDTOs);
+}
@@ -0,0 +1,371 @@
+package grid.capstone.service.appointment;
+
+import grid.capstone.dto.v1.AppointmentDTO;
+import grid.capstone.dto.v1.BatchBookingResultDTO;
+import grid.capstone.dto.v1.BatchBookingResultDTO.Status;
+import grid.capstone.exception.InvalidRequestException;
+import grid.capstone.mapper.AppointmentMapper;
+import grid.capstone.model.Appointment;
+import grid.capstone.model.BookedInterval;
+import grid.capstone.model.Contact;
+import grid.capstone.model.Doctor;
+import grid.capstone.model.OutboxEmail;
+import grid.capstone.model.Patient;
+import grid.capstone.repository.AppointmentBatchRepository;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import grid.capstone.repository.DoctorRepository;
+import grid.capstone.repository.PatientRepository;
+import grid.capstone.service.mail.EmailService;
+import grid.capstone.service.reminder.ReminderScheduler;
+import grid.capstone.service.schedule.ScheduleIndex;
+import grid.capstone.service.schedule.ScheduleIndex.Party;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Service
+public class AppointmentBatchServiceImpl implements AppointmentBatchService {
+
+    private record Candidate(int index, Appointment appointment) {
+    }
+
+    private record DayKey(Party party, Long ownerId, LocalDate date) {
+    }
+
+
+    private final AppointmentMapper appointmentMapper;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentBatchRepository appointmentBatchRepository;
+    private final AppointmentSeriesRepository appointmentSeriesRepository;
+    private final BookingLock bookingLock;
+    private final ScheduleIndex scheduleIndex;
+    private final EmailService emailService;
+    private final ReminderScheduler reminderScheduler;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxSize;
+
+    public AppointmentBatchServiceImpl(AppointmentMapper appointmentMapper,
+                                       DoctorRepository doctorRepository,
+                                       PatientRepository patientRepository,
+                                       AppointmentRepository appointmentRepository,
+                                       AppointmentBatchRepository appointmentBatchRepository,
+                                       AppointmentSeriesRepository appointmentSeriesRepository,
+                                       BookingLock bookingLock,
+                                       ScheduleIndex scheduleIndex,
+                                       EmailService emailService,
+                                       ReminderScheduler reminderScheduler,
+                                       Validator validator,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${appointment.batch.max-size:10000}") int maxSize) {
+        this.appointmentMapper = appointmentMapper;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentBatchRepository = appointmentBatchRepository;
+        this.appointmentSeriesRepository = appointmentSeriesRepository;
+        this.bookingLock = bookingLock;
+        this.scheduleIndex = scheduleIndex;
+        this.emailService = emailService;
+        this.reminderScheduler = reminderScheduler;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.maxSize = maxSize;
+    }
+
+
+    @Override
+    public List<BatchBookingResultDTO> createAppointments(List<AppointmentDTO> appointmentDTOs) {
+        if (appointmentDTOs == null || appointmentDTOs.isEmpty()) {
+            throw new InvalidRequestException("The batch has no appointments");
+        }
+
+        if (appointmentDTOs.size() > maxSize) {
+            throw new InvalidRequestException("A batch can have at most " + maxSize + " appointments");
+        }
+
+        BatchBookingResultDTO[] results = new BatchBookingResultDTO[appointmentDTOs.size()];
+
+        //Everything which can be rejected without the database is rejected first
+        List<Candidate> valid = validate(appointmentDTOs, results);
+
+        //Two queries for every doctor and patient in the batch, instead of two per appointment
+        Map<Long, Contact> doctors = contacts(valid, appointment -> appointment.getDoctor().getId(),
+                doctorRepository::findContacts);
+        Map<Long, Contact> patients = contacts(valid, appointment -> appointment.getPatient().getId(),
+                patientRepository::findContacts);
+
+        List<Candidate> bookable = rejectUnknown(valid, doctors, patients, results);
+
+        List<Appointment> booked = bookable.isEmpty()
+                ? List.of()
+                : transactionTemplate.execute(status -> {
+                    List<Appointment> saved = book(bookable, results);
+                    //Queued with the rows, so emails only go out for appointments which are committed
+                    emailService.queue(emails(saved, doctors, patients));
+                    return saved;
+                });
+
+        //Only once the rows are committed
+        booked.forEach(appointment -> scheduleIndex.record(appointment, null));
+        booked.forEach(reminderScheduler::schedule);
+
+        return Arrays.asList(results);
+    }
+
+
+    private List<Candidate> validate(List<AppointmentDTO> appointmentDTOs, BatchBookingResultDTO[] results) {
+        List<Candidate> candidates = new ArrayList<>(appointmentDTOs.size());
+
+        for (int i = 0; i < appointmentDTOs.size(); i++) {
+            AppointmentDTO appointmentDTO = appointmentDTOs.get(i);
+
+            if (appointmentDTO == null) {
+                results[i] = result(i, Status.INVALID, "Appointment is required");
+                continue;
+            }
+
+            Set<ConstraintViolation<AppointmentDTO>> violations = validator.validate(appointmentDTO);
+
+            if (!violations.isEmpty()) {
+                results[i] = result(i, Status.INVALID, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            } else if (!appointmentDTO.getStartTime().isBefore(appointmentDTO.getEndTime())) {
+                results[i] = result(i, Status.INVALID, "Start time must be before end time");
+            } else {
+                candidates.add(new Candidate(i, appointmentMapper.toEntity(appointmentDTO)));
+            }
+        }
+
+        return candidates;
+    }
+
+    private static Map<Long, Contact> contacts(List<Candidate> candidates,
+                                               Function<Appointment, Long> idOf,
+                                               Function<Collection<Long>, List<Contact>> finder) {
+        Set<Long> ids = candidates.stream()
+                .map(candidate -> idOf.apply(candidate.appointment()))
+                .collect(Collectors.toSet());
+
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        return finder.apply(ids).stream()
+                .collect(Collectors.toMap(Contact::getId, Function.identity()));
+    }
+
+    private static List<Candidate> rejectUnknown(List<Candidate> candidates,
+                                                 Map<Long, Contact> doctors,
+                                                 Map<Long, Contact> patients,
+                                                 BatchBookingResultDTO[] results) {
+        List<Candidate> known = new ArrayList<>(candidates.size());
+
+        for (Candidate candidate : candidates) {
+            Long doctorId = candidate.appointment().getDoctor().getId();
+            Long patientId = candidate.appointment().getPatient().getId();
+
+            if (!doctors.containsKey(doctorId)) {
+                results[candidate.index()] = result(candidate.index(), Status.NOT_FOUND,
+                        "Doctor with id " + doctorId + " is not found");
+            } else if (!patients.containsKey(patientId)) {
+                results[candidate.index()] = result(candidate.index(), Status.NOT_FOUND,
+                        "Patient with id " + patientId + " is not found");
+            } else {
+                known.add(candidate);
+            }
+        }
+
+        return known;
+    }
+
+    /*
+    Runs inside the transaction: locks every day the batch touches,
+    loads what is already booked on those days in one query, then
+    walks the batch in order keeping each day's busy time merged,
+    so every appointment is checked in O(log n)
+     */
+    private List<Appointment> book(List<Candidate> candidates, BatchBookingResultDTO[] results) {
+        List<Appointment> appointments = candidates.stream()
+                .map(Candidate::appointment)
+                .toList();
+
+        bookingLock.lockAll(appointments);
+
+        Set<Long> doctorIds = appointments.stream()
+                .map(appointment -> appointment.getDoctor().getId())
+                .collect(Collectors.toSet());
+        Set<Long> patientIds = appointments.stream()
+                .map(appointment -> appointment.getPatient().getId())
+                .collect(Collectors.toSet());
+        LocalDate from = appointments.stream()
+                .map(Appointment::getAppointmentDate)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        LocalDate to = appointments.stream()
+                .map(Appointment::getAppointmentDate)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+
+        Map<DayKey, TreeMap<LocalTime, LocalTime>> busy = new HashMap<>();
+
+        List<BookedInterval> existing = new ArrayList<>(
+                appointmentRepository.findBookedBetween(doctorIds, patientIds, from, to));
+
+        //Series are expanded for the days of the batch only
+        appointmentSeriesRepository.findDoctorsBetween(doctorIds, from, to)
+                .forEach(series -> existing.addAll(series.intervalsBetween(from, to)));
+        appointmentSeriesRepository.findPatientsBetween(patientIds, from, to)
+                .forEach(series -> existing.addAll(series.intervalsBetween(from, to)));
+
+        for (BookedInterval interval : existing) {
+            if (doctorIds.contains(interval.getDoctorId())) {
+                occupy(busy, new DayKey(Party.DOCTOR, interval.getDoctorId(), interval.getDate()),
+                        interval.getStartTime(), interval.getEndTime());
+            }
+            if (patientIds.contains(interval.getPatientId())) {
+                occupy(busy, new DayKey(Party.PATIENT, interval.getPatientId(), interval.getDate()),
+                        interval.getStartTime(), interval.getEndTime());
+            }
+        }
+
+        List<Candidate> accepted = new ArrayList<>(candidates.size());
+
+        for (Candidate candidate : candidates) {
+            Appointment appointment = candidate.appointment();
+            DayKey doctorDay = new DayKey(Party.DOCTOR, appointment.getDoctor().getId(), appointment.getAppointmentDate());
+            DayKey patientDay = new DayKey(Party.PATIENT, appointment.getPatient().getId(), appointment.getAppointmentDate());
+
+            if (isBusy(busy.get(doctorDay), appointment.getStartTime(), appointment.getEndTime())
+                    || isBusy(busy.get(patientDay), appointment.getStartTime(), appointment.getEndTime())) {
+                results[candidate.index()] = result(candidate.index(), Status.CONFLICT, "Appointment has conflict");
+                continue;
+            }
+
+            occupy(busy, doctorDay, appointment.getStartTime(), appointment.getEndTime());
+            occupy(busy, patientDay, appointment.getStartTime(), appointment.getEndTime());
+            accepted.add(candidate);
+        }
+
+        if (accepted.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = appointmentBatchRepository.nextIds(accepted.size());
+
+        for (int i = 0; i < accepted.size(); i++) {
+            Candidate candidate = accepted.get(i);
+            candidate.appointment().setId(ids.get(i));
+            results[candidate.index()] = BatchBookingResultDTO.builder()
+                    .index(candidate.index())
+                    .status(Status.CREATED)
+                    .appointmentId(ids.get(i))
+                    .build();
+        }
+
+        List<Appointment> booked = accepted.stream()
+                .map(Candidate::appointment)
+                .toList();
+
+        appointmentBatchRepository.insertAll(booked);
+
+        return booked;
+    }
+
+    //The spans of a day are disjoint, so only the last one starting before endTime can overlap
+    private static boolean isBusy(TreeMap<LocalTime, LocalTime> day, LocalTime startTime, LocalTime endTime) {
+        if (day == null) {
+            return false;
+        }
+
+        Map.Entry<LocalTime, LocalTime> before = day.lowerEntry(endTime);
+        return before != null && before.getValue().isAfter(startTime);
+    }
+
+    //Adds [startTime, endTime) to the day, merging it with the spans it overlaps or touches
+    private static void occupy(Map<DayKey, TreeMap<LocalTime, LocalTime>> busy, DayKey key,
+                               LocalTime startTime, LocalTime endTime) {
+        if (!startTime.isBefore(endTime)) {
+            return;
+        }
+
+        TreeMap<LocalTime, LocalTime> day = busy.computeIfAbsent(key, ignored -> new TreeMap<>());
+
+        Map.Entry<LocalTime, LocalTime> before = day.floorEntry(startTime);
+        if (before != null && !before.getValue().isBefore(startTime)) {
+            startTime = before.getKey();
+            endTime = before.getValue().isAfter(endTime) ? before.getValue() : endTime;
+        }
+
+        Map.Entry<LocalTime, LocalTime> next = day.ceilingEntry(startTime);
+        while (next != null && !next.getKey().isAfter(endTime)) {
+            endTime = next.getValue().isAfter(endTime) ? next.getValue() : endTime;
+            day.remove(next.getKey());
+            next = day.ceilingEntry(startTime);
+        }
+
+        day.put(startTime, endTime);
+    }
+
+    private List<OutboxEmail> emails(List<Appointment> appointments,
+                                     Map<Long, Contact> doctors, Map<Long, Contact> patients) {
+        List<OutboxEmail> emails = new ArrayList<>(appointments.size() * 2);
+
+        for (Appointment appointment : appointments) {
+            Contact doctorContact = doctors.get(appointment.getDoctor().getId());
+            Contact patientContact = patients.get(appointment.getPatient().getId());
+
+            Doctor doctor = Doctor.builder()
+                    .id(doctorContact.getId())
+                    .name(doctorContact.getName())
+                    .email(doctorContact.getEmail())
+                    .digestEnabled(doctorContact.isDigestEnabled())
+                    .build();
+
+            Patient patient = Patient.builder()
+                    .id(patientContact.getId())
+                    .name(patientContact.getName())
+                    .email(patientContact.getEmail())
+                    .build();
+
+            emails.addAll(emailService.appointmentEmails(appointment, doctor, patient));
+        }
+
+        return emails;
+    }
+
+    private static BatchBookingResultDTO result(int index, Status status, String message) {
+        return BatchBookingResultDTO.builder()
+                .index(index)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+}
@@ -0,0 +1,46 @@
+package grid.capstone.service.appointment;
+
+import grid.capstone.dto.v1.AppointmentSummaryDTO;
+import grid.capstone.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last appointment of a page, handed to clients as an
+ * opaque string so the next page starts right after it instead of
+ * skipping over every earlier row.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+record AppointmentCursor(LocalDate date, LocalTime startTime, Long id) {
+
+    static AppointmentCursor of(AppointmentSummaryDTO summary) {
+        return new AppointmentCursor(summary.getAppointmentDate(), summary.getStartTime(), summary.getId());
+    }
+
+    static AppointmentCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+
+            if (parts.length != 3) {
+                throw new InvalidRequestException("Malformed cursor");
+            }
+
+            return new AppointmentCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Malformed cursor");
+        }
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + "|" + startTime + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+}
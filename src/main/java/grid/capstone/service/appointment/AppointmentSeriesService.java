@@ -0,0 +1,39 @@
+package grid.capstone.service.appointment;
+
+import grid.capstone.dto.v1.AppointmentSeriesDTO;
+import grid.capstone.exception.AppointmentConflictException;
+import grid.capstone.exception.InvalidRequestException;
+import grid.capstone.exception.ResourceNotFoundException;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public interface AppointmentSeriesService {
+
+    /**
+     * Creates a recurring appointment between the doctor and patient,
+     * stored as a single series row
+     *
+     * @param appointmentSeriesDTO DTO for the series
+     * @return HttpStatus code
+     * @throws ResourceNotFoundException when the doctor or patient doesn't exist
+     * @throws InvalidRequestException when the dates, times or horizon are not valid
+     * @throws AppointmentConflictException when an occurrence clashes with another booking
+     */
+    HttpStatus createSeries(AppointmentSeriesDTO appointmentSeriesDTO);
+
+    /**
+     * Returns the series of either the patient or the doctor
+     *
+     * @param patientId id of the patient
+     * @param doctorId id of the doctor
+     * @return list of series
+     */
+    List<AppointmentSeriesDTO> getSeries(Optional<Long> patientId, Optional<Long> doctorId);
+}
@@ -0,0 +1,175 @@
+package grid.capstone.service.appointment;
+
+import grid.capstone.dto.v1.AppointmentSeriesDTO;
+import grid.capstone.exception.AppointmentConflictException;
+import grid.capstone.exception.InvalidRequestException;
+import grid.capstone.exception.ResourceNotFoundException;
+import grid.capstone.mapper.AppointmentSeriesMapper;
+import grid.capstone.model.Appointment;
+import grid.capstone.model.AppointmentSeries;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import grid.capstone.repository.DoctorRepository;
+import grid.capstone.repository.PatientRepository;
+import grid.capstone.service.reminder.ReminderScheduler;
+import grid.capstone.service.schedule.ScheduleIndex;
+import grid.capstone.service.schedule.ScheduleIndex.Party;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Service
+public class AppointmentSeriesServiceImpl implements AppointmentSeriesService {
+
+    private final AppointmentSeriesMapper appointmentSeriesMapper;
+    private final AppointmentSeriesRepository appointmentSeriesRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final BookingLock bookingLock;
+    private final ScheduleIndex scheduleIndex;
+    private final ReminderScheduler reminderScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxDays;
+
+    public AppointmentSeriesServiceImpl(AppointmentSeriesMapper appointmentSeriesMapper,
+                                        AppointmentSeriesRepository appointmentSeriesRepository,
+                                        AppointmentRepository appointmentRepository,
+                                        DoctorRepository doctorRepository,
+                                        PatientRepository patientRepository,
+                                        BookingLock bookingLock,
+                                        ScheduleIndex scheduleIndex,
+                                        ReminderScheduler reminderScheduler,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${appointment.series.max-days:730}") int maxDays) {
+        this.appointmentSeriesMapper = appointmentSeriesMapper;
+        this.appointmentSeriesRepository = appointmentSeriesRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.bookingLock = bookingLock;
+        this.scheduleIndex = scheduleIndex;
+        this.reminderScheduler = reminderScheduler;
+        this.transactionTemplate = transactionTemplate;
+        this.maxDays = maxDays;
+    }
+
+
+    @Override
+    public HttpStatus createSeries(AppointmentSeriesDTO appointmentSeriesDTO) {
+        validate(appointmentSeriesDTO);
+
+        if (!doctorRepository.existsById(appointmentSeriesDTO.getDoctorId())) {
+            throw new ResourceNotFoundException("Doctor with id " + appointmentSeriesDTO.getDoctorId() + " is not found");
+        }
+
+        if (!patientRepository.existsById(appointmentSeriesDTO.getPatientId())) {
+            throw new ResourceNotFoundException("Patient with id " + appointmentSeriesDTO.getPatientId() + " is not found");
+        }
+
+        AppointmentSeries series = appointmentSeriesMapper.toEntity(appointmentSeriesDTO);
+        series.setId(null);
+
+        //Bounded by the maximum horizon, only needed to lock and to refresh the index
+        List<LocalDate> dates = series.occurrencesBetween(series.getStartDate(), series.getEndDate());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingLock.lockAll(dates.stream()
+                    .map(date -> Appointment.builder()
+                            .doctor(series.getDoctor())
+                            .patient(series.getPatient())
+                            .appointmentDate(date)
+                            .build())
+                    .toList());
+
+            if (hasConflict(series, dates)) {
+                throw new AppointmentConflictException("Appointment series has conflict");
+            }
+
+            appointmentSeriesRepository.save(series);
+        });
+
+        //Days already held by the index don't know about the new occurrences
+        for (LocalDate date : dates) {
+            scheduleIndex.invalidate(Party.DOCTOR, series.getDoctor().getId(), date);
+            scheduleIndex.invalidate(Party.PATIENT, series.getPatient().getId(), date);
+        }
+
+        reminderScheduler.schedule(series);
+
+        return HttpStatus.CREATED;
+    }
+
+
+    @Override
+    public List<AppointmentSeriesDTO> getSeries(Optional<Long> patientId, Optional<Long> doctorId) {
+        if (patientId.isEmpty() && doctorId.isEmpty()) {
+            throw new ResourceNotFoundException("No patient or doctor id specified");
+        }
+
+        return appointmentSeriesRepository.findAllFor(doctorId.orElse(null), patientId.orElse(null))
+                .stream()
+                .map(appointmentSeriesMapper::toDTO)
+                .toList();
+    }
+
+
+    private void validate(AppointmentSeriesDTO appointmentSeriesDTO) {
+        if (appointmentSeriesDTO.getIntervalCount() == null) {
+            appointmentSeriesDTO.setIntervalCount(1);
+        }
+
+        if (appointmentSeriesDTO.getEndDate().isBefore(appointmentSeriesDTO.getStartDate())) {
+            throw new InvalidRequestException("The end date must not be before the start date");
+        }
+
+        if (ChronoUnit.DAYS.between(appointmentSeriesDTO.getStartDate(), appointmentSeriesDTO.getEndDate()) > maxDays) {
+            throw new InvalidRequestException("A series can span at most " + maxDays + " days");
+        }
+
+        if (!appointmentSeriesDTO.getStartTime().isBefore(appointmentSeriesDTO.getEndTime())) {
+            throw new InvalidRequestException("Start time must be before end time");
+        }
+    }
+
+    /*
+    Both queries are narrowed to the series' date range and time of day,
+    whether a hit falls on an occurrence is then answered in O(1) by the series
+     */
+    private boolean hasConflict(AppointmentSeries series, List<LocalDate> dates) {
+        Long doctorId = series.getDoctor().getId();
+        Long patientId = series.getPatient().getId();
+
+        boolean appointmentConflict = appointmentRepository.findOverlappingDates(
+                        doctorId, patientId,
+                        series.getStartDate(), series.getEndDate(),
+                        series.getStartTime(), series.getEndTime()
+                )
+                .stream()
+                .anyMatch(series::occursOn);
+
+        if (appointmentConflict) {
+            return true;
+        }
+
+        return appointmentSeriesRepository.findOverlapping(
+                        doctorId, patientId,
+                        series.getStartDate(), series.getEndDate(),
+                        series.getStartTime(), series.getEndTime()
+                )
+                .stream()
+                .anyMatch(other -> dates.stream().anyMatch(other::occursOn));
+    }
+
+}
@@ -1,6 +1,7 @@
 package grid.capstone.service.appointment;
 
 import grid.capstone.dto.v1.AppointmentDTO;
+import grid.capstone.dto.v1.AppointmentPageDTO;
 import grid.capstone.model.Appointment;
 import org.springframework.http.HttpStatus;
 
@@ -26,7 +27,9 @@ public interface AppointmentService {
     /**
      *
      * Returns the upcoming appointments of either the patient
-     * or the doctor
+     * or the doctor. Occurrences of recurring series are included
+     * on the filtered date, or over the next 90 days when no date
+     * is given
      *
      * @param dateFilter date which to filter the results by
      * @param patientId id of the patient with appointments
@@ -35,6 +38,24 @@ public interface AppointmentService {
      */
     List<Appointment> getFilteredAppointments(Optional<LocalDate> dateFilter, Optional<Long> patientId, Optional<Long> doctorId);
 
+    /**
+     * Returns one page of summaries of the patient's or the doctor's
+     * appointments in [from, to], ordered by date, start time and id.
+     * The cost of a page doesn't depend on how many appointments
+     * came before it.
+     *
+     * @param from first date, inclusive
+     * @param to last date, inclusive
+     * @param patientId id of the patient with appointments
+     * @param doctorId id of the doctor with appointments
+     * @param cursor cursor returned with the previous page
+     * @param size maximum number of appointments in the page
+     * @return page of appointment summaries
+     */
+    AppointmentPageDTO getAppointmentSummaries(Optional<LocalDate> from, Optional<LocalDate> to,
+                                               Optional<Long> patientId, Optional<Long> doctorId,
+                                               Optional<String> cursor, int size);
+
 
     /**
      * Updates an existing appointment
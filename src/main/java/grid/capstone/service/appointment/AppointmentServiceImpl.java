@@ -1,22 +1,34 @@
 package grid.capstone.service.appointment;
 
 import grid.capstone.dto.v1.AppointmentDTO;
+import grid.capstone.dto.v1.AppointmentPageDTO;
+import grid.capstone.dto.v1.AppointmentSummaryDTO;
 import grid.capstone.exception.AppointmentConflictException;
+import grid.capstone.exception.InvalidRequestException;
 import grid.capstone.exception.ResourceNotFoundException;
 import grid.capstone.mapper.AppointmentMapper;
 import grid.capstone.model.Appointment;
+import grid.capstone.model.AppointmentSeries;
+import grid.capstone.model.BookedInterval;
 import grid.capstone.model.Doctor;
 import grid.capstone.model.Patient;
 import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
 import grid.capstone.repository.DoctorRepository;
 import grid.capstone.repository.PatientRepository;
 import grid.capstone.service.mail.EmailService;
+import grid.capstone.service.reminder.ReminderScheduler;
+import grid.capstone.service.schedule.ScheduleIndex;
+import grid.capstone.service.schedule.SlotService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -30,11 +42,21 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AppointmentServiceImpl implements AppointmentService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int ALTERNATIVE_SLOTS = 3;
+    private static final int SERIES_WINDOW_DAYS = 90;
+
     private final AppointmentMapper appointmentMapper;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final EmailService emailService;
+    private final ScheduleIndex scheduleIndex;
+    private final BookingLock bookingLock;
+    private final TransactionTemplate transactionTemplate;
+    private final AppointmentSeriesRepository appointmentSeriesRepository;
+    private final SlotService slotService;
+    private final ReminderScheduler reminderScheduler;
 
 
     @Override
@@ -51,17 +73,9 @@ public class AppointmentServiceImpl implements AppointmentService {
         /*
         If any appointment has a conflict then return conflict
          */
-        if (Boolean.TRUE.equals(hasAppointmentConflict(appointment))){
-            throw new AppointmentConflictException("Appointment has conflict");
-        }
-
-        Appointment savedAppointment = appointmentRepository.save(appointment);
-
-        emailService.sendAppointmentEmail(
-                savedAppointment,
-                doctor,
-                patient
-        );
+        Appointment savedAppointment = book(appointment, doctor, patient);
+        scheduleIndex.record(savedAppointment, null);
+        reminderScheduler.schedule(savedAppointment);
 
         return HttpStatus.CREATED;
     }
@@ -89,7 +103,83 @@ public class AppointmentServiceImpl implements AppointmentService {
                                 .orElse(null)
                         );
 
-        return appointmentRepository.findAll(appointmentSpecification);
+        List<Appointment> appointments = appointmentRepository.findAll(appointmentSpecification);
+
+        /*
+        Series have no end to expand over without a date, so they are
+        expanded over the next SERIES_WINDOW_DAYS days from today
+         */
+        LocalDate from = dateFilter.orElseGet(LocalDate::now);
+        LocalDate to = dateFilter.orElseGet(() -> from.plusDays(SERIES_WINDOW_DAYS));
+
+        List<Appointment> occurrences = appointmentSeriesRepository
+                .findActiveBetween(doctorId.orElse(null), patientId.orElse(null), from, to)
+                .stream()
+                .flatMap(series -> series.occurrencesBetween(from, to).stream()
+                        .map(date -> occurrence(series, date)))
+                .toList();
+
+        if (occurrences.isEmpty()) {
+            return appointments;
+        }
+
+        List<Appointment> merged = new ArrayList<>(appointments);
+        merged.addAll(occurrences);
+        merged.sort(Comparator
+                .comparing(Appointment::getAppointmentDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Appointment::getStartTime, Comparator.nullsLast(Comparator.naturalOrder())));
+        return merged;
+    }
+
+    @Override
+    public AppointmentPageDTO getAppointmentSummaries(Optional<LocalDate> from, Optional<LocalDate> to,
+                                                      Optional<Long> patientId, Optional<Long> doctorId,
+                                                      Optional<String> cursor, int size) {
+        if (patientId.isEmpty() && doctorId.isEmpty()) {
+            throw new ResourceNotFoundException("No patient or doctor id specified");
+        }
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Specification<Appointment> appointmentSpecification =
+                Specification
+                        .where(doctorId
+                                .map(AppointmentSpecification::hasDoctor)
+                                .orElse(null)
+                        )
+                        .and(patientId
+                                .map(AppointmentSpecification::hasPatient)
+                                .orElse(null)
+                        )
+                        .and(from
+                                .map(AppointmentSpecification::from)
+                                .orElse(null)
+                        )
+                        .and(to
+                                .map(AppointmentSpecification::to)
+                                .orElse(null)
+                        )
+                        .and(cursor
+                                .map(AppointmentCursor::decode)
+                                .map(position -> AppointmentSpecification.after(position.date(), position.startTime(), position.id()))
+                                .orElse(null)
+                        );
+
+        //One extra row tells if there is a next page without counting
+        List<AppointmentSummaryDTO> summaries = appointmentRepository.findSummaries(appointmentSpecification, size + 1);
+
+        if (summaries.size() <= size) {
+            return new AppointmentPageDTO(summaries, null);
+        }
+
+        List<AppointmentSummaryDTO> page = summaries.subList(0, size);
+
+        return new AppointmentPageDTO(
+                new ArrayList<>(page),
+                AppointmentCursor.of(page.get(size - 1)).encode()
+        );
     }
 
 
@@ -104,54 +194,149 @@ public class AppointmentServiceImpl implements AppointmentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment with id " + appointmentId + " does not exist"));
 
 
+        LocalDate previousDate = appointment.getAppointmentDate();
+
         //Update Values in the object if not null
         appointment.updateObject(updatedAppointment);
 
-        if (Boolean.TRUE.equals(hasAppointmentConflict(appointment))){
-            throw new AppointmentConflictException("Appointment has conflict");
-        }
-
+        book(appointment, appointment.getDoctor(), appointment.getPatient());
+        scheduleIndex.record(appointment, previousDate);
+        reminderScheduler.schedule(appointment);
 
-        appointmentRepository.save(appointment);
+        return HttpStatus.OK;
+    }
 
-        emailService.sendAppointmentEmail(
-                appointment,
-                appointment.getDoctor(),
-                appointment.getPatient()
-        );
 
-        return HttpStatus.OK;
+    /*
+    On a conflict the nearest free slots of that day are looked up once
+    the booking transaction is over, so the locks aren't held meanwhile
+     */
+    private Appointment book(Appointment appointment, Doctor doctor, Patient patient) {
+        try {
+            rejectConfirmedConflict(appointment);
+            return saveWithoutConflict(appointment, doctor, patient);
+        } catch (AppointmentConflictException e) {
+            throw new AppointmentConflictException(
+                    e.getMessage(),
+                    slotService.getAlternativeSlots(appointment, ALTERNATIVE_SLOTS)
+            );
+        }
     }
 
 
-    private Boolean hasAppointmentConflict(Appointment appointment) {
+    /*
+    A burst of bookings for the same slot is turned away from the
+    schedule index, without queueing on the day's lock or running the
+    overlap queries. The index may hold a booking moved or cancelled on
+    another instance, so what it finds is confirmed by id first; an
+    unconfirmed day is read again next time. A booking the index finds
+    free still goes through the locked check, it can miss bookings made
+    elsewhere
+     */
+    private void rejectConfirmedConflict(Appointment appointment) {
+        if (!scheduleIndex.isEnabled()) {
+            return;
+        }
+
+        Long doctorId = appointment.getDoctor().getId();
+        Long patientId = appointment.getPatient().getId();
+        LocalDate date = appointment.getAppointmentDate();
+
+        List<BookedInterval> overlapping = scheduleIndex.overlapping(doctorId, patientId, date,
+                appointment.getStartTime(), appointment.getEndTime(), appointment.getId());
 
-        List<Appointment> patientAppointments = appointmentRepository.findByPatient(appointment.getPatient());
-        List<Appointment> doctorAppointments = appointmentRepository.findByDoctor(appointment.getDoctor());
+        if (overlapping.isEmpty()) {
+            return;
+        }
 
+        List<Long> appointmentIds = overlapping.stream()
+                .map(BookedInterval::getAppointmentId)
+                .filter(Objects::nonNull)
+                .toList();
+        List<Long> seriesIds = overlapping.stream()
+                .map(BookedInterval::getSeriesId)
+                .filter(Objects::nonNull)
+                .toList();
+
+        boolean confirmed = !appointmentIds.isEmpty() && appointmentRepository.existsOverlappingAmong(
+                appointmentIds, doctorId, patientId, date, appointment.getStartTime(), appointment.getEndTime());
+
+        confirmed = confirmed || !seriesIds.isEmpty() && appointmentSeriesRepository.findAllById(seriesIds).stream()
+                .anyMatch(series -> series.occursOn(date)
+                        && series.getStartTime().isBefore(appointment.getEndTime())
+                        && appointment.getStartTime().isBefore(series.getEndTime())
+                        && (doctorId.equals(series.getDoctor().getId()) || patientId.equals(series.getPatient().getId())));
+
+        if (confirmed) {
+            throw new AppointmentConflictException("Appointment has conflict");
+        }
 
-        //Check if any existing appointments is clashing with the new one
-        boolean patientMatch = patientAppointments.stream()
-                .filter(app -> !Objects.equals(app.getId(), appointment.getId()))
-                .filter(app -> app.getAppointmentDate().equals(appointment.getAppointmentDate()))
-                .anyMatch(app -> isAppointmentClashing(app, appointment));
+        scheduleIndex.invalidate(ScheduleIndex.Party.DOCTOR, doctorId, date);
+        scheduleIndex.invalidate(ScheduleIndex.Party.PATIENT, patientId, date);
+    }
 
-        boolean doctorMatch = doctorAppointments.stream()
-                .filter(app -> !Objects.equals(app.getId(), appointment.getId()))
-                .filter(app -> app.getAppointmentDate().equals(appointment.getAppointmentDate()))
-                .anyMatch(app -> isAppointmentClashing(app, appointment));
 
-        /*
-        If any is true, there's a conflict in the appointment
-        Only return false when both are false.
-         */
-        return patientMatch || doctorMatch;
+    /*
+    Locks the doctor's and patient's day, checks for overlaps and saves
+    in one transaction, so concurrent bookings of the same day on any
+    instance can't both pass the check. Bookings of other days don't wait.
+    The emails are queued in the same transaction and sent later
+     */
+    private Appointment saveWithoutConflict(Appointment appointment, Doctor doctor, Patient patient) {
+        return transactionTemplate.execute(status -> {
+            bookingLock.lock(
+                    appointment.getDoctor().getId(),
+                    appointment.getPatient().getId(),
+                    appointment.getAppointmentDate()
+            );
+
+            /*
+            Let the database look only at the doctor's and patient's
+            appointments on that date which overlap the new one,
+            instead of loading their whole history
+             */
+            boolean conflict = appointmentRepository.existsOverlapping(
+                    appointment.getDoctor().getId(),
+                    appointment.getPatient().getId(),
+                    appointment.getAppointmentDate(),
+                    appointment.getStartTime(),
+                    appointment.getEndTime(),
+                    appointment.getId()
+            );
+
+            //Only the series covering that date and time are loaded, none are expanded
+            conflict = conflict || appointmentSeriesRepository.findOverlapping(
+                            appointment.getDoctor().getId(),
+                            appointment.getPatient().getId(),
+                            appointment.getAppointmentDate(),
+                            appointment.getAppointmentDate(),
+                            appointment.getStartTime(),
+                            appointment.getEndTime()
+                    )
+                    .stream()
+                    .anyMatch(series -> series.occursOn(appointment.getAppointmentDate()));
+
+            if (conflict) {
+                throw new AppointmentConflictException("Appointment has conflict");
+            }
+
+            Appointment savedAppointment = appointmentRepository.save(appointment);
+            emailService.queueAppointmentEmail(savedAppointment, doctor, patient);
+
+            return savedAppointment;
+        });
     }
 
-    //Checks to see if any conflict between two given appointments
-    private Boolean isAppointmentClashing(Appointment appointment1, Appointment appointment2) {
-        return appointment1.getStartTime().isBefore(appointment2.getEndTime())
-                && appointment2.getStartTime().isBefore(appointment1.getEndTime());
+    private static Appointment occurrence(AppointmentSeries series, LocalDate date) {
+        return Appointment.builder()
+                .seriesId(series.getId())
+                .appointmentDate(date)
+                .startTime(series.getStartTime())
+                .endTime(series.getEndTime())
+                .reason(series.getReason())
+                .doctor(series.getDoctor())
+                .patient(series.getPatient())
+                .build();
     }
 
 }
@@ -4,6 +4,7 @@ import grid.capstone.model.Appointment;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 
 /**
  * @author Javaughn Stephenson
@@ -57,4 +58,60 @@ public class AppointmentSpecification {
                 );
     }
 
+    /**
+     * Method create a criteria which keeps the appointments
+     * on or after the given date.
+     *
+     * @param from first date, inclusive
+     * @return
+     */
+    public static Specification<Appointment> from(LocalDate from) {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.greaterThanOrEqualTo(
+                        root.get("appointmentDate"),
+                        from
+                );
+    }
+
+    /**
+     * Method create a criteria which keeps the appointments
+     * on or before the given date.
+     *
+     * @param to last date, inclusive
+     * @return
+     */
+    public static Specification<Appointment> to(LocalDate to) {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.lessThanOrEqualTo(
+                        root.get("appointmentDate"),
+                        to
+                );
+    }
+
+    /**
+     * Method create a criteria which keeps the appointments ordered
+     * after the given one by (date, start time, id), used to continue
+     * a listing from where the previous page stopped.
+     *
+     * @param date date of the last appointment of the previous page
+     * @param startTime start time of that appointment
+     * @param id id of that appointment
+     * @return
+     */
+    public static Specification<Appointment> after(LocalDate date, LocalTime startTime, Long id) {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(root.get("appointmentDate"), date),
+                        criteriaBuilder.and(
+                                criteriaBuilder.equal(root.get("appointmentDate"), date),
+                                criteriaBuilder.greaterThan(root.get("startTime"), startTime)
+                        ),
+                        criteriaBuilder.and(
+                                criteriaBuilder.equal(root.get("appointmentDate"), date),
+                                criteriaBuilder.equal(root.get("startTime"), startTime),
+                                criteriaBuilder.greaterThan(root.get("id"), id)
+                        )
+                );
+    }
+
 }
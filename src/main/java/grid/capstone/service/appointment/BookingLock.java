@@ -0,0 +1,100 @@
+package grid.capstone.service.appointment;
+
+import grid.capstone.model.Appointment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Serialises bookings which touch the same doctor's or patient's day
+ * across every instance of the application, using Postgres
+ * transaction scoped advisory locks.
+ * <p>
+ * Keys are striped: (owner, date) is hashed onto a fixed number of
+ * stripes per kind of owner, so unrelated days only wait on each
+ * other when they happen to share a stripe. The locks are released
+ * when the surrounding transaction commits or rolls back.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Component
+public class BookingLock {
+
+    private static final int DOCTOR_DAY = 1;
+    private static final int PATIENT_DAY = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int stripes;
+
+    public BookingLock(JdbcTemplate jdbcTemplate,
+                       @Value("${appointment.booking.lock-stripes:1024}") int stripes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stripes = stripes;
+    }
+
+
+    /**
+     * Blocks until the doctor's and the patient's day are locked.
+     * The doctor's stripe is always taken first so two bookings
+     * can't wait on each other in opposite order.
+     *
+     * @param doctorId id of the doctor
+     * @param patientId id of the patient
+     * @param date day of the booking
+     * @throws IllegalStateException when called outside a transaction
+     */
+    public void lock(Long doctorId, Long patientId, LocalDate date) {
+        requireTransaction();
+
+        acquire(DOCTOR_DAY, stripe(doctorId, date));
+        acquire(PATIENT_DAY, stripe(patientId, date));
+    }
+
+    /**
+     * Locks the doctor's and the patient's day of every appointment.
+     * Stripes are taken once each, doctors' before patients' and in
+     * ascending order, the same order single bookings use.
+     *
+     * @param appointments appointments about to be booked
+     * @throws IllegalStateException when called outside a transaction
+     */
+    public void lockAll(Collection<Appointment> appointments) {
+        requireTransaction();
+
+        TreeSet<Integer> doctorStripes = new TreeSet<>();
+        TreeSet<Integer> patientStripes = new TreeSet<>();
+
+        for (Appointment appointment : appointments) {
+            doctorStripes.add(stripe(appointment.getDoctor().getId(), appointment.getAppointmentDate()));
+            patientStripes.add(stripe(appointment.getPatient().getId(), appointment.getAppointmentDate()));
+        }
+
+        doctorStripes.forEach(stripe -> acquire(DOCTOR_DAY, stripe));
+        patientStripes.forEach(stripe -> acquire(PATIENT_DAY, stripe));
+    }
+
+
+    //Outside a transaction the lock would be released straight away
+    private void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Booking locks must be taken inside a transaction");
+        }
+    }
+
+    int stripe(Long ownerId, LocalDate date) {
+        return Math.floorMod(Objects.hash(ownerId, date), stripes);
+    }
+
+    private void acquire(int kind, int stripe) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", resultSet -> null, kind, stripe);
+    }
+
+}
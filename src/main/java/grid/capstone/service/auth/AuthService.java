@@ -1,6 +1,7 @@
 package grid.capstone.service.auth;
 
 import grid.capstone.dto.v1.AuthRequest;
+import grid.capstone.dto.v1.AuthResponse;
 
 /**
  * @author Javaughn Stephenson
@@ -9,6 +10,34 @@ import grid.capstone.dto.v1.AuthRequest;
 
 public interface AuthService {
 
-    public String login(AuthRequest authRequest);
+    public AuthResponse login(AuthRequest authRequest);
+
+    /**
+     * Exchanges a refresh token for a new access token and a new
+     * refresh token. The one presented is used up.
+     *
+     * @param refreshToken the refresh token
+     * @return the new tokens
+     * @throws org.springframework.security.authentication.BadCredentialsException
+     * if the refresh token is unknown, expired or already used
+     */
+    public AuthResponse refresh(String refreshToken);
+
+    /**
+     * Uses up the refresh token and revokes the access token, if one
+     * is given and still valid.
+     *
+     * @param refreshToken the refresh token
+     * @param accessToken the access token, may be null
+     */
+    public void logout(String refreshToken, String accessToken);
+
+    /**
+     * Revokes every access and refresh token issued to the account so
+     * far, e.g. after a device was lost. Logging in again works.
+     *
+     * @param username the email of the account
+     */
+    public void logoutEverywhere(String username);
 
 }
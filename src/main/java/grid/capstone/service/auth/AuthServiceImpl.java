@@ -1,39 +1,210 @@
 package grid.capstone.service.auth;
 
+import grid.capstone.config.ExecutorConfig;
 import grid.capstone.dto.v1.AuthRequest;
+import grid.capstone.dto.v1.AuthResponse;
+import grid.capstone.exception.TooManyRequestsException;
+import grid.capstone.repository.RefreshTokenRepository;
 import grid.capstone.service.jwt.JwtService;
-import lombok.RequiredArgsConstructor;
+import grid.capstone.service.jwt.TokenRevocations;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
+ * Logs users in. The password hash is checked on the login executor
+ * rather than on the request thread, so a burst of logins queues
+ * there, and past the queue is turned away with a 429, instead of
+ * holding up every other request while BCrypt runs.
+ * <p>
+ * A login gets a short lived access token and a refresh token. The
+ * refresh token is random, only its hash is stored, and it can be
+ * exchanged once for a new pair.
+ *
  * @author Javaughn Stephenson
  * @since 18/07/2023
  */
 
 @Service
-@RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
     private final JwtService jwtService;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocations tokenRevocations;
+    private final Executor loginExecutor;
+    private final Duration retryAfter;
+    private final Duration timeout;
+    private final Duration refreshTtl;
+    private final SecureRandom random = new SecureRandom();
+
+    private final Timer hashTime;
+    private final Timer queueWait;
+
+    public AuthServiceImpl(AuthenticationManager authenticationManager,
+                           UserDetailsService userDetailsService,
+                           JwtService jwtService,
+                           RefreshTokenRepository refreshTokenRepository,
+                           TokenRevocations tokenRevocations,
+                           @Qualifier(ExecutorConfig.LOGIN_EXECUTOR) Executor loginExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${auth.login.retry-after:PT1S}") Duration retryAfter,
+                           @Value("${auth.login.timeout:PT5S}") Duration timeout,
+                           @Value("${jwt.refresh-ttl:P14D}") Duration refreshTtl) {
+        this.authenticationManager = authenticationManager;
+        this.userDetailsService = userDetailsService;
+        this.jwtService = jwtService;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenRevocations = tokenRevocations;
+        this.loginExecutor = loginExecutor;
+        this.retryAfter = retryAfter;
+        this.timeout = timeout;
+        this.refreshTtl = refreshTtl;
+
+        this.hashTime = Timer.builder("auth.login.hash")
+                .description("Time taken to check the password of a login")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("auth.login.queue.wait")
+                .description("Time a login waited for a thread to check its password")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @Override
-    public String login(AuthRequest authRequest) {
+    public AuthResponse login(AuthRequest authRequest) {
 
-        authenticationManager
-                .authenticate(
-                        new UsernamePasswordAuthenticationToken(
-                                authRequest.getEmail(), authRequest.getPassword()
-                        )
-                );
+        authenticate(authRequest);
 
         UserDetails user = userDetailsService.loadUserByUsername(authRequest.getEmail());
 
-        return jwtService.generateToken(user);
+        return issue(user);
+    }
+
+    @Override
+    public AuthResponse refresh(String refreshToken) {
+        String email = refreshTokenRepository.consume(hash(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Refresh token is not valid"));
+
+        //The account is loaded again so a changed role is picked up
+        return issue(userDetailsService.loadUserByUsername(email));
+    }
+
+    @Override
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenRepository.consume(hash(refreshToken));
+
+        if (accessToken != null) {
+            jwtService.verify(accessToken)
+                    .filter(claims -> claims.getId() != null)
+                    .ifPresent(claims -> tokenRevocations.revoke(claims.getId(), claims.getExpiration().toInstant()));
+        }
+    }
+
+    /*
+     * The revoked_account row goes once the access tokens issued before
+     * it have expired, long before the refresh tokens, so those are
+     * revoked themselves. The row is written first, a refresh racing
+     * the update is refused by it.
+     */
+    @Override
+    public void logoutEverywhere(String username) {
+        tokenRevocations.revokeAccount(username);
+        refreshTokenRepository.revokeAll(username);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-ms:3600000}")
+    public void purgeExpiredRefreshTokens() {
+        refreshTokenRepository.deleteExpired();
+    }
+
+
+    private AuthResponse issue(UserDetails user) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(hash(refreshToken), user.getUsername(), refreshTtl);
+
+        return AuthResponse.builder()
+                .accessToken(jwtService.generateToken(user))
+                .expiresIn(jwtService.getAccessTtl().toSeconds())
+                .refreshToken(refreshToken)
+                .build();
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+
+    private void authenticate(AuthRequest authRequest) {
+        long queuedAt = System.nanoTime();
+        CompletableFuture<Void> authentication;
+
+        try {
+            authentication = CompletableFuture.runAsync(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+
+                //The caller has given up on this login, don't spend a hash on it
+                if (waited > timeout.toNanos()) {
+                    throw busy();
+                }
+
+                hashTime.record(() -> authenticationManager
+                        .authenticate(
+                                new UsernamePasswordAuthenticationToken(
+                                        authRequest.getEmail(), authRequest.getPassword()
+                                )
+                        ));
+            }, loginExecutor);
+        } catch (RejectedExecutionException ex) {
+            throw busy();
+        }
+
+        try {
+            authentication.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof TimeoutException) {
+                throw busy();
+            }
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private TooManyRequestsException busy() {
+        return new TooManyRequestsException("Too many logins at once, try again shortly", retryAfter);
     }
 }
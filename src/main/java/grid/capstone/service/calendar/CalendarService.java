@@ -0,0 +1,66 @@
+package grid.capstone.service.calendar;
+
+import grid.capstone.model.Role;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public interface CalendarService {
+
+    /**
+     * Returns a tag which changes whenever the patient's or the
+     * doctor's calendar does, computed without reading the events.
+     *
+     * @param patientId id of the patient with appointments
+     * @param doctorId id of the doctor with appointments
+     * @return the version of the calendar
+     */
+    String getCalendarVersion(Optional<Long> patientId, Optional<Long> doctorId);
+
+    /**
+     * Writes the patient's or the doctor's appointments and series as
+     * an iCalendar document, streaming the rows as they are read.
+     *
+     * @param patientId id of the patient with appointments
+     * @param doctorId id of the doctor with appointments
+     * @param outputStream stream to write the document to
+     * @throws IOException when the client can't be written to
+     */
+    void writeCalendar(Optional<Long> patientId, Optional<Long> doctorId, OutputStream outputStream) throws IOException;
+
+    /**
+     * Makes a new key for the account's calendar feed, the previous
+     * one stops working. Only a hash of it is kept, it can't be shown
+     * again.
+     *
+     * @param ownerRole role of the account
+     * @param ownerId id of the doctor or patient
+     * @return the key, to be put in the feed's url
+     */
+    String createFeedKey(Role ownerRole, Long ownerId);
+
+    /**
+     * Revokes the key of the account's calendar feed.
+     *
+     * @param ownerRole role of the account
+     * @param ownerId id of the doctor or patient
+     */
+    void revokeFeedKey(Role ownerRole, Long ownerId);
+
+    /**
+     * Checks if the key is the current one of the patient's or the
+     * doctor's calendar feed.
+     *
+     * @param patientId id of the patient with appointments
+     * @param doctorId id of the doctor with appointments
+     * @param key the key from the feed's url, may be null
+     * @return true if the feed may be read with the key
+     */
+    boolean isFeedKeyValid(Optional<Long> patientId, Optional<Long> doctorId, String key);
+}
@@ -0,0 +1,167 @@
+package grid.capstone.service.calendar;
+
+import grid.capstone.exception.ResourceNotFoundException;
+import grid.capstone.model.CalendarEntry;
+import grid.capstone.model.Role;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import grid.capstone.repository.CalendarFeedKeyRepository;
+import grid.capstone.repository.CalendarVersionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Service
+public class CalendarServiceImpl implements CalendarService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentSeriesRepository appointmentSeriesRepository;
+    private final CalendarVersionRepository calendarVersionRepository;
+    private final CalendarFeedKeyRepository calendarFeedKeyRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SecureRandom random = new SecureRandom();
+
+    public CalendarServiceImpl(AppointmentRepository appointmentRepository,
+                               AppointmentSeriesRepository appointmentSeriesRepository,
+                               CalendarVersionRepository calendarVersionRepository,
+                               CalendarFeedKeyRepository calendarFeedKeyRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentSeriesRepository = appointmentSeriesRepository;
+        this.calendarVersionRepository = calendarVersionRepository;
+        this.calendarFeedKeyRepository = calendarFeedKeyRepository;
+
+        //Postgres only fetches in batches inside a transaction, a read only one is enough
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+
+    @Override
+    public String getCalendarVersion(Optional<Long> patientId, Optional<Long> doctorId) {
+        requireOwner(patientId, doctorId);
+
+        String key = calendarVersionRepository.findVersion(doctorId.orElse(null), patientId.orElse(null));
+
+        return DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeCalendar(Optional<Long> patientId, Optional<Long> doctorId, OutputStream outputStream) throws IOException {
+        requireOwner(patientId, doctorId);
+
+        Long doctor = doctorId.orElse(null);
+        Long patient = patientId.orElse(null);
+
+        //A doctor's calendar names the patients, a patient's calendar names the doctors
+        boolean doctorView = doctorId.isPresent();
+        Instant generatedAt = Instant.now();
+
+        IcsWriter ics = new IcsWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    ics.begin("Appointments");
+
+                    for (CalendarEntry series : appointmentSeriesRepository.findCalendarFor(doctor, patient)) {
+                        ics.event(series, summary(series, doctorView), generatedAt);
+                    }
+
+                    try (Stream<CalendarEntry> appointments = appointmentRepository.streamCalendar(doctor, patient)) {
+                        Iterator<CalendarEntry> iterator = appointments.iterator();
+
+                        while (iterator.hasNext()) {
+                            CalendarEntry appointment = iterator.next();
+                            Instant stamp = appointment.getUpdatedAt() != null
+                                    ? appointment.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant()
+                                    : generatedAt;
+
+                            ics.event(appointment, summary(appointment, doctorView), stamp);
+                        }
+                    }
+
+                    ics.end();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+
+    @Override
+    public String createFeedKey(Role ownerRole, Long ownerId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String key = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        calendarFeedKeyRepository.save(ownerRole, ownerId, hash(key));
+
+        return key;
+    }
+
+    @Override
+    public void revokeFeedKey(Role ownerRole, Long ownerId) {
+        calendarFeedKeyRepository.delete(ownerRole, ownerId);
+    }
+
+    //With both ids the feed is a part of either one's, the key of either opens it
+    @Override
+    public boolean isFeedKeyValid(Optional<Long> patientId, Optional<Long> doctorId, String key) {
+        if (key == null || key.isBlank()) {
+            return false;
+        }
+
+        String keyHash = hash(key);
+
+        return doctorId.map(id -> calendarFeedKeyRepository.exists(Role.ROLE_DOCTOR, id, keyHash)).orElse(false)
+                || patientId.map(id -> calendarFeedKeyRepository.exists(Role.ROLE_PATIENT, id, keyHash)).orElse(false);
+    }
+
+
+    private static String hash(String key) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void requireOwner(Optional<Long> patientId, Optional<Long> doctorId) {
+        if (patientId.isEmpty() && doctorId.isEmpty()) {
+            throw new ResourceNotFoundException("No patient or doctor id specified");
+        }
+    }
+
+    private String summary(CalendarEntry entry, boolean doctorView) {
+        return "Appointment with " + (doctorView ? entry.getPatientName() : entry.getDoctorName());
+    }
+
+}
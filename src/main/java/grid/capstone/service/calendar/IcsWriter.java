@@ -0,0 +1,140 @@
+package grid.capstone.service.calendar;
+
+import grid.capstone.model.CalendarEntry;
+import grid.capstone.model.Frequency;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes RFC 5545 calendar components straight to a writer, one event
+ * at a time. Times are written as floating local times, the same way
+ * the appointments are stored.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+class IcsWriter {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HHmmss");
+    private static final DateTimeFormatter STAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    //Content lines are limited to 75 octets, the CRLF excluded
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final Writer writer;
+
+    IcsWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+
+    void begin(String name) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//Capstone//Appointments//EN");
+        line("CALSCALE:GREGORIAN");
+        line("X-WR-CALNAME:" + escape(name));
+    }
+
+    void event(CalendarEntry entry, String summary, Instant stamp) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + uid(entry));
+        line("DTSTAMP:" + STAMP.format(stamp));
+        line("DTSTART:" + dateTime(entry.getDate(), entry.getStartTime()));
+        line("DTEND:" + dateTime(entry.getDate(), entry.getEndTime()));
+
+        if (entry.getFrequency() != null) {
+            line("RRULE:" + recurrence(entry));
+        }
+
+        line("SUMMARY:" + escape(summary));
+
+        if (entry.getReason() != null) {
+            line("DESCRIPTION:" + escape(entry.getReason()));
+        }
+
+        line("END:VEVENT");
+    }
+
+    void end() throws IOException {
+        line("END:VCALENDAR");
+        writer.flush();
+    }
+
+
+    private String uid(CalendarEntry entry) {
+        return entry.getSeriesId() != null
+                ? "series-" + entry.getSeriesId() + "@capstone"
+                : "appointment-" + entry.getAppointmentId() + "@capstone";
+    }
+
+    /*
+     * Monthly series keep the day of the month and move back to the last
+     * day of shorter months, which BYSETPOS=-1 over the days up to the
+     * start day expresses for days past the 28th.
+     */
+    private String recurrence(CalendarEntry entry) {
+        StringBuilder rule = new StringBuilder("FREQ=")
+                .append(entry.getFrequency() == Frequency.WEEKLY ? "WEEKLY" : "MONTHLY")
+                .append(";INTERVAL=").append(entry.getIntervalCount());
+
+        int day = entry.getDate().getDayOfMonth();
+
+        if (entry.getFrequency() == Frequency.MONTHLY && day > 28) {
+            rule.append(";BYMONTHDAY=28");
+            for (int d = 29; d <= day; d++) {
+                rule.append(',').append(d);
+            }
+            rule.append(";BYSETPOS=-1");
+        }
+
+        return rule.append(";UNTIL=").append(dateTime(entry.getUntil(), LocalTime.MAX)).toString();
+    }
+
+    private static String dateTime(LocalDate date, LocalTime time) {
+        return DATE.format(date) + "T" + TIME.format(time);
+    }
+
+    static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r", "")
+                .replace("\n", "\\n");
+    }
+
+    //Folds the line so no physical line goes over the octet limit, without splitting a character
+    private void line(String content) throws IOException {
+        int octets = 0;
+        int limit = MAX_LINE_OCTETS;
+
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int size = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8).length;
+
+            if (octets + size > limit) {
+                writer.write("\r\n ");
+                octets = 0;
+                //The leading space of a continuation line counts towards its length
+                limit = MAX_LINE_OCTETS - 1;
+            }
+
+            writer.write(Character.toChars(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+
+        writer.write("\r\n");
+    }
+
+}
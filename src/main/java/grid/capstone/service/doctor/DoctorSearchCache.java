@@ -0,0 +1,67 @@
+package grid.capstone.service.doctor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import grid.capstone.dto.v1.DoctorDTO;
+import grid.capstone.repository.DoctorSearchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded cache of directory search results, in front of the
+ * {@link DoctorSearchRepository}. Directory search is the busiest
+ * anonymous page and most visitors type the same few searches, so
+ * results are kept for a short ttl, which is also how long a new or
+ * changed doctor can take to show up.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Component
+public class DoctorSearchCache {
+
+    private record Query(String text, int limit, int offset) {
+    }
+
+
+    private final DoctorSearchRepository doctorSearchRepository;
+    private final Cache<Query, List<DoctorDTO>> results;
+
+    public DoctorSearchCache(DoctorSearchRepository doctorSearchRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${doctor.search.cache.max-size:10000}") long maxSize,
+                             @Value("${doctor.search.cache.ttl:PT30S}") Duration ttl) {
+        this.doctorSearchRepository = doctorSearchRepository;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "doctor.search");
+    }
+
+
+    /**
+     * Finds the doctors matching the text, from the cache if the
+     * same search was made recently.
+     *
+     * @param text what the user typed
+     * @param limit maximum number of doctors
+     * @param offset number of doctors to skip
+     * @return the matching doctors, best match first
+     */
+    public List<DoctorDTO> search(String text, int limit, int offset) {
+        //Case is kept, OR is only an operator in capitals
+        String normalized = text.strip().replaceAll("\\s+", " ");
+
+        return results.get(new Query(normalized, limit, offset),
+                query -> List.copyOf(doctorSearchRepository.search(query.text(), query.limit(), query.offset())));
+    }
+
+}
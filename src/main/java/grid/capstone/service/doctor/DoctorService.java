@@ -2,11 +2,13 @@ package grid.capstone.service.doctor;
 
 import grid.capstone.dto.v1.DoctorDTO;
 import grid.capstone.dto.v1.DoctorSignUp;
+import grid.capstone.exception.InvalidRequestException;
 import grid.capstone.exception.ResourceNotFoundException;
 import grid.capstone.model.Doctor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 
+import java.util.List;
 import java.util.Optional;
 
 
@@ -41,6 +43,18 @@ public interface DoctorService {
      */
     Page<DoctorDTO> getAllDoctors(Optional<String> specialization, Optional<String> department, Optional<String> name, Integer size, Integer page);
 
+    /**
+     * Searches the directory by name, specialization, skills
+     * and biography, best match first
+     *
+     * @param query what the user typed
+     * @param size size of the page
+     * @param page page to be returned
+     * @return the matching doctors
+     * @throws InvalidRequestException when the query is blank or too long, or the page is out of range
+     */
+    List<DoctorDTO> searchDoctors(String query, Integer size, Integer page);
+
     /**
      *
      * Sign's up a doctor in the system
@@ -49,4 +63,15 @@ public interface DoctorService {
      * @return HttpStatus
      */
     HttpStatus saveDoctor(DoctorSignUp doctorSignUp);
+
+    /**
+     * Turns the digest of booking notifications on or off
+     * for the doctor
+     *
+     * @param doctorId Id of the doctor
+     * @param enabled true to get one digest per interval instead of an email per booking
+     * @return HttpStatus
+     * @throws ResourceNotFoundException when the id is not found
+     */
+    HttpStatus updateDigest(Long doctorId, boolean enabled);
 }
@@ -2,11 +2,16 @@ package grid.capstone.service.doctor;
 
 import grid.capstone.dto.v1.DoctorDTO;
 import grid.capstone.dto.v1.DoctorSignUp;
+import grid.capstone.exception.ConstraintViolations;
+import grid.capstone.exception.InvalidRequestException;
 import grid.capstone.exception.ResourceNotFoundException;
 import grid.capstone.mapper.DoctorMapper;
 import grid.capstone.model.Doctor;
+import grid.capstone.repository.DoctorDigestRepository;
 import grid.capstone.repository.DoctorRepository;
+import grid.capstone.service.security.UserAccountCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,12 +32,23 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class DoctorServiceImpl implements DoctorService {
 
+    private static final String UNIQUE_EMAIL = "uq_doctor_email";
+    private static final int MAX_SEARCH_SIZE = 50;
+    private static final int MAX_SEARCH_LENGTH = 200;
+    private static final int MAX_SEARCH_PAGE = 100;
+
     private final DoctorRepository doctorRepository;
 
     private final DoctorMapper doctorMapper;
 
     private final PasswordEncoder passwordEncoder;
 
+    private final DoctorDigestRepository doctorDigestRepository;
+
+    private final UserAccountCache userAccountCache;
+
+    private final DoctorSearchCache doctorSearchCache;
+
 
 
     @Override
@@ -68,18 +85,53 @@ public class DoctorServiceImpl implements DoctorService {
     }
 
     @Override
-    public HttpStatus saveDoctor(DoctorSignUp doctorSignUp) {
-        if (doctorRepository.existsByEmail(doctorSignUp.getEmail())) {
-            throw new ResourceNotFoundException("Email already exists");
+    public List<DoctorDTO> searchDoctors(String query, Integer size, Integer page) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search text is required");
+        }
+
+        if (query.length() > MAX_SEARCH_LENGTH) {
+            throw new InvalidRequestException("Search text can be at most " + MAX_SEARCH_LENGTH + " characters");
+        }
+
+        if (size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_SEARCH_SIZE);
+        }
+
+        //Nobody reads that far, and deep offsets cost as much as reading every page before
+        if (page < 0 || page > MAX_SEARCH_PAGE) {
+            throw new InvalidRequestException("Page must be between 0 and " + MAX_SEARCH_PAGE);
         }
 
+        return doctorSearchCache.search(query, size, page * size);
+    }
 
+    @Override
+    public HttpStatus saveDoctor(DoctorSignUp doctorSignUp) {
         Doctor doctor = doctorMapper.toEntity(doctorSignUp);
         doctor.setPassword(passwordEncoder.encode(doctorSignUp.getPassword()));
 
-        doctorRepository.save(doctor);
+        //A taken email is caught by the unique index, in the same round trip as the insert
+        try {
+            doctorRepository.saveAndFlush(doctor);
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolations.violates(ex, UNIQUE_EMAIL)) {
+                throw new ResourceNotFoundException("Email already exists");
+            }
+            throw ex;
+        }
+        userAccountCache.evict(doctor.getEmail());
 
 
         return HttpStatus.CREATED;
     }
+
+    @Override
+    public HttpStatus updateDigest(Long doctorId, boolean enabled) {
+        if (!doctorDigestRepository.setEnabled(doctorId, enabled)) {
+            throw new ResourceNotFoundException("Doctor with id " + doctorId + " does not exist");
+        }
+
+        return HttpStatus.OK;
+    }
 }
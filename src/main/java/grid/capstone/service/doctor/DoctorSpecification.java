@@ -48,16 +48,16 @@ public class DoctorSpecification {
 
     /**
      * Method create a criteria which checks for the specific
-     * username the client is looking for.
+     * name the client is looking for.
      *
-     * @param username
+     * @param name
      * @return
      */
-    public static Specification<Doctor> hasName(String username) {
+    public static Specification<Doctor> hasName(String name) {
         return (root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(
-                        criteriaBuilder.lower(root.get("username")),
-                        username.toLowerCase()
+                        criteriaBuilder.lower(root.get("name")),
+                        name.toLowerCase()
                 );
     }
 }
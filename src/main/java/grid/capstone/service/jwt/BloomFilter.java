@@ -0,0 +1,85 @@
+package grid.capstone.service.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size Bloom filter over strings. Adding and checking never
+ * lock, bits are only ever set, so a reader sees an added value as
+ * soon as its bits are in.
+ * <p>
+ * The k positions come from two 64-bit hashes of the value combined
+ * as h1 + i * h2, which is as good as k independent hashes here.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    /**
+     * @param expected how many values the filter is sized for
+     * @param falsePositiveRate rate of false positives once that many are in
+     */
+    BloomFilter(int expected, double falsePositiveRate) {
+        long size = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) Math.max(1, (size + 63) / 64));
+        this.bits = words.length() * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expected * Math.log(2)));
+    }
+
+
+    void add(String value) {
+        long h1 = hash(value, 0x9E3779B97F4A7C15L);
+        long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+
+            //Skip the write when the bit is set already, which is most of the time for a full filter
+            if ((words.get(word) & mask) == 0) {
+                words.getAndUpdate(word, current -> current | mask);
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value, 0x9E3779B97F4A7C15L);
+        long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    //FNV-1a over the UTF-8 bytes from the seed, finished with the murmur3 mixer
+    private static long hash(String value, long seed) {
+        long hash = seed;
+
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
@@ -1,36 +1,93 @@
 package grid.capstone.service.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import grid.capstone.model.Doctor;
+import grid.capstone.model.Patient;
+import grid.capstone.model.Role;
+import grid.capstone.model.UserAccount;
+import grid.capstone.service.security.AuthenticatedUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
+ * Issues and verifies the JWTs. The signing key and the parser are
+ * built once, both are immutable and shared by every request.
+ * <p>
+ * Tokens which passed verification are kept in a bounded cache until
+ * their own expiry, so a client sending the same token on every
+ * request only has its signature checked once. Tokens which fail are
+ * never cached, so garbage can't push the good ones out.
+ * <p>
+ * Tokens carry the id and role of the account next to its email, so
+ * a request can be authenticated without loading the account. They
+ * are short lived and carry an id (jti) so they can be revoked, and
+ * are renewed with a refresh token.
+ *
  * @author Javaughn Stephenson
  * @since 17/07/2023
  */
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private final String SECRET_KEY;
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+
+    private final Key signInKey;
+    private final JwtParser jwtParser;
+    private final Cache<String, Claims> verifiedTokens;
+    private final Duration accessTtl;
+
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.cache.max-size:10000}") long cacheSize,
+                      MeterRegistry meterRegistry,
+                      @Value("${jwt.access-ttl:PT15M}") Duration accessTtl) {
+        this.accessTtl = accessTtl;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+    }
 
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+
+        userId(userDetails).ifPresent(id -> claims.put(USER_ID_CLAIM, id));
+        userDetails.getAuthorities().stream()
+                .findFirst()
+                .ifPresent(authority -> claims.put(ROLE_CLAIM, authority.getAuthority()));
+
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(
@@ -38,17 +95,76 @@ public class JwtService {
             UserDetails userDetails
     ) {
 
+        long now = System.currentTimeMillis();
+
         return Jwts.builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTtl.toMillis()))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    public Duration getAccessTtl() {
+        return accessTtl;
+    }
+
+    /**
+     * Verifies the signature and expiry of the token, at most once
+     * for as long as the token is valid. The claims returned are
+     * shared between requests and must not be modified.
+     *
+     * @param token the compact JWT
+     * @return the claims, empty if the token is not valid
+     */
+    public Optional<Claims> verify(String token) {
+        Claims claims = verifiedTokens.getIfPresent(token);
+
+        if (claims != null) {
+            return Optional.of(claims);
+        }
+
+        try {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+
+        //A token without an expiry is valid but is not kept, there is no telling when to drop it
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(token, claims);
+        }
+
+        return Optional.of(claims);
+    }
+
+    /**
+     * Builds the principal from the claims of a verified token. Tokens
+     * issued before the id and role were embedded have neither, the
+     * account has to be loaded for those.
+     *
+     * @param claims the claims of a verified token
+     * @return the principal, empty if the token does not carry enough
+     */
+    public Optional<AuthenticatedUser> principal(Claims claims) {
+        Long id = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+
+        if (id == null || role == null || claims.getSubject() == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(new AuthenticatedUser(id, claims.getSubject(), Role.valueOf(role)));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
     public Boolean isTokenValid(String token) {
-        return !extractExpiration(token).before(new Date());
+        return verify(token).isPresent();
     }
 
     public String extractUsername(String token) {
@@ -56,26 +172,46 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token)
+                .orElseThrow(() -> new JwtException("Token is not valid"));
         return claimsResolver.apply(claims);
     }
 
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static Optional<Long> userId(UserDetails userDetails) {
+        if (userDetails instanceof UserAccount account) {
+            return Optional.ofNullable(account.getId());
+        }
+        if (userDetails instanceof Doctor doctor) {
+            return Optional.ofNullable(doctor.getId());
+        }
+        if (userDetails instanceof Patient patient) {
+            return Optional.ofNullable(patient.getId());
+        }
+        if (userDetails instanceof AuthenticatedUser user) {
+            return Optional.ofNullable(user.id());
+        }
+
+        return Optional.empty();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
 
-    private Key getSignInKey() {
-        byte[] keyByes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyByes);
+    private static final class ExpireAtTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long millisLeft = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 
 }
@@ -0,0 +1,217 @@
+package grid.capstone.service.jwt;
+
+import grid.capstone.repository.RevokedAccountRepository;
+import grid.capstone.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens revoked before their expiry, e.g. on logout. The
+ * revocations are kept in the {@code revoked_token} table and mirrored
+ * in a Bloom filter here, so checking a token which was not revoked,
+ * which is nearly every token, costs no query. Only a token the
+ * filter says might be revoked is looked up.
+ * <p>
+ * Each instance reads the rows added since it last looked every
+ * couple of seconds, so a revocation made by another instance is
+ * honoured within that. The filter is rebuilt from the unexpired rows
+ * now and then, which drops expired revocations and keeps the false
+ * positive rate where it was sized.
+ * <p>
+ * Accounts can be revoked as a whole too, rejecting every token issued
+ * to them up to that moment; tokens issued afterwards work again.
+ * Those are kept in the {@code revoked_account} table and held here in
+ * full, synced and rebuilt along with the tokens. A row is only needed
+ * until the access tokens issued before it have expired, so the map
+ * holds no more than the accounts revoked within one access token ttl.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Component
+@Slf4j
+public class TokenRevocations {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedAccountRepository revokedAccountRepository;
+    private final int expected;
+    private final double falsePositiveRate;
+    private final Duration overlap;
+    private final Duration accessTtl;
+
+    private volatile BloomFilter revoked;
+    private volatile Map<String, Long> revokedAccounts = new ConcurrentHashMap<>();
+    private LocalDateTime syncedUntil;
+
+    private final Counter lookups;
+    private final Counter falsePositives;
+
+    public TokenRevocations(RevokedTokenRepository revokedTokenRepository,
+                            RevokedAccountRepository revokedAccountRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${jwt.revocation.expected:100000}") int expected,
+                            @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                            @Value("${jwt.revocation.overlap:PT5S}") Duration overlap,
+                            @Value("${jwt.access-ttl:PT15M}") Duration accessTtl) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revokedAccountRepository = revokedAccountRepository;
+        this.expected = expected;
+        this.falsePositiveRate = falsePositiveRate;
+        this.overlap = overlap;
+        this.accessTtl = accessTtl;
+
+        this.lookups = Counter.builder("jwt.revocation.lookups")
+                .description("Tokens the Bloom filter could not rule out, checked against the table")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("jwt.revocation.false.positives")
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * Revokes the token until it expires, here straight away and on
+     * the other instances at their next sync.
+     *
+     * @param jti id of the token
+     * @param expiresAt when the token expires
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        revokedTokenRepository.revoke(jti, expiresAt);
+
+        BloomFilter filter = revoked;
+        if (filter != null) {
+            filter.add(jti);
+        }
+    }
+
+    /**
+     * Checks if the token was revoked. Tokens issued without an id
+     * can't be revoked.
+     *
+     * @param jti id of the token, may be null
+     * @return true if the token must be rejected
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+
+        BloomFilter filter = revoked;
+
+        //Until the first load nothing can be ruled out
+        if (filter != null && !filter.mightContain(jti)) {
+            return false;
+        }
+
+        lookups.increment();
+        boolean exists = revokedTokenRepository.exists(jti);
+
+        if (!exists && filter != null) {
+            falsePositives.increment();
+        }
+
+        return exists;
+    }
+
+    /**
+     * Rejects the tokens issued to the account so far, here straight
+     * away and on the other instances at their next sync.
+     *
+     * @param username the email of the account
+     */
+    public void revokeAccount(String username) {
+        LocalDateTime revokedAt = revokedAccountRepository.revoke(username);
+
+        revokedAccounts.merge(username, toMillis(revokedAt), Math::max);
+    }
+
+    /**
+     * Checks if a token of the account has been revoked. The issue
+     * time of a token is only kept to the second, so a token issued
+     * within the same second as the revocation counts as revoked.
+     *
+     * @param username the email of the account
+     * @param issuedAt when the token was issued, may be null
+     * @return true if the token must be rejected
+     */
+    public boolean isRevoked(String username, Date issuedAt) {
+        Long revokedAt = username != null ? revokedAccounts.get(username) : null;
+
+        if (revokedAt == null) {
+            return false;
+        }
+
+        return issuedAt == null || issuedAt.getTime() < revokedAt;
+    }
+
+    /*
+     * Reads from a little before the last read, so a row inserted just
+     * before it but not yet visible then is not missed. Adding a jti
+     * twice does nothing.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-ms:2000}")
+    public synchronized void sync() {
+        try {
+            if (revoked == null) {
+                rebuild();
+                return;
+            }
+
+            LocalDateTime now = revokedTokenRepository.now();
+            List<String> jtis = revokedTokenRepository.findRevokedSince(syncedUntil.minus(overlap));
+
+            jtis.forEach(revoked::add);
+            revokedAccountRepository.findRevokedSince(syncedUntil.minus(overlap))
+                    .forEach((username, revokedAt) -> revokedAccounts.merge(username, toMillis(revokedAt), Math::max));
+            syncedUntil = now;
+        } catch (Exception ex) {
+            log.warn("Could not sync revoked tokens", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-ms:3600000}",
+            initialDelayString = "${jwt.revocation.rebuild-ms:3600000}")
+    public synchronized void rebuild() {
+        try {
+            revokedTokenRepository.deleteExpired();
+            revokedAccountRepository.deleteRevokedBefore(accessTtl);
+
+            LocalDateTime now = revokedTokenRepository.now();
+            List<String> jtis = revokedTokenRepository.findUnexpired();
+            BloomFilter filter = new BloomFilter(Math.max(expected, jtis.size() * 2), falsePositiveRate);
+
+            jtis.forEach(filter::add);
+
+            Map<String, Long> accounts = new ConcurrentHashMap<>();
+            revokedAccountRepository.findRevokedSince(now.minus(accessTtl))
+                    .forEach((username, revokedAt) -> accounts.put(username, toMillis(revokedAt)));
+
+            revoked = filter;
+            revokedAccounts = accounts;
+            syncedUntil = now;
+            log.info("Loaded {} revoked tokens and {} revoked accounts", jtis.size(), accounts.size());
+        } catch (Exception ex) {
+            log.warn("Could not load revoked tokens", ex);
+        }
+    }
+
+    //The table's timestamps are in the database's local time, as the JVM's
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+}
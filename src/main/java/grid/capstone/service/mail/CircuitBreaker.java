@@ -0,0 +1,103 @@
+package grid.capstone.service.mail;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calls to the mail server once it keeps failing. After
+ * {@code failureThreshold} failures in a row the breaker opens and
+ * refuses calls for {@code openNanos}, then lets a single trial call
+ * through: it closes again if the trial succeeds and opens for
+ * another round if it fails.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int failureThreshold, long openNanos, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+        this.nanoClock = nanoClock;
+    }
+
+
+    //Checks if a call would be let through, without taking the trial of a half open breaker
+    synchronized boolean allowsCalls() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> nanoClock.getAsLong() - openedAt >= openNanos;
+            case HALF_OPEN -> !trialInFlight;
+        };
+    }
+
+    /**
+     * Asks to make a call. Every call let through must report
+     * back with {@link #onSuccess()} or {@link #onFailure()}.
+     *
+     * @return true if the call can be made
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    yield false;
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    //Gives back a call which was let through but never made, so it tells nothing about the server
+    synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        trialInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        failures++;
+
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            failures = 0;
+            trialInFlight = false;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+}
@@ -0,0 +1,67 @@
+package grid.capstone.service.mail;
+
+import grid.capstone.model.DigestLine;
+import grid.capstone.repository.DoctorDigestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queues the digests of the doctors who opted in, once per
+ * {@code mail.digest.interval-ms}. All the digests are read in one
+ * query and queued in the outbox in the same transaction which moves
+ * them forward, so a change is in exactly one digest. Only one
+ * instance builds them at a time.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Component
+@Slf4j
+public class DigestScheduler {
+
+    private final DoctorDigestRepository doctorDigestRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration settle;
+
+    public DigestScheduler(DoctorDigestRepository doctorDigestRepository,
+                           EmailService emailService,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${mail.digest.settle:PT1M}") Duration settle) {
+        this.doctorDigestRepository = doctorDigestRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.settle = settle;
+    }
+
+
+    @Scheduled(fixedDelayString = "${mail.digest.interval-ms:3600000}",
+            initialDelayString = "${mail.digest.interval-ms:3600000}")
+    public void sendDigests() {
+        transactionTemplate.executeWithoutResult(status -> {
+            //Another instance is on it
+            if (!doctorDigestRepository.tryLock()) {
+                return;
+            }
+
+            LocalDateTime until = doctorDigestRepository.until(settle);
+            List<DigestLine> lines = doctorDigestRepository.findLines(until);
+
+            emailService.queue(emailService.digestEmails(lines, until));
+            doctorDigestRepository.markSent(until);
+
+            if (!lines.isEmpty()) {
+                log.info("Queued digests of {} appointment changes", lines.size());
+            }
+        });
+    }
+
+}
@@ -0,0 +1,298 @@
+package grid.capstone.service.mail;
+
+import grid.capstone.config.ExecutorConfig;
+import grid.capstone.model.OutboxEmail;
+import grid.capstone.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the email outbox in the background. Due emails are claimed
+ * in batches, each batch is cut into groups which are sent over one
+ * connection to the mail server apiece, on the bounded mail pool.
+ * A failed email is retried with exponential backoff and marked dead
+ * once it runs out of attempts. Sent and dead emails are purged once
+ * they are older than {@code mail.outbox.retention}.
+ * <p>
+ * Claiming runs ahead of the sends, so a backlog fills the pool's
+ * queue; groups it has no room for are spilled back to the outbox or
+ * dropped, following {@code mail.outbox.overflow}. The queue should
+ * drain well within the lease, or its emails are claimed again by
+ * another instance while they wait. A circuit breaker
+ * stops claiming emails while the mail server keeps failing, so an
+ * outage leaves them in the outbox instead of burning their attempts.
+ * <p>
+ * Delivery is at least once: an email sent just before the instance
+ * dies, and before it could be marked as sent, is sent again once
+ * its lease runs out.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "mail.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final Executor mailExecutor;
+    private final int batchSize;
+    private final int connectionBatchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    private final OverflowPolicy overflowPolicy;
+    private final CircuitBreaker circuitBreaker;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Timer deliveryLatency;
+    private final Timer sendDuration;
+
+    public EmailDispatcher(EmailOutboxRepository emailOutboxRepository,
+                           EmailService emailService,
+                           @Qualifier(ExecutorConfig.MAIL_EXECUTOR) Executor mailExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${mail.outbox.batch-size:100}") int batchSize,
+                           @Value("${mail.outbox.connection-batch-size:50}") int connectionBatchSize,
+                           @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                           @Value("${mail.outbox.lease:PT5M}") Duration lease,
+                           @Value("${mail.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+                           @Value("${mail.outbox.max-backoff:PT1H}") Duration maxBackoff,
+                           @Value("${mail.outbox.retention:P7D}") Duration retention,
+                           @Value("${mail.outbox.overflow:SPILL}") OverflowPolicy overflowPolicy,
+                           @Value("${mail.breaker.failure-threshold:5}") int breakerFailureThreshold,
+                           @Value("${mail.breaker.open-duration:PT30S}") Duration breakerOpenDuration) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.mailExecutor = mailExecutor;
+        this.batchSize = batchSize;
+        this.connectionBatchSize = connectionBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        this.overflowPolicy = overflowPolicy;
+        this.circuitBreaker = new CircuitBreaker(breakerFailureThreshold, breakerOpenDuration.toNanos(), System::nanoTime);
+
+        //The rate of the sent counter is the throughput in emails per second
+        this.sent = Counter.builder("mail.outbox.emails")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.retried = Counter.builder("mail.outbox.emails")
+                .tag("result", "retried")
+                .register(meterRegistry);
+        this.dead = Counter.builder("mail.outbox.emails")
+                .tag("result", "dead")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("mail.outbox.emails")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        this.spilled = Counter.builder("mail.outbox.spilled")
+                .description("Emails handed back to the outbox because the delivery queue was full")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("mail.outbox.delivery.latency")
+                .description("Time from an email being queued to it being handed to the mail server")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.sendDuration = Timer.builder("mail.outbox.send")
+                .description("Time spent sending one group of emails over one connection")
+                .register(meterRegistry);
+        Gauge.builder("mail.breaker.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("0 closed, 1 open, 2 half open")
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * Hands everything which is due to the mail pool. Claiming does not
+     * wait for the sends, a full batch means there is a backlog so the
+     * next one is claimed straight away, until the pool's queue is full
+     * or the breaker stops letting groups through. The groups the queue
+     * had no room for overflow, the rest wait for the next poll.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        boolean backlog;
+
+        do {
+            //While the breaker is open the emails wait in the outbox
+            if (!circuitBreaker.allowsCalls()) {
+                return;
+            }
+
+            List<OutboxEmail> due = emailOutboxRepository.claimDue(batchSize, lease);
+            long claimedAt = System.nanoTime();
+
+            List<OutboxEmail> refused = new ArrayList<>();
+            List<OutboxEmail> overflow = new ArrayList<>();
+
+            for (int from = 0; from < due.size(); from += connectionBatchSize) {
+                List<OutboxEmail> group = due.subList(from, Math.min(from + connectionBatchSize, due.size()));
+
+                if (!circuitBreaker.tryAcquire()) {
+                    refused.addAll(group);
+                    continue;
+                }
+
+                try {
+                    mailExecutor.execute(() -> deliver(group, claimedAt));
+                } catch (RejectedExecutionException ex) {
+                    circuitBreaker.release();
+                    overflow.addAll(group);
+                }
+            }
+
+            emailOutboxRepository.release(ids(refused));
+            overflow(overflow);
+
+            backlog = due.size() == batchSize && refused.isEmpty() && overflow.isEmpty();
+        } while (backlog);
+    }
+
+    @Scheduled(cron = "${mail.outbox.purge-cron:0 0 * * * *}")
+    public void purge() {
+        int purged = emailOutboxRepository.deleteSentBefore(retention);
+
+        if (purged > 0) {
+            log.info("Purged {} sent emails from the outbox", purged);
+        }
+
+        //Dead emails are kept as long as sent ones, so they can be looked into before they go
+        int purgedDead = emailOutboxRepository.deleteDeadBefore(retention);
+
+        if (purgedDead > 0) {
+            log.info("Purged {} dead emails from the outbox", purgedDead);
+        }
+    }
+
+
+    void deliver(List<OutboxEmail> group, long claimedAt) {
+        long start = System.nanoTime();
+        Map<Long, Exception> failures;
+
+        try {
+            failures = emailService.sendAll(group);
+        } catch (RuntimeException ex) {
+            failures = new HashMap<>();
+            for (OutboxEmail email : group) {
+                failures.put(email.getId(), ex);
+            }
+        }
+
+        long now = System.nanoTime();
+        sendDuration.record(now - start, TimeUnit.NANOSECONDS);
+
+        //Every email of the group failing means the server, not a recipient, is the problem
+        if (failures.size() == group.size()) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+
+        List<Long> delivered = new ArrayList<>(group.size());
+
+        for (OutboxEmail email : group) {
+            Exception failure = failures.get(email.getId());
+
+            if (failure != null) {
+                fail(email, failure);
+                continue;
+            }
+
+            delivered.add(email.getId());
+            deliveryLatency.record(
+                    TimeUnit.MILLISECONDS.toNanos(email.getQueuedMillis()) + (now - claimedAt),
+                    TimeUnit.NANOSECONDS
+            );
+        }
+
+        if (!delivered.isEmpty()) {
+            emailOutboxRepository.markSent(delivered);
+            sent.increment(delivered.size());
+        }
+    }
+
+    private void overflow(List<OutboxEmail> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case SPILL -> {
+                log.warn("Delivery queue is full, handing {} emails back to the outbox", emails.size());
+                emailOutboxRepository.release(ids(emails));
+                spilled.increment(emails.size());
+            }
+            case DROP -> {
+                log.warn("Delivery queue is full, dropping {} emails", emails.size());
+                emails.forEach(email -> emailOutboxRepository.markDead(email.getId(), "Dropped, the delivery queue was full"));
+                dropped.increment(emails.size());
+            }
+        }
+    }
+
+    private void fail(OutboxEmail email, Exception ex) {
+        String error = ex.getClass().getSimpleName() + ": " + ex.getMessage();
+
+        if (email.getAttempts() >= maxAttempts) {
+            log.error("Giving up on email {} after {} attempts", email.getId(), email.getAttempts(), ex);
+            emailOutboxRepository.markDead(email.getId(), error);
+            dead.increment();
+            return;
+        }
+
+        Duration delay = backoff(email.getAttempts());
+        log.warn("Could not send email {}, retrying in {}", email.getId(), delay, ex);
+        emailOutboxRepository.reschedule(email.getId(), delay, error);
+        retried.increment();
+    }
+
+    private static List<Long> ids(List<OutboxEmail> emails) {
+        return emails.stream().map(OutboxEmail::getId).toList();
+    }
+
+    /*
+    Doubles with every attempt up to the maximum, with up to a fifth
+    added at random so emails which failed together don't all come
+    back at the same instant
+     */
+    Duration backoff(int attempts) {
+        long delay = initialBackoff.toMillis();
+
+        for (int i = 1; i < attempts && delay < maxBackoff.toMillis(); i++) {
+            delay *= 2;
+        }
+
+        delay = Math.min(delay, maxBackoff.toMillis());
+
+        return Duration.ofMillis(delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1));
+    }
+
+}
@@ -1,15 +1,36 @@
 package grid.capstone.service.mail;
 
 import grid.capstone.model.Appointment;
+import grid.capstone.model.DigestLine;
 import grid.capstone.model.Doctor;
+import grid.capstone.model.OutboxEmail;
 import grid.capstone.model.Patient;
+import grid.capstone.repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
 /**
+ * Emails are never sent from the request thread. They are queued in
+ * the outbox within the caller's transaction and delivered later by
+ * the {@link EmailDispatcher}.
+ *
  * @author Javaughn Stephenson
  * @since 18/07/2023
  */
@@ -18,32 +39,236 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class EmailService {
 
+    private static final String FROM = "capstone-mail@mail.com";
+
     @Autowired
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+
+
+    /**
+     * Queues the emails telling the doctor and the patient about the
+     * appointment. Must be called inside the transaction saving it.
+     */
+    public void queueAppointmentEmail(Appointment appointment, Doctor doctor, Patient patient) {
+        queue(appointmentEmails(appointment, doctor, patient));
+    }
+
+    public void queue(Collection<OutboxEmail> emails) {
+        emailOutboxRepository.enqueueAll(emails);
+    }
+
+    public List<OutboxEmail> appointmentEmails(Appointment appointment, Doctor doctor, Patient patient) {
+
+        OutboxEmail doctorMail = OutboxEmail.builder()
+                .recipient(doctor.getEmail())
+                .subject("Scheduled Appointment")
+                .body("New appointment schedule with " + patient.getName()
+                        + " at " + appointment.getAppointmentDate() + " from " + appointment.getStartTime()
+                        + " to " + appointment.getEndTime())
+                .build();
+
+        OutboxEmail patientMail = OutboxEmail.builder()
+                .recipient(patient.getEmail())
+                .subject("Scheduled Appointment")
+                .body("New appointment schedule with " + doctor.getName()
+                        + " at " + appointment.getAppointmentDate() + " from " + appointment.getStartTime()
+                        + " to " + appointment.getEndTime())
+                .build();
+
+        //Doctors on a digest hear about it there
+        Stream<OutboxEmail> emails = doctor.isDigestEnabled()
+                ? Stream.of(patientMail)
+                : Stream.of(doctorMail, patientMail);
 
+        //Someone without an address on file can't be told
+        return emails
+                .filter(email -> email.getRecipient() != null)
+                .toList();
+    }
+
+    /**
+     * One digest for each doctor in the lines, listing their
+     * appointments booked or changed up to {@code until}.
+     *
+     * @param lines lines of the digests, those of a doctor next to each other
+     * @param until end of the digests
+     * @return the digests
+     */
+    public List<OutboxEmail> digestEmails(List<DigestLine> lines, LocalDateTime until) {
+        List<OutboxEmail> emails = new ArrayList<>();
+        StringBuilder body = new StringBuilder();
+
+        for (int i = 0; i < lines.size(); i++) {
+            DigestLine line = lines.get(i);
 
-    public void sendAppointmentEmail(Appointment appointment, Doctor doctor, Patient patient) {
+            body.append(line.getDate()).append(" from ").append(line.getStartTime())
+                    .append(" to ").append(line.getEndTime())
+                    .append(" with ").append(line.getPatientName());
+            if (line.getReason() != null) {
+                body.append(": ").append(line.getReason());
+            }
+            body.append('\n');
 
-        SimpleMailMessage doctorMail = new SimpleMailMessage();
-        doctorMail.setFrom("capstone-mail@mail.com");
-        doctorMail.setTo(doctor.getEmail());
-        doctorMail.setSubject("Scheduled Appointment");
-        doctorMail.setText("New appointment schedule with " + patient.getName()
-                + " at " + appointment.getAppointmentDate() + " from " + appointment.getStartTime()
-                + " to " + appointment.getEndTime());
+            boolean lastOfDoctor = i + 1 == lines.size() || !lines.get(i + 1).getDoctorId().equals(line.getDoctorId());
+
+            if (lastOfDoctor) {
+                emails.add(OutboxEmail.builder()
+                        .recipient(line.getDoctorEmail())
+                        .subject("Appointment Digest")
+                        .body("New and changed appointments up to " + until.withNano(0) + "\n\n" + body)
+                        .dedupeKey("digest:" + line.getDoctorId() + ":" + until)
+                        .build());
+                body.setLength(0);
+            }
+        }
+
+        return emails;
+    }
 
-        SimpleMailMessage patientMail = new SimpleMailMessage();
-        patientMail.setFrom("capstone-mail@mail.com");
-        patientMail.setTo(patient.getEmail());
-        patientMail.setSubject("Scheduled Appointment");
-        patientMail.setText("New appointment schedule with " + doctor.getName()
-                + " at " + appointment.getAppointmentDate() + " from " + appointment.getStartTime()
-                + " to " + appointment.getEndTime());
+    /**
+     * The reminder the patient gets {@code lead} ahead of the
+     * appointment. Keyed on the appointment, or the series of an
+     * occurrence, its start and the lead, so it is queued once however
+     * many times it fires.
+     *
+     * @param appointment the appointment with its doctor and patient
+     * @param lead how long before the start the reminder is sent
+     * @return the reminder, none if the patient has no address
+     */
+    public List<OutboxEmail> reminderEmails(Appointment appointment, Duration lead) {
+        Patient patient = appointment.getPatient();
 
+        if (patient.getEmail() == null) {
+            return List.of();
+        }
 
-        mailSender.send(doctorMail);
-        mailSender.send(patientMail);
+        return List.of(OutboxEmail.builder()
+                .recipient(patient.getEmail())
+                .subject("Appointment Reminder")
+                .body("Your appointment with " + appointment.getDoctor().getName()
+                        + " is " + describe(lead) + ", at " + appointment.getAppointmentDate()
+                        + " from " + appointment.getStartTime() + " to " + appointment.getEndTime())
+                .dedupeKey("reminder:" + reminderTarget(appointment) + ":" + appointment.getAppointmentDate()
+                        + "T" + appointment.getStartTime() + ":" + lead)
+                .build());
+    }
+
+    /**
+     * Sends the emails in one go over a single connection to the mail
+     * server, an email equal to another one of the group goes out in
+     * a send of its own. Blocks on the mail server, only the
+     * dispatcher's workers call this.
+     *
+     * @param emails emails to send
+     * @return the error of each email which could not be sent, by id
+     */
+    public Map<Long, Exception> sendAll(List<OutboxEmail> emails) {
+        Map<Long, Exception> failures = new HashMap<>();
+
+        /*
+        The mail sender reports failures in a map keyed by message, where
+        equal messages share one entry, so equal ones go out in separate sends
+         */
+        for (List<OutboxEmail> distinct : distinctSends(emails)) {
+            failures.putAll(send(distinct));
+        }
+
+        return failures;
+    }
+
+
+    private Map<Long, Exception> send(List<OutboxEmail> emails) {
+        SimpleMailMessage[] messages = emails.stream()
+                .map(EmailService::toMessage)
+                .toArray(SimpleMailMessage[]::new);
+
+        try {
+            mailSender.send(messages);
+            return Map.of();
+        } catch (MailSendException ex) {
+            Map<Object, Exception> failedMessages = ex.getFailedMessages();
+
+            //Nothing more specific means nothing went out
+            if (failedMessages.isEmpty()) {
+                return allFailed(emails, ex);
+            }
+
+            //The failed messages are the ones that were sent, so they are told apart by identity
+            Map<Object, Long> ids = new IdentityHashMap<>();
+            for (int i = 0; i < emails.size(); i++) {
+                ids.put(messages[i], emails.get(i).getId());
+            }
+
+            Map<Long, Exception> failures = new HashMap<>();
+            failedMessages.forEach((message, failure) -> {
+                Long id = ids.get(message);
+                if (id != null) {
+                    failures.put(id, failure);
+                }
+            });
+            return failures;
+        } catch (MailException ex) {
+            return allFailed(emails, ex);
+        }
+    }
+
+    //Each email joins the first send without an equal message, so a group with no repeats is one send
+    private static List<List<OutboxEmail>> distinctSends(List<OutboxEmail> emails) {
+        List<List<OutboxEmail>> sends = new ArrayList<>();
+        List<Set<SimpleMailMessage>> messages = new ArrayList<>();
+
+        for (OutboxEmail email : emails) {
+            SimpleMailMessage message = toMessage(email);
+
+            int send = 0;
+            while (send < sends.size() && messages.get(send).contains(message)) {
+                send++;
+            }
+
+            if (send == sends.size()) {
+                sends.add(new ArrayList<>());
+                messages.add(new HashSet<>());
+            }
+
+            sends.get(send).add(email);
+            messages.get(send).add(message);
+        }
+
+        return sends;
+    }
+
+
+    //Occurrences of a series have no id, their series tells them apart
+    private static String reminderTarget(Appointment appointment) {
+        return appointment.getId() != null
+                ? String.valueOf(appointment.getId())
+                : "series-" + appointment.getSeriesId();
+    }
+
+    private static String describe(Duration lead) {
+        if (lead.equals(Duration.ofDays(1))) {
+            return "tomorrow";
+        }
+        if (lead.toHours() > 0 && lead.equals(Duration.ofHours(lead.toHours()))) {
+            return "in " + lead.toHours() + (lead.toHours() == 1 ? " hour" : " hours");
+        }
+        return "in " + lead.toMinutes() + " minutes";
+    }
+
+    private static SimpleMailMessage toMessage(OutboxEmail email) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(FROM);
+        mail.setTo(email.getRecipient());
+        mail.setSubject(email.getSubject());
+        mail.setText(email.getBody());
+        return mail;
+    }
 
+    private static Map<Long, Exception> allFailed(List<OutboxEmail> emails, Exception ex) {
+        Map<Long, Exception> failures = new HashMap<>();
+        emails.forEach(email -> failures.put(email.getId(), ex));
+        return failures;
     }
 
 }
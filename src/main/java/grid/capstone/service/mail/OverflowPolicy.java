@@ -0,0 +1,16 @@
+package grid.capstone.service.mail;
+
+/**
+ * What the {@link EmailDispatcher} does with claimed emails
+ * when the delivery queue of the mail pool is full.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public enum OverflowPolicy {
+    //Hand them back to the outbox, to be claimed again on a later poll
+    SPILL,
+    //Give up on them, they are marked dead and counted
+    DROP
+}
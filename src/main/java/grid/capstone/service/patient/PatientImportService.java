@@ -0,0 +1,39 @@
+package grid.capstone.service.patient;
+
+import grid.capstone.dto.v1.PatientImportDTO;
+import grid.capstone.exception.InvalidRequestException;
+import grid.capstone.exception.ResourceNotFoundException;
+import grid.capstone.exception.TooManyRequestsException;
+
+import java.io.InputStream;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public interface PatientImportService {
+
+    /**
+     * Takes in a file of patient sign ups, CSV with a header row or
+     * one JSON object per line, and imports it in the background.
+     *
+     * @param body the file
+     * @param contentType text/csv or application/x-ndjson
+     * @param doctorId doctor every imported patient is assigned to, required as every patient has one
+     * @return the queued import, to poll with {@link #getImport(Long)}
+     * @throws InvalidRequestException when there is no doctor, the format is not supported or the file is too large
+     * @throws ResourceNotFoundException when the doctor does not exist
+     * @throws TooManyRequestsException when too many imports are waiting already
+     */
+    PatientImportDTO startImport(InputStream body, String contentType, Long doctorId);
+
+    /**
+     * Get the progress of an import
+     *
+     * @param importId id of the import
+     * @return the import
+     * @throws ResourceNotFoundException when the id cannot be found
+     */
+    PatientImportDTO getImport(Long importId);
+}
@@ -0,0 +1,357 @@
+package grid.capstone.service.patient;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import grid.capstone.config.ExecutorConfig;
+import grid.capstone.dto.v1.PatientImportDTO;
+import grid.capstone.dto.v1.PatientSignUp;
+import grid.capstone.exception.InvalidRequestException;
+import grid.capstone.exception.ResourceNotFoundException;
+import grid.capstone.exception.TooManyRequestsException;
+import grid.capstone.mapper.PatientMapper;
+import grid.capstone.model.Doctor;
+import grid.capstone.model.ImportStatus;
+import grid.capstone.model.Patient;
+import grid.capstone.repository.DoctorRepository;
+import grid.capstone.repository.PatientBatchRepository;
+import grid.capstone.repository.PatientImportRepository;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Imports patients in bulk. The upload is spooled to a temporary file
+ * so the request returns straight away, then read back one row at a
+ * time and imported in chunks: rows are validated and deduplicated
+ * by email in memory, the emails already signed up are found with one
+ * query per chunk, the passwords are hashed in parallel on the import
+ * hash pool and the rows are inserted in a JDBC batch. Progress is
+ * saved after every chunk.
+ * <p>
+ * Each chunk is committed on its own, so an import which fails part
+ * way keeps the patients imported before.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Service
+@Slf4j
+public class PatientImportServiceImpl implements PatientImportService {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+
+    private enum Format {
+        CSV,
+        NDJSON
+    }
+
+    //Next row of the file, null at the end. A row which can't be parsed throws and is skipped
+    @FunctionalInterface
+    private interface Rows {
+        PatientSignUp next() throws IOException;
+    }
+
+
+    private final PatientImportRepository patientImportRepository;
+    private final PatientBatchRepository patientBatchRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientMapper patientMapper;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final Executor importExecutor;
+    private final ForkJoinPool hashPool;
+    private final int chunkSize;
+    private final long maxBytes;
+    private final Duration retryAfter;
+
+    public PatientImportServiceImpl(PatientImportRepository patientImportRepository,
+                                    PatientBatchRepository patientBatchRepository,
+                                    DoctorRepository doctorRepository,
+                                    PatientMapper patientMapper,
+                                    PasswordEncoder passwordEncoder,
+                                    Validator validator,
+                                    ObjectMapper objectMapper,
+                                    @Qualifier(ExecutorConfig.IMPORT_EXECUTOR) Executor importExecutor,
+                                    @Qualifier(ExecutorConfig.IMPORT_HASH_POOL) ForkJoinPool hashPool,
+                                    @Value("${patient.import.chunk-size:1000}") int chunkSize,
+                                    @Value("${patient.import.max-bytes:52428800}") long maxBytes,
+                                    @Value("${patient.import.retry-after:PT30S}") Duration retryAfter) {
+        this.patientImportRepository = patientImportRepository;
+        this.patientBatchRepository = patientBatchRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientMapper = patientMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.importExecutor = importExecutor;
+        this.hashPool = hashPool;
+        this.chunkSize = chunkSize;
+        this.maxBytes = maxBytes;
+        this.retryAfter = retryAfter;
+    }
+
+
+    @Override
+    public PatientImportDTO startImport(InputStream body, String contentType, Long doctorId) {
+        Format format = format(contentType);
+
+        //patient.doctor_id is not null, without a doctor the first chunk would fail the whole import
+        if (doctorId == null) {
+            throw new InvalidRequestException("A doctor is required to import patients");
+        }
+
+        //Checked once here rather than failing every row on the foreign key
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new ResourceNotFoundException("Doctor with id " + doctorId + " does not exist");
+        }
+
+        Path file = spool(body);
+        PatientImportDTO queued = patientImportRepository.create(doctorId);
+
+        try {
+            importExecutor.execute(() -> run(queued.getId(), queued.getDoctorId(), file, format));
+        } catch (RejectedExecutionException ex) {
+            delete(file);
+            queued.setStatus(ImportStatus.FAILED);
+            queued.setError("Too many imports at once");
+            patientImportRepository.update(queued);
+            throw new TooManyRequestsException("Too many imports at once, try again later", retryAfter);
+        }
+
+        return queued;
+    }
+
+    @Override
+    public PatientImportDTO getImport(Long importId) {
+        return patientImportRepository.findById(importId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import with id " + importId + " does not exist"));
+    }
+
+
+    private static Format format(String contentType) {
+        MediaType mediaType;
+
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (RuntimeException ex) {
+            throw new InvalidRequestException("Imports must be text/csv or application/x-ndjson");
+        }
+
+        if (TEXT_CSV.includes(mediaType)) {
+            return Format.CSV;
+        }
+        if (MediaType.APPLICATION_NDJSON.includes(mediaType)) {
+            return Format.NDJSON;
+        }
+
+        throw new InvalidRequestException("Imports must be text/csv or application/x-ndjson");
+    }
+
+    private Path spool(InputStream body) {
+        Path file = null;
+
+        try {
+            file = Files.createTempFile("patient-import-", ".tmp");
+
+            try (InputStream in = body; OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[8192];
+                long total = 0;
+                int read;
+
+                while ((read = in.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxBytes) {
+                        throw new InvalidRequestException("An import can be at most " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            return file;
+        } catch (IOException ex) {
+            delete(file);
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            delete(file);
+            throw ex;
+        }
+    }
+
+    private void run(Long importId, Long doctorId, Path file, Format format) {
+        PatientImportDTO progress = PatientImportDTO.builder()
+                .id(importId)
+                .doctorId(doctorId)
+                .status(ImportStatus.RUNNING)
+                .build();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            patientImportRepository.update(progress);
+
+            Rows rows = rows(reader, format);
+            Set<String> seen = new HashSet<>();
+            List<PatientSignUp> chunk = new ArrayList<>(chunkSize);
+
+            while (true) {
+                PatientSignUp row;
+
+                try {
+                    row = rows.next();
+                } catch (JsonProcessingException ex) {
+                    progress.setRead(progress.getRead() + 1);
+                    progress.setInvalid(progress.getInvalid() + 1);
+                    continue;
+                }
+
+                if (row == null) {
+                    break;
+                }
+
+                chunk.add(row);
+
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, seen, progress);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, seen, progress);
+            }
+
+            progress.setStatus(ImportStatus.DONE);
+        } catch (Exception ex) {
+            log.warn("Patient import {} failed", importId, ex);
+            progress.setStatus(ImportStatus.FAILED);
+            progress.setError(ex.getMessage());
+        } finally {
+            patientImportRepository.update(progress);
+            delete(file);
+        }
+    }
+
+    private Rows rows(BufferedReader reader, Format format) throws IOException {
+        if (format == Format.CSV) {
+            MappingIterator<PatientSignUp> iterator = CSV_MAPPER.readerFor(PatientSignUp.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValues(reader);
+
+            return () -> iterator.hasNextValue() ? iterator.nextValue() : null;
+        }
+
+        ObjectReader json = objectMapper.readerFor(PatientSignUp.class);
+
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+
+            return line == null ? null : json.readValue(line);
+        };
+    }
+
+    private void importChunk(List<PatientSignUp> rows, Set<String> seen, PatientImportDTO progress) {
+        Map<String, PatientSignUp> signUps = new LinkedHashMap<>();
+
+        for (PatientSignUp row : rows) {
+            progress.setRead(progress.getRead() + 1);
+
+            if (!validator.validate(row).isEmpty()) {
+                progress.setInvalid(progress.getInvalid() + 1);
+                continue;
+            }
+
+            //The first row with an email wins, ignoring case like the unique index
+            String email = row.getEmail().toLowerCase(Locale.ROOT);
+
+            if (!seen.add(email)) {
+                progress.setDuplicates(progress.getDuplicates() + 1);
+                continue;
+            }
+
+            signUps.put(email, row);
+        }
+
+        //One query for the whole chunk instead of one per row
+        Set<String> existing = patientBatchRepository.findExistingEmails(signUps.keySet());
+        signUps.keySet().removeAll(existing);
+        progress.setExisting(progress.getExisting() + existing.size());
+
+        List<ForkJoinTask<String>> hashes = signUps.values().stream()
+                .map(signUp -> hashPool.submit(() -> passwordEncoder.encode(signUp.getPassword())))
+                .toList();
+
+        List<Patient> patients = new ArrayList<>(signUps.size());
+        int i = 0;
+
+        for (PatientSignUp signUp : signUps.values()) {
+            Patient patient = patientMapper.toEntity(signUp);
+            patient.setPassword(hashes.get(i++).join());
+
+            if (progress.getDoctorId() != null) {
+                patient.setDoctor(Doctor.builder().id(progress.getDoctorId()).build());
+            }
+
+            patients.add(patient);
+        }
+
+        int created = patients.isEmpty() ? 0 : patientBatchRepository.insertAll(patients);
+
+        //The rest were signed up while the chunk was being hashed
+        progress.setCreated(progress.getCreated() + created);
+        progress.setExisting(progress.getExisting() + patients.size() - created);
+
+        patientImportRepository.update(progress);
+    }
+
+    private static void delete(Path file) {
+        if (file == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete {}", file, ex);
+        }
+    }
+
+}
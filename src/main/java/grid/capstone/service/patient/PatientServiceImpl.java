@@ -1,13 +1,16 @@
 package grid.capstone.service.patient;
 
 import grid.capstone.dto.v1.PatientSignUp;
+import grid.capstone.exception.ConstraintViolations;
 import grid.capstone.exception.ResourceNotFoundException;
 import grid.capstone.mapper.PatientMapper;
 import grid.capstone.model.Doctor;
 import grid.capstone.model.Patient;
 import grid.capstone.repository.DoctorRepository;
 import grid.capstone.repository.PatientRepository;
+import grid.capstone.service.security.UserAccountCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -24,10 +27,14 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class PatientServiceImpl implements PatientService {
 
+    private static final String UNIQUE_EMAIL = "uq_patient_email";
+    private static final String DOCTOR_FK = "fk_doctor";
+
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final PatientMapper patientMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserAccountCache userAccountCache;
 
 
 
@@ -41,33 +48,32 @@ public class PatientServiceImpl implements PatientService {
 
     @Override
     public HttpStatus savePatient(PatientSignUp patientSignUp, Optional<Long> doctorId) {
-        if (patientRepository.existsByEmail(patientSignUp.getEmail())) {
-            throw new ResourceNotFoundException("Email already exists");
-        }
 
         //Mapping the DTO to the entity and setting the doctor
         //to the entity
         Patient patient = patientMapper.toEntity(patientSignUp);
         patient.setPassword(passwordEncoder.encode(patientSignUp.getPassword()));
 
-
-        //Check if doctor exists
-        if (doctorId.isPresent()) {
-
-            if (!doctorRepository.existsById(doctorId.get())) {
-                throw new ResourceNotFoundException("Doctor with id " + doctorId.get() + " does not exists");
+        doctorId.ifPresent(id -> patient.setDoctor(
+                Doctor.builder()
+                        .id(id)
+                        .build()
+        ));
+
+        //A taken email or a missing doctor is caught by the constraints,
+        //in the same round trip as the insert
+        try {
+            patientRepository.saveAndFlush(patient);
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolations.violates(ex, UNIQUE_EMAIL)) {
+                throw new ResourceNotFoundException("Email already exists");
             }
-            else {
-                patient.setDoctor(
-                        Doctor.builder()
-                                .id(doctorId.get())
-                                .build()
-                );
+            if (doctorId.isPresent() && ConstraintViolations.violates(ex, DOCTOR_FK)) {
+                throw new ResourceNotFoundException("Doctor with id " + doctorId.get() + " does not exists");
             }
-
+            throw ex;
         }
-
-        patientRepository.save(patient);
+        userAccountCache.evict(patient.getEmail());
 
         return HttpStatus.CREATED;
     }
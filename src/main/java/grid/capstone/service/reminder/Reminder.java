@@ -0,0 +1,43 @@
+package grid.capstone.service.reminder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * A reminder sent {@code lead} ahead of an appointment, or of an
+ * occurrence of a series, starting at {@code start}. The start is
+ * kept so a reminder outlived by a change of the appointment can be
+ * told apart when it fires.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+record Reminder(Long appointmentId, Long seriesId, LocalDateTime start, Duration lead) {
+
+    /**
+     * What a reminder is for: an appointment, or the occurrence of a
+     * series starting at a given time, which has no row of its own.
+     */
+    record Target(Long appointmentId, Long seriesId, LocalDateTime occurrence) {
+    }
+
+    Reminder(Long appointmentId, LocalDateTime start, Duration lead) {
+        this(appointmentId, null, start, lead);
+    }
+
+    static Reminder ofOccurrence(Long seriesId, LocalDateTime start, Duration lead) {
+        return new Reminder(null, seriesId, start, lead);
+    }
+
+    LocalDateTime fireAt() {
+        return start.minus(lead);
+    }
+
+    Target target() {
+        return seriesId == null
+                ? new Target(appointmentId, null, null)
+                : new Target(null, seriesId, start);
+    }
+
+}
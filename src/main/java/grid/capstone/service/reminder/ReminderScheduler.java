@@ -0,0 +1,397 @@
+package grid.capstone.service.reminder;
+
+import grid.capstone.model.Appointment;
+import grid.capstone.model.AppointmentSeries;
+import grid.capstone.model.BookedInterval;
+import grid.capstone.model.OutboxEmail;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import grid.capstone.service.mail.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends the reminders of upcoming appointments, {@code reminder.leads}
+ * ahead of their start.
+ * <p>
+ * Only the reminders due within the next {@code reminder.horizon} are
+ * held, in a {@link TimingWheel}. The horizon is filled from the
+ * appointment table an hour of reminders at a time, a page at a time,
+ * and pushed forward as time passes, so the table is never scanned as
+ * a whole and a restart only reloads the horizon. The occurrences of
+ * series starting within each hour are expanded alongside, as they
+ * have no rows of their own. Bookings, changes and new series made
+ * through this instance are scheduled straight away.
+ * <p>
+ * Firing reminders are checked against the appointment or series
+ * first, so one which was moved or dropped meanwhile, maybe by another
+ * instance, is not sent. The emails go through the outbox with a key
+ * made of the appointment or series, the start and the lead, so every
+ * instance can fire the same reminder and it is still queued once.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Component
+@Slf4j
+public class ReminderScheduler {
+
+    private static final long TICK_MILLIS = 1000;
+    //Seconds, minutes and hours: reaches 64 hours ahead
+    private static final int[] WHEEL_SLOTS = {60, 60, 64};
+    private static final Duration BUCKET = Duration.ofHours(1);
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentSeriesRepository appointmentSeriesRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final List<Duration> leads;
+    private final Duration longestLead;
+    private final Duration horizon;
+    private final Duration catchUp;
+    private final int pageSize;
+
+    private final TimingWheel<Reminder> wheel;
+    private final Map<Reminder.Target, List<TimingWheel.Timer<Reminder>>> timers = new HashMap<>();
+    //Reminders due before this have been loaded, or are being loaded up to loadingUntil
+    private LocalDateTime loadedUntil;
+    private LocalDateTime loadingUntil;
+
+    private final Counter fired;
+
+    public ReminderScheduler(AppointmentRepository appointmentRepository,
+                             AppointmentSeriesRepository appointmentSeriesRepository,
+                             EmailService emailService,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${reminder.enabled:true}") boolean enabled,
+                             @Value("${reminder.leads:P1D,PT1H}") List<Duration> leads,
+                             @Value("${reminder.horizon:P2D}") Duration horizon,
+                             @Value("${reminder.catch-up:PT15M}") Duration catchUp,
+                             @Value("${reminder.page-size:1000}") int pageSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentSeriesRepository = appointmentSeriesRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.leads = List.copyOf(leads);
+        this.longestLead = leads.stream().max(Comparator.naturalOrder()).orElse(Duration.ZERO);
+        this.horizon = horizon;
+        this.catchUp = catchUp;
+        this.pageSize = pageSize;
+
+        this.wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SLOTS, System.currentTimeMillis());
+
+        if (horizon.plus(BUCKET).toMillis() >= wheel.reachMillis()) {
+            throw new IllegalArgumentException("The reminder horizon must be shorter than "
+                    + Duration.ofMillis(wheel.reachMillis()).minus(BUCKET));
+        }
+
+        //Reminders missed while no instance was running are still sent if they are recent enough
+        this.loadedUntil = LocalDateTime.now().minus(catchUp);
+        this.loadingUntil = loadedUntil;
+
+        this.fired = Counter.builder("reminder.fired")
+                .register(meterRegistry);
+        Gauge.builder("reminder.scheduled", this, ReminderScheduler::scheduled)
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * Schedules the reminders of a booked or changed appointment,
+     * replacing the ones it had. Must be called once it is committed.
+     *
+     * @param appointment the saved appointment
+     */
+    public void schedule(Appointment appointment) {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime start = startOf(appointment);
+        LocalDateTime now = LocalDateTime.now();
+
+        synchronized (this) {
+            List<TimingWheel.Timer<Reminder>> previous = timers.remove(new Reminder.Target(appointment.getId(), null, null));
+            if (previous != null) {
+                previous.forEach(wheel::cancel);
+            }
+
+            //Later ones are picked up by the loader when it gets there
+            for (Duration lead : leads) {
+                Reminder reminder = new Reminder(appointment.getId(), start, lead);
+                if (reminder.fireAt().isBefore(loadingUntil)) {
+                    add(reminder, now, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules the reminders of the occurrences of a new series.
+     * Must be called once it is committed.
+     *
+     * @param series the saved series
+     */
+    public void schedule(AppointmentSeries series) {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        synchronized (this) {
+            //Only occurrences with a reminder before the loader's position, later ones are picked up by it
+            LocalDate last = loadingUntil.plus(longestLead).toLocalDate();
+
+            for (LocalDate date : series.occurrencesBetween(now.toLocalDate(), last)) {
+                LocalDateTime start = LocalDateTime.of(date, series.getStartTime());
+
+                for (Duration lead : leads) {
+                    Reminder reminder = Reminder.ofOccurrence(series.getId(), start, lead);
+                    if (reminder.fireAt().isBefore(loadingUntil)) {
+                        add(reminder, now, true);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the reminders which came within the horizon. The first run
+     * after a start loads the whole horizon.
+     */
+    @Scheduled(fixedDelayString = "${reminder.refill-interval-ms:300000}")
+    public void refill() {
+        if (enabled) {
+            refill(LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reminder.tick-ms:1000}")
+    public void tick() {
+        if (enabled) {
+            fire(expire(System.currentTimeMillis()));
+        }
+    }
+
+
+    void refill(LocalDateTime now) {
+        LocalDateTime target = now.plus(horizon);
+
+        while (true) {
+            LocalDateTime from;
+
+            synchronized (this) {
+                if (!loadedUntil.isBefore(target)) {
+                    return;
+                }
+                from = loadedUntil;
+                loadingUntil = from.plus(BUCKET);
+            }
+
+            //The database is queried without holding up bookings or the wheel
+            List<Reminder> reminders = load(from, from.plus(BUCKET));
+
+            synchronized (this) {
+                //What was scheduled meanwhile is at least as fresh as what was just read
+                reminders.forEach(reminder -> add(reminder, now, false));
+                loadedUntil = loadingUntil;
+            }
+        }
+    }
+
+    synchronized List<Reminder> expire(long nowMillis) {
+        List<Reminder> due = wheel.advance(nowMillis);
+        due.forEach(reminder -> timers.computeIfPresent(reminder.target(), (target, scheduled) -> {
+            scheduled.removeIf(timer -> timer.value() == reminder);
+            return scheduled.isEmpty() ? null : scheduled;
+        }));
+        return due;
+    }
+
+    void fire(List<Reminder> due) {
+        if (due.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> appointmentIds = due.stream().map(Reminder::appointmentId).filter(Objects::nonNull).toList();
+                List<Long> seriesIds = due.stream().map(Reminder::seriesId).filter(Objects::nonNull).distinct().toList();
+
+                Map<Long, Appointment> appointments = appointmentIds.isEmpty() ? Map.of() : appointmentRepository
+                        .findWithPeopleByIdIn(appointmentIds)
+                        .stream()
+                        .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+
+                Map<Long, AppointmentSeries> series = seriesIds.isEmpty() ? Map.of() : appointmentSeriesRepository
+                        .findWithPeopleByIdIn(seriesIds)
+                        .stream()
+                        .collect(Collectors.toMap(AppointmentSeries::getId, Function.identity()));
+
+                List<OutboxEmail> emails = new ArrayList<>();
+
+                for (Reminder reminder : due) {
+                    Appointment appointment = reminder.seriesId() == null
+                            ? appointments.get(reminder.appointmentId())
+                            : occurrence(series.get(reminder.seriesId()), reminder.start());
+
+                    if (appointment != null && startOf(appointment).equals(reminder.start())) {
+                        emails.addAll(emailService.reminderEmails(appointment, reminder.lead()));
+                    }
+                }
+
+                emailService.queue(emails);
+            });
+
+            fired.increment(due.size());
+        } catch (RuntimeException ex) {
+            log.warn("Could not queue {} reminders, retrying in {}", due.size(), RETRY_DELAY, ex);
+            retry(due);
+        }
+    }
+
+
+    private synchronized void retry(List<Reminder> due) {
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Reminder reminder : due) {
+            if (reminder.start().isAfter(now)) {
+                track(reminder, wheel.add(reminder, epochMillis(now.plus(RETRY_DELAY))));
+            }
+        }
+    }
+
+    //Adds the reminder unless it is stale, replacing or keeping one already there for the same lead
+    private void add(Reminder reminder, LocalDateTime now, boolean replace) {
+        if (!reminder.start().isAfter(now) || reminder.fireAt().isBefore(now.minus(catchUp))) {
+            return;
+        }
+
+        List<TimingWheel.Timer<Reminder>> scheduled = timers.get(reminder.target());
+
+        if (scheduled != null) {
+            for (TimingWheel.Timer<Reminder> timer : scheduled) {
+                if (timer.value().lead().equals(reminder.lead())) {
+                    if (!replace) {
+                        return;
+                    }
+                    wheel.cancel(timer);
+                    scheduled.remove(timer);
+                    break;
+                }
+            }
+        }
+
+        track(reminder, wheel.add(reminder, epochMillis(reminder.fireAt())));
+    }
+
+    private void track(Reminder reminder, TimingWheel.Timer<Reminder> timer) {
+        timers.computeIfAbsent(reminder.target(), target -> new ArrayList<>()).add(timer);
+    }
+
+    /*
+    Reminders whose appointment or series occurrence starts in
+    [from + lead, to + lead) for every lead, appointments paged by id.
+    The range is split at midnight since the date and the time of an
+    appointment are separate columns
+     */
+    private List<Reminder> load(LocalDateTime from, LocalDateTime to) {
+        List<Reminder> reminders = new ArrayList<>();
+
+        for (Duration lead : leads) {
+            LocalDateTime start = from.plus(lead);
+            LocalDateTime end = to.plus(lead);
+
+            for (LocalDate date = start.toLocalDate(); date.atStartOfDay().isBefore(end); date = date.plusDays(1)) {
+                LocalTime startTime = date.equals(start.toLocalDate()) ? start.toLocalTime() : LocalTime.MIDNIGHT;
+                LocalTime endTime = date.equals(end.toLocalDate()) ? end.toLocalTime() : null;
+
+                List<BookedInterval> page;
+                Long afterId = 0L;
+
+                do {
+                    page = appointmentRepository.findStartingBetween(
+                            date, startTime, endTime, afterId, PageRequest.ofSize(pageSize));
+
+                    for (BookedInterval interval : page) {
+                        reminders.add(new Reminder(
+                                interval.getAppointmentId(),
+                                LocalDateTime.of(interval.getDate(), interval.getStartTime()),
+                                lead
+                        ));
+                    }
+
+                    if (!page.isEmpty()) {
+                        afterId = page.get(page.size() - 1).getAppointmentId();
+                    }
+                } while (page.size() == pageSize);
+
+                for (AppointmentSeries series : appointmentSeriesRepository.findStartingBetween(date, startTime, endTime)) {
+                    if (series.occursOn(date)) {
+                        reminders.add(Reminder.ofOccurrence(series.getId(), LocalDateTime.of(date, series.getStartTime()), lead));
+                    }
+                }
+            }
+        }
+
+        return reminders;
+    }
+
+    private synchronized int scheduled() {
+        return wheel.size();
+    }
+
+    //The occurrence of the series starting then, null if the series no longer has one
+    private static Appointment occurrence(AppointmentSeries series, LocalDateTime start) {
+        if (series == null || !series.occursOn(start.toLocalDate())) {
+            return null;
+        }
+
+        return Appointment.builder()
+                .seriesId(series.getId())
+                .appointmentDate(start.toLocalDate())
+                .startTime(series.getStartTime())
+                .endTime(series.getEndTime())
+                .reason(series.getReason())
+                .doctor(series.getDoctor())
+                .patient(series.getPatient())
+                .build();
+    }
+
+    private static LocalDateTime startOf(Appointment appointment) {
+        return LocalDateTime.of(appointment.getAppointmentDate(), appointment.getStartTime());
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+}
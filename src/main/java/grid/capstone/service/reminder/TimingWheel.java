@@ -0,0 +1,185 @@
+package grid.capstone.service.reminder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Each level is a ring of slots, a slot of
+ * one level spanning the whole ring of the level below, so a handful
+ * of slots covers days ahead at a one tick resolution. Timers are put
+ * in the lowest level whose ring reaches their deadline and moved down
+ * a level as the wheel turns towards them.
+ * <p>
+ * Adding, cancelling and expiring a timer cost the same whatever the
+ * number of timers. Cancelled timers are only dropped once their slot
+ * comes round. Not thread safe, the owner guards it.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+class TimingWheel<T> {
+
+    static final class Timer<T> {
+        private final T value;
+        private final long deadlineTick;
+        private boolean cancelled;
+
+        private Timer(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        T value() {
+            return value;
+        }
+    }
+
+
+    private final long tickMillis;
+    private final int[] slots;
+    //Ticks covered by one slot, and by the whole ring, of each level
+    private final long[] slotTicks;
+    private final long[] ringTicks;
+    private final List<List<List<Timer<T>>>> levels = new ArrayList<>();
+    //Timers added with a deadline which already passed, expired on the next advance
+    private List<Timer<T>> overdue = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickMillis, int[] slots, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = slots.clone();
+        this.slotTicks = new long[slots.length];
+        this.ringTicks = new long[slots.length];
+        this.currentTick = startMillis / tickMillis;
+
+        long ticks = 1;
+        for (int level = 0; level < slots.length; level++) {
+            slotTicks[level] = ticks;
+            ticks *= slots[level];
+            ringTicks[level] = ticks;
+
+            List<List<Timer<T>>> ring = new ArrayList<>(slots[level]);
+            for (int slot = 0; slot < slots[level]; slot++) {
+                ring.add(new ArrayList<>());
+            }
+            levels.add(ring);
+        }
+    }
+
+
+    /**
+     * Adds a timer. It never expires before its deadline, at most a
+     * tick after it.
+     *
+     * @param value what is returned once the timer expires
+     * @param deadlineMillis epoch millis at which it expires
+     * @return the timer, to cancel it
+     * @throws IllegalArgumentException if the deadline is beyond the reach of the wheel
+     */
+    Timer<T> add(T value, long deadlineMillis) {
+        Timer<T> timer = new Timer<>(value, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    void cancel(Timer<T> timer) {
+        if (!timer.cancelled) {
+            timer.cancelled = true;
+            size--;
+        }
+    }
+
+    /**
+     * Turns the wheel up to the time given.
+     *
+     * @param nowMillis epoch millis
+     * @return the values of the timers which expired
+     */
+    List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        expire(takeOverdue(), expired);
+
+        long target = nowMillis / tickMillis;
+
+        while (currentTick < target) {
+            currentTick++;
+
+            //Higher levels first, so timers cascading down twice in one tick land in the right slot
+            for (int level = levels.size() - 1; level > 0; level--) {
+                if (currentTick % slotTicks[level] == 0) {
+                    takeSlot(level).forEach(timer -> {
+                        if (!timer.cancelled) {
+                            place(timer);
+                        }
+                    });
+                }
+            }
+
+            expire(takeOverdue(), expired);
+            expire(takeSlot(0), expired);
+        }
+
+        return expired;
+    }
+
+    long reachMillis() {
+        return ringTicks[ringTicks.length - 1] * tickMillis;
+    }
+
+    int size() {
+        return size;
+    }
+
+
+    private void place(Timer<T> timer) {
+        long delta = timer.deadlineTick - currentTick;
+
+        if (delta <= 0) {
+            overdue.add(timer);
+            return;
+        }
+
+        for (int level = 0; level < levels.size(); level++) {
+            if (delta < ringTicks[level]) {
+                levels.get(level).get(slot(level, timer.deadlineTick)).add(timer);
+                return;
+            }
+        }
+
+        throw new IllegalArgumentException("Deadline is more than " + reachMillis() + "ms ahead");
+    }
+
+    private int slot(int level, long tick) {
+        return (int) ((tick / slotTicks[level]) % slots[level]);
+    }
+
+    private List<Timer<T>> takeSlot(int level) {
+        List<List<Timer<T>>> ring = levels.get(level);
+        int slot = slot(level, currentTick);
+        List<Timer<T>> timers = ring.get(slot);
+        ring.set(slot, new ArrayList<>());
+        return timers;
+    }
+
+    private List<Timer<T>> takeOverdue() {
+        List<Timer<T>> timers = overdue;
+        overdue = new ArrayList<>();
+        return timers;
+    }
+
+    private void expire(List<Timer<T>> timers, List<T> expired) {
+        for (Timer<T> timer : timers) {
+            if (!timer.cancelled) {
+                //Expired timers count as cancelled so cancelling them later is harmless
+                timer.cancelled = true;
+                size--;
+                expired.add(timer.value);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,229 @@
+package grid.capstone.service.schedule;
+
+import grid.capstone.dto.v1.SlotDTO;
+import grid.capstone.model.AvailabilityWindow;
+import grid.capstone.model.BookedInterval;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Computes bookable slots by intersecting a doctor's weekly
+ * availability windows with the intervals already booked.
+ * Times are handled as seconds of the day, both sides are merged
+ * into sorted disjoint intervals and the free gaps are cut into
+ * consecutive slots of the requested duration.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public final class FreeSlotCalculator {
+
+    private static final int END_OF_DAY = 24 * 60 * 60;
+
+    private FreeSlotCalculator() {
+    }
+
+
+    /**
+     * Free slots of a doctor for every day in [from, to],
+     * ordered by date and start time.
+     *
+     * @param doctorId id of the doctor
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @param windows the doctor's availability windows
+     * @param booked the doctor's booked intervals within the range
+     * @param duration length of a slot
+     * @return list of free slots
+     */
+    public static List<SlotDTO> freeSlots(Long doctorId, LocalDate from, LocalDate to,
+                                          List<AvailabilityWindow> windows,
+                                          List<BookedInterval> booked,
+                                          Duration duration) {
+
+        Map<LocalDate, List<BookedInterval>> bookedByDate = booked.stream()
+                .collect(Collectors.groupingBy(BookedInterval::getDate));
+
+        List<SlotDTO> slots = new ArrayList<>();
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            slots.addAll(daySlots(doctorId, date, windows,
+                    bookedByDate.getOrDefault(date, List.of()), duration));
+        }
+
+        return slots;
+    }
+
+    /**
+     * Free slots of a doctor on a single day, ordered by start time.
+     *
+     * @param doctorId id of the doctor
+     * @param date the day
+     * @param windows the doctor's availability windows, other days of the week are ignored
+     * @param booked intervals booked on that day
+     * @param duration length of a slot
+     * @return list of free slots
+     */
+    public static List<SlotDTO> daySlots(Long doctorId, LocalDate date,
+                                         List<AvailabilityWindow> windows,
+                                         List<BookedInterval> booked,
+                                         Duration duration) {
+
+        long step = duration.toSeconds();
+
+        List<int[]> open = merge(windows.stream()
+                .filter(window -> date.getDayOfWeek() == dayOfWeek(window.getDayOfWeek()))
+                .map(window -> span(window.getStartTime(), window.getEndTime()))
+                .toList());
+
+        List<int[]> busy = merge(booked.stream()
+                .map(interval -> span(interval.getStartTime(), interval.getEndTime()))
+                .toList());
+
+        List<SlotDTO> slots = new ArrayList<>();
+
+        for (int[] free : subtract(open, busy)) {
+            for (long start = free[0]; start + step <= free[1]; start += step) {
+                slots.add(SlotDTO.builder()
+                        .doctorId(doctorId)
+                        .date(date)
+                        .startTime(toTime(start))
+                        .endTime(toTime(start + step))
+                        .build());
+            }
+        }
+
+        return slots;
+    }
+
+
+    /**
+     * The free slots of a day closest to a preferred start time, found
+     * by walking forwards and backwards from that time at once and
+     * always taking the nearer side. Ordered from nearest to farthest.
+     *
+     * @param doctorId id of the doctor
+     * @param date the day
+     * @param windows the doctor's availability windows, other days of the week are ignored
+     * @param booked intervals booked on that day, for the doctor and anyone else who must be free
+     * @param duration length of a slot
+     * @param preferredStart start time asked for
+     * @param count maximum number of slots
+     * @return list of free slots
+     */
+    public static List<SlotDTO> nearestSlots(Long doctorId, LocalDate date,
+                                             List<AvailabilityWindow> windows,
+                                             List<BookedInterval> booked,
+                                             Duration duration,
+                                             LocalTime preferredStart,
+                                             int count) {
+
+        List<SlotDTO> slots = daySlots(doctorId, date, windows, booked, duration);
+        int preferred = preferredStart.toSecondOfDay();
+
+        //First slot starting at or after the preferred time, the one before it is the backward side
+        int after = 0;
+        while (after < slots.size() && slots.get(after).getStartTime().toSecondOfDay() < preferred) {
+            after++;
+        }
+        int before = after - 1;
+
+        List<SlotDTO> nearest = new ArrayList<>(count);
+
+        while (nearest.size() < count && (before >= 0 || after < slots.size())) {
+            boolean forward = before < 0 || (after < slots.size()
+                    && distance(slots.get(after), preferred) <= distance(slots.get(before), preferred));
+
+            nearest.add(forward ? slots.get(after++) : slots.get(before--));
+        }
+
+        return nearest;
+    }
+
+
+    //Sorts the intervals and joins the ones which overlap or touch
+    private static List<int[]> merge(List<int[]> spans) {
+        List<int[]> sorted = spans.stream()
+                .filter(span -> span[0] < span[1])
+                .sorted(Comparator.comparingInt(span -> span[0]))
+                .toList();
+
+        List<int[]> merged = new ArrayList<>();
+
+        for (int[] span : sorted) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+
+            if (last != null && span[0] <= last[1]) {
+                last[1] = Math.max(last[1], span[1]);
+            } else {
+                merged.add(new int[]{span[0], span[1]});
+            }
+        }
+
+        return merged;
+    }
+
+    //Removes the busy intervals from the open ones, both sorted and disjoint
+    private static List<int[]> subtract(List<int[]> open, List<int[]> busy) {
+        List<int[]> free = new ArrayList<>();
+        int b = 0;
+
+        for (int[] window : open) {
+            int cursor = window[0];
+
+            //Skip the busy intervals which end before this window
+            while (b < busy.size() && busy.get(b)[1] <= cursor) {
+                b++;
+            }
+
+            int i = b;
+            while (i < busy.size() && busy.get(i)[0] < window[1]) {
+                if (busy.get(i)[0] > cursor) {
+                    free.add(new int[]{cursor, busy.get(i)[0]});
+                }
+                cursor = Math.max(cursor, busy.get(i)[1]);
+                i++;
+            }
+
+            if (cursor < window[1]) {
+                free.add(new int[]{cursor, window[1]});
+            }
+        }
+
+        return free;
+    }
+
+    private static int[] span(LocalTime startTime, LocalTime endTime) {
+        int start = startTime.toSecondOfDay();
+        //An interval ending at midnight runs until the end of the day
+        int end = LocalTime.MIDNIGHT.equals(endTime) ? END_OF_DAY : endTime.toSecondOfDay();
+        return new int[]{start, end};
+    }
+
+    private static int distance(SlotDTO slot, int secondOfDay) {
+        return Math.abs(slot.getStartTime().toSecondOfDay() - secondOfDay);
+    }
+
+    private static LocalTime toTime(long secondOfDay) {
+        return LocalTime.ofSecondOfDay(secondOfDay % END_OF_DAY);
+    }
+
+    static DayOfWeek dayOfWeek(String dayOfWeek) {
+        try {
+            return DayOfWeek.valueOf(dayOfWeek.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            return null;
+        }
+    }
+
+}
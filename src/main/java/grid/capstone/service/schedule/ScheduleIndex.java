@@ -0,0 +1,304 @@
+package grid.capstone.service.schedule;
+
+import grid.capstone.model.Appointment;
+import grid.capstone.model.AppointmentSeries;
+import grid.capstone.model.BookedInterval;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.UnaryOperator;
+
+/**
+ * Resident index of booked intervals keyed by (doctor, date) and
+ * (patient, date), so bookings and the free slots offered after a
+ * conflict can be worked out from memory instead of querying the
+ * appointment table. Each instance has its own, so a day here can
+ * miss a booking made elsewhere or hold one moved or cancelled
+ * elsewhere: a booking it finds free is still checked under the
+ * day's lock, and a conflict it finds is confirmed by id before the
+ * booking is turned away.
+ * <p>
+ * Days are loaded lazily from the {@link AppointmentRepository},
+ * together with the occurrences of any series on that day,
+ * on the first lookup, kept up to date after each successful save
+ * and evicted once they have not been used for the configured ttl
+ * or when the index grows past its maximum number of days.
+ * The ttl also bounds how long bookings made by other instances
+ * can stay invisible to this one.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Component
+@Slf4j
+public class ScheduleIndex {
+
+    public enum Party {
+        DOCTOR,
+        PATIENT
+    }
+
+    private record DayKey(Party party, Long ownerId, LocalDate date) {
+    }
+
+    //Stripes of the change counters, see getOrLoad
+    private static final int CHANGE_STRIPES = 64;
+
+    private static final Comparator<BookedInterval> BY_START_TIME =
+            Comparator.comparing(BookedInterval::getStartTime)
+                    .thenComparing(BookedInterval::getAppointmentId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /**
+     * Intervals of a single day sorted by start time. The list is
+     * never mutated, updates swap in a new copy so readers don't lock.
+     */
+    private static final class DaySchedule {
+        private final List<BookedInterval> intervals;
+        private final long loadedAt;
+        private volatile long lastAccess;
+
+        private DaySchedule(List<BookedInterval> intervals, long loadedAt) {
+            this.intervals = intervals;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+
+        private DaySchedule without(Long appointmentId) {
+            List<BookedInterval> copy = new ArrayList<>(intervals);
+            copy.removeIf(interval -> isAppointment(interval, appointmentId));
+            return new DaySchedule(List.copyOf(copy), loadedAt);
+        }
+
+        private DaySchedule with(BookedInterval bookedInterval) {
+            List<BookedInterval> copy = new ArrayList<>(intervals);
+            copy.removeIf(interval -> isAppointment(interval, bookedInterval.getAppointmentId()));
+            copy.add(bookedInterval);
+            copy.sort(BY_START_TIME);
+            return new DaySchedule(List.copyOf(copy), loadedAt);
+        }
+    }
+
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentSeriesRepository appointmentSeriesRepository;
+    private final Map<DayKey, DaySchedule> days = new ConcurrentHashMap<>();
+    private final AtomicLongArray changes = new AtomicLongArray(CHANGE_STRIPES);
+
+    private final boolean enabled;
+    private final int maxDays;
+    private final long ttlNanos;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ScheduleIndex(AppointmentRepository appointmentRepository,
+                         AppointmentSeriesRepository appointmentSeriesRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${schedule.index.enabled:true}") boolean enabled,
+                         @Value("${schedule.index.max-days:10000}") int maxDays,
+                         @Value("${schedule.index.ttl:PT1M}") Duration ttl) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentSeriesRepository = appointmentSeriesRepository;
+        this.enabled = enabled;
+        this.maxDays = maxDays;
+        this.ttlNanos = ttl.toNanos();
+
+        this.hits = Counter.builder("schedule.index.lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("schedule.index.lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("schedule.index.evictions")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("schedule.index.days", List.of(), days);
+    }
+
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Intervals booked on a doctor's or patient's day, including the
+     * occurrences of their series, sorted by start time.
+     *
+     * @param party whose day it is
+     * @param ownerId id of the doctor or patient
+     * @param date the day
+     * @return the booked intervals, possibly missing bookings made by other instances within the ttl
+     */
+    public List<BookedInterval> bookedOn(Party party, Long ownerId, LocalDate date) {
+        return getOrLoad(new DayKey(party, ownerId, date)).intervals;
+    }
+
+    /**
+     * Intervals of the doctor's and the patient's day which overlap
+     * the [startTime, endTime) interval, each once.
+     *
+     * @param doctorId id of the doctor
+     * @param patientId id of the patient
+     * @param date the day
+     * @param startTime start of the interval
+     * @param endTime end of the interval
+     * @param excludeId id of the appointment being updated, null when creating
+     * @return the overlapping intervals, to be confirmed against the database before being trusted
+     */
+    public List<BookedInterval> overlapping(Long doctorId, Long patientId, LocalDate date,
+                                            LocalTime startTime, LocalTime endTime, Long excludeId) {
+        List<BookedInterval> overlapping = new ArrayList<>();
+
+        for (DayKey key : List.of(new DayKey(Party.DOCTOR, doctorId, date), new DayKey(Party.PATIENT, patientId, date))) {
+            for (BookedInterval interval : getOrLoad(key).intervals) {
+                if (interval.overlaps(startTime, endTime)
+                        && !isAppointment(interval, excludeId)
+                        && !overlapping.contains(interval)) {
+                    overlapping.add(interval);
+                }
+            }
+        }
+
+        return overlapping;
+    }
+
+    /**
+     * Brings the loaded days in line with an appointment which was
+     * just saved. Days which are not loaded are left alone, they
+     * will see the appointment when they are read from the database.
+     *
+     * @param appointment the saved appointment
+     * @param previousDate date of the appointment before an update, null for new ones
+     */
+    public void record(Appointment appointment, LocalDate previousDate) {
+        Long doctorId = appointment.getDoctor().getId();
+        Long patientId = appointment.getPatient().getId();
+
+        if (previousDate != null) {
+            change(new DayKey(Party.DOCTOR, doctorId, previousDate), day -> day.without(appointment.getId()));
+            change(new DayKey(Party.PATIENT, patientId, previousDate), day -> day.without(appointment.getId()));
+        }
+
+        BookedInterval bookedInterval = BookedInterval.builder()
+                .appointmentId(appointment.getId())
+                .doctorId(doctorId)
+                .patientId(patientId)
+                .date(appointment.getAppointmentDate())
+                .startTime(appointment.getStartTime())
+                .endTime(appointment.getEndTime())
+                .build();
+
+        change(new DayKey(Party.DOCTOR, doctorId, bookedInterval.getDate()), day -> day.with(bookedInterval));
+        change(new DayKey(Party.PATIENT, patientId, bookedInterval.getDate()), day -> day.with(bookedInterval));
+    }
+
+    /**
+     * Drops a loaded day so the next lookup reads it again,
+     * used when a change can't be applied interval by interval.
+     *
+     * @param party whose day it is
+     * @param ownerId id of the doctor or patient
+     * @param date the day
+     */
+    public void invalidate(Party party, Long ownerId, LocalDate date) {
+        change(new DayKey(party, ownerId, date), day -> null);
+    }
+
+
+    /*
+     * A day loaded while it was changed may have been read before the
+     * change was committed, so it is only kept if no change touched its
+     * stripe of the counters meanwhile and the entry it replaces is
+     * still the one which was found. The counter is moved before the
+     * change is applied, a load which then reads it reads after the
+     * commit.
+     */
+    private DaySchedule getOrLoad(DayKey key) {
+        long now = System.nanoTime();
+        int stripe = stripe(key);
+        long changesSeen = changes.get(stripe);
+        DaySchedule day = days.get(key);
+
+        if (day != null && now - day.loadedAt < ttlNanos) {
+            day.lastAccess = now;
+            hits.increment();
+            return day;
+        }
+
+        misses.increment();
+
+        //Load outside the map so a slow query doesn't block other days
+        List<BookedInterval> intervals = new ArrayList<>(switch (key.party()) {
+            case DOCTOR -> appointmentRepository.findDoctorDay(key.ownerId(), key.date());
+            case PATIENT -> appointmentRepository.findPatientDay(key.ownerId(), key.date());
+        });
+
+        List<AppointmentSeries> series = switch (key.party()) {
+            case DOCTOR -> appointmentSeriesRepository.findDoctorsBetween(List.of(key.ownerId()), key.date(), key.date());
+            case PATIENT -> appointmentSeriesRepository.findPatientsBetween(List.of(key.ownerId()), key.date(), key.date());
+        };
+        series.forEach(recurring -> intervals.addAll(recurring.intervalsBetween(key.date(), key.date())));
+
+        intervals.sort(BY_START_TIME);
+
+        DaySchedule loaded = new DaySchedule(List.copyOf(intervals), now);
+        days.compute(key, (ignored, current) ->
+                current == day && changes.get(stripe) == changesSeen ? loaded : current);
+
+        if (days.size() > maxDays) {
+            evictColdDays(now);
+        }
+
+        return loaded;
+    }
+
+    private void change(DayKey key, UnaryOperator<DaySchedule> update) {
+        changes.incrementAndGet(stripe(key));
+        days.computeIfPresent(key, (ignored, day) -> update.apply(day));
+    }
+
+    private static int stripe(DayKey key) {
+        return Math.floorMod(key.hashCode(), CHANGE_STRIPES);
+    }
+
+    private void evictColdDays(long now) {
+        int before = days.size();
+
+        days.values().removeIf(day -> now - day.lastAccess >= ttlNanos);
+
+        //Still too many, drop the least recently used tenth
+        if (days.size() > maxDays) {
+            days.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                    .limit(days.size() - maxDays + maxDays / 10)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(days::remove);
+        }
+
+        int evicted = Math.max(0, before - days.size());
+        evictions.increment(evicted);
+        log.debug("Evicted {} cold days from the schedule index", evicted);
+    }
+
+    //Series occurrences have no appointment id, so they never match one
+    private static boolean isAppointment(BookedInterval interval, Long appointmentId) {
+        return appointmentId != null && appointmentId.equals(interval.getAppointmentId());
+    }
+
+}
@@ -0,0 +1,56 @@
+package grid.capstone.service.schedule;
+
+import grid.capstone.dto.v1.SlotDTO;
+import grid.capstone.model.Appointment;
+import grid.capstone.exception.InvalidRequestException;
+import grid.capstone.exception.ResourceNotFoundException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public interface SlotService {
+
+    /**
+     * Computes the bookable slots of a doctor by intersecting
+     * the doctor's availability with the existing appointments
+     *
+     * @param doctorId id of the doctor
+     * @param from first day to search, inclusive
+     * @param to last day to search, inclusive
+     * @param duration length of a slot in minutes
+     * @return free slots ordered by date and start time
+     * @throws ResourceNotFoundException when the doctor doesn't exist
+     * @throws InvalidRequestException when the range or duration is not valid
+     */
+    List<SlotDTO> getFreeSlots(Long doctorId, LocalDate from, LocalDate to, Integer duration);
+
+    /**
+     * Finds the earliest bookable slots across every doctor
+     * with the given specialization
+     *
+     * @param specialization specialization of the doctors
+     * @param from first day to search, inclusive
+     * @param to last day to search, inclusive
+     * @param duration length of a slot in minutes
+     * @param limit maximum number of slots to return
+     * @return the earliest free slots ordered by date, start time and doctor
+     * @throws InvalidRequestException when the range, duration or limit is not valid
+     */
+    List<SlotDTO> getEarliestSlots(String specialization, LocalDate from, LocalDate to, Integer duration, Integer limit);
+
+    /**
+     * Finds the free slots of the appointment's doctor on the same day
+     * which are closest to the appointment's start time, have the same
+     * length and during which the patient is free too
+     *
+     * @param appointment appointment which could not be booked
+     * @param count maximum number of slots to return
+     * @return the nearest free slots, nearest first
+     */
+    List<SlotDTO> getAlternativeSlots(Appointment appointment, int count);
+}
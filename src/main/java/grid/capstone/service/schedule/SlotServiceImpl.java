@@ -0,0 +1,289 @@
+package grid.capstone.service.schedule;
+
+import grid.capstone.config.ExecutorConfig;
+import grid.capstone.dto.v1.SlotDTO;
+import grid.capstone.exception.InvalidRequestException;
+import grid.capstone.exception.ResourceNotFoundException;
+import grid.capstone.model.Appointment;
+import grid.capstone.model.AppointmentSeries;
+import grid.capstone.model.AvailabilityWindow;
+import grid.capstone.model.BookedInterval;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import grid.capstone.repository.AvailabilityRepository;
+import grid.capstone.repository.DoctorRepository;
+import grid.capstone.service.doctor.DoctorSpecification;
+import grid.capstone.service.schedule.ScheduleIndex.Party;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Service
+public class SlotServiceImpl implements SlotService {
+
+    static final int MAX_SEARCH_DAYS = 62;
+    static final int MAX_RESULTS = 100;
+
+    private static final Comparator<SlotDTO> EARLIEST_FIRST = Comparator
+            .comparing(SlotDTO::getDate)
+            .thenComparing(SlotDTO::getStartTime)
+            .thenComparing(SlotDTO::getDoctorId);
+
+    private final DoctorRepository doctorRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentSeriesRepository appointmentSeriesRepository;
+    private final ScheduleIndex scheduleIndex;
+    private final Executor slotSearchExecutor;
+
+
+    public SlotServiceImpl(DoctorRepository doctorRepository,
+                           AvailabilityRepository availabilityRepository,
+                           AppointmentRepository appointmentRepository,
+                           AppointmentSeriesRepository appointmentSeriesRepository,
+                           ScheduleIndex scheduleIndex,
+                           @Qualifier(ExecutorConfig.SLOT_SEARCH_EXECUTOR) Executor slotSearchExecutor) {
+        this.doctorRepository = doctorRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentSeriesRepository = appointmentSeriesRepository;
+        this.scheduleIndex = scheduleIndex;
+        this.slotSearchExecutor = slotSearchExecutor;
+    }
+
+    @Override
+    public List<SlotDTO> getFreeSlots(Long doctorId, LocalDate from, LocalDate to, Integer duration) {
+        validateSearch(from, to, duration);
+
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new ResourceNotFoundException("Doctor with id " + doctorId + " does not exist");
+        }
+
+        //One query for the weekly windows and one for the whole range of appointments
+        List<AvailabilityWindow> windows = availabilityRepository.findWindowsByDoctorIds(List.of(doctorId));
+
+        if (windows.isEmpty()) {
+            return List.of();
+        }
+
+        List<BookedInterval> booked = bookedBetween(List.of(doctorId), from, to);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        return FreeSlotCalculator.freeSlots(doctorId, from, to, windows, booked, Duration.ofMinutes(duration))
+                .stream()
+                .filter(slot -> isUpcoming(slot, now))
+                .toList();
+    }
+
+    @Override
+    public List<SlotDTO> getEarliestSlots(String specialization, LocalDate from, LocalDate to, Integer duration, Integer limit) {
+        validateSearch(from, to, duration);
+
+        if (limit == null || limit <= 0 || limit > MAX_RESULTS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_RESULTS);
+        }
+
+        List<Long> doctorIds = doctorRepository.findIds(DoctorSpecification.hasSpecialization(specialization));
+
+        if (doctorIds.isEmpty()) {
+            return List.of();
+        }
+
+        //Bulk load everything up front instead of querying per doctor
+        Map<Long, List<AvailabilityWindow>> windowsByDoctor = availabilityRepository
+                .findWindowsByDoctorIds(doctorIds)
+                .stream()
+                .collect(Collectors.groupingBy(AvailabilityWindow::getDoctorId));
+
+        Map<Long, List<BookedInterval>> bookedByDoctor = bookedBetween(windowsByDoctor.keySet(), from, to)
+                .stream()
+                .collect(Collectors.groupingBy(BookedInterval::getDoctorId));
+
+        LocalDateTime now = LocalDateTime.now();
+        Duration slotLength = Duration.ofMinutes(duration);
+
+        //Each doctor only needs to contribute its first `limit` slots
+        List<CompletableFuture<List<SlotDTO>>> searches = windowsByDoctor.entrySet().stream()
+                .map(entry -> CompletableFuture.supplyAsync(() -> earliestSlots(
+                        entry.getKey(), from, to, entry.getValue(),
+                        bookedByDoctor.getOrDefault(entry.getKey(), List.of()),
+                        slotLength, now, limit
+                ), slotSearchExecutor))
+                .toList();
+
+        return mergeEarliest(searches.stream().map(CompletableFuture::join).toList(), limit);
+    }
+
+
+    @Override
+    public List<SlotDTO> getAlternativeSlots(Appointment appointment, int count) {
+        Long doctorId = appointment.getDoctor().getId();
+        Long patientId = appointment.getPatient().getId();
+        LocalDate date = appointment.getAppointmentDate();
+        LocalDateTime now = LocalDateTime.now();
+
+        Duration duration = Duration.between(appointment.getStartTime(), appointment.getEndTime());
+
+        if (count <= 0 || duration.isNegative() || duration.isZero() || date.isBefore(now.toLocalDate())) {
+            return List.of();
+        }
+
+        List<AvailabilityWindow> windows = availabilityRepository.findWindowsByDoctorIds(List.of(doctorId));
+
+        if (windows.isEmpty()) {
+            return List.of();
+        }
+
+        //The doctor's and the patient's day together, without the appointment being moved
+        List<BookedInterval> booked = new ArrayList<>();
+        booked.addAll(bookedOn(Party.DOCTOR, doctorId, date));
+        booked.addAll(bookedOn(Party.PATIENT, patientId, date));
+
+        if (appointment.getId() != null) {
+            booked.removeIf(interval -> Objects.equals(interval.getAppointmentId(), appointment.getId()));
+        }
+
+        //The part of today which has already gone by can't be offered
+        if (date.equals(now.toLocalDate())) {
+            booked.add(BookedInterval.builder()
+                    .date(date)
+                    .startTime(LocalTime.MIDNIGHT)
+                    .endTime(now.toLocalTime())
+                    .build());
+        }
+
+        return FreeSlotCalculator.nearestSlots(doctorId, date, windows, booked, duration,
+                appointment.getStartTime(), count);
+    }
+
+
+    /*
+    The day from the schedule index when it is enabled. It may miss a
+    booking made on another instance, which only costs an offered slot
+    being turned down when it is booked, as bookings check the database
+     */
+    private List<BookedInterval> bookedOn(Party party, Long ownerId, LocalDate date) {
+        if (scheduleIndex.isEnabled()) {
+            return scheduleIndex.bookedOn(party, ownerId, date);
+        }
+
+        List<BookedInterval> booked = new ArrayList<>(switch (party) {
+            case DOCTOR -> appointmentRepository.findDoctorDay(ownerId, date);
+            case PATIENT -> appointmentRepository.findPatientDay(ownerId, date);
+        });
+
+        List<AppointmentSeries> series = switch (party) {
+            case DOCTOR -> appointmentSeriesRepository.findActiveOn(ownerId, null, date);
+            case PATIENT -> appointmentSeriesRepository.findActiveOn(null, ownerId, date);
+        };
+        series.forEach(recurring -> booked.addAll(recurring.intervalsBetween(date, date)));
+
+        return booked;
+    }
+
+    //Appointments plus the occurrences of the doctors' series, expanded for [from, to] only
+    private List<BookedInterval> bookedBetween(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        List<BookedInterval> booked = new ArrayList<>(appointmentRepository.findDoctorsBetween(doctorIds, from, to));
+
+        appointmentSeriesRepository.findDoctorsBetween(doctorIds, from, to)
+                .forEach(series -> booked.addAll(series.intervalsBetween(from, to)));
+
+        return booked;
+    }
+
+    private static List<SlotDTO> earliestSlots(Long doctorId, LocalDate from, LocalDate to,
+                                               List<AvailabilityWindow> windows,
+                                               List<BookedInterval> booked,
+                                               Duration duration, LocalDateTime now, int limit) {
+
+        Map<LocalDate, List<BookedInterval>> bookedByDate = booked.stream()
+                .collect(Collectors.groupingBy(BookedInterval::getDate));
+
+        List<SlotDTO> slots = new ArrayList<>(limit);
+
+        //Walk the days in order and stop as soon as there are enough slots
+        for (LocalDate date = from; !date.isAfter(to) && slots.size() < limit; date = date.plusDays(1)) {
+            for (SlotDTO slot : FreeSlotCalculator.daySlots(doctorId, date, windows,
+                    bookedByDate.getOrDefault(date, List.of()), duration)) {
+
+                if (isUpcoming(slot, now)) {
+                    slots.add(slot);
+                }
+
+                if (slots.size() == limit) {
+                    break;
+                }
+            }
+        }
+
+        return slots;
+    }
+
+    //K-way merge of the doctors' sorted slot lists using a min-heap of their heads
+    private static List<SlotDTO> mergeEarliest(List<List<SlotDTO>> sortedLists, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(
+                Math.max(1, sortedLists.size()),
+                (a, b) -> EARLIEST_FIRST.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1]))
+        );
+
+        for (int i = 0; i < sortedLists.size(); i++) {
+            if (!sortedLists.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        List<SlotDTO> merged = new ArrayList<>(limit);
+
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<SlotDTO> list = sortedLists.get(head[0]);
+
+            merged.add(list.get(head[1]));
+
+            if (head[1] + 1 < list.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+
+        return merged;
+    }
+
+    private static boolean isUpcoming(SlotDTO slot, LocalDateTime now) {
+        return !slot.getDate().atTime(slot.getStartTime()).isBefore(now);
+    }
+
+    private void validateSearch(LocalDate from, LocalDate to, Integer duration) {
+        if (to.isBefore(from)) {
+            throw new InvalidRequestException("The end of the range must not be before the start");
+        }
+
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_SEARCH_DAYS) {
+            throw new InvalidRequestException("The range can be at most " + MAX_SEARCH_DAYS + " days");
+        }
+
+        if (duration == null || duration <= 0 || duration > 24 * 60) {
+            throw new InvalidRequestException("Duration must be between 1 and 1440 minutes");
+        }
+    }
+}
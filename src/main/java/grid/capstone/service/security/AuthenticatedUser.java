@@ -0,0 +1,82 @@
+package grid.capstone.service.security;
+
+import grid.capstone.model.Doctor;
+import grid.capstone.model.Patient;
+import grid.capstone.model.Role;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The principal of a request authenticated from the claims of its
+ * token alone. It carries what the token vouches for, the id, email
+ * and role of the account, and never the password.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+public record AuthenticatedUser(Long id, String email, Role role) implements UserDetails {
+
+    /**
+     * The user a request was authenticated as, whether its token
+     * carried the id and role or the account had to be loaded.
+     *
+     * @param authentication the authentication of the request, may be null
+     * @return the user, empty if the request is not authenticated as one
+     */
+    public static Optional<AuthenticatedUser> of(Authentication authentication) {
+        Object principal = authentication == null ? null : authentication.getPrincipal();
+
+        if (principal instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        if (principal instanceof Doctor doctor) {
+            return Optional.of(new AuthenticatedUser(doctor.getId(), doctor.getEmail(), doctor.getRole()));
+        }
+        if (principal instanceof Patient patient) {
+            return Optional.of(new AuthenticatedUser(patient.getId(), patient.getEmail(), patient.getRole()));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
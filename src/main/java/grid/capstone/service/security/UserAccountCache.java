@@ -0,0 +1,82 @@
+package grid.capstone.service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import grid.capstone.model.UserAccount;
+import grid.capstone.repository.UserAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Bounded cache of the accounts by email, in front of the
+ * {@link UserAccountRepository}, keyed by the email in lower case
+ * since emails are matched ignoring case. Signing up and changing a password
+ * evict the account here; the ttl bounds how long changes made by
+ * other instances can go unseen. Emails without an account are not
+ * cached, so a new account can log in straight away.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@Component
+public class UserAccountCache {
+
+    private final UserAccountRepository userAccountRepository;
+    private final Cache<String, UserAccount> accounts;
+
+    public UserAccountCache(UserAccountRepository userAccountRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${user.cache.max-size:10000}") long maxSize,
+                            @Value("${user.cache.ttl:PT10M}") Duration ttl) {
+        this.userAccountRepository = userAccountRepository;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, accounts, "user.accounts");
+    }
+
+
+    /**
+     * Finds the account with the email, from the cache if it is there.
+     *
+     * @param email the email of the account
+     * @return the account, empty if there is none
+     */
+    public Optional<UserAccount> find(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+
+        UserAccount account = accounts.get(key(email),
+                key -> userAccountRepository.findByEmail(key).orElse(null));
+
+        return Optional.ofNullable(account);
+    }
+
+    /**
+     * Drops the account from the cache, to be called once a change
+     * to its credentials has been saved.
+     *
+     * @param email the email of the account
+     */
+    public void evict(String email) {
+        if (email != null) {
+            accounts.invalidate(key(email));
+        }
+    }
+
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+}
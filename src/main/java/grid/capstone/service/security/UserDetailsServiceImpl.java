@@ -1,18 +1,15 @@
 package grid.capstone.service.security;
 
 import grid.capstone.exception.ResourceNotFoundException;
-import grid.capstone.model.Doctor;
-import grid.capstone.model.Patient;
-import grid.capstone.repository.DoctorRepository;
-import grid.capstone.repository.PatientRepository;
+import grid.capstone.model.UserAccount;
+import grid.capstone.repository.UserAccountRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-
 /**
  * @author Javaughn Stephenson
  * @since 18/07/2023
@@ -20,28 +17,35 @@ import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
-    private final DoctorRepository doctorRepository;
-    private final PatientRepository patientRepository;
+    private final UserAccountCache userAccountCache;
+    private final UserAccountRepository userAccountRepository;
 
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
 
-        Optional<Doctor> doctor = doctorRepository.findByEmail(email);
-
-        if (doctor.isPresent()) {
-            return doctor.get();
-        }
-
-        Optional<Patient> patient = patientRepository.findByEmail(email);
+        //Doctors and patients are resolved together, from the cache when possible
+        return userAccountCache.find(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
 
-        if (patient.isPresent()) {
-            return patient.get();
-        }
+    /**
+     * Saves the password rehashed with the current algorithm and cost,
+     * called by the authentication provider after a login whose stored
+     * hash was made with older ones.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserAccount account = user instanceof UserAccount userAccount
+                ? userAccount
+                : userAccountCache.find(user.getUsername())
+                        .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        userAccountRepository.updatePassword(account, newPassword);
+        userAccountCache.evict(account.getEmail());
 
-        throw new ResourceNotFoundException("User not found");
+        return new UserAccount(account.getId(), account.getEmail(), newPassword, account.getRole());
     }
 }
@@ -0,0 +1,9 @@
+-- Signups insert straight away and rely on these to turn away a taken email,
+-- in any case, instead of probing the table first.
+-- Fails if the tables already hold emails differing only in case, those have to be merged by hand first
+CREATE UNIQUE INDEX uq_doctor_email ON doctor (lower(email));
+CREATE UNIQUE INDEX uq_patient_email ON patient (lower(email));
+
+-- Logins now match on lower(email) as well, which the unique indexes serve
+DROP INDEX idx_doctor_email;
+DROP INDEX idx_patient_email;
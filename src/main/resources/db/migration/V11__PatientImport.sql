@@ -0,0 +1,16 @@
+-- Bulk patient imports run in the background, their progress is kept here so any instance can report it
+CREATE TABLE patient_import (
+    id BIGSERIAL NOT NULL PRIMARY KEY,
+    status VARCHAR(10) NOT NULL DEFAULT 'QUEUED',
+    doctor_id BIGINT,
+    read_rows INTEGER NOT NULL DEFAULT 0,
+    created INTEGER NOT NULL DEFAULT 0,
+    duplicates INTEGER NOT NULL DEFAULT 0,
+    existing INTEGER NOT NULL DEFAULT 0,
+    invalid INTEGER NOT NULL DEFAULT 0,
+    error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    updated_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+ALTER TABLE patient_import ADD CONSTRAINT fk_doctor FOREIGN KEY (doctor_id) REFERENCES doctor(id) ON DELETE SET NULL;
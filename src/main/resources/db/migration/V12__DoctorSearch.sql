@@ -0,0 +1,28 @@
+-- Directory search matches doctors on their name, specialization, skills and biography, ranked by where the match is.
+-- The vector is kept current by the trigger, whichever way the row is written
+ALTER TABLE doctor ADD COLUMN search_vector tsvector;
+
+CREATE FUNCTION doctor_search_vector() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector :=
+        setweight(to_tsvector('english', coalesce(NEW.name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(NEW.specialization, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(array_to_string(NEW.skills, ' '), '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(NEW.biography, '')), 'C');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER doctor_search_vector_update
+    BEFORE INSERT OR UPDATE OF name, specialization, skills, biography ON doctor
+    FOR EACH ROW EXECUTE FUNCTION doctor_search_vector();
+
+-- Fires the trigger for the doctors already there
+UPDATE doctor SET name = name;
+
+CREATE INDEX idx_doctor_search ON doctor USING GIN (search_vector);
+
+-- The directory filters compare lower(column) for equality, which a plain index can't serve
+CREATE INDEX idx_doctor_name ON doctor (lower(name));
+CREATE INDEX idx_doctor_specialization ON doctor (lower(specialization));
+CREATE INDEX idx_doctor_department ON doctor (lower(department));
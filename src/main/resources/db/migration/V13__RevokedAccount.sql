@@ -0,0 +1,9 @@
+-- Accounts whose tokens issued up to revoked_at are rejected, e.g. after logging out everywhere.
+-- Revoking again moves revoked_at forward. Rows can go once every access token issued before them has expired,
+-- refresh tokens issued before them are refused by the statement using them up
+CREATE TABLE revoked_account (
+    email VARCHAR(100) NOT NULL PRIMARY KEY,
+    revoked_at TIMESTAMP NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX idx_revoked_account_revoked_at ON revoked_account (revoked_at);
@@ -0,0 +1,9 @@
+-- Keys of the calendar feeds, calendar apps can't send a token so the key goes in the url.
+-- One per account, making a new one or deleting it revokes the old. Only stored hashed, like refresh tokens
+CREATE TABLE calendar_feed_key (
+    owner_role VARCHAR(20) NOT NULL,
+    owner_id BIGINT NOT NULL,
+    key_hash CHAR(64) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (owner_role, owner_id)
+);
@@ -0,0 +1,4 @@
+-- Dead emails, whether they ran out of attempts or were dropped on a full queue, are purged once they are old enough.
+-- The ones already dead are dated from their last attempt
+ALTER TABLE email_outbox ADD COLUMN dead_at TIMESTAMP;
+UPDATE email_outbox SET dead_at = next_attempt_at WHERE status = 'DEAD';
@@ -0,0 +1,3 @@
+-- Conflict checks only look at one doctor's or one patient's appointments on a single date
+CREATE INDEX idx_appointment_doctor_date_start ON appointment (doctor_id, appointment_date, start_time);
+CREATE INDEX idx_appointment_patient_date_start ON appointment (patient_id, appointment_date, start_time);
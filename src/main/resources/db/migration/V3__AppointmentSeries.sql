@@ -0,0 +1,21 @@
+-- A recurring appointment is stored once, its occurrences are computed when a window is queried
+CREATE TABLE appointment_series (
+    id BIGSERIAL NOT NULL PRIMARY KEY,
+    doctor_id BIGINT NOT NULL, --Rel
+    patient_id BIGINT NOT NULL, --Rel
+    frequency VARCHAR(10) NOT NULL,
+    interval_count INTEGER NOT NULL DEFAULT 1,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    reason TEXT
+);
+
+ALTER TABLE appointment_series ADD CONSTRAINT fk_doctor FOREIGN KEY (doctor_id) REFERENCES doctor(id),
+                               ADD CONSTRAINT fk_patient FOREIGN KEY (patient_id) REFERENCES patient(id),
+                               ADD CONSTRAINT chk_series_interval CHECK (interval_count > 0),
+                               ADD CONSTRAINT chk_series_dates CHECK (start_date <= end_date);
+
+CREATE INDEX idx_series_doctor_dates ON appointment_series (doctor_id, start_date, end_date);
+CREATE INDEX idx_series_patient_dates ON appointment_series (patient_id, start_date, end_date);
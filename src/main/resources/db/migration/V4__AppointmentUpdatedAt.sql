@@ -0,0 +1,13 @@
+-- Last change of each appointment, kept by the database so every writer (JPA or JDBC batches) bumps it
+ALTER TABLE appointment ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT now();
+
+CREATE FUNCTION touch_updated_at() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_appointment_updated_at
+    BEFORE UPDATE ON appointment
+    FOR EACH ROW EXECUTE FUNCTION touch_updated_at();
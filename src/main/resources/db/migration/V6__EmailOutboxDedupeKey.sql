@@ -0,0 +1,6 @@
+-- Emails which may be queued more than once, like reminders fired by several instances, carry a key and are only kept once
+ALTER TABLE email_outbox ADD COLUMN dedupe_key VARCHAR(255);
+CREATE UNIQUE INDEX uq_email_outbox_dedupe_key ON email_outbox (dedupe_key);
+
+-- Reminders are loaded an hour of start times at a time
+CREATE INDEX idx_appointment_date_start ON appointment (appointment_date, start_time);
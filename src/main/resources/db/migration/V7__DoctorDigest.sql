@@ -0,0 +1,7 @@
+-- Doctors who opt in get one digest of their booking changes per interval instead of an email for each.
+-- digest_sent_until is how far their digests go, it stays set after opting out until a last digest went out
+ALTER TABLE doctor ADD COLUMN digest_enabled BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE doctor ADD COLUMN digest_sent_until TIMESTAMP;
+
+-- The digest only reads the appointments of those doctors changed since their last one
+CREATE INDEX idx_appointment_doctor_updated ON appointment (doctor_id, updated_at);
@@ -0,0 +1,10 @@
+-- Logins look doctors and patients up by email, neither table had an index on it
+CREATE INDEX idx_doctor_email ON doctor (email);
+CREATE INDEX idx_patient_email ON patient (email);
+
+-- Both kinds of account in one place, so a login resolves in one query.
+-- The email predicate is pushed down into both branches and uses the indexes above
+CREATE VIEW user_account AS
+SELECT id AS user_id, email, password, 'ROLE_DOCTOR' AS role FROM doctor
+UNION ALL
+SELECT id AS user_id, email, password, 'ROLE_PATIENT' AS role FROM patient;
@@ -0,0 +1,22 @@
+-- Refresh tokens are only stored hashed, a leaked table can't be replayed.
+-- A token is used up (revoked_at set) when it is exchanged for a new pair
+CREATE TABLE refresh_token (
+    id BIGSERIAL NOT NULL PRIMARY KEY,
+    token_hash CHAR(64) NOT NULL UNIQUE,
+    email VARCHAR(100) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_refresh_token_expires ON refresh_token (expires_at);
+
+-- Access tokens revoked before their expiry, by jti. Rows can go once the token has expired.
+-- Instances pick up new rows by revoked_at, which is set by the statement inserting the row
+CREATE TABLE revoked_token (
+    jti VARCHAR(36) NOT NULL PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX idx_revoked_token_revoked_at ON revoked_token (revoked_at);
@@ -0,0 +1,106 @@
+package grid.capstone.benchmark;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sending emails one connection apiece with sending them all
+ * over one connection, against an in-process SMTP server. Run it from
+ * the IDE or with the test classpath, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=grid.capstone.benchmark.EmailDeliveryBenchmark}
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class EmailDeliveryBenchmark {
+
+    private static final int EMAILS = 50;
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private SimpleMailMessage[] messages;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        greenMail = new GreenMail(new ServerSetup(3925, "localhost", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(3925);
+
+        messages = new SimpleMailMessage[EMAILS];
+        for (int i = 0; i < EMAILS; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom("capstone-mail@mail.com");
+            message.setTo("patient" + i + "@mail.com");
+            message.setSubject("Scheduled Appointment");
+            message.setText("Appointment details");
+            messages[i] = message;
+        }
+    }
+
+    //Keeps the server's mailboxes from growing for the whole run
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        greenMail.stop();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(EMAILS)
+    public void oneConnectionPerEmail() {
+        for (SimpleMailMessage message : messages) {
+            mailSender.send(message);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EMAILS)
+    public void oneConnectionPerBatch() {
+        mailSender.send(messages);
+    }
+
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailDeliveryBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+}
@@ -0,0 +1,104 @@
+package grid.capstone.benchmark;
+
+import grid.capstone.service.jwt.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of authenticating one request: decoding the key
+ * and parsing the token twice as the filter used to, parsing it once
+ * with a prebuilt parser, and going through the verified-token cache.
+ * Run it the same way as {@link EmailDeliveryBenchmark}.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "10b1c60213f53f6a83a0c4e48f59d5b2f80a4c3da5e38c49d96bacf9014dff6a";
+
+    private JwtService jwtService;
+    private JwtParser jwtParser;
+    private String token;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 10_000, new SimpleMeterRegistry(), Duration.ofMinutes(15));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build();
+        token = jwtService.generateToken(new User("doctor@mail.com", "password", List.of()));
+    }
+
+
+    //What the filter did before, once to check the token and once more for the subject
+    @Benchmark
+    public String parserPerCall() {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+
+        if (claims.getExpiration().getTime() < System.currentTimeMillis()) {
+            return null;
+        }
+
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String prebuiltParser() {
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String cachedVerification() {
+        return jwtService.verify(token).map(Claims::getSubject).orElse(null);
+    }
+
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+}
@@ -0,0 +1,77 @@
+package grid.capstone.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins per second one core can check for each hashing setting, to
+ * size the auth.password settings and the login executor against the
+ * CPU budget. It runs on a single thread, so the score is per core;
+ * multiply by auth.login.threads for the capacity of the pool. Run it
+ * the same way as {@link EmailDeliveryBenchmark}, passing e.g.
+ * {@code -p setting=bcrypt-12} to try other settings.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(1)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    //bcrypt-<cost> or argon2-<memory kb>-<iterations>, argon2 with a parallelism of 1
+    @Param({"bcrypt-10", "bcrypt-12", "argon2-19456-2", "argon2-47104-1"})
+    public String setting;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+
+    @Setup
+    public void setUp() {
+        String[] parts = setting.split("-");
+
+        encoder = parts[0].equals("bcrypt")
+                ? new BCryptPasswordEncoder(Integer.parseInt(parts[1]))
+                : new Argon2PasswordEncoder(16, 32, 1, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+
+    @Benchmark
+    public boolean login() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+}
@@ -0,0 +1,122 @@
+package grid.capstone.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import grid.capstone.config.RateLimitProperties;
+import grid.capstone.filter.RateLimitFilter;
+import grid.capstone.service.jwt.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Time the rate limiting filter adds to a request, with 8 threads at
+ * once: all of them on one client's bucket, which is the most
+ * contended case, each on a bucket of its own, and each as a signed
+ * in user, which adds the lookup of the verified token. Run it the
+ * same way as {@link EmailDeliveryBenchmark}.
+ *
+ * @author Javaughn Stephenson
+ * @since 18/10/2026
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final String SECRET = "10b1c60213f53f6a83a0c4e48f59d5b2f80a4c3da5e38c49d96bacf9014dff6a";
+
+    @State(Scope.Benchmark)
+    public static class Filter {
+        private RateLimitFilter rateLimitFilter;
+        private JwtService jwtService;
+        private final AtomicInteger clients = new AtomicInteger();
+
+        @Setup
+        public void setUp() {
+            RateLimitProperties.Group api = new RateLimitProperties.Group();
+            api.setName("api");
+            api.setPaths(List.of("/api/v1/auth/login", "/api/v1/appointments/**", "/api/**"));
+            //High enough that every request is let through and only the bookkeeping is measured
+            api.setCapacity(1_000_000);
+            api.setRefillPerSecond(1_000_000_000);
+
+            RateLimitProperties properties = new RateLimitProperties();
+            properties.setGroups(List.of(api));
+
+            jwtService = new JwtService(SECRET, 10_000, new SimpleMeterRegistry(), Duration.ofMinutes(15));
+            rateLimitFilter = new RateLimitFilter(properties, jwtService, new ObjectMapper(), new SimpleMeterRegistry());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+        private MockHttpServletRequest shared;
+        private MockHttpServletRequest own;
+        private MockHttpServletRequest signedIn;
+
+        @Setup
+        public void setUp(Filter filter) {
+            int client = filter.clients.incrementAndGet();
+
+            shared = new MockHttpServletRequest("GET", "/api/v1/appointments/1");
+            shared.setRemoteAddr("10.0.0.1");
+
+            own = new MockHttpServletRequest("GET", "/api/v1/appointments/1");
+            own.setRemoteAddr("10.0.1." + client);
+
+            String token = filter.jwtService.generateToken(new User("user" + client + "@mail.com", "password", List.of()));
+            signedIn = new MockHttpServletRequest("GET", "/api/v1/appointments/1");
+            signedIn.setRemoteAddr("10.0.0.1");
+            signedIn.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+    }
+
+
+    @Benchmark
+    public long sharedBucket(Filter filter, Requests requests) {
+        return filter.rateLimitFilter.admit(requests.shared);
+    }
+
+    @Benchmark
+    public long bucketPerThread(Filter filter, Requests requests) {
+        return filter.rateLimitFilter.admit(requests.own);
+    }
+
+    @Benchmark
+    public long signedInUser(Filter filter, Requests requests) {
+        return filter.rateLimitFilter.admit(requests.signedIn);
+    }
+
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+}
@@ -0,0 +1,54 @@
+package grid.capstone.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordEncoderTest {
+
+    SecurityConfig securityConfig = new SecurityConfig(null, null, null);
+
+    @Test
+    void passwordEncoder_HashSavedBeforePrefixes_ShouldMatchAndBeUpgraded() {
+        // Given
+        PasswordEncoder encoder = securityConfig.passwordEncoder(SecurityConfig.BCRYPT, 4, 1024, 1, 1);
+        String legacy = new BCryptPasswordEncoder(4).encode("password");
+
+        // When and Then
+        assertThat(encoder.matches("password", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void passwordEncoder_LowerBcryptCost_ShouldBeUpgraded() {
+        // Given
+        PasswordEncoder old = securityConfig.passwordEncoder(SecurityConfig.BCRYPT, 4, 1024, 1, 1);
+        PasswordEncoder tuned = securityConfig.passwordEncoder(SecurityConfig.BCRYPT, 5, 1024, 1, 1);
+        String hash = old.encode("password");
+
+        // When and Then
+        assertThat(hash).startsWith("{bcrypt}");
+        assertThat(tuned.matches("password", hash)).isTrue();
+        assertThat(tuned.upgradeEncoding(hash)).isTrue();
+        assertThat(tuned.upgradeEncoding(tuned.encode("password"))).isFalse();
+    }
+
+    @Test
+    void passwordEncoder_SwitchToArgon2_ShouldStillMatchBcrypt() {
+        // Given
+        String bcrypt = securityConfig.passwordEncoder(SecurityConfig.BCRYPT, 4, 1024, 1, 1).encode("password");
+        PasswordEncoder argon2 = securityConfig.passwordEncoder(SecurityConfig.ARGON2, 4, 1024, 1, 1);
+
+        // When
+        String rehashed = argon2.encode("password");
+
+        // Then
+        assertThat(argon2.matches("password", bcrypt)).isTrue();
+        assertThat(argon2.upgradeEncoding(bcrypt)).isTrue();
+        assertThat(rehashed).startsWith("{argon2}");
+        assertThat(argon2.matches("password", rehashed)).isTrue();
+    }
+
+}
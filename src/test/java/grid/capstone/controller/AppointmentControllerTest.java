@@ -2,10 +2,20 @@ package grid.capstone.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import grid.capstone.dto.v1.AppointmentDTO;
+import grid.capstone.dto.v1.AppointmentPageDTO;
+import grid.capstone.dto.v1.AppointmentSeriesDTO;
+import grid.capstone.dto.v1.AppointmentSummaryDTO;
+import grid.capstone.dto.v1.BatchBookingResultDTO;
 import grid.capstone.filter.JwtTokenFilter;
 import grid.capstone.model.Appointment;
+import grid.capstone.model.Frequency;
+import grid.capstone.model.Role;
+import grid.capstone.service.appointment.AppointmentBatchService;
+import grid.capstone.service.appointment.AppointmentSeriesService;
 import grid.capstone.service.appointment.AppointmentService;
+import grid.capstone.service.calendar.CalendarService;
 import grid.capstone.service.jwt.JwtService;
+import grid.capstone.service.security.AuthenticatedUser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,19 +27,31 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = AppointmentController.class, excludeAutoConfiguration = SecurityAutoConfiguration.class)
@@ -52,6 +74,15 @@ class AppointmentControllerTest {
     @MockBean
     AppointmentService appointmentService;
 
+    @MockBean
+    AppointmentBatchService appointmentBatchService;
+
+    @MockBean
+    AppointmentSeriesService appointmentSeriesService;
+
+    @MockBean
+    CalendarService calendarService;
+
     Appointment appointment;
     AppointmentDTO appointmentDTO;
 
@@ -109,6 +140,104 @@ class AppointmentControllerTest {
 
     }
 
+    @Test
+    void getAppointmentSummaries() throws Exception {
+
+        AppointmentPageDTO page = new AppointmentPageDTO(
+                List.of(AppointmentSummaryDTO.builder().id(1L).doctorId(1L).doctorName("Doctor").build()),
+                "next"
+        );
+
+        given(appointmentService.getAppointmentSummaries(any(), any(), any(), any(), any(), anyInt()))
+                .willReturn(page);
+
+        mockMvc.perform(get(BASE_URL + "/summaries")
+                        .param("from", "2023-07-01")
+                        .param("to", "2023-07-31")
+                        .param("doctorId", "1")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.appointments[0].doctorName").value("Doctor"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        then(appointmentService).should(times(1)).getAppointmentSummaries(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getCalendar_ShouldStreamTheCalendarWithItsVersion() throws Exception {
+
+        given(calendarService.isFeedKeyValid(Optional.empty(), Optional.of(1L), "feed-key")).willReturn(true);
+        given(calendarService.getCalendarVersion(any(), any())).willReturn("v1");
+        willAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("BEGIN:VCALENDAR\r\n".getBytes());
+            return null;
+        }).given(calendarService).writeCalendar(any(), any(), any());
+
+        MvcResult mvcResult = mockMvc.perform(get(BASE_URL + "/calendar.ics")
+                        .param("doctorId", "1")
+                        .param("key", "feed-key"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v1\""))
+                .andExpect(content().string("BEGIN:VCALENDAR\r\n"));
+    }
+
+    @Test
+    void getCalendar_UnchangedVersion_ShouldReturnNotModified() throws Exception {
+
+        given(calendarService.isFeedKeyValid(Optional.empty(), Optional.of(1L), "feed-key")).willReturn(true);
+        given(calendarService.getCalendarVersion(any(), eq(Optional.of(1L)))).willReturn("v1");
+
+        mockMvc.perform(get(BASE_URL + "/calendar.ics")
+                        .param("doctorId", "1")
+                        .param("key", "feed-key")
+                        .header("If-None-Match", "\"v1\""))
+                .andExpect(status().isNotModified());
+
+        then(calendarService).should(never()).writeCalendar(any(), any(), any());
+    }
+
+    @Test
+    void getCalendar_KeyOfAnotherCalendar_ShouldBeForbidden() throws Exception {
+
+        given(calendarService.isFeedKeyValid(Optional.empty(), Optional.of(2L), "feed-key")).willReturn(false);
+
+        mockMvc.perform(get(BASE_URL + "/calendar.ics")
+                        .param("doctorId", "2")
+                        .param("key", "feed-key"))
+                .andExpect(status().isForbidden());
+
+        then(calendarService).should(never()).getCalendarVersion(any(), any());
+        then(calendarService).should(never()).writeCalendar(any(), any(), any());
+    }
+
+    @Test
+    void createCalendarKey_ShouldMakeAKeyForTheCallersOwnFeed() throws Exception {
+
+        AuthenticatedUser user = new AuthenticatedUser(3L, "patient@mail.com", Role.ROLE_PATIENT);
+        given(calendarService.createFeedKey(Role.ROLE_PATIENT, 3L)).willReturn("feed-key");
+
+        mockMvc.perform(post(BASE_URL + "/calendar/key")
+                        .principal(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.key").value("feed-key"));
+    }
+
+    @Test
+    void revokeCalendarKey_ShouldRevokeTheCallersOwnFeed() throws Exception {
+
+        AuthenticatedUser user = new AuthenticatedUser(1L, "doctor@mail.com", Role.ROLE_DOCTOR);
+
+        mockMvc.perform(delete(BASE_URL + "/calendar/key")
+                        .principal(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities())))
+                .andExpect(status().isNoContent());
+
+        then(calendarService).should().revokeFeedKey(Role.ROLE_DOCTOR, 1L);
+    }
+
     @Test
     void updateAppointment() throws Exception {
 
@@ -129,4 +258,63 @@ class AppointmentControllerTest {
         then(appointmentService).should(times(1)).updateAppointment(any(), any(AppointmentDTO.class));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void createAppointments() throws Exception {
+
+        given(appointmentBatchService.createAppointments(any()))
+                .willReturn(List.of(
+                        BatchBookingResultDTO.builder()
+                                .index(0)
+                                .status(BatchBookingResultDTO.Status.CREATED)
+                                .appointmentId(10L)
+                                .build(),
+                        BatchBookingResultDTO.builder()
+                                .index(1)
+                                .status(BatchBookingResultDTO.Status.CONFLICT)
+                                .message("Appointment has conflict")
+                                .build()
+                ));
+
+        ResultActions resultActions = mockMvc.perform(post(BASE_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(appointmentDTO, appointmentDTO))));
+
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("CONFLICT"));
+
+        then(appointmentBatchService).should(times(1)).createAppointments(any());
+
+    }
+
+    @Test
+    void createSeries() throws Exception {
+
+        AppointmentSeriesDTO seriesDTO = AppointmentSeriesDTO.builder()
+                .doctorId(1L)
+                .patientId(1L)
+                .frequency(Frequency.WEEKLY)
+                .startDate(LocalDate.now())
+                .endDate(LocalDate.now().plusWeeks(10))
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(10, 0))
+                .reason("Physio")
+                .build();
+
+        given(appointmentSeriesService.createSeries(any(AppointmentSeriesDTO.class)))
+                .willReturn(HttpStatus.CREATED);
+
+        ResultActions resultActions = mockMvc.perform(post(BASE_URL + "/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(seriesDTO)));
+
+        resultActions
+                .andExpect(status().isCreated());
+
+        then(appointmentSeriesService).should(times(1)).createSeries(any(AppointmentSeriesDTO.class));
+
+    }
+}
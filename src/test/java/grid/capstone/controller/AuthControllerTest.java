@@ -2,6 +2,8 @@ package grid.capstone.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import grid.capstone.dto.v1.AuthRequest;
+import grid.capstone.dto.v1.AuthResponse;
+import grid.capstone.dto.v1.RefreshRequest;
 import grid.capstone.filter.JwtTokenFilter;
 import grid.capstone.service.auth.AuthService;
 import grid.capstone.service.jwt.JwtService;
@@ -20,11 +22,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = AuthController.class, excludeAutoConfiguration = SecurityAutoConfiguration.class)
@@ -65,7 +69,7 @@ class AuthControllerTest {
         String expectedToken = "ufbsfbsbf";
 
         given(authService.login(any(AuthRequest.class)))
-                .willReturn(expectedToken);
+                .willReturn(new AuthResponse(expectedToken, 900, "refresh"));
 
         // Perform the POST request with the AuthRequest as the request body
         ResultActions resultActions = mockMvc.perform(post(BASE_URL + "/login")
@@ -75,10 +79,58 @@ class AuthControllerTest {
 
         resultActions
                 .andExpect(status().isOk()) // Assert the expected HTTP status
-                .andExpect(header().string(HttpHeaders.AUTHORIZATION, "Bearer " + expectedToken)); // Assert the token is present in the response header
+                .andExpect(header().string(HttpHeaders.AUTHORIZATION, "Bearer " + expectedToken)) // Assert the token is present in the response header
+                .andExpect(jsonPath("$.refreshToken").value("refresh"));
 
         // Verify that the authService.login() method was called once with the correct AuthRequest argument
         then(authService).should(times(1)).login(any(AuthRequest.class));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void refreshTokens() throws Exception {
+
+        given(authService.refresh("refresh"))
+                .willReturn(new AuthResponse("newAccess", 900, "newRefresh"));
+
+        mockMvc.perform(post(BASE_URL + "/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequest("refresh"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.AUTHORIZATION, "Bearer newAccess"))
+                .andExpect(jsonPath("$.refreshToken").value("newRefresh"));
+    }
+
+    @Test
+    void refreshWithoutToken() throws Exception {
+
+        mockMvc.perform(post(BASE_URL + "/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        then(authService).should(times(0)).refresh(anyString());
+    }
+
+    @Test
+    void logoutUser() throws Exception {
+
+        mockMvc.perform(post(BASE_URL + "/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer access")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequest("refresh"))))
+                .andExpect(status().isNoContent());
+
+        then(authService).should(times(1)).logout("refresh", "access");
+    }
+
+    @Test
+    void logoutEverywhere() throws Exception {
+
+        mockMvc.perform(post(BASE_URL + "/logout-all")
+                        .principal(() -> "doctor@mail.com"))
+                .andExpect(status().isNoContent());
+
+        then(authService).should(times(1)).logoutEverywhere("doctor@mail.com");
+    }
+}
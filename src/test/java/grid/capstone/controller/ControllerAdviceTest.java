@@ -1,8 +1,11 @@
 package grid.capstone.controller;
 
 import grid.capstone.dto.v1.ExceptionDTO;
+import grid.capstone.dto.v1.SlotDTO;
 import grid.capstone.exception.AppointmentConflictException;
+import grid.capstone.exception.InvalidRequestException;
 import grid.capstone.exception.ResourceNotFoundException;
+import grid.capstone.exception.TooManyRequestsException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
@@ -10,12 +13,15 @@ import jakarta.validation.Path;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.List;
@@ -62,6 +68,48 @@ class ControllerAdviceTest {
         assertThat(response.getTimestamp().getHour()).isEqualTo(LocalTime.now().getHour());
     }
 
+    @Test
+    public void testAppointmentConflictWithAlternatives() {
+        // Arrange
+        SlotDTO slot = new SlotDTO(1L, LocalDate.of(2030, 1, 7), LocalTime.of(10, 0), LocalTime.of(11, 0));
+        AppointmentConflictException exception = new AppointmentConflictException("Appointment has conflict", List.of(slot));
+
+        // Act
+        ExceptionDTO response = controllerAdvice.appointmentConflict(exception);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getAlternatives()).containsExactly(slot);
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        // Arrange
+        InvalidRequestException exception = new InvalidRequestException("Range is too long");
+
+        // Act
+        ExceptionDTO response = controllerAdvice.invalidRequest(exception);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getMessage()).isEqualTo("Invalid request");
+        assertThat(response.getDetails()).isEqualTo("Range is too long");
+    }
+
+    @Test
+    public void testTooManyRequests() {
+        // Arrange
+        TooManyRequestsException exception = new TooManyRequestsException("Too many logins", Duration.ofMillis(1500));
+
+        // Act
+        ResponseEntity<ExceptionDTO> response = controllerAdvice.tooManyRequests(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getBody().getDetails()).isEqualTo("Too many logins");
+    }
+
     @Test
     public void testHandleValidationExceptions() {
         // Arrange
@@ -3,11 +3,14 @@ package grid.capstone.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import grid.capstone.dto.v1.DoctorDTO;
 import grid.capstone.dto.v1.DoctorSignUp;
+import grid.capstone.dto.v1.SlotDTO;
 import grid.capstone.filter.JwtTokenFilter;
 import grid.capstone.model.Doctor;
 import grid.capstone.model.Role;
 import grid.capstone.service.doctor.DoctorService;
 import grid.capstone.service.jwt.JwtService;
+import grid.capstone.service.schedule.SlotService;
+import grid.capstone.service.security.AuthenticatedUser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,17 +23,22 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -55,6 +63,9 @@ class DoctorControllerTest {
     @MockBean
     DoctorService doctorService;
 
+    @MockBean
+    SlotService slotService;
+
     DoctorSignUp doctorSignUp;
     Doctor doctor;
 
@@ -153,4 +164,110 @@ class DoctorControllerTest {
         then(doctorService).should(times(1)).getDoctor(anyLong());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void getFreeSlots() throws Exception {
+
+        SlotDTO slot = SlotDTO.builder()
+                .doctorId(1L)
+                .date(LocalDate.of(2030, 1, 7))
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(9, 30))
+                .build();
+
+        given(slotService.getFreeSlots(1L, LocalDate.of(2030, 1, 7), LocalDate.of(2030, 1, 8), 30))
+                .willReturn(List.of(slot));
+
+        ResultActions resultActions = mockMvc.perform(get(BASE_URL + "/1/slots")
+                .param("from", "2030-01-07")
+                .param("to", "2030-01-08"));
+
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].doctorId").value(1));
+
+        then(slotService).should(times(1)).getFreeSlots(1L, LocalDate.of(2030, 1, 7), LocalDate.of(2030, 1, 8), 30);
+
+    }
+
+    @Test
+    void getEarliestSlots() throws Exception {
+
+        SlotDTO slot = SlotDTO.builder()
+                .doctorId(2L)
+                .date(LocalDate.of(2030, 1, 7))
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(9, 30))
+                .build();
+
+        given(slotService.getEarliestSlots("Cardiology", LocalDate.of(2030, 1, 7), LocalDate.of(2030, 1, 13), 30, 5))
+                .willReturn(List.of(slot));
+
+        ResultActions resultActions = mockMvc.perform(get(BASE_URL + "/slots/earliest")
+                .param("specialization", "Cardiology")
+                .param("from", "2030-01-07")
+                .param("to", "2030-01-13")
+                .param("limit", "5"));
+
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].doctorId").value(2));
+
+        then(slotService).should(times(1))
+                .getEarliestSlots("Cardiology", LocalDate.of(2030, 1, 7), LocalDate.of(2030, 1, 13), 30, 5);
+
+    }
+
+    @Test
+    void updateDigest() throws Exception {
+
+        given(doctorService.updateDigest(1L, true)).willReturn(HttpStatus.OK);
+
+        ResultActions resultActions = mockMvc.perform(put(BASE_URL + "/1/digest")
+                .param("enabled", "true")
+                .principal(authenticated(1L)));
+
+        resultActions.andExpect(status().isOk());
+
+        then(doctorService).should(times(1)).updateDigest(1L, true);
+
+    }
+
+    @Test
+    void updateDigest_OtherDoctor_ShouldBeForbidden() throws Exception {
+
+        ResultActions resultActions = mockMvc.perform(put(BASE_URL + "/2/digest")
+                .param("enabled", "true")
+                .principal(authenticated(1L)));
+
+        resultActions.andExpect(status().isForbidden());
+
+        then(doctorService).should(never()).updateDigest(anyLong(), anyBoolean());
+
+    }
+
+    private static UsernamePasswordAuthenticationToken authenticated(Long doctorId) {
+        AuthenticatedUser user = new AuthenticatedUser(doctorId, "doctor@mail.com", Role.ROLE_DOCTOR);
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @Test
+    void searchDoctors() throws Exception {
+
+        given(doctorService.searchDoctors("heart surgeon", 10, 0))
+                .willReturn(List.of(DoctorDTO.builder().id(1L).name("Dr. Heart").build()));
+
+        ResultActions resultActions = mockMvc.perform(get(BASE_URL + "/search")
+                .param("q", "heart surgeon"));
+
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Dr. Heart"));
+
+        then(doctorService).should(times(1)).searchDoctors("heart surgeon", 10, 0);
+
+    }
+
+}
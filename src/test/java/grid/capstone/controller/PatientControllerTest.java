@@ -1,11 +1,14 @@
 package grid.capstone.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import grid.capstone.dto.v1.PatientImportDTO;
 import grid.capstone.dto.v1.PatientSignUp;
 import grid.capstone.filter.JwtTokenFilter;
+import grid.capstone.model.ImportStatus;
 import grid.capstone.model.Patient;
 import grid.capstone.model.Role;
 import grid.capstone.service.jwt.JwtService;
+import grid.capstone.service.patient.PatientImportService;
 import grid.capstone.service.patient.PatientService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +19,7 @@ import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfi
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -25,11 +29,15 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -53,6 +61,9 @@ class PatientControllerTest {
     @MockBean
     PatientService patientService;
 
+    @MockBean
+    PatientImportService patientImportService;
+
     PatientSignUp patientSignUp;
 
     @BeforeEach
@@ -136,4 +147,61 @@ class PatientControllerTest {
         then(patientService).should(times(1)).savePatient(any(PatientSignUp.class), any());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void importPatients() throws Exception {
+
+        given(patientImportService.startImport(any(), eq("text/csv"), any()))
+                .willReturn(PatientImportDTO.builder()
+                        .id(7L)
+                        .status(ImportStatus.QUEUED)
+                        .build());
+
+        mockMvc.perform(post(BASE_URL + "/import")
+                        .param("doctorId", "1")
+                        .contentType("text/csv")
+                        .content("name,email\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/v1/patients/import/7"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+
+        then(patientImportService).should(times(1)).startImport(any(), eq("text/csv"), any());
+    }
+
+    @Test
+    void importPatients_WithoutDoctor_ShouldBeABadRequest() throws Exception {
+
+        mockMvc.perform(post(BASE_URL + "/import")
+                        .contentType("text/csv")
+                        .content("name,email\n"))
+                .andExpect(status().isBadRequest());
+
+        then(patientImportService).should(never()).startImport(any(), any(), any());
+    }
+
+    @Test
+    void importPatients_UnsupportedFormat() throws Exception {
+
+        mockMvc.perform(post(BASE_URL + "/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    void getImport() throws Exception {
+
+        given(patientImportService.getImport(7L))
+                .willReturn(PatientImportDTO.builder()
+                        .id(7L)
+                        .status(ImportStatus.RUNNING)
+                        .read(2000)
+                        .created(1990)
+                        .build());
+
+        mockMvc.perform(get(BASE_URL + "/import/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read").value(2000))
+                .andExpect(jsonPath("$.created").value(1990));
+    }
+}
@@ -0,0 +1,161 @@
+package grid.capstone.filter;
+
+import grid.capstone.model.Role;
+import grid.capstone.service.jwt.JwtService;
+import grid.capstone.service.jwt.TokenRevocations;
+import grid.capstone.service.security.AuthenticatedUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class JwtTokenFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @Mock
+    private TokenRevocations tokenRevocations;
+
+    private JwtTokenFilter jwtTokenFilter;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenFilter = new JwtTokenFilter(jwtService, userDetailsService, tokenRevocations, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilterInternal_TokenWithClaims_ShouldNotLoadTheAccount() throws Exception {
+        // Given
+        Claims claims = new DefaultClaims();
+        claims.setSubject("doctor@mail.com");
+        AuthenticatedUser principal = new AuthenticatedUser(7L, "doctor@mail.com", Role.ROLE_DOCTOR);
+        given(request.getHeader(HttpHeaders.AUTHORIZATION)).willReturn("Bearer token");
+        given(jwtService.verify("token")).willReturn(Optional.of(claims));
+        given(jwtService.principal(claims)).willReturn(Optional.of(principal));
+
+        // When
+        jwtTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        then(userDetailsService).should(never()).loadUserByUsername(anyString());
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(principal);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting(Object::toString)
+                .containsExactly("ROLE_DOCTOR");
+    }
+
+    @Test
+    void doFilterInternal_RevokedAccount_ShouldNotAuthenticate() throws Exception {
+        // Given
+        Claims claims = new DefaultClaims();
+        claims.setSubject("doctor@mail.com");
+        claims.setIssuedAt(new Date(System.currentTimeMillis() - 60_000));
+        given(request.getHeader(HttpHeaders.AUTHORIZATION)).willReturn("Bearer token");
+        given(jwtService.verify("token")).willReturn(Optional.of(claims));
+        given(tokenRevocations.isRevoked("doctor@mail.com", claims.getIssuedAt())).willReturn(true);
+
+        // When
+        jwtTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        then(filterChain).should().doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_RevokedToken_ShouldNotAuthenticate() throws Exception {
+        // Given
+        Claims claims = new DefaultClaims();
+        claims.setSubject("doctor@mail.com");
+        claims.setId("jti");
+        given(request.getHeader(HttpHeaders.AUTHORIZATION)).willReturn("Bearer token");
+        given(jwtService.verify("token")).willReturn(Optional.of(claims));
+        given(tokenRevocations.isRevoked("jti")).willReturn(true);
+
+        // When
+        jwtTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        then(jwtService).should(never()).principal(any());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        then(filterChain).should().doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_TokenWithoutClaims_ShouldFallBackToTheAccount() throws Exception {
+        // Given
+        Claims claims = new DefaultClaims();
+        claims.setSubject("doctor@mail.com");
+        given(request.getHeader(HttpHeaders.AUTHORIZATION)).willReturn("Bearer token");
+        given(jwtService.verify("token")).willReturn(Optional.of(claims));
+        given(jwtService.principal(claims)).willReturn(Optional.empty());
+        given(userDetailsService.loadUserByUsername("doctor@mail.com"))
+                .willReturn(new User("doctor@mail.com", "password", List.of()));
+
+        // When
+        jwtTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        then(jwtService).should(times(1)).verify("token");
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("doctor@mail.com");
+        then(filterChain).should().doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_InvalidToken_ShouldNotAuthenticate() throws Exception {
+        // Given
+        given(request.getHeader(HttpHeaders.AUTHORIZATION)).willReturn("Bearer forged");
+        given(jwtService.verify("forged")).willReturn(Optional.empty());
+
+        // When
+        jwtTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        then(userDetailsService).should(never()).loadUserByUsername(anyString());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        then(filterChain).should().doFilter(request, response);
+    }
+
+}
@@ -0,0 +1,198 @@
+package grid.capstone.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import grid.capstone.config.RateLimitProperties;
+import grid.capstone.service.jwt.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    JwtService jwtService;
+
+    @Mock
+    FilterChain filterChain;
+
+    SimpleMeterRegistry meterRegistry;
+
+    RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Group login = new RateLimitProperties.Group();
+        login.setName("login");
+        login.setPaths(List.of("/api/v1/auth/login"));
+        login.setMethods(List.of("POST"));
+        login.setCapacity(2);
+        login.setRefillPerSecond(0.1);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGroups(List.of(login));
+
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter(properties, jwtService,
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+    }
+
+    @Test
+    void doFilter_OverTheBurst_ShouldAnswerTooManyRequests() throws Exception {
+        // Given
+        MockHttpServletResponse last = null;
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            last = new MockHttpServletResponse();
+            rateLimitFilter.doFilter(request("POST", "/api/v1/auth/login", "10.0.0.1"), last, filterChain);
+        }
+
+        // Then
+        then(filterChain).should(times(2)).doFilter(any(), any());
+        assertThat(last.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(last.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 10L);
+        assertThat(meterRegistry.get("rate.limit.rejected").tag("group", "login").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_ClientsAndRoutes_ShouldHaveTheirOwnLimits() throws Exception {
+        // When
+        for (int i = 0; i < 2; i++) {
+            rateLimitFilter.doFilter(request("POST", "/api/v1/auth/login", "10.0.0.1"), new MockHttpServletResponse(), filterChain);
+        }
+        MockHttpServletResponse otherClient = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request("POST", "/api/v1/auth/login", "10.0.0.2"), otherClient, filterChain);
+        MockHttpServletResponse otherRoute = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request("GET", "/api/v1/doctors", "10.0.0.1"), otherRoute, filterChain);
+
+        // Then
+        assertThat(otherClient.getStatus()).isEqualTo(200);
+        assertThat(otherRoute.getStatus()).isEqualTo(200);
+        then(filterChain).should(times(4)).doFilter(any(), any());
+    }
+
+    @Test
+    void admit_ValidToken_ShouldLimitTheUserWhereverTheyComeFrom() {
+        // Given
+        Claims claims = new DefaultClaims();
+        claims.setSubject("doctor@mail.com");
+        given(jwtService.verify("token")).willReturn(Optional.of(claims));
+
+        // When
+        long first = rateLimitFilter.admit(authorized("10.0.0.1"));
+        long second = rateLimitFilter.admit(authorized("10.0.0.2"));
+        long third = rateLimitFilter.admit(authorized("10.0.0.3"));
+
+        // Then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isPositive();
+    }
+
+    @Test
+    void doFilter_KeyField_ShouldGiveEachEmailBehindOneAddressItsOwnBucket() throws Exception {
+        // Given
+        keyOnEmail();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            rateLimitFilter.doFilter(login("10.0.0.1", "ann@mail.com"), new MockHttpServletResponse(), filterChain);
+        }
+        MockHttpServletResponse otherEmail = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(login("10.0.0.1", "Bob@mail.com"), otherEmail, filterChain);
+
+        // Then
+        assertThat(otherEmail.getStatus()).isEqualTo(200);
+        then(filterChain).should(times(3)).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_KeyField_ShouldPassTheBodyOn() throws Exception {
+        // Given
+        keyOnEmail();
+        ArgumentCaptor<ServletRequest> forwarded = ArgumentCaptor.forClass(ServletRequest.class);
+
+        // When
+        rateLimitFilter.doFilter(login("10.0.0.1", "ann@mail.com"), new MockHttpServletResponse(), filterChain);
+
+        // Then
+        then(filterChain).should().doFilter(forwarded.capture(), any());
+        assertThat(new String(forwarded.getValue().getInputStream().readAllBytes(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"email\":\"ann@mail.com\",\"password\":\"secret\"}");
+    }
+
+    @Test
+    void doFilter_Disabled_ShouldNotLimit() throws Exception {
+        // Given
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(false);
+        rateLimitFilter = new RateLimitFilter(properties, jwtService, new ObjectMapper(), meterRegistry);
+
+        // When
+        rateLimitFilter.doFilter(request("POST", "/api/v1/auth/login", "10.0.0.1"), new MockHttpServletResponse(), filterChain);
+
+        // Then
+        then(jwtService).should(never()).verify(any());
+        then(filterChain).should().doFilter(any(), any());
+    }
+
+
+    private MockHttpServletRequest request(String method, String uri, String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        return request;
+    }
+
+    private void keyOnEmail() {
+        RateLimitProperties.Group login = new RateLimitProperties.Group();
+        login.setName("login");
+        login.setPaths(List.of("/api/v1/auth/login"));
+        login.setKeyField("email");
+        login.setCapacity(2);
+        login.setRefillPerSecond(0.1);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGroups(List.of(login));
+
+        rateLimitFilter = new RateLimitFilter(properties, jwtService, new ObjectMapper(), meterRegistry);
+    }
+
+    private MockHttpServletRequest login(String address, String email) {
+        MockHttpServletRequest request = request("POST", "/api/v1/auth/login", address);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletRequest authorized(String address) {
+        MockHttpServletRequest request = request("POST", "/api/v1/auth/login", address);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+        return request;
+    }
+
+}
@@ -0,0 +1,83 @@
+package grid.capstone.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentSeriesTest {
+
+    @Test
+    void occurrencesBetween_Biweekly_ShouldStartFromTheFirstOccurrenceInTheWindow() {
+        // Given
+        AppointmentSeries series = series(Frequency.WEEKLY, 2, LocalDate.of(2030, 1, 7), LocalDate.of(2030, 12, 31));
+
+        // When
+        List<LocalDate> dates = series.occurrencesBetween(LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 31));
+
+        // Then
+        assertThat(dates).containsExactly(LocalDate.of(2030, 3, 4), LocalDate.of(2030, 3, 18));
+        assertThat(dates).allMatch(series::occursOn);
+    }
+
+    @Test
+    void occurrencesBetween_MonthlyOnThe31st_ShouldUseTheLastDayOfShortMonths() {
+        // Given
+        AppointmentSeries series = series(Frequency.MONTHLY, 1, LocalDate.of(2030, 1, 31), LocalDate.of(2030, 4, 30));
+
+        // When
+        List<LocalDate> dates = series.occurrencesBetween(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 12, 31));
+
+        // Then
+        assertThat(dates).containsExactly(
+                LocalDate.of(2030, 1, 31),
+                LocalDate.of(2030, 2, 28),
+                LocalDate.of(2030, 3, 31),
+                LocalDate.of(2030, 4, 30)
+        );
+        assertThat(dates).allMatch(series::occursOn);
+    }
+
+    @Test
+    void occursOn_DatesOutsideTheRuleOrRange_ShouldReturnFalse() {
+        // Given
+        AppointmentSeries series = series(Frequency.WEEKLY, 1, LocalDate.of(2030, 1, 7), LocalDate.of(2030, 2, 25));
+
+        // Then
+        assertThat(series.occursOn(LocalDate.of(2030, 1, 8))).isFalse();
+        assertThat(series.occursOn(LocalDate.of(2029, 12, 31))).isFalse();
+        assertThat(series.occursOn(LocalDate.of(2030, 3, 4))).isFalse();
+        assertThat(series.occursOn(LocalDate.of(2030, 2, 25))).isTrue();
+    }
+
+    @Test
+    void occurrencesBetween_WindowOutsideTheRange_ShouldBeEmpty() {
+        // Given
+        AppointmentSeries series = series(Frequency.MONTHLY, 3, LocalDate.of(2030, 1, 15), LocalDate.of(2030, 6, 30));
+
+        // Then
+        assertThat(series.occurrencesBetween(LocalDate.of(2030, 7, 1), LocalDate.of(2030, 12, 31))).isEmpty();
+        assertThat(series.occurrencesBetween(LocalDate.of(2030, 2, 1), LocalDate.of(2030, 4, 14))).isEmpty();
+        assertThat(series.occurrencesBetween(LocalDate.of(2030, 2, 1), LocalDate.of(2030, 4, 15)))
+                .containsExactly(LocalDate.of(2030, 4, 15));
+    }
+
+
+    private AppointmentSeries series(Frequency frequency, int intervalCount, LocalDate startDate, LocalDate endDate) {
+        return AppointmentSeries.builder()
+                .id(1L)
+                .frequency(frequency)
+                .intervalCount(intervalCount)
+                .startDate(startDate)
+                .endDate(endDate)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(10, 0))
+                .doctor(Doctor.builder().id(1L).build())
+                .patient(Patient.builder().id(2L).build())
+                .build();
+    }
+
+}
@@ -0,0 +1,93 @@
+package grid.capstone.repository;
+
+import grid.capstone.dto.v1.DoctorDTO;
+import grid.capstone.model.Doctor;
+import grid.capstone.service.mail.EmailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DoctorSearchRepositoryPostgresTest {
+
+    @Autowired
+    DoctorSearchRepository doctorSearchRepository;
+
+    @Autowired
+    DoctorRepository doctorRepository;
+
+    @MockBean
+    EmailService emailService;
+
+    Doctor specialist;
+
+    Doctor mentioned;
+
+    Doctor unrelated;
+
+
+    @BeforeEach
+    void setUp() {
+        specialist = doctorRepository.save(doctor("Search Specialist", "Otolaryngology",
+                "Sees patients every weekday."));
+        mentioned = doctorRepository.save(doctor("Search Mentioned", "Dermatology",
+                "Trained in otolaryngology before changing field."));
+        unrelated = doctorRepository.save(doctor("Search Unrelated", "Cardiology",
+                "Runs the heart clinic."));
+    }
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll(List.of(specialist, mentioned, unrelated));
+    }
+
+    @Test
+    void testSearch_ShouldRankSpecializationAboveBiography() {
+        // When
+        List<DoctorDTO> result = doctorSearchRepository.search("otolaryngology", 10, 0);
+
+        // Then
+        assertThat(ids(result)).containsExactly(specialist.getId(), mentioned.getId());
+    }
+
+    @Test
+    void testSearch_UpdatedBiography_ShouldBeFound() {
+        // Given
+        assertThat(ids(doctorSearchRepository.search("xylophone", 10, 0))).doesNotContain(unrelated.getId());
+        unrelated.setBiography("Plays the xylophone on weekends.");
+        doctorRepository.save(unrelated);
+
+        // When
+        List<DoctorDTO> result = doctorSearchRepository.search("xylophone", 10, 0);
+
+        // Then
+        assertThat(ids(result)).containsExactly(unrelated.getId());
+    }
+
+    private static Doctor doctor(String name, String specialization, String biography) {
+        return Doctor.builder()
+                .name(name)
+                .email(name.toLowerCase().replace(' ', '.') + "@mail.com")
+                .age(40)
+                .specialization(specialization)
+                .department(specialization)
+                .biography(biography)
+                .skills(List.of("Consulting"))
+                .password("password")
+                .build();
+    }
+
+    private static List<Long> ids(List<DoctorDTO> doctors) {
+        return doctors.stream()
+                .map(DoctorDTO::getId)
+                .toList();
+    }
+
+}
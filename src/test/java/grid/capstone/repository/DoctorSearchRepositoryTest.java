@@ -0,0 +1,87 @@
+package grid.capstone.repository;
+
+import grid.capstone.dto.v1.DoctorDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DoctorSearchRepositoryTest {
+
+    EmbeddedDatabase database;
+
+    DoctorSearchRepository doctorSearchRepository;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("""
+                CREATE TABLE doctor (
+                    id BIGINT PRIMARY KEY,
+                    name VARCHAR(50),
+                    specialization VARCHAR(30),
+                    skills VARCHAR(30) ARRAY,
+                    biography TEXT,
+                    department VARCHAR(40)
+                )
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO doctor VALUES
+                    (1, 'Ann Heart', 'Cardiology', ARRAY['Angioplasty', 'Echo'], 'Treats hearts', 'Surgery'),
+                    (2, 'Bob Bone', 'Orthopedics', ARRAY['Casting'], 'Fixes 100% of bones', 'Surgery'),
+                    (3, 'Cat Skin', 'Dermatology', ARRAY['Biopsy'], 'Skin and heart_health', 'Clinic')
+                """);
+
+        doctorSearchRepository = new DoctorSearchRepository(jdbcTemplate, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void search_ShouldMatchAnyColumnIgnoringCase() {
+        assertThat(ids(doctorSearchRepository.search("cardiology", 10, 0))).containsExactly(1L);
+        assertThat(ids(doctorSearchRepository.search("CASTING", 10, 0))).containsExactly(2L);
+        assertThat(ids(doctorSearchRepository.search("skin", 10, 0))).containsExactly(3L);
+    }
+
+    @Test
+    void search_EveryWordHasToMatch() {
+        assertThat(ids(doctorSearchRepository.search("heart ann", 10, 0))).containsExactly(1L);
+        assertThat(ids(doctorSearchRepository.search("heart bob", 10, 0))).isEmpty();
+    }
+
+    @Test
+    void search_WildcardsAreMatchedLiterally() {
+        assertThat(ids(doctorSearchRepository.search("100%", 10, 0))).containsExactly(2L);
+        assertThat(ids(doctorSearchRepository.search("heart_", 10, 0))).containsExactly(3L);
+    }
+
+    @Test
+    void search_ShouldPage() {
+        assertThat(ids(doctorSearchRepository.search("a", 2, 0))).containsExactly(1L, 2L);
+        assertThat(ids(doctorSearchRepository.search("a", 2, 2))).containsExactly(3L);
+    }
+
+
+    private static List<Long> ids(List<DoctorDTO> doctors) {
+        return doctors.stream()
+                .map(DoctorDTO::getId)
+                .toList();
+    }
+
+}
@@ -0,0 +1,64 @@
+package grid.capstone.repository;
+
+import grid.capstone.service.mail.EmailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EmailOutboxRepositoryTest {
+
+    static final String RECIPIENT = "outbox.purge@mail.com";
+
+    @Autowired
+    EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    EmailService emailService;
+
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM email_outbox WHERE recipient = ?", RECIPIENT);
+    }
+
+    @Test
+    void deleteDeadBefore_ShouldOnlyDeleteDeadEmailsPastTheRetention() throws Exception {
+        // Given
+        Long dead = queued();
+        Long pending = queued();
+        emailOutboxRepository.markDead(dead, "Dropped, the delivery queue was full");
+        Thread.sleep(10);
+
+        // When
+        int kept = emailOutboxRepository.deleteDeadBefore(Duration.ofDays(7));
+        int purged = emailOutboxRepository.deleteDeadBefore(Duration.ZERO);
+
+        // Then
+        assertThat(kept).isZero();
+        assertThat(purged).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM email_outbox WHERE recipient = ?", Long.class, RECIPIENT))
+                .containsExactly(pending);
+    }
+
+
+    //Not due for a day, so the dispatcher leaves it alone meanwhile
+    private Long queued() {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO email_outbox (recipient, subject, body, next_attempt_at)
+                VALUES (?, 'Reminder', 'Body', now() + INTERVAL '1 day')
+                RETURNING id
+                """, Long.class, RECIPIENT);
+    }
+
+}
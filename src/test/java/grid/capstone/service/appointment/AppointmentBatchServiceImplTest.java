@@ -0,0 +1,224 @@
+package grid.capstone.service.appointment;
+
+import grid.capstone.dto.v1.AppointmentDTO;
+import grid.capstone.dto.v1.BatchBookingResultDTO;
+import grid.capstone.dto.v1.BatchBookingResultDTO.Status;
+import grid.capstone.exception.InvalidRequestException;
+import grid.capstone.mapper.AppointmentMapper;
+import grid.capstone.model.Appointment;
+import grid.capstone.model.BookedInterval;
+import grid.capstone.model.Contact;
+import grid.capstone.repository.AppointmentBatchRepository;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import grid.capstone.repository.DoctorRepository;
+import grid.capstone.repository.PatientRepository;
+import grid.capstone.service.mail.EmailService;
+import grid.capstone.service.reminder.ReminderScheduler;
+import grid.capstone.service.schedule.ScheduleIndex;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentBatchServiceImplTest {
+
+    static final LocalDate DATE = LocalDate.now().plusDays(7);
+
+    @Mock
+    DoctorRepository doctorRepository;
+
+    @Mock
+    PatientRepository patientRepository;
+
+    @Mock
+    AppointmentRepository appointmentRepository;
+
+    @Mock
+    AppointmentBatchRepository appointmentBatchRepository;
+
+    @Mock
+    AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Mock
+    BookingLock bookingLock;
+
+    @Mock
+    ScheduleIndex scheduleIndex;
+
+    @Mock
+    EmailService emailService;
+
+    @Mock
+    ReminderScheduler reminderScheduler;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Captor
+    ArgumentCaptor<List<Appointment>> insertedCaptor;
+
+    AppointmentBatchService appointmentBatchService;
+
+
+    @BeforeEach
+    void setUp() {
+        appointmentBatchService = new AppointmentBatchServiceImpl(
+                AppointmentMapper.INSTANCE,
+                doctorRepository,
+                patientRepository,
+                appointmentRepository,
+                appointmentBatchRepository,
+                appointmentSeriesRepository,
+                bookingLock,
+                scheduleIndex,
+                emailService,
+                reminderScheduler,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(transactionManager),
+                100
+        );
+    }
+
+    @Test
+    void createAppointments_ShouldRejectConflictsInsideTheBatch() {
+        // Given
+        givenPeopleExist();
+        given(appointmentRepository.findBookedBetween(anyCollection(), anyCollection(), any(), any()))
+                .willReturn(List.of());
+        given(appointmentBatchRepository.nextIds(2)).willReturn(List.of(100L, 101L));
+
+        List<AppointmentDTO> batch = List.of(
+                appointment(1L, 1L, 9, 10),
+                appointment(1L, 2L, 9, 30, 10, 30),
+                appointment(1L, 2L, 10, 11)
+        );
+
+        // When
+        List<BatchBookingResultDTO> results = appointmentBatchService.createAppointments(batch);
+
+        // Then
+        assertThat(results).extracting(BatchBookingResultDTO::getStatus)
+                .containsExactly(Status.CREATED, Status.CONFLICT, Status.CREATED);
+        assertThat(results).extracting(BatchBookingResultDTO::getAppointmentId)
+                .containsExactly(100L, null, 101L);
+
+        then(bookingLock).should(times(1)).lockAll(anyCollection());
+        then(appointmentBatchRepository).should(times(1)).insertAll(insertedCaptor.capture());
+        assertThat(insertedCaptor.getValue()).extracting(Appointment::getId).containsExactly(100L, 101L);
+        then(emailService).should(times(2)).appointmentEmails(any(), any(), any());
+        then(emailService).should(times(1)).queue(anyList());
+        then(reminderScheduler).should(times(2)).schedule(any(Appointment.class));
+    }
+
+    @Test
+    void createAppointments_ShouldRejectConflictsWithBookedAppointments() {
+        // Given
+        givenPeopleExist();
+        given(appointmentRepository.findBookedBetween(anyCollection(), anyCollection(), any(), any()))
+                .willReturn(List.of(BookedInterval.builder()
+                        .appointmentId(5L)
+                        .doctorId(3L)
+                        .patientId(2L)
+                        .date(DATE)
+                        .startTime(LocalTime.of(8, 0))
+                        .endTime(LocalTime.of(9, 15))
+                        .build()));
+        given(appointmentBatchRepository.nextIds(2)).willReturn(List.of(100L, 101L));
+
+        List<AppointmentDTO> batch = List.of(
+                appointment(1L, 1L, 9, 10),
+                appointment(1L, 2L, 8, 0, 8, 30),
+                appointment(1L, 2L, 10, 11)
+        );
+
+        // When
+        List<BatchBookingResultDTO> results = appointmentBatchService.createAppointments(batch);
+
+        // Then
+        assertThat(results).extracting(BatchBookingResultDTO::getStatus)
+                .containsExactly(Status.CREATED, Status.CONFLICT, Status.CREATED);
+    }
+
+    @Test
+    void createAppointments_InvalidAndUnknownItems_ShouldNotReachTheDatabase() {
+        // Given
+        given(doctorRepository.findContacts(anyCollection())).willReturn(List.of());
+        given(patientRepository.findContacts(anyCollection()))
+                .willReturn(List.of(new Contact(1L, "Patient", "patient@mail.com")));
+
+        List<AppointmentDTO> batch = new ArrayList<>();
+        batch.add(appointment(9L, 1L, 9, 10));
+        batch.add(appointment(1L, 1L, 11, 10));
+        batch.add(AppointmentDTO.builder().doctorId(1L).build());
+        batch.add(null);
+
+        // When
+        List<BatchBookingResultDTO> results = appointmentBatchService.createAppointments(batch);
+
+        // Then
+        assertThat(results).extracting(BatchBookingResultDTO::getStatus)
+                .containsExactly(Status.NOT_FOUND, Status.INVALID, Status.INVALID, Status.INVALID);
+        then(bookingLock).should(never()).lockAll(anyCollection());
+        then(appointmentBatchRepository).should(never()).insertAll(anyList());
+    }
+
+    @Test
+    void createAppointments_EmptyOrOversizedBatch_ShouldThrowException() {
+        List<AppointmentDTO> oversized = Collections.nCopies(101, appointment(1L, 1L, 9, 10));
+
+        assertThrows(InvalidRequestException.class, () -> appointmentBatchService.createAppointments(List.of()));
+        assertThrows(InvalidRequestException.class, () -> appointmentBatchService.createAppointments(oversized));
+    }
+
+
+    private void givenPeopleExist() {
+        given(doctorRepository.findContacts(anyCollection()))
+                .willReturn(List.of(new Contact(1L, "Doctor", "doctor@mail.com")));
+        given(patientRepository.findContacts(anyCollection()))
+                .willReturn(List.of(
+                        new Contact(1L, "First Patient", "first@mail.com"),
+                        new Contact(2L, "Second Patient", "second@mail.com")
+                ));
+    }
+
+    private AppointmentDTO appointment(Long doctorId, Long patientId, int startHour, int endHour) {
+        return appointment(doctorId, patientId, startHour, 0, endHour, 0);
+    }
+
+    private AppointmentDTO appointment(Long doctorId, Long patientId,
+                                       int startHour, int startMinute, int endHour, int endMinute) {
+        return AppointmentDTO.builder()
+                .doctorId(doctorId)
+                .patientId(patientId)
+                .appointmentDate(DATE)
+                .startTime(LocalTime.of(startHour, startMinute))
+                .endTime(LocalTime.of(endHour, endMinute))
+                .reason("Follow up")
+                .build();
+    }
+
+}
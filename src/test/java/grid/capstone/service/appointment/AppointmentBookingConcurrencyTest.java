@@ -0,0 +1,152 @@
+package grid.capstone.service.appointment;
+
+import grid.capstone.dto.v1.AppointmentDTO;
+import grid.capstone.exception.AppointmentConflictException;
+import grid.capstone.model.Appointment;
+import grid.capstone.model.Doctor;
+import grid.capstone.model.Patient;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.DoctorRepository;
+import grid.capstone.repository.PatientRepository;
+import grid.capstone.service.mail.EmailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AppointmentBookingConcurrencyTest {
+
+    static final int THREADS = 8;
+    static final int SLOTS = 300;
+    static final int SLOTS_PER_DAY = 40;
+
+    @Autowired
+    AppointmentService appointmentService;
+
+    @Autowired
+    AppointmentRepository appointmentRepository;
+
+    @Autowired
+    DoctorRepository doctorRepository;
+
+    @Autowired
+    PatientRepository patientRepository;
+
+    @MockBean
+    EmailService emailService;
+
+    LocalDate firstDay;
+
+    Doctor doctor;
+
+    List<Patient> patients;
+
+
+    @BeforeEach
+    void setUp() {
+        firstDay = LocalDate.now().plusYears(5);
+
+        doctor = doctorRepository.save(Doctor.builder()
+                .name("Stress Doctor")
+                .email("stress.doctor@mail.com")
+                .age(40)
+                .skills(List.of("Testing"))
+                .password("password")
+                .build());
+
+        patients = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            patients.add(patientRepository.save(Patient.builder()
+                    .name("Stress Patient " + i)
+                    .email("stress.patient" + i + "@mail.com")
+                    .age(30)
+                    .gender('M')
+                    .address("Address")
+                    .password("password")
+                    .doctor(doctor)
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll(appointmentRepository.findAll(
+                AppointmentSpecification.hasDoctor(doctor.getId())));
+        patientRepository.deleteAll(patients);
+        doctorRepository.delete(doctor);
+    }
+
+    @Test
+    void createAppointment_ConcurrentBookingsOfSameSlot_ShouldBookEachSlotOnce() throws Exception {
+        // Given
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CyclicBarrier startTogether = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // When
+        List<Future<?>> workers = new ArrayList<>();
+        for (Patient patient : patients) {
+            workers.add(executor.submit(() -> {
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    startTogether.await();
+
+                    try {
+                        appointmentService.createAppointment(appointment(patient, slot));
+                        booked.incrementAndGet();
+                    } catch (AppointmentConflictException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> worker : workers) {
+            worker.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Then
+        List<Appointment> appointments = appointmentRepository.findAll(
+                AppointmentSpecification.hasDoctor(doctor.getId()));
+
+        assertThat(booked.get()).isEqualTo(SLOTS);
+        assertThat(rejected.get()).isEqualTo(SLOTS * (THREADS - 1));
+        assertThat(appointments).hasSize(SLOTS);
+        assertThat(appointments)
+                .extracting(appointment -> appointment.getAppointmentDate().atTime(appointment.getStartTime()))
+                .doesNotHaveDuplicates();
+    }
+
+
+    private AppointmentDTO appointment(Patient patient, int slot) {
+        LocalTime startTime = LocalTime.of(0, 0).plusMinutes(30L * (slot % SLOTS_PER_DAY));
+
+        return AppointmentDTO.builder()
+                .doctorId(doctor.getId())
+                .patientId(patient.getId())
+                .appointmentDate(firstDay.plusDays(slot / SLOTS_PER_DAY))
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(30))
+                .reason("Stress test")
+                .build();
+    }
+
+}
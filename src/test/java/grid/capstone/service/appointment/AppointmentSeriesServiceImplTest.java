@@ -0,0 +1,165 @@
+package grid.capstone.service.appointment;
+
+import grid.capstone.dto.v1.AppointmentSeriesDTO;
+import grid.capstone.exception.AppointmentConflictException;
+import grid.capstone.exception.InvalidRequestException;
+import grid.capstone.exception.ResourceNotFoundException;
+import grid.capstone.mapper.AppointmentSeriesMapper;
+import grid.capstone.model.AppointmentSeries;
+import grid.capstone.model.Frequency;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import grid.capstone.repository.DoctorRepository;
+import grid.capstone.repository.PatientRepository;
+import grid.capstone.service.reminder.ReminderScheduler;
+import grid.capstone.service.schedule.ScheduleIndex;
+import grid.capstone.service.schedule.ScheduleIndex.Party;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentSeriesServiceImplTest {
+
+    static final LocalDate START = LocalDate.now().plusDays(1);
+
+    @Mock
+    AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Mock
+    AppointmentRepository appointmentRepository;
+
+    @Mock
+    DoctorRepository doctorRepository;
+
+    @Mock
+    PatientRepository patientRepository;
+
+    @Mock
+    BookingLock bookingLock;
+
+    @Mock
+    ScheduleIndex scheduleIndex;
+
+    @Mock
+    ReminderScheduler reminderScheduler;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    AppointmentSeriesService appointmentSeriesService;
+
+    AppointmentSeriesDTO seriesDTO;
+
+
+    @BeforeEach
+    void setUp() {
+        appointmentSeriesService = new AppointmentSeriesServiceImpl(
+                AppointmentSeriesMapper.INSTANCE,
+                appointmentSeriesRepository,
+                appointmentRepository,
+                doctorRepository,
+                patientRepository,
+                bookingLock,
+                scheduleIndex,
+                reminderScheduler,
+                new TransactionTemplate(transactionManager),
+                730
+        );
+
+        seriesDTO = AppointmentSeriesDTO.builder()
+                .doctorId(1L)
+                .patientId(2L)
+                .frequency(Frequency.WEEKLY)
+                .intervalCount(1)
+                .startDate(START)
+                .endDate(START.plusWeeks(51))
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(10, 0))
+                .reason("Physio")
+                .build();
+    }
+
+    @Test
+    void createSeries_ShouldSaveOneRowForAllOccurrences() {
+        // Given
+        given(doctorRepository.existsById(1L)).willReturn(true);
+        given(patientRepository.existsById(2L)).willReturn(true);
+        given(appointmentRepository.findOverlappingDates(1L, 2L, START, START.plusWeeks(51), LocalTime.of(9, 0), LocalTime.of(10, 0)))
+                .willReturn(List.of(START.plusDays(3)));
+
+        // When
+        HttpStatus result = appointmentSeriesService.createSeries(seriesDTO);
+
+        // Then
+        assertThat(result).isEqualTo(HttpStatus.CREATED);
+        then(bookingLock).should(times(1)).lockAll(anyCollection());
+        then(appointmentSeriesRepository).should(times(1)).save(any(AppointmentSeries.class));
+        then(scheduleIndex).should(times(104)).invalidate(any(Party.class), any(), any());
+        then(reminderScheduler).should().schedule(any(AppointmentSeries.class));
+    }
+
+    @Test
+    void createSeries_OccurrenceClashesWithAppointment_ShouldThrowException() {
+        // Given
+        given(doctorRepository.existsById(1L)).willReturn(true);
+        given(patientRepository.existsById(2L)).willReturn(true);
+        given(appointmentRepository.findOverlappingDates(any(), any(), any(), any(), any(), any()))
+                .willReturn(List.of(START.plusWeeks(20)));
+
+        // When and Then
+        assertThrows(AppointmentConflictException.class, () -> appointmentSeriesService.createSeries(seriesDTO));
+        then(appointmentSeriesRepository).should(never()).save(any(AppointmentSeries.class));
+    }
+
+    @Test
+    void createSeries_OccurrenceClashesWithAnotherSeries_ShouldThrowException() {
+        // Given
+        given(doctorRepository.existsById(1L)).willReturn(true);
+        given(patientRepository.existsById(2L)).willReturn(true);
+        given(appointmentSeriesRepository.findOverlapping(any(), any(), any(), any(), any(), any()))
+                .willReturn(List.of(AppointmentSeries.builder()
+                        .frequency(Frequency.MONTHLY)
+                        .intervalCount(1)
+                        .startDate(START.plusWeeks(8))
+                        .endDate(START.plusYears(1))
+                        .build()));
+
+        // When and Then
+        assertThrows(AppointmentConflictException.class, () -> appointmentSeriesService.createSeries(seriesDTO));
+        then(appointmentSeriesRepository).should(never()).save(any(AppointmentSeries.class));
+    }
+
+    @Test
+    void createSeries_HorizonTooLong_ShouldThrowException() {
+        seriesDTO.setEndDate(START.plusYears(3));
+
+        assertThrows(InvalidRequestException.class, () -> appointmentSeriesService.createSeries(seriesDTO));
+    }
+
+    @Test
+    void createSeries_DoctorDoesNotExist_ShouldThrowException() {
+        given(doctorRepository.existsById(1L)).willReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> appointmentSeriesService.createSeries(seriesDTO));
+    }
+
+}
@@ -1,27 +1,40 @@
 package grid.capstone.service.appointment;
 
 import grid.capstone.dto.v1.AppointmentDTO;
+import grid.capstone.dto.v1.AppointmentPageDTO;
+import grid.capstone.dto.v1.AppointmentSummaryDTO;
+import grid.capstone.dto.v1.SlotDTO;
 import grid.capstone.exception.AppointmentConflictException;
+import grid.capstone.exception.InvalidRequestException;
 import grid.capstone.exception.ResourceNotFoundException;
 import grid.capstone.mapper.AppointmentMapper;
 import grid.capstone.model.Appointment;
+import grid.capstone.model.AppointmentSeries;
+import grid.capstone.model.BookedInterval;
 import grid.capstone.model.Doctor;
+import grid.capstone.model.Frequency;
 import grid.capstone.model.Patient;
 import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
 import grid.capstone.repository.DoctorRepository;
 import grid.capstone.repository.PatientRepository;
 import grid.capstone.service.mail.EmailService;
+import grid.capstone.service.reminder.ReminderScheduler;
+import grid.capstone.service.schedule.ScheduleIndex;
+import grid.capstone.service.schedule.SlotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -29,8 +42,12 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 
@@ -54,6 +71,24 @@ class AppointmentServiceImplTest {
     @Mock
     EmailService emailService;
 
+    @Mock
+    ScheduleIndex scheduleIndex;
+
+    @Mock
+    BookingLock bookingLock;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Mock
+    SlotService slotService;
+
+    @Mock
+    ReminderScheduler reminderScheduler;
+
     Appointment appointment;
 
     AppointmentDTO appointmentDTO;
@@ -66,7 +101,8 @@ class AppointmentServiceImplTest {
     @BeforeEach
     void setUp() {
 
-        appointmentService = new AppointmentServiceImpl(appointmentMapper, patientRepository, doctorRepository, appointmentRepository, emailService);
+        appointmentService = new AppointmentServiceImpl(appointmentMapper, patientRepository, doctorRepository, appointmentRepository, emailService, scheduleIndex,
+                bookingLock, new TransactionTemplate(transactionManager), appointmentSeriesRepository, slotService, reminderScheduler);
 
 
         appointmentDTO = AppointmentDTO.builder()
@@ -106,12 +142,8 @@ class AppointmentServiceImplTest {
         // Stubbing the AppointmentRepository to return the saved appointment given() save is called
         given(appointmentRepository.save(appointment)).willReturn(appointment);
 
-        given(appointmentRepository.findByDoctor(any(Doctor.class)))
-                .willReturn(List.of());
-
-
-        given(appointmentRepository.findByPatient(any(Patient.class)))
-                .willReturn(List.of());
+        given(appointmentRepository.existsOverlapping(any(), any(), any(), any(), any(), any()))
+                .willReturn(false);
 
 
         // When
@@ -124,7 +156,7 @@ class AppointmentServiceImplTest {
 
         then(appointmentRepository).should().save(appointment);
 
-        then(emailService).should().sendAppointmentEmail(appointment, doctor, patient);
+        then(emailService).should().queueAppointmentEmail(appointment, doctor, patient);
 
         assertThat(result).isEqualTo(HttpStatus.CREATED);
 
@@ -167,6 +199,52 @@ class AppointmentServiceImplTest {
         then(appointmentRepository).should(never()).findAll(any(Specification.class));
     }
 
+    @Test
+    void getAppointmentSummaries_FullPage_ShouldReturnCursorOfLastRow() {
+        // Given
+        List<AppointmentSummaryDTO> rows = List.of(
+                summary(1L, LocalDate.of(2023, 7, 20), LocalTime.of(9, 0)),
+                summary(2L, LocalDate.of(2023, 7, 20), LocalTime.of(10, 0)),
+                summary(3L, LocalDate.of(2023, 7, 21), LocalTime.of(9, 0))
+        );
+        given(appointmentRepository.findSummaries(any(Specification.class), eq(3))).willReturn(rows);
+
+        // When
+        AppointmentPageDTO page = appointmentService.getAppointmentSummaries(
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(1L), Optional.empty(), 2);
+
+        // Then
+        assertThat(page.getAppointments()).extracting(AppointmentSummaryDTO::getId).containsExactly(1L, 2L);
+        assertThat(AppointmentCursor.decode(page.getNextCursor()))
+                .isEqualTo(new AppointmentCursor(LocalDate.of(2023, 7, 20), LocalTime.of(10, 0), 2L));
+    }
+
+    @Test
+    void getAppointmentSummaries_LastPage_ShouldNotReturnCursor() {
+        // Given
+        String cursor = new AppointmentCursor(LocalDate.of(2023, 7, 20), LocalTime.of(10, 0), 2L).encode();
+        given(appointmentRepository.findSummaries(any(Specification.class), eq(3)))
+                .willReturn(List.of(summary(3L, LocalDate.of(2023, 7, 21), LocalTime.of(9, 0))));
+
+        // When
+        AppointmentPageDTO page = appointmentService.getAppointmentSummaries(
+                Optional.of(LocalDate.of(2023, 7, 1)), Optional.of(LocalDate.of(2023, 7, 31)),
+                Optional.of(1L), Optional.empty(), Optional.of(cursor), 2);
+
+        // Then
+        assertThat(page.getAppointments()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getAppointmentSummaries_BadSizeOrCursor_ShouldThrowException() {
+        assertThrows(InvalidRequestException.class, () -> appointmentService.getAppointmentSummaries(
+                Optional.empty(), Optional.empty(), Optional.of(1L), Optional.empty(), Optional.empty(), 0));
+        assertThrows(InvalidRequestException.class, () -> appointmentService.getAppointmentSummaries(
+                Optional.empty(), Optional.empty(), Optional.of(1L), Optional.empty(), Optional.of("not-a-cursor"), 20));
+        then(appointmentRepository).should(never()).findSummaries(any(), anyInt());
+    }
+
     @Test
     void updateAppointment() {
 
@@ -190,12 +268,8 @@ class AppointmentServiceImplTest {
         given(appointmentRepository.save(any(Appointment.class)))
                 .willReturn(appointment);
 
-        given(appointmentRepository.findByDoctor(any(Doctor.class)))
-                .willReturn(List.of());
-
-
-        given(appointmentRepository.findByPatient(any(Patient.class)))
-                .willReturn(List.of());
+        given(appointmentRepository.existsOverlapping(any(), any(), any(), any(), any(), any()))
+                .willReturn(false);
 
         // When
         HttpStatus result = appointmentService.updateAppointment(appointmentId, appointmentDTO);
@@ -210,8 +284,8 @@ class AppointmentServiceImplTest {
         // Verify that the appointment is saved in the repository
         then(appointmentRepository).should().save(any(Appointment.class));
 
-        // Verify that the emailService.sendAppointmentEmail method is called
-        then(emailService).should().sendAppointmentEmail(any(Appointment.class), any(Doctor.class), any(Patient.class));
+        // Verify that the emails are queued
+        then(emailService).should().queueAppointmentEmail(any(Appointment.class), any(Doctor.class), any(Patient.class));
 
         // Verify that HttpStatus.OK is returned
         assertThat(result).isEqualTo(HttpStatus.OK);
@@ -243,25 +317,12 @@ class AppointmentServiceImplTest {
         appointment.setStartTime(LocalTime.of(9, 0));
         appointment.setEndTime(LocalTime.of(10, 30));
 
-        Appointment appointment1 = new Appointment();
-        appointment1.setId(2L);
-        appointment1.setPatient(patient);
-        appointment1.setDoctor(doctor);
-        appointment1.setAppointmentDate(LocalDate.of(2023, 7, 25));
-        appointment1.setStartTime(LocalTime.of(9, 0));
-        appointment1.setEndTime(LocalTime.of(10, 30));
-
-        List<Appointment> patientAppointments = new ArrayList<>();
-        patientAppointments.add(appointment1);
-
-        List<Appointment> doctorAppointments = new ArrayList<>();
-        doctorAppointments.add(appointment1);
-
         given(appointmentMapper.toEntity(appointmentDTO)).willReturn(appointment);
         given(patientRepository.findById(1L)).willReturn(Optional.of(patient));
         given(doctorRepository.findById(2L)).willReturn(Optional.of(doctor));
-        given(appointmentRepository.findByPatient(patient)).willReturn(patientAppointments);
-        given(appointmentRepository.findByDoctor(doctor)).willReturn(doctorAppointments);
+        given(appointmentRepository.existsOverlapping(
+                2L, 1L, LocalDate.of(2023, 7, 25), LocalTime.of(9, 0), LocalTime.of(10, 30), 1L))
+                .willReturn(true);
 
         // Act & Assert
         assertThrows(AppointmentConflictException.class, () -> {
@@ -269,5 +330,252 @@ class AppointmentServiceImplTest {
         });
     }
 
+    @Test
+    void testCreateAppointment_Conflict_ShouldOfferNearestFreeSlots() {
+        // Given
+        SlotDTO alternative = SlotDTO.builder()
+                .doctorId(1L)
+                .startTime(LocalTime.of(11, 0))
+                .endTime(LocalTime.of(12, 0))
+                .build();
+
+        given(appointmentMapper.toEntity(any(AppointmentDTO.class))).willReturn(appointment);
+        given(patientRepository.findById(1L)).willReturn(Optional.of(patient));
+        given(doctorRepository.findById(1L)).willReturn(Optional.of(doctor));
+        given(appointmentRepository.existsOverlapping(any(), any(), any(), any(), any(), any()))
+                .willReturn(true);
+        given(slotService.getAlternativeSlots(appointment, 3)).willReturn(List.of(alternative));
+
+        // When
+        AppointmentConflictException exception = assertThrows(AppointmentConflictException.class,
+                () -> appointmentService.createAppointment(appointmentDTO));
+
+        // Then
+        assertThat(exception.getAlternatives()).containsExactly(alternative);
+    }
+
+    @Test
+    void testCreateAppointment_IndexFindsNoConflict_ShouldDecideOnTheDatabase() {
+        // Given
+        given(appointmentMapper.toEntity(any(AppointmentDTO.class))).willReturn(appointment);
+        given(patientRepository.findById(1L)).willReturn(Optional.of(patient));
+        given(doctorRepository.findById(1L)).willReturn(Optional.of(doctor));
+        given(scheduleIndex.isEnabled()).willReturn(true);
+        given(scheduleIndex.overlapping(any(), any(), any(), any(), any(), any())).willReturn(List.of());
+        given(appointmentRepository.save(appointment)).willReturn(appointment);
+
+        // When
+        appointmentService.createAppointment(appointmentDTO);
+
+        // Then
+        then(appointmentRepository).should().existsOverlapping(any(), any(), any(), any(), any(), any());
+        then(appointmentRepository).should(never()).existsOverlappingAmong(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testCreateAppointment_ConfirmedIndexConflict_ShouldNotTakeTheLock() {
+        // Given
+        LocalDate date = LocalDate.of(2030, 1, 7);
+        appointment.setAppointmentDate(date);
+        appointment.setStartTime(LocalTime.of(9, 0));
+        appointment.setEndTime(LocalTime.of(9, 30));
+
+        given(appointmentMapper.toEntity(any(AppointmentDTO.class))).willReturn(appointment);
+        given(patientRepository.findById(1L)).willReturn(Optional.of(patient));
+        given(doctorRepository.findById(1L)).willReturn(Optional.of(doctor));
+        given(scheduleIndex.isEnabled()).willReturn(true);
+        given(scheduleIndex.overlapping(1L, 1L, date, LocalTime.of(9, 0), LocalTime.of(9, 30), null))
+                .willReturn(List.of(bookedInterval(5L, date)));
+        given(appointmentRepository.existsOverlappingAmong(List.of(5L), 1L, 1L, date, LocalTime.of(9, 0), LocalTime.of(9, 30)))
+                .willReturn(true);
+
+        // When and Then
+        assertThrows(AppointmentConflictException.class, () -> appointmentService.createAppointment(appointmentDTO));
+
+        then(bookingLock).shouldHaveNoInteractions();
+        then(appointmentRepository).should(never()).existsOverlapping(any(), any(), any(), any(), any(), any());
+        then(slotService).should().getAlternativeSlots(appointment, 3);
+    }
+
+    @Test
+    void testCreateAppointment_StaleIndexConflict_ShouldReloadTheDayAndBook() {
+        // Given
+        LocalDate date = LocalDate.of(2030, 1, 7);
+        appointment.setAppointmentDate(date);
+        appointment.setStartTime(LocalTime.of(9, 0));
+        appointment.setEndTime(LocalTime.of(9, 30));
+
+        given(appointmentMapper.toEntity(any(AppointmentDTO.class))).willReturn(appointment);
+        given(patientRepository.findById(1L)).willReturn(Optional.of(patient));
+        given(doctorRepository.findById(1L)).willReturn(Optional.of(doctor));
+        given(scheduleIndex.isEnabled()).willReturn(true);
+        given(scheduleIndex.overlapping(1L, 1L, date, LocalTime.of(9, 0), LocalTime.of(9, 30), null))
+                .willReturn(List.of(bookedInterval(5L, date)));
+        given(appointmentRepository.save(appointment)).willReturn(appointment);
+
+        // When
+        appointmentService.createAppointment(appointmentDTO);
+
+        // Then
+        then(scheduleIndex).should().invalidate(ScheduleIndex.Party.DOCTOR, 1L, date);
+        then(scheduleIndex).should().invalidate(ScheduleIndex.Party.PATIENT, 1L, date);
+        then(bookingLock).should().lock(1L, 1L, date);
+        then(appointmentRepository).should().save(appointment);
+    }
+
+    @Test
+    void testCreateAppointment_RecordsSavedAppointmentInScheduleIndex() {
+        // Given
+        given(appointmentMapper.toEntity(any(AppointmentDTO.class))).willReturn(appointment);
+        given(patientRepository.findById(1L)).willReturn(Optional.of(patient));
+        given(doctorRepository.findById(1L)).willReturn(Optional.of(doctor));
+        given(appointmentRepository.save(appointment)).willReturn(appointment);
+
+        // When
+        appointmentService.createAppointment(appointmentDTO);
+
+        // Then
+        then(scheduleIndex).should().record(appointment, null);
+        then(reminderScheduler).should().schedule(appointment);
+    }
+
+    @Test
+    void testCreateAppointment_LocksDayBeforeCheckingForOverlap() {
+        // Given
+        appointment.setAppointmentDate(LocalDate.of(2030, 1, 7));
+        given(appointmentMapper.toEntity(any(AppointmentDTO.class))).willReturn(appointment);
+        given(patientRepository.findById(1L)).willReturn(Optional.of(patient));
+        given(doctorRepository.findById(1L)).willReturn(Optional.of(doctor));
+        given(appointmentRepository.save(appointment)).willReturn(appointment);
+
+        // When
+        appointmentService.createAppointment(appointmentDTO);
+
+        // Then
+        InOrder inOrder = inOrder(bookingLock, appointmentRepository, emailService, transactionManager);
+        inOrder.verify(bookingLock).lock(1L, 1L, LocalDate.of(2030, 1, 7));
+        inOrder.verify(appointmentRepository).existsOverlapping(any(), any(), any(), any(), any(), any());
+        inOrder.verify(appointmentRepository).save(appointment);
+        inOrder.verify(emailService).queueAppointmentEmail(any(), any(), any());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testCreateAppointment_ConflictUnderLock_RollsBackWithoutSaving() {
+        // Given
+        given(appointmentMapper.toEntity(any(AppointmentDTO.class))).willReturn(appointment);
+        given(patientRepository.findById(1L)).willReturn(Optional.of(patient));
+        given(doctorRepository.findById(1L)).willReturn(Optional.of(doctor));
+        given(appointmentRepository.existsOverlapping(any(), any(), any(), any(), any(), any()))
+                .willReturn(true);
+
+        // When and Then
+        assertThrows(AppointmentConflictException.class, () -> appointmentService.createAppointment(appointmentDTO));
+
+        then(appointmentRepository).should(never()).save(any(Appointment.class));
+        then(transactionManager).should().rollback(any());
+        then(emailService).should(never()).queueAppointmentEmail(any(), any(), any());
+    }
+
+    @Test
+    void testCreateAppointment_ClashesWithSeriesOccurrence_ThrowsAppointmentConflictException() {
+        // Given
+        LocalDate date = LocalDate.of(2030, 1, 7);
+        appointment.setAppointmentDate(date);
+        appointment.setStartTime(LocalTime.of(9, 0));
+        appointment.setEndTime(LocalTime.of(9, 30));
+
+        given(appointmentMapper.toEntity(any(AppointmentDTO.class))).willReturn(appointment);
+        given(patientRepository.findById(1L)).willReturn(Optional.of(patient));
+        given(doctorRepository.findById(1L)).willReturn(Optional.of(doctor));
+        given(appointmentSeriesRepository.findOverlapping(1L, 1L, date, date, LocalTime.of(9, 0), LocalTime.of(9, 30)))
+                .willReturn(List.of(weeklySeries(date.minusWeeks(4))));
+
+        // When and Then
+        assertThrows(AppointmentConflictException.class, () -> appointmentService.createAppointment(appointmentDTO));
+        then(appointmentRepository).should(never()).save(any(Appointment.class));
+    }
+
+    @Test
+    void getFilteredAppointments_WithDate_ShouldIncludeSeriesOccurrences() {
+        // Given
+        LocalDate date = LocalDate.of(2030, 1, 7);
+        given(appointmentRepository.findAll(any(Specification.class))).willReturn(List.of());
+        given(appointmentSeriesRepository.findActiveBetween(1L, null, date, date))
+                .willReturn(List.of(weeklySeries(date.minusWeeks(2)), weeklySeries(date.minusDays(1))));
+
+        // When
+        List<Appointment> result = appointmentService.getFilteredAppointments(Optional.of(date), Optional.empty(), Optional.of(1L));
+
+        // Then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getSeriesId()).isEqualTo(3L);
+        assertThat(result.get(0).getAppointmentDate()).isEqualTo(date);
+    }
+
+    @Test
+    void getFilteredAppointments_WithoutDate_ShouldIncludeSeriesOccurrencesOverTheNextNinetyDays() {
+        // Given
+        LocalDate today = LocalDate.now();
+        Appointment booked = Appointment.builder()
+                .appointmentDate(today.plusDays(1))
+                .startTime(LocalTime.of(8, 0))
+                .build();
+        given(appointmentRepository.findAll(any(Specification.class))).willReturn(List.of(booked));
+        given(appointmentSeriesRepository.findActiveBetween(eq(1L), isNull(), any(LocalDate.class), any(LocalDate.class)))
+                .willAnswer(invocation -> {
+                    LocalDate from = invocation.getArgument(2);
+                    LocalDate to = invocation.getArgument(3);
+                    assertThat(to).isEqualTo(from.plusDays(90));
+                    return List.of(weeklySeries(from.minusWeeks(1)));
+                });
+
+        // When
+        List<Appointment> result = appointmentService.getFilteredAppointments(Optional.empty(), Optional.empty(), Optional.of(1L));
+
+        // Then
+        assertThat(result).hasSize(14);
+        assertThat(result.get(0).getSeriesId()).isEqualTo(3L);
+        assertThat(result.get(1)).isSameAs(booked);
+        assertThat(result).filteredOn(appointment -> appointment.getSeriesId() != null)
+                .extracting(Appointment::getAppointmentDate)
+                .allSatisfy(date -> assertThat(date).isBetween(today, today.plusDays(90)));
+    }
+
+
+    private AppointmentSeries weeklySeries(LocalDate startDate) {
+        return AppointmentSeries.builder()
+                .id(3L)
+                .frequency(Frequency.WEEKLY)
+                .intervalCount(1)
+                .startDate(startDate)
+                .endDate(startDate.plusYears(1))
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(10, 0))
+                .doctor(doctor)
+                .patient(patient)
+                .build();
+    }
+
+
+    private AppointmentSummaryDTO summary(Long id, LocalDate date, LocalTime startTime) {
+        return AppointmentSummaryDTO.builder()
+                .id(id)
+                .appointmentDate(date)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(1))
+                .build();
+    }
+
+    private static BookedInterval bookedInterval(Long appointmentId, LocalDate date) {
+        return BookedInterval.builder()
+                .appointmentId(appointmentId)
+                .doctorId(1L)
+                .patientId(1L)
+                .date(date)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(10, 0))
+                .build();
+    }
 
-}
\ No newline at end of file
+}
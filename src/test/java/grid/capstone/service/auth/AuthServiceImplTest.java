@@ -1,23 +1,41 @@
 package grid.capstone.service.auth;
 
 import grid.capstone.dto.v1.AuthRequest;
+import grid.capstone.dto.v1.AuthResponse;
+import grid.capstone.exception.TooManyRequestsException;
+import grid.capstone.repository.RefreshTokenRepository;
 import grid.capstone.service.jwt.JwtService;
+import grid.capstone.service.jwt.TokenRevocations;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 
 @ExtendWith(MockitoExtension.class)
 class AuthServiceImplTest {
@@ -40,9 +58,20 @@ class AuthServiceImplTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private TokenRevocations tokenRevocations;
+
+    SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
-        authService = new AuthServiceImpl(authenticationManager, userDetailsService, jwtService);
+        meterRegistry = new SimpleMeterRegistry();
+        authService = new AuthServiceImpl(authenticationManager, userDetailsService, jwtService,
+                refreshTokenRepository, tokenRevocations,
+                Runnable::run, meterRegistry, Duration.ofSeconds(2), Duration.ofSeconds(5), Duration.ofDays(14));
     }
 
     @Test
@@ -57,12 +86,15 @@ class AuthServiceImplTest {
 
         given(userDetailsService.loadUserByUsername(authRequest.getEmail())).willReturn(userDetails);
         given(jwtService.generateToken(userDetails)).willReturn(expectedToken);
+        given(jwtService.getAccessTtl()).willReturn(Duration.ofMinutes(15));
 
         // When
-        String resultToken = authService.login(authRequest);
+        AuthResponse result = authService.login(authRequest);
 
         // Then
-        assertThat(resultToken).isEqualTo(expectedToken);
+        assertThat(result.getAccessToken()).isEqualTo(expectedToken);
+        assertThat(result.getExpiresIn()).isEqualTo(900);
+        assertThat(result.getRefreshToken()).isNotBlank();
     }
 
     @Test
@@ -92,11 +124,109 @@ class AuthServiceImplTest {
 
         //TODO: test the actual method
         given(jwtService.generateToken(userDetails)).willReturn(expectedToken);
+        given(jwtService.getAccessTtl()).willReturn(Duration.ofMinutes(15));
+
+        // When
+        AuthResponse result = authService.login(authRequest);
+
+        // Then
+        assertThat(result.getAccessToken()).isEqualTo(expectedToken);
+        assertThat(result.getExpiresIn()).isEqualTo(900);
+        assertThat(result.getRefreshToken()).isNotBlank();
+    }
+
+    @Test
+    public void testLogin_ShouldTimeThePasswordCheck() {
+        // Given
+        AuthRequest authRequest = new AuthRequest("test@example.com", "password");
+
+        given(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .willReturn(authentication);
+        given(userDetailsService.loadUserByUsername(authRequest.getEmail())).willReturn(userDetails);
+        given(jwtService.getAccessTtl()).willReturn(Duration.ofMinutes(15));
+
+        // When
+        authService.login(authRequest);
+
+        // Then
+        assertThat(meterRegistry.get("auth.login.hash").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.login.queue.wait").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLogin_LoginExecutorFull_ShouldThrowTooManyRequests() {
+        // Given
+        authService = new AuthServiceImpl(authenticationManager, userDetailsService, jwtService,
+                refreshTokenRepository, tokenRevocations,
+                task -> {
+                    throw new RejectedExecutionException("Queue is full");
+                },
+                meterRegistry, Duration.ofSeconds(2), Duration.ofSeconds(5), Duration.ofDays(14));
 
         // When
-        String resultToken = authService.login(authRequest);
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> authService.login(new AuthRequest("test@example.com", "password")));
 
         // Then
-        assertThat(resultToken).isEqualTo(expectedToken);
+        assertThat(exception.getRetryAfter()).isEqualTo(Duration.ofSeconds(2));
+        then(authenticationManager).should(never()).authenticate(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRefresh_ShouldStoreOnlyTheHashAndRotate() {
+        // Given
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        given(userDetails.getUsername()).willReturn("test@example.com");
+        given(userDetailsService.loadUserByUsername("test@example.com")).willReturn(userDetails);
+        given(jwtService.generateToken(userDetails)).willReturn("access");
+        given(jwtService.getAccessTtl()).willReturn(Duration.ofMinutes(15));
+        given(refreshTokenRepository.consume(anyString())).willReturn(Optional.of("test@example.com"));
+
+        // When
+        AuthResponse result = authService.refresh("old-refresh-token");
+
+        // Then
+        then(refreshTokenRepository).should().consume(hash.capture());
+        assertThat(hash.getValue()).hasSize(64).isNotEqualTo("old-refresh-token");
+        then(refreshTokenRepository).should().save(anyString(), eq("test@example.com"), eq(Duration.ofDays(14)));
+        assertThat(result.getRefreshToken()).isNotEqualTo("old-refresh-token");
+    }
+
+    @Test
+    public void testRefresh_UsedOrUnknownToken_ShouldThrowException() {
+        // Given
+        given(refreshTokenRepository.consume(anyString())).willReturn(Optional.empty());
+
+        // When and Then
+        assertThrows(BadCredentialsException.class, () -> authService.refresh("used"));
+        then(jwtService).should(never()).generateToken(any(UserDetails.class));
+    }
+
+    @Test
+    public void testLogout_ShouldRevokeTheAccessToken() {
+        // Given
+        Date expiry = new Date(System.currentTimeMillis() + 60_000);
+        Claims claims = new DefaultClaims();
+        claims.setId("jti");
+        claims.setExpiration(expiry);
+        given(jwtService.verify("access")).willReturn(Optional.of(claims));
+
+        // When
+        authService.logout("refresh", "access");
+
+        // Then
+        then(refreshTokenRepository).should().consume(anyString());
+        then(tokenRevocations).should().revoke("jti", expiry.toInstant());
+    }
+
+    @Test
+    public void testLogoutEverywhere_ShouldRevokeTheAccountAndItsRefreshTokens() {
+        // When
+        authService.logoutEverywhere("test@example.com");
+
+        // Then
+        then(tokenRevocations).should().revokeAccount("test@example.com");
+        then(refreshTokenRepository).should().revokeAll("test@example.com");
+    }
+
+}
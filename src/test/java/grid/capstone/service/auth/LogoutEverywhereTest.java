@@ -0,0 +1,72 @@
+package grid.capstone.service.auth;
+
+import grid.capstone.repository.RefreshTokenRepository;
+import grid.capstone.repository.RevokedAccountRepository;
+import grid.capstone.service.jwt.TokenRevocations;
+import grid.capstone.service.mail.EmailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class LogoutEverywhereTest {
+
+    static final String EMAIL = "logout.everywhere@mail.com";
+
+    @Autowired
+    AuthService authService;
+
+    @Autowired
+    RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    RevokedAccountRepository revokedAccountRepository;
+
+    @Autowired
+    TokenRevocations tokenRevocations;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    EmailService emailService;
+
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM refresh_token WHERE email = ?", EMAIL);
+        jdbcTemplate.update("DELETE FROM revoked_account WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    void refresh_AfterTheRevocationWasPurged_ShouldStillBeRefused() throws Exception {
+        // Given
+        refreshTokenRepository.save(hash("issued-before"), EMAIL, Duration.ofDays(14));
+        authService.logoutEverywhere(EMAIL);
+
+        //What the rebuild does once an access token ttl has passed
+        revokedAccountRepository.deleteRevokedBefore(Duration.ZERO);
+        tokenRevocations.rebuild();
+
+        // When and Then
+        assertThrows(BadCredentialsException.class, () -> authService.refresh("issued-before"));
+    }
+
+
+    private static String hash(String refreshToken) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
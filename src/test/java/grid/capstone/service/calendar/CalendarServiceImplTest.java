@@ -0,0 +1,172 @@
+package grid.capstone.service.calendar;
+
+import grid.capstone.exception.ResourceNotFoundException;
+import grid.capstone.model.CalendarEntry;
+import grid.capstone.model.Frequency;
+import grid.capstone.model.Role;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import grid.capstone.repository.CalendarFeedKeyRepository;
+import grid.capstone.repository.CalendarVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarServiceImplTest {
+
+    @Mock
+    AppointmentRepository appointmentRepository;
+
+    @Mock
+    AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Mock
+    CalendarVersionRepository calendarVersionRepository;
+
+    @Mock
+    CalendarFeedKeyRepository calendarFeedKeyRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    CalendarService calendarService;
+
+
+    @BeforeEach
+    void setUp() {
+        calendarService = new CalendarServiceImpl(appointmentRepository, appointmentSeriesRepository,
+                calendarVersionRepository, calendarFeedKeyRepository, transactionManager);
+    }
+
+    @Test
+    void writeCalendar_ShouldWriteSeriesAndAppointmentsAsEvents() throws Exception {
+        // Given
+        given(appointmentSeriesRepository.findCalendarFor(1L, null)).willReturn(List.of(
+                new CalendarEntry(7L, LocalDate.of(2023, 1, 31), LocalTime.of(9, 0), LocalTime.of(9, 30),
+                        "Check up", "Doctor", "Series Patient", Frequency.MONTHLY, 2, LocalDate.of(2023, 12, 31))
+        ));
+        given(appointmentRepository.streamCalendar(1L, null)).willReturn(Stream.of(
+                new CalendarEntry(3L, LocalDate.of(2023, 7, 20), LocalTime.of(10, 0), LocalTime.of(11, 0),
+                        "Pain; back, neck", "Doctor", "Patient", LocalDateTime.of(2023, 7, 1, 8, 0))
+        ));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        calendarService.writeCalendar(Optional.empty(), Optional.of(1L), outputStream);
+
+        // Then
+        String ics = outputStream.toString(StandardCharsets.UTF_8);
+
+        assertThat(ics).startsWith("BEGIN:VCALENDAR\r\n").endsWith("END:VCALENDAR\r\n");
+        assertThat(ics).contains(
+                "UID:series-7@capstone\r\n",
+                "DTSTART:20230131T090000\r\n",
+                "RRULE:FREQ=MONTHLY;INTERVAL=2;BYMONTHDAY=28,29,30,31;BYSETPOS=-1;UNTIL=20231231T235959\r\n",
+                "SUMMARY:Appointment with Series Patient\r\n",
+                "UID:appointment-3@capstone\r\n",
+                "DTEND:20230720T110000\r\n",
+                "DESCRIPTION:Pain\\; back\\, neck\r\n"
+        );
+    }
+
+    @Test
+    void writeCalendar_LongLines_ShouldBeFolded() throws Exception {
+        // Given
+        given(appointmentSeriesRepository.findCalendarFor(null, 2L)).willReturn(List.of());
+        given(appointmentRepository.streamCalendar(null, 2L)).willReturn(Stream.of(
+                new CalendarEntry(3L, LocalDate.of(2023, 7, 20), LocalTime.of(10, 0), LocalTime.of(11, 0),
+                        "é".repeat(100), "Doctor", "Patient", null)
+        ));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        calendarService.writeCalendar(Optional.of(2L), Optional.empty(), outputStream);
+
+        // Then
+        String ics = outputStream.toString(StandardCharsets.UTF_8);
+
+        assertThat(Arrays.stream(ics.split("\r\n")))
+                .allMatch(line -> line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        assertThat(ics).contains("SUMMARY:Appointment with Doctor\r\n");
+        assertThat(ics.replace("\r\n ", "")).contains("DESCRIPTION:" + "é".repeat(100) + "\r\n");
+    }
+
+    @Test
+    void getCalendarVersion_ShouldChangeWithTheAppointments() {
+        // Given
+        given(calendarVersionRepository.findVersion(1L, null))
+                .willReturn("4:1207|1:-88")
+                .willReturn("4:1207|1:-88")
+                .willReturn("4:-5310|1:-88");
+
+        // When
+        String first = calendarService.getCalendarVersion(Optional.empty(), Optional.of(1L));
+        String unchanged = calendarService.getCalendarVersion(Optional.empty(), Optional.of(1L));
+        String changed = calendarService.getCalendarVersion(Optional.empty(), Optional.of(1L));
+
+        // Then
+        assertThat(unchanged).isEqualTo(first);
+        assertThat(changed).isNotEqualTo(first);
+    }
+
+    @Test
+    void getCalendarVersion_NoOwner_ShouldThrowException() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> calendarService.getCalendarVersion(Optional.empty(), Optional.empty()));
+        then(calendarVersionRepository).should(never()).findVersion(null, null);
+    }
+
+    @Test
+    void createFeedKey_ShouldStoreOnlyTheHashOfTheKey() {
+        // Given
+        ArgumentCaptor<String> keyHash = ArgumentCaptor.forClass(String.class);
+
+        // When
+        String key = calendarService.createFeedKey(Role.ROLE_DOCTOR, 1L);
+
+        // Then
+        then(calendarFeedKeyRepository).should().save(eq(Role.ROLE_DOCTOR), eq(1L), keyHash.capture());
+        assertThat(keyHash.getValue()).hasSize(64).isNotEqualTo(key);
+    }
+
+    @Test
+    void isFeedKeyValid_ShouldOnlyAcceptTheKeyOfTheRequestedCalendar() {
+        // Given
+        ArgumentCaptor<String> keyHash = ArgumentCaptor.forClass(String.class);
+        String key = calendarService.createFeedKey(Role.ROLE_DOCTOR, 1L);
+        then(calendarFeedKeyRepository).should().save(any(), any(), keyHash.capture());
+        given(calendarFeedKeyRepository.exists(any(), anyLong(), any())).willReturn(false);
+        given(calendarFeedKeyRepository.exists(Role.ROLE_DOCTOR, 1L, keyHash.getValue())).willReturn(true);
+
+        // When and Then
+        assertThat(calendarService.isFeedKeyValid(Optional.empty(), Optional.of(1L), key)).isTrue();
+        assertThat(calendarService.isFeedKeyValid(Optional.empty(), Optional.of(2L), key)).isFalse();
+        assertThat(calendarService.isFeedKeyValid(Optional.of(1L), Optional.empty(), key)).isFalse();
+        assertThat(calendarService.isFeedKeyValid(Optional.empty(), Optional.of(1L), null)).isFalse();
+    }
+
+}
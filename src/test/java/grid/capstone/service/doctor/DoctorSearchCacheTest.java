@@ -0,0 +1,63 @@
+package grid.capstone.service.doctor;
+
+import grid.capstone.dto.v1.DoctorDTO;
+import grid.capstone.repository.DoctorSearchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorSearchCacheTest {
+
+    @Mock
+    DoctorSearchRepository doctorSearchRepository;
+
+    DoctorSearchCache doctorSearchCache;
+
+    @BeforeEach
+    void setUp() {
+        doctorSearchCache = new DoctorSearchCache(doctorSearchRepository, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void search_SameSearch_ShouldQueryOnce() {
+        // Given
+        List<DoctorDTO> doctors = List.of(DoctorDTO.builder().id(1L).build());
+        given(doctorSearchRepository.search("heart surgeon", 10, 0)).willReturn(doctors);
+
+        // When
+        doctorSearchCache.search("heart surgeon", 10, 0);
+        List<DoctorDTO> result = doctorSearchCache.search("  heart   surgeon ", 10, 0);
+
+        // Then
+        assertThat(result).isEqualTo(doctors);
+        then(doctorSearchRepository).should(times(1)).search("heart surgeon", 10, 0);
+    }
+
+    @Test
+    void search_OtherPage_ShouldQueryAgain() {
+        // Given
+        given(doctorSearchRepository.search("heart", 10, 0)).willReturn(List.of());
+        given(doctorSearchRepository.search("heart", 10, 10)).willReturn(List.of());
+
+        // When
+        doctorSearchCache.search("heart", 10, 0);
+        doctorSearchCache.search("heart", 10, 10);
+
+        // Then
+        then(doctorSearchRepository).should(times(1)).search("heart", 10, 10);
+    }
+
+}
@@ -2,15 +2,20 @@ package grid.capstone.service.doctor;
 
 import grid.capstone.dto.v1.DoctorDTO;
 import grid.capstone.dto.v1.DoctorSignUp;
+import grid.capstone.exception.InvalidRequestException;
 import grid.capstone.exception.ResourceNotFoundException;
 import grid.capstone.mapper.DoctorMapper;
 import grid.capstone.model.Doctor;
+import grid.capstone.repository.DoctorDigestRepository;
 import grid.capstone.repository.DoctorRepository;
+import grid.capstone.service.security.UserAccountCache;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -19,6 +24,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -41,6 +47,15 @@ class DoctorServiceImplTest {
     @Mock
     DoctorMapper doctorMapper;
 
+    @Mock
+    DoctorDigestRepository doctorDigestRepository;
+
+    @Mock
+    UserAccountCache userAccountCache;
+
+    @Mock
+    DoctorSearchCache doctorSearchCache;
+
     PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     Doctor doctor;
@@ -50,7 +65,7 @@ class DoctorServiceImplTest {
     @BeforeEach
     void setUp() {
 
-        doctorService = new DoctorServiceImpl(doctorRepository, doctorMapper, passwordEncoder);
+        doctorService = new DoctorServiceImpl(doctorRepository, doctorMapper, passwordEncoder, doctorDigestRepository, userAccountCache, doctorSearchCache);
 
         doctor = Doctor.builder()
                 .id(1L)
@@ -160,16 +175,14 @@ class DoctorServiceImplTest {
     @Test
     void saveDoctor() {
 
-        given(doctorRepository.existsByEmail(anyString()))
-                .willReturn(false);
-
         given(doctorMapper.toEntity(any(DoctorSignUp.class)))
                 .willReturn(doctor);
 
 
         HttpStatus httpStatus = doctorService.saveDoctor(doctorSignUp);
 
-        then(doctorRepository).should(times(1)).save(any(Doctor.class));
+        then(doctorRepository).should(times(1)).saveAndFlush(any(Doctor.class));
+        then(userAccountCache).should(times(1)).evict("test");
         assertThat(httpStatus).isEqualTo(HttpStatus.CREATED);
 
     }
@@ -177,12 +190,61 @@ class DoctorServiceImplTest {
     @Test
     void testSaveDoctor_DuplicateEmail_ThrowsResourceNotFoundException() {
         // Arrange
-        DoctorSignUp doctorSignUp = new DoctorSignUp();
-        // Set properties in doctorSignUp as needed
+        given(doctorMapper.toEntity(any(DoctorSignUp.class))).willReturn(doctor);
+        given(doctorRepository.saveAndFlush(any(Doctor.class))).willThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(), "uq_doctor_email")));
+
+        // Act and Assert
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> doctorService.saveDoctor(doctorSignUp));
+        assertThat(ex.getMessage()).isEqualTo("Email already exists");
+        then(userAccountCache).should(never()).evict(anyString());
+    }
 
-        given(doctorRepository.existsByEmail(doctorSignUp.getEmail())).willReturn(true);
+    @Test
+    void testSaveDoctor_OtherViolation_IsRethrown() {
+        // Arrange
+        given(doctorMapper.toEntity(any(DoctorSignUp.class))).willReturn(doctor);
+        given(doctorRepository.saveAndFlush(any(Doctor.class))).willThrow(new DataIntegrityViolationException("too long"));
 
         // Act and Assert
-        assertThrows(ResourceNotFoundException.class, () -> doctorService.saveDoctor(doctorSignUp));
+        assertThrows(DataIntegrityViolationException.class, () -> doctorService.saveDoctor(doctorSignUp));
+    }
+
+    @Test
+    void updateDigest_ShouldTurnTheDigestOn() {
+        given(doctorDigestRepository.setEnabled(1L, true)).willReturn(true);
+
+        HttpStatus httpStatus = doctorService.updateDigest(1L, true);
+
+        assertThat(httpStatus).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void updateDigest_DoctorDoesNotExist_ThrowsResourceNotFoundException() {
+        given(doctorDigestRepository.setEnabled(9L, false)).willReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> doctorService.updateDigest(9L, false));
+    }
+
+    @Test
+    void searchDoctors_ShouldAskForThePageByOffset() {
+        List<DoctorDTO> doctors = List.of(DoctorDTO.builder().id(1L).build());
+        given(doctorSearchCache.search("cardiology", 20, 40)).willReturn(doctors);
+
+        List<DoctorDTO> result = doctorService.searchDoctors("cardiology", 20, 2);
+
+        assertThat(result).isEqualTo(doctors);
+    }
+
+    @Test
+    void searchDoctors_BlankQuery_ThrowsInvalidRequestException() {
+        assertThrows(InvalidRequestException.class, () -> doctorService.searchDoctors("  ", 10, 0));
+        then(doctorSearchCache).should(never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchDoctors_PageTooLarge_ThrowsInvalidRequestException() {
+        assertThrows(InvalidRequestException.class, () -> doctorService.searchDoctors("cardiology", 500, 0));
+        assertThrows(InvalidRequestException.class, () -> doctorService.searchDoctors("cardiology", 10, 10_000));
     }
-}
\ No newline at end of file
+}
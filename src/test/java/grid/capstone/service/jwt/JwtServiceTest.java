@@ -1,36 +1,40 @@
 package grid.capstone.service.jwt;
 
-import io.jsonwebtoken.JwtParser;
+import grid.capstone.model.Doctor;
+import grid.capstone.model.Role;
+import grid.capstone.service.security.AuthenticatedUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
-@ExtendWith(MockitoExtension.class)
 class JwtServiceTest {
 
-    @InjectMocks
-    private JwtService jwtService;
+    private static final String SECRET = "10b1c60213f53f6a83a0c4e48f59d5b2f80a4c3da5e38c49d96bacf9014dff6a";
 
-    @Mock
-    private JwtParser jwtParser;
+    private JwtService jwtService;
 
     private final String testUsername = "testuser";
 
     @BeforeEach
     public void setUp() {
-
+        jwtService = new JwtService(SECRET, 100, new SimpleMeterRegistry(), Duration.ofMinutes(15));
     }
 
     @Test
@@ -86,4 +90,56 @@ class JwtServiceTest {
         assertThat(userId).isEqualTo(123);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testVerify_ShouldOnlyParseTheTokenOnce() {
+        String token = jwtService.generateToken(new User(testUsername, "testpassword", new ArrayList<>()));
+
+        Optional<Claims> first = jwtService.verify(token);
+        Optional<Claims> second = jwtService.verify(token);
+
+        assertThat(first).isPresent();
+        assertThat(first.get().getSubject()).isEqualTo(testUsername);
+        //The cached claims are handed back instead of parsing again
+        assertThat(second.get()).isSameAs(first.get());
+    }
+
+    @Test
+    public void testVerify_TamperedToken_ShouldBeEmpty() {
+        String token = jwtService.generateToken(new User(testUsername, "testpassword", new ArrayList<>()));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThat(jwtService.verify(tampered)).isEmpty();
+        assertThat(jwtService.verify("not a token")).isEmpty();
+    }
+
+    @Test
+    public void testVerify_ExpiredToken_ShouldBeEmpty() {
+        String expired = Jwts.builder()
+                .setSubject(testUsername)
+                .setIssuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(jwtService.verify(expired)).isEmpty();
+        assertFalse(jwtService.isTokenValid(expired));
+    }
+
+    @Test
+    public void testPrincipal_ShouldComeFromTheClaims() {
+        Doctor doctor = Doctor.builder().id(7L).email("doctor@mail.com").build();
+        String token = jwtService.generateToken(doctor);
+
+        Optional<AuthenticatedUser> principal = jwtService.principal(jwtService.verify(token).get());
+
+        assertThat(principal).contains(new AuthenticatedUser(7L, "doctor@mail.com", Role.ROLE_DOCTOR));
+    }
+
+    @Test
+    public void testPrincipal_TokenWithoutClaims_ShouldBeEmpty() {
+        String token = jwtService.generateToken(new HashMap<>(), new User(testUsername, "testpassword", new ArrayList<>()));
+
+        assertThat(jwtService.principal(jwtService.verify(token).get())).isEmpty();
+    }
+
+}
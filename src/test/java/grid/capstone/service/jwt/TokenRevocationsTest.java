@@ -0,0 +1,171 @@
+package grid.capstone.service.jwt;
+
+import grid.capstone.repository.RevokedAccountRepository;
+import grid.capstone.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationsTest {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    @Mock
+    RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    RevokedAccountRepository revokedAccountRepository;
+
+    TokenRevocations tokenRevocations;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocations = new TokenRevocations(revokedTokenRepository, revokedAccountRepository, new SimpleMeterRegistry(),
+                1_000, 0.001, Duration.ofSeconds(5), Duration.ofMinutes(15));
+    }
+
+    @Test
+    void isRevoked_BeforeFirstLoad_ShouldAskTheTable() {
+        // Given
+        given(revokedTokenRepository.exists("jti")).willReturn(true);
+
+        // When and Then
+        assertThat(tokenRevocations.isRevoked("jti")).isTrue();
+    }
+
+    @Test
+    void isRevoked_FilterMiss_ShouldNotQuery() {
+        // Given
+        given(revokedTokenRepository.now()).willReturn(NOW);
+        given(revokedTokenRepository.findUnexpired()).willReturn(List.of("revoked"));
+        tokenRevocations.sync();
+
+        // When
+        boolean revoked = tokenRevocations.isRevoked("not-revoked");
+
+        // Then
+        assertThat(revoked).isFalse();
+        then(revokedTokenRepository).should(never()).exists("not-revoked");
+    }
+
+    @Test
+    void isRevoked_FilterHit_ShouldConfirmWithTheTable() {
+        // Given
+        given(revokedTokenRepository.now()).willReturn(NOW);
+        given(revokedTokenRepository.findUnexpired()).willReturn(List.of("revoked"));
+        given(revokedTokenRepository.exists("revoked")).willReturn(true);
+        tokenRevocations.sync();
+
+        // When and Then
+        assertThat(tokenRevocations.isRevoked("revoked")).isTrue();
+    }
+
+    @Test
+    void sync_AfterFirstLoad_ShouldReadOnlyNewRowsWithOverlap() {
+        // Given
+        given(revokedTokenRepository.now()).willReturn(NOW, NOW.plusSeconds(2));
+        given(revokedTokenRepository.findUnexpired()).willReturn(List.of());
+        given(revokedTokenRepository.findRevokedSince(NOW.minusSeconds(5))).willReturn(List.of("elsewhere"));
+        given(revokedTokenRepository.exists("elsewhere")).willReturn(true);
+        tokenRevocations.sync();
+
+        // When
+        tokenRevocations.sync();
+
+        // Then
+        then(revokedTokenRepository).should().findUnexpired();
+        assertThat(tokenRevocations.isRevoked("elsewhere")).isTrue();
+    }
+
+    @Test
+    void revoke_ShouldApplyLocallyStraightAway() {
+        // Given
+        Instant expiresAt = Instant.now().plusSeconds(900);
+        given(revokedTokenRepository.now()).willReturn(NOW);
+        given(revokedTokenRepository.findUnexpired()).willReturn(List.of());
+        given(revokedTokenRepository.exists("jti")).willReturn(true);
+        tokenRevocations.sync();
+
+        // When
+        tokenRevocations.revoke("jti", expiresAt);
+
+        // Then
+        then(revokedTokenRepository).should().revoke("jti", expiresAt);
+        assertThat(tokenRevocations.isRevoked("jti")).isTrue();
+    }
+
+    @Test
+    void isRevoked_TokenWithoutId_ShouldNotBeRevoked() {
+        assertThat(tokenRevocations.isRevoked(null)).isFalse();
+        then(revokedTokenRepository).should(never()).exists(any());
+    }
+
+    @Test
+    void revokeAccount_ShouldRejectOnlyTokensIssuedBefore() {
+        // Given
+        given(revokedAccountRepository.revoke("doctor@mail.com")).willReturn(NOW);
+
+        // When
+        tokenRevocations.revokeAccount("doctor@mail.com");
+
+        // Then
+        assertThat(tokenRevocations.isRevoked("doctor@mail.com", date(NOW.minusMinutes(1)))).isTrue();
+        assertThat(tokenRevocations.isRevoked("doctor@mail.com", date(NOW.plusSeconds(1)))).isFalse();
+        assertThat(tokenRevocations.isRevoked("patient@mail.com", date(NOW.minusMinutes(1)))).isFalse();
+    }
+
+    @Test
+    void sync_AccountRevokedElsewhere_ShouldBePickedUp() {
+        // Given
+        given(revokedTokenRepository.now()).willReturn(NOW, NOW.plusSeconds(2));
+        given(revokedTokenRepository.findUnexpired()).willReturn(List.of());
+        given(revokedAccountRepository.findRevokedSince(NOW.minusMinutes(15))).willReturn(Map.of());
+        given(revokedAccountRepository.findRevokedSince(NOW.minusSeconds(5)))
+                .willReturn(Map.of("doctor@mail.com", NOW.minusSeconds(1)));
+        tokenRevocations.sync();
+
+        // When
+        tokenRevocations.sync();
+
+        // Then
+        assertThat(tokenRevocations.isRevoked("doctor@mail.com", date(NOW.minusMinutes(1)))).isTrue();
+    }
+
+    @Test
+    void rebuild_ShouldDropAccountsRevokedLongerThanAnAccessTokenAgo() {
+        // Given
+        given(revokedTokenRepository.now()).willReturn(NOW);
+        given(revokedTokenRepository.findUnexpired()).willReturn(List.of());
+
+        // When
+        tokenRevocations.rebuild();
+
+        // Then
+        then(revokedAccountRepository).should().deleteRevokedBefore(Duration.ofMinutes(15));
+        then(revokedAccountRepository).should().findRevokedSince(NOW.minusMinutes(15));
+    }
+
+
+    private static Date date(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+}
@@ -0,0 +1,95 @@
+package grid.capstone.service.mail;
+
+import grid.capstone.service.mail.CircuitBreaker.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    AtomicLong clock = new AtomicLong();
+
+    CircuitBreaker circuitBreaker;
+
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker(3, 1_000, clock::get);
+    }
+
+    @Test
+    void onFailure_ThresholdReached_ShouldOpen() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.allowsCalls()).isFalse();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void onSuccess_ShouldResetTheFailureCount() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void tryAcquire_OpenDurationOver_ShouldLetOneTrialThrough() {
+        // Given
+        open();
+        clock.addAndGet(1_000);
+
+        // When and Then
+        assertThat(circuitBreaker.allowsCalls()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        circuitBreaker.onSuccess();
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void onFailure_TrialFails_ShouldOpenAgain() {
+        // Given
+        open();
+        clock.addAndGet(1_000);
+        circuitBreaker.tryAcquire();
+
+        // When
+        circuitBreaker.onFailure();
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void release_UnusedTrial_ShouldLetAnotherOneThrough() {
+        open();
+        clock.addAndGet(1_000);
+        circuitBreaker.tryAcquire();
+
+        circuitBreaker.release();
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+
+    private void open() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+    }
+
+}
@@ -0,0 +1,83 @@
+package grid.capstone.service.mail;
+
+import grid.capstone.model.DigestLine;
+import grid.capstone.model.OutboxEmail;
+import grid.capstone.repository.DoctorDigestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class DigestSchedulerTest {
+
+    static final Duration SETTLE = Duration.ofMinutes(1);
+    static final LocalDateTime UNTIL = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    @Mock
+    DoctorDigestRepository doctorDigestRepository;
+
+    @Mock
+    EmailService emailService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    DigestScheduler digestScheduler;
+
+
+    @BeforeEach
+    void setUp() {
+        digestScheduler = new DigestScheduler(
+                doctorDigestRepository,
+                emailService,
+                new TransactionTemplate(transactionManager),
+                SETTLE
+        );
+    }
+
+    @Test
+    void sendDigests_ShouldQueueThemBeforeMovingThemForward() {
+        // Given
+        List<DigestLine> lines = List.of(DigestLine.builder().doctorId(1L).build());
+        List<OutboxEmail> digests = List.of(OutboxEmail.builder().recipient("doctor@mail.com").build());
+        given(doctorDigestRepository.tryLock()).willReturn(true);
+        given(doctorDigestRepository.until(SETTLE)).willReturn(UNTIL);
+        given(doctorDigestRepository.findLines(UNTIL)).willReturn(lines);
+        given(emailService.digestEmails(lines, UNTIL)).willReturn(digests);
+
+        // When
+        digestScheduler.sendDigests();
+
+        // Then
+        InOrder inOrder = inOrder(emailService, doctorDigestRepository, transactionManager);
+        inOrder.verify(emailService).queue(digests);
+        inOrder.verify(doctorDigestRepository).markSent(UNTIL);
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void sendDigests_LockHeldElsewhere_ShouldDoNothing() {
+        given(doctorDigestRepository.tryLock()).willReturn(false);
+
+        digestScheduler.sendDigests();
+
+        then(doctorDigestRepository).should(never()).findLines(any());
+        then(emailService).should(never()).queue(any());
+    }
+
+}
@@ -0,0 +1,347 @@
+package grid.capstone.service.mail;
+
+import grid.capstone.config.ExecutorConfig;
+import grid.capstone.model.OutboxEmail;
+import grid.capstone.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDispatcherTest {
+
+    static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Mock
+    EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    EmailService emailService;
+
+    SimpleMeterRegistry meterRegistry;
+
+    EmailDispatcher emailDispatcher;
+
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        emailDispatcher = new EmailDispatcher(
+                emailOutboxRepository,
+                emailService,
+                Runnable::run,
+                meterRegistry,
+                2,
+                1,
+                3,
+                LEASE,
+                Duration.ofSeconds(30),
+                Duration.ofMinutes(1),
+                Duration.ofDays(7),
+                OverflowPolicy.SPILL,
+                2,
+                Duration.ofSeconds(30)
+        );
+    }
+
+    @Test
+    void dispatch_FullBatch_ShouldClaimAgainUntilDrained() {
+        // Given
+        given(emailOutboxRepository.claimDue(2, LEASE))
+                .willReturn(List.of(email(1L, 1), email(2L, 1)))
+                .willReturn(List.of(email(3L, 1)));
+        given(emailService.sendAll(anyList())).willReturn(Map.of());
+
+        // When
+        emailDispatcher.dispatch();
+
+        // Then
+        then(emailOutboxRepository).should(times(2)).claimDue(2, LEASE);
+        then(emailService).should(times(3)).sendAll(anyList());
+        then(emailOutboxRepository).should(times(3)).markSent(anyList());
+        assertThat(meterRegistry.get("mail.outbox.emails").tag("result", "sent").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("mail.outbox.delivery.latency").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void dispatch_PartialFailure_ShouldMarkTheRestSent() {
+        // Given
+        OutboxEmail delivered = email(1L, 1);
+        OutboxEmail rejected = email(2L, 1);
+        emailDispatcher = new EmailDispatcher(
+                emailOutboxRepository,
+                emailService,
+                Runnable::run,
+                meterRegistry,
+                2,
+                50,
+                3,
+                LEASE,
+                Duration.ofSeconds(30),
+                Duration.ofMinutes(1),
+                Duration.ofDays(7),
+                OverflowPolicy.SPILL,
+                2,
+                Duration.ofSeconds(30)
+        );
+        given(emailOutboxRepository.claimDue(2, LEASE)).willReturn(List.of(delivered, rejected));
+        given(emailService.sendAll(List.of(delivered, rejected)))
+                .willReturn(Map.of(2L, new MailSendException("Mailbox unavailable")));
+
+        // When
+        emailDispatcher.dispatch();
+
+        // Then
+        then(emailService).should(times(1)).sendAll(anyList());
+        then(emailOutboxRepository).should().markSent(List.of(1L));
+        then(emailOutboxRepository).should().reschedule(eq(2L), any(Duration.class), anyString());
+    }
+
+    @Test
+    void dispatch_FailedSend_ShouldBackOff() {
+        // Given
+        OutboxEmail email = email(1L, 2);
+        given(emailOutboxRepository.claimDue(2, LEASE)).willReturn(List.of(email));
+        given(emailService.sendAll(List.of(email))).willThrow(new IllegalStateException("Connection refused"));
+
+        // When
+        emailDispatcher.dispatch();
+
+        // Then
+        then(emailOutboxRepository).should().reschedule(eq(1L), any(Duration.class), anyString());
+        then(emailOutboxRepository).should(never()).markSent(anyList());
+        then(emailOutboxRepository).should(never()).markDead(any(), any());
+    }
+
+    @Test
+    void dispatch_LastAttemptFails_ShouldMarkDead() {
+        // Given
+        OutboxEmail email = email(1L, 3);
+        given(emailOutboxRepository.claimDue(2, LEASE)).willReturn(List.of(email));
+        given(emailService.sendAll(List.of(email)))
+                .willReturn(Map.of(1L, new MailSendException("Mailbox unavailable")));
+
+        // When
+        emailDispatcher.dispatch();
+
+        // Then
+        then(emailOutboxRepository).should().markDead(eq(1L), anyString());
+        then(emailOutboxRepository).should(never()).reschedule(any(), any(), any());
+    }
+
+    @Test
+    void dispatch_MailServerKeepsFailing_ShouldStopClaiming() {
+        // Given
+        given(emailOutboxRepository.claimDue(2, LEASE)).willReturn(List.of(email(1L, 1)));
+        given(emailService.sendAll(anyList())).willThrow(new IllegalStateException("Connection refused"));
+
+        // When
+        emailDispatcher.dispatch();
+        emailDispatcher.dispatch();
+        emailDispatcher.dispatch();
+
+        // Then
+        then(emailOutboxRepository).should(times(2)).claimDue(2, LEASE);
+        assertThat(meterRegistry.get("mail.breaker.state").gauge().value())
+                .isEqualTo(CircuitBreaker.State.OPEN.ordinal());
+    }
+
+    @Test
+    void dispatch_DeliveryQueueFull_ShouldSpillBackToTheOutbox() {
+        // Given
+        emailDispatcher = dispatcherOnFullQueue(OverflowPolicy.SPILL);
+        given(emailOutboxRepository.claimDue(2, LEASE)).willReturn(List.of(email(1L, 1), email(2L, 1)));
+
+        // When
+        emailDispatcher.dispatch();
+
+        // Then
+        then(emailOutboxRepository).should(times(1)).claimDue(2, LEASE);
+        then(emailOutboxRepository).should().release(List.of(1L, 2L));
+        then(emailService).should(never()).sendAll(anyList());
+        assertThat(meterRegistry.get("mail.outbox.spilled").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void dispatch_DeliveryQueueFull_ShouldDropWhenConfigured() {
+        // Given
+        emailDispatcher = dispatcherOnFullQueue(OverflowPolicy.DROP);
+        given(emailOutboxRepository.claimDue(2, LEASE)).willReturn(List.of(email(1L, 1)));
+
+        // When
+        emailDispatcher.dispatch();
+
+        // Then
+        then(emailOutboxRepository).should().markDead(eq(1L), anyString());
+        assertThat(meterRegistry.get("mail.outbox.emails").tag("result", "dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatch_PoolSaturated_ShouldKeepClaimingUntilTheQueueIsFullThenSpill() throws Exception {
+        // Given
+        CountDownLatch mailServer = new CountDownLatch(1);
+        ThreadPoolTaskExecutor mailExecutor = saturatedByBacklog(mailServer);
+        emailDispatcher = dispatcherWithDefaults(mailExecutor, OverflowPolicy.SPILL);
+
+        // When
+        emailDispatcher.dispatch();
+
+        // Then
+        then(emailOutboxRepository).should(times(12)).claimDue(100, LEASE);
+        then(emailOutboxRepository).should().release(LongStream.rangeClosed(1101, 1200).boxed().toList());
+        assertThat(meterRegistry.get("mail.outbox.spilled").counter().count()).isEqualTo(100);
+        assertThat(meterRegistry.get("mail.queue.depth").gauge().value()).isEqualTo(20);
+
+        drain(mailExecutor, mailServer);
+        then(emailOutboxRepository).should(times(22)).markSent(anyList());
+    }
+
+    @Test
+    void dispatch_PoolSaturated_ShouldDropWhenConfigured() throws Exception {
+        // Given
+        CountDownLatch mailServer = new CountDownLatch(1);
+        ThreadPoolTaskExecutor mailExecutor = saturatedByBacklog(mailServer);
+        emailDispatcher = dispatcherWithDefaults(mailExecutor, OverflowPolicy.DROP);
+
+        // When
+        emailDispatcher.dispatch();
+
+        // Then
+        then(emailOutboxRepository).should(times(12)).claimDue(100, LEASE);
+        then(emailOutboxRepository).should(times(100)).markDead(any(), eq("Dropped, the delivery queue was full"));
+        assertThat(meterRegistry.get("mail.outbox.emails").tag("result", "dropped").counter().count()).isEqualTo(100);
+
+        drain(mailExecutor, mailServer);
+    }
+
+    @Test
+    void dispatch_NothingDue_ShouldNotSend() {
+        given(emailOutboxRepository.claimDue(2, LEASE)).willReturn(Collections.emptyList());
+
+        emailDispatcher.dispatch();
+
+        then(emailService).should(never()).sendAll(anyList());
+    }
+
+    @Test
+    void purge_ShouldDeleteSentAndDeadEmailsPastTheRetention() {
+        // When
+        emailDispatcher.purge();
+
+        // Then
+        then(emailOutboxRepository).should().deleteSentBefore(Duration.ofDays(7));
+        then(emailOutboxRepository).should().deleteDeadBefore(Duration.ofDays(7));
+    }
+
+    @Test
+    void backoff_ShouldDoubleUpToTheMaximum() {
+        assertThat(emailDispatcher.backoff(1)).isBetween(Duration.ofSeconds(30), Duration.ofSeconds(36));
+        assertThat(emailDispatcher.backoff(2)).isBetween(Duration.ofSeconds(60), Duration.ofSeconds(72));
+        assertThat(emailDispatcher.backoff(10)).isBetween(Duration.ofSeconds(60), Duration.ofSeconds(72));
+    }
+
+
+    /*
+     * The mail pool with its default two threads and queue of twenty
+     * groups, in front of a mail server which doesn't answer until the
+     * latch is opened, and an outbox which always has a full batch due
+     */
+    private ThreadPoolTaskExecutor saturatedByBacklog(CountDownLatch mailServer) {
+        ThreadPoolTaskExecutor mailExecutor = new ExecutorConfig().mailExecutor(meterRegistry, 2, 20);
+        mailExecutor.initialize();
+
+        AtomicLong ids = new AtomicLong();
+        given(emailOutboxRepository.claimDue(100, LEASE)).willAnswer(invocation -> LongStream.range(0, 100)
+                .mapToObj(i -> email(ids.incrementAndGet(), 1))
+                .toList());
+        given(emailService.sendAll(anyList())).willAnswer(invocation -> {
+            mailServer.await();
+            return Map.of();
+        });
+
+        return mailExecutor;
+    }
+
+    private EmailDispatcher dispatcherWithDefaults(ThreadPoolTaskExecutor mailExecutor, OverflowPolicy overflowPolicy) {
+        return new EmailDispatcher(
+                emailOutboxRepository,
+                emailService,
+                mailExecutor,
+                meterRegistry,
+                100,
+                50,
+                8,
+                LEASE,
+                Duration.ofSeconds(30),
+                Duration.ofHours(1),
+                Duration.ofDays(7),
+                overflowPolicy,
+                5,
+                Duration.ofSeconds(30)
+        );
+    }
+
+    private static void drain(ThreadPoolTaskExecutor mailExecutor, CountDownLatch mailServer) throws InterruptedException {
+        mailServer.countDown();
+        mailExecutor.getThreadPoolExecutor().shutdown();
+        assertThat(mailExecutor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private EmailDispatcher dispatcherOnFullQueue(OverflowPolicy overflowPolicy) {
+        return new EmailDispatcher(
+                emailOutboxRepository,
+                emailService,
+                runnable -> {
+                    throw new RejectedExecutionException("Queue is full");
+                },
+                meterRegistry,
+                2,
+                50,
+                3,
+                LEASE,
+                Duration.ofSeconds(30),
+                Duration.ofMinutes(1),
+                Duration.ofDays(7),
+                overflowPolicy,
+                2,
+                Duration.ofSeconds(30)
+        );
+    }
+
+    private OutboxEmail email(Long id, int attempts) {
+        return OutboxEmail.builder()
+                .id(id)
+                .recipient("patient@mail.com")
+                .subject("Scheduled Appointment")
+                .body("Body")
+                .attempts(attempts)
+                .queuedMillis(250L)
+                .build();
+    }
+
+}
@@ -0,0 +1,53 @@
+package grid.capstone.service.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import grid.capstone.model.OutboxEmail;
+import grid.capstone.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mockito;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailServiceSmtpTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    EmailService emailService;
+
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        emailService = new EmailService(mailSender, Mockito.mock(EmailOutboxRepository.class));
+    }
+
+    @Test
+    void sendAll_ShouldDeliverEveryEmail() {
+        List<OutboxEmail> emails = LongStream.rangeClosed(1, 25)
+                .mapToObj(id -> OutboxEmail.builder()
+                        .id(id)
+                        .recipient("patient" + id + "@mail.com")
+                        .subject("Scheduled Appointment")
+                        .body("Body " + id)
+                        .build())
+                .toList();
+
+        Map<Long, Exception> failures = emailService.sendAll(emails);
+
+        assertThat(failures).isEmpty();
+        assertThat(greenMail.getReceivedMessages()).hasSize(25);
+    }
+
+}
@@ -1,18 +1,38 @@
 package grid.capstone.service.mail;
 
 import grid.capstone.model.Appointment;
+import grid.capstone.model.DigestLine;
 import grid.capstone.model.Doctor;
+import grid.capstone.model.OutboxEmail;
 import grid.capstone.model.Patient;
+import grid.capstone.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 
 
@@ -22,18 +42,158 @@ class EmailServiceTest {
     @Mock
     private JavaMailSender mailSender;
 
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Captor
+    private ArgumentCaptor<Collection<OutboxEmail>> emailsCaptor;
+
+    @Captor
+    private ArgumentCaptor<SimpleMailMessage[]> messagesCaptor;
+
     @InjectMocks
     private EmailService emailService;
 
     @Test
-    public void testSendAppointmentEmail() {
+    public void testQueueAppointmentEmail() {
         Appointment appointment = new Appointment();
-        Doctor doctor = new Doctor();
-        Patient patient = new Patient();
+        Doctor doctor = Doctor.builder().name("Doctor").email("doctor@mail.com").build();
+        Patient patient = Patient.builder().name("Patient").email("patient@mail.com").build();
+
+        emailService.queueAppointmentEmail(appointment, doctor, patient);
+
+        then(emailOutboxRepository).should(times(1)).enqueueAll(emailsCaptor.capture());
+        assertThat(emailsCaptor.getValue()).extracting(OutboxEmail::getRecipient)
+                .containsExactly("doctor@mail.com", "patient@mail.com");
+        then(mailSender).should(never()).send(any(SimpleMailMessage.class));
+    }
+
+    @Test
+    public void testAppointmentEmails_WithoutAddress_ShouldBeSkipped() {
+        Doctor doctor = Doctor.builder().name("Doctor").email("doctor@mail.com").build();
+
+        assertThat(emailService.appointmentEmails(new Appointment(), doctor, new Patient()))
+                .extracting(OutboxEmail::getRecipient)
+                .containsExactly("doctor@mail.com");
+    }
+
+    @Test
+    public void testAppointmentEmails_DoctorOnDigest_ShouldOnlyTellThePatient() {
+        Doctor doctor = Doctor.builder().name("Doctor").email("doctor@mail.com").digestEnabled(true).build();
+        Patient patient = Patient.builder().name("Patient").email("patient@mail.com").build();
+
+        assertThat(emailService.appointmentEmails(new Appointment(), doctor, patient))
+                .extracting(OutboxEmail::getRecipient)
+                .containsExactly("patient@mail.com");
+    }
+
+    @Test
+    public void testDigestEmails_ShouldSendOneDigestPerDoctor() {
+        LocalDateTime until = LocalDateTime.of(2026, 10, 18, 12, 0);
+        List<DigestLine> lines = List.of(
+                digestLine(1L, "first@mail.com", "Patient A", 9),
+                digestLine(1L, "first@mail.com", "Patient B", 10),
+                digestLine(2L, "second@mail.com", "Patient C", 11)
+        );
+
+        List<OutboxEmail> digests = emailService.digestEmails(lines, until);
+
+        assertThat(digests).extracting(OutboxEmail::getRecipient)
+                .containsExactly("first@mail.com", "second@mail.com");
+        assertThat(digests.get(0).getBody()).contains("Patient A", "Patient B").doesNotContain("Patient C");
+        assertThat(digests.get(1).getDedupeKey()).isEqualTo("digest:2:2026-10-18T12:00");
+    }
+
+    @Test
+    public void testReminderEmails_ShouldBeKeyedOnTheAppointmentStartAndLead() {
+        Appointment appointment = Appointment.builder()
+                .id(7L)
+                .appointmentDate(LocalDate.of(2026, 10, 20))
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(9, 30))
+                .doctor(Doctor.builder().name("Doctor").email("doctor@mail.com").build())
+                .patient(Patient.builder().name("Patient").email("patient@mail.com").build())
+                .build();
+
+        List<OutboxEmail> reminders = emailService.reminderEmails(appointment, Duration.ofDays(1));
 
-        emailService.sendAppointmentEmail(appointment, doctor, patient);
+        assertThat(reminders).singleElement().satisfies(reminder -> {
+            assertThat(reminder.getRecipient()).isEqualTo("patient@mail.com");
+            assertThat(reminder.getBody()).contains("tomorrow");
+            assertThat(reminder.getDedupeKey()).isEqualTo("reminder:7:2026-10-20T09:00:PT24H");
+        });
+    }
+
+    @Test
+    public void testSendAll_ShouldUseOneCall() {
+        Map<Long, Exception> failures = emailService.sendAll(List.of(email(1L), email(2L)));
+
+        assertThat(failures).isEmpty();
+        then(mailSender).should(times(1)).send(messagesCaptor.capture());
+        assertThat(messagesCaptor.getValue()).hasSize(2);
+    }
+
+    @Test
+    public void testSendAll_PartialFailure_ShouldReportOnlyTheFailedEmails() {
+        willAnswer(invocation -> {
+            SimpleMailMessage[] messages = (SimpleMailMessage[]) invocation.getRawArguments()[0];
+            throw new MailSendException(Map.of(messages[1], new MessagingException("Mailbox unavailable")));
+        }).given(mailSender).send(any(SimpleMailMessage[].class));
+
+        Map<Long, Exception> failures = emailService.sendAll(List.of(email(1L), email(2L)));
+
+        assertThat(failures).containsOnlyKeys(2L);
+    }
+
+    @Test
+    public void testSendAll_EqualEmails_ShouldReportOnlyTheOneWhichFailed() {
+        OutboxEmail first = email(1L);
+        OutboxEmail second = email(1L);
+        second.setId(2L);
+        willDoNothing()
+                .willAnswer(invocation -> {
+                    SimpleMailMessage[] messages = (SimpleMailMessage[]) invocation.getRawArguments()[0];
+                    throw new MailSendException(Map.of(messages[0], new MessagingException("Mailbox unavailable")));
+                })
+                .given(mailSender).send(any(SimpleMailMessage[].class));
+
+        Map<Long, Exception> failures = emailService.sendAll(List.of(first, second));
+
+        assertThat(failures).containsOnlyKeys(2L);
+        then(mailSender).should(times(2)).send(messagesCaptor.capture());
+        assertThat(messagesCaptor.getAllValues()).allSatisfy(messages -> assertThat(messages).hasSize(1));
+    }
+
+    @Test
+    public void testSendAll_ConnectionFailure_ShouldReportEveryEmail() {
+        willThrow(new MailSendException("Connection refused"))
+                .given(mailSender).send(any(SimpleMailMessage[].class));
+
+        Map<Long, Exception> failures = emailService.sendAll(List.of(email(1L), email(2L)));
+
+        assertThat(failures).containsOnlyKeys(1L, 2L);
+    }
+
+
+    private DigestLine digestLine(Long doctorId, String doctorEmail, String patientName, int hour) {
+        return DigestLine.builder()
+                .doctorId(doctorId)
+                .doctorName("Doctor")
+                .doctorEmail(doctorEmail)
+                .date(LocalDate.of(2026, 10, 20))
+                .startTime(LocalTime.of(hour, 0))
+                .endTime(LocalTime.of(hour, 30))
+                .patientName(patientName)
+                .build();
+    }
 
-        then(mailSender).should(times(2)).send(any(SimpleMailMessage.class));
+    private OutboxEmail email(Long id) {
+        return OutboxEmail.builder()
+                .id(id)
+                .recipient(id + "@mail.com")
+                .subject("Scheduled Appointment")
+                .body("Body")
+                .build();
     }
 
-}
\ No newline at end of file
+}
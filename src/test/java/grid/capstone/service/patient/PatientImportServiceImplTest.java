@@ -0,0 +1,244 @@
+package grid.capstone.service.patient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import grid.capstone.dto.v1.PatientImportDTO;
+import grid.capstone.exception.InvalidRequestException;
+import grid.capstone.exception.ResourceNotFoundException;
+import grid.capstone.exception.TooManyRequestsException;
+import grid.capstone.mapper.PatientMapperImpl;
+import grid.capstone.model.ImportStatus;
+import grid.capstone.model.Patient;
+import grid.capstone.repository.DoctorRepository;
+import grid.capstone.repository.PatientBatchRepository;
+import grid.capstone.repository.PatientImportRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class PatientImportServiceImplTest {
+
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+
+    @Mock
+    PatientImportRepository patientImportRepository;
+    @Mock
+    PatientBatchRepository patientBatchRepository;
+    @Mock
+    DoctorRepository doctorRepository;
+    @Mock
+    PasswordEncoder passwordEncoder;
+
+    ForkJoinPool hashPool;
+
+    @BeforeEach
+    void setUp() {
+        hashPool = new ForkJoinPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashPool.shutdown();
+    }
+
+    @Test
+    void startImport_Ndjson_ShouldImportValidRowsAndCountTheRest() {
+        // Given
+        givenQueuedImport();
+        given(passwordEncoder.encode(anyString())).willReturn("hash");
+        given(patientBatchRepository.findExistingEmails(anyCollection())).willReturn(Set.of());
+        given(patientBatchRepository.insertAll(anyList())).willReturn(1);
+
+        String file = row("first@mail.com") + "\n"
+                + "\n"
+                + row("FIRST@mail.com") + "\n"
+                + "{\"name\":\"no email\"}\n"
+                + "{not json\n";
+
+        // When
+        service(Runnable::run, 1000).startImport(body(file), NDJSON, 1L);
+
+        // Then
+        PatientImportDTO progress = lastProgress();
+        assertThat(progress.getStatus()).isEqualTo(ImportStatus.DONE);
+        assertThat(progress.getRead()).isEqualTo(4);
+        assertThat(progress.getCreated()).isEqualTo(1);
+        assertThat(progress.getDuplicates()).isEqualTo(1);
+        assertThat(progress.getInvalid()).isEqualTo(2);
+
+        ArgumentCaptor<List<Patient>> patients = ArgumentCaptor.forClass(List.class);
+        then(patientBatchRepository).should().insertAll(patients.capture());
+        assertThat(patients.getValue()).singleElement()
+                .satisfies(patient -> {
+                    assertThat(patient.getEmail()).isEqualTo("first@mail.com");
+                    assertThat(patient.getPassword()).isEqualTo("hash");
+                });
+    }
+
+    @Test
+    void startImport_Csv_ShouldSkipEmailsAlreadySignedUp() {
+        // Given
+        givenQueuedImport();
+        given(passwordEncoder.encode(anyString())).willReturn("hash");
+        given(patientBatchRepository.findExistingEmails(anyCollection())).willReturn(Set.of("taken@mail.com"));
+        given(patientBatchRepository.insertAll(anyList())).willReturn(1);
+
+        String file = """
+                name,address,phoneNumber,email,age,gender,password
+                Jane,Street,1234567890,taken@mail.com,30,F,password123
+                John,Street,,new@mail.com,40,M,password123
+                """;
+
+        // When
+        service(Runnable::run, 1000).startImport(body(file), CSV, 1L);
+
+        // Then
+        PatientImportDTO progress = lastProgress();
+        assertThat(progress.getStatus()).isEqualTo(ImportStatus.DONE);
+        assertThat(progress.getRead()).isEqualTo(2);
+        assertThat(progress.getExisting()).isEqualTo(1);
+        assertThat(progress.getCreated()).isEqualTo(1);
+        then(passwordEncoder).should().encode("password123");
+    }
+
+    @Test
+    void startImport_ShouldImportInChunks() {
+        // Given
+        givenQueuedImport();
+        given(passwordEncoder.encode(anyString())).willReturn("hash");
+        given(patientBatchRepository.findExistingEmails(anyCollection())).willReturn(Set.of());
+        given(patientBatchRepository.insertAll(anyList())).willReturn(2, 1);
+
+        String file = row("a@mail.com") + "\n" + row("b@mail.com") + "\n" + row("c@mail.com");
+
+        // When
+        service(Runnable::run, 2).startImport(body(file), NDJSON, 1L);
+
+        // Then
+        then(patientBatchRepository).should(times(2)).insertAll(anyList());
+        assertThat(lastProgress().getCreated()).isEqualTo(3);
+    }
+
+    @Test
+    void startImport_UnsupportedFormat_ThrowsInvalidRequestException() {
+        assertThrows(InvalidRequestException.class,
+                () -> service(Runnable::run, 1000).startImport(body("[]"), "application/json", 1L));
+        then(patientImportRepository).should(never()).create(any());
+    }
+
+    @Test
+    void startImport_NoDoctor_ThrowsInvalidRequestException() {
+        assertThrows(InvalidRequestException.class,
+                () -> service(Runnable::run, 1000).startImport(body(row("a@mail.com")), NDJSON, null));
+        then(patientImportRepository).should(never()).create(any());
+        then(patientBatchRepository).should(never()).insertAll(anyList());
+    }
+
+    @Test
+    void startImport_UnknownDoctor_ThrowsResourceNotFoundException() {
+        // Given
+        given(doctorRepository.existsById(9L)).willReturn(false);
+
+        // When and Then
+        assertThrows(ResourceNotFoundException.class,
+                () -> service(Runnable::run, 1000).startImport(body(row("a@mail.com")), NDJSON, 9L));
+    }
+
+    @Test
+    void startImport_TooLarge_ThrowsInvalidRequestException() {
+        PatientImportServiceImpl service = new PatientImportServiceImpl(patientImportRepository, patientBatchRepository,
+                doctorRepository, new PatientMapperImpl(), passwordEncoder,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                Runnable::run, hashPool, 1000, 10, Duration.ofSeconds(30));
+        given(doctorRepository.existsById(1L)).willReturn(true);
+
+        assertThrows(InvalidRequestException.class,
+                () -> service.startImport(body(row("a@mail.com")), NDJSON, 1L));
+    }
+
+    @Test
+    void startImport_ExecutorFull_ThrowsTooManyRequests() {
+        // Given
+        givenQueuedImport();
+        Executor full = task -> {
+            throw new RejectedExecutionException("Queue is full");
+        };
+
+        // When and Then
+        assertThrows(TooManyRequestsException.class,
+                () -> service(full, 1000).startImport(body(row("a@mail.com")), NDJSON, 1L));
+        assertThat(lastProgress().getStatus()).isEqualTo(ImportStatus.FAILED);
+        then(patientBatchRepository).should(never()).insertAll(anyList());
+    }
+
+    @Test
+    void getImport_UnknownId_ThrowsResourceNotFoundException() {
+        given(patientImportRepository.findById(1L)).willReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service(Runnable::run, 1000).getImport(1L));
+    }
+
+
+    private PatientImportServiceImpl service(Executor executor, int chunkSize) {
+        return new PatientImportServiceImpl(patientImportRepository, patientBatchRepository, doctorRepository,
+                new PatientMapperImpl(), passwordEncoder, Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(), executor, hashPool, chunkSize, 1_000_000, Duration.ofSeconds(30));
+    }
+
+    private void givenQueuedImport() {
+        given(doctorRepository.existsById(1L)).willReturn(true);
+        given(patientImportRepository.create(any())).willReturn(PatientImportDTO.builder()
+                .id(7L)
+                .status(ImportStatus.QUEUED)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private PatientImportDTO lastProgress() {
+        ArgumentCaptor<PatientImportDTO> progress = ArgumentCaptor.forClass(PatientImportDTO.class);
+        then(patientImportRepository).should(atLeastOnce()).update(progress.capture());
+        return progress.getValue();
+    }
+
+    private static String row(String email) {
+        return "{\"name\":\"name\",\"address\":\"address\",\"phoneNumber\":\"1234567890\",\"email\":\"" + email
+                + "\",\"age\":30,\"gender\":\"F\",\"password\":\"password123\"}";
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -8,15 +8,19 @@ import grid.capstone.model.Doctor;
 import grid.capstone.model.Patient;
 import grid.capstone.repository.DoctorRepository;
 import grid.capstone.repository.PatientRepository;
+import grid.capstone.service.security.UserAccountCache;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +43,8 @@ class PatientServiceImplTest {
     PatientRepository patientRepository;
     @Mock
     DoctorRepository doctorRepository;
+    @Mock
+    UserAccountCache userAccountCache;
 
     PatientMapper patientMapper = new PatientMapperImpl();
 
@@ -47,7 +54,7 @@ class PatientServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        patientService = new PatientServiceImpl(patientRepository, doctorRepository, patientMapper, passwordEncoder);
+        patientService = new PatientServiceImpl(patientRepository, doctorRepository, patientMapper, passwordEncoder, userAccountCache);
 
         testPatient = Patient.builder()
                 .name("name")
@@ -109,36 +116,34 @@ class PatientServiceImplTest {
 
     @Test
     void savePatient() {
-        given(patientRepository.existsByEmail(anyString()))
-                .willReturn(false);
-
-        given(doctorRepository.existsById(anyLong()))
-                .willReturn(true);
-
         HttpStatus httpStatus = patientService.savePatient(testPatientDTO, Optional.of(1L));
 
-        then(patientRepository).should(times(1)).save(any(Patient.class));
+        then(patientRepository).should(times(1)).saveAndFlush(any(Patient.class));
+        then(doctorRepository).should(never()).existsById(anyLong());
+        then(userAccountCache).should(times(1)).evict(testPatientDTO.getEmail());
         assertThat(httpStatus).isEqualTo(HttpStatus.CREATED);
     }
 
     @Test
     public void testSavePatient_EmailAlreadyExists() {
         // Arrange
-        given(patientRepository.existsByEmail(anyString()))
-                .willReturn(true);
+        given(patientRepository.saveAndFlush(any(Patient.class)))
+                .willThrow(violation("uq_patient_email"));
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> patientService.savePatient(testPatientDTO, Optional.empty()));
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> patientService.savePatient(testPatientDTO, Optional.empty()));
+        assertThat(ex.getMessage()).isEqualTo("Email already exists");
     }
 
     @Test
     public void testSavePatient_DoctorIdDoesNotExist() {
         // Arrange
-        given(patientRepository.existsByEmail(anyString())).willReturn(false);
-        given(doctorRepository.existsById(anyLong())).willReturn(false);
+        given(patientRepository.saveAndFlush(any(Patient.class)))
+                .willThrow(violation("fk_doctor"));
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> patientService.savePatient(testPatientDTO, Optional.of(1L)));
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> patientService.savePatient(testPatientDTO, Optional.of(1L)));
+        assertThat(ex.getMessage()).isEqualTo("Doctor with id 1 does not exists");
     }
 
     @Test
@@ -164,4 +169,10 @@ class PatientServiceImplTest {
 
         assertThrows(ResourceNotFoundException.class, () -> patientService.getAllPatients(doctorId));
     }
-}
\ No newline at end of file
+
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("violation",
+                new ConstraintViolationException("violation", new SQLException(), constraint));
+    }
+}
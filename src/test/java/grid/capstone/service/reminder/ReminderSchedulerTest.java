@@ -0,0 +1,252 @@
+package grid.capstone.service.reminder;
+
+import grid.capstone.model.Appointment;
+import grid.capstone.model.AppointmentSeries;
+import grid.capstone.model.BookedInterval;
+import grid.capstone.model.Doctor;
+import grid.capstone.model.Frequency;
+import grid.capstone.model.Patient;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import grid.capstone.service.mail.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderSchedulerTest {
+
+    static final Duration DAY = Duration.ofDays(1);
+    static final Duration HOUR = Duration.ofHours(1);
+
+    @Mock
+    AppointmentRepository appointmentRepository;
+
+    @Mock
+    AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Mock
+    EmailService emailService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ReminderScheduler reminderScheduler;
+
+    LocalDateTime now;
+
+
+    @BeforeEach
+    void setUp() {
+        reminderScheduler = new ReminderScheduler(
+                appointmentRepository,
+                appointmentSeriesRepository,
+                emailService,
+                new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(),
+                true,
+                List.of(DAY, HOUR),
+                Duration.ofDays(2),
+                Duration.ofMinutes(15),
+                2
+        );
+
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void refill_ShouldLoadTheHorizonPageByPage() {
+        // Given
+        LocalDateTime start = now.plusDays(1).plusHours(3);
+        given(appointmentRepository.findStartingBetween(any(), any(), any(), anyLong(), any()))
+                .willReturn(List.of(interval(1L, start), interval(2L, start)), List.of(interval(3L, start)), List.of());
+
+        // When
+        reminderScheduler.refill(now);
+
+        // Then
+        then(appointmentRepository).should().findStartingBetween(any(), any(), any(), eq(2L), any());
+        assertThat(reminderScheduler.expire(millis(start.minus(DAY).minusSeconds(1)))).isEmpty();
+        assertThat(reminderScheduler.expire(millis(start.minus(DAY).plusSeconds(1))))
+                .extracting(Reminder::appointmentId)
+                .containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void schedule_ChangedAppointment_ShouldOnlyKeepTheNewReminders() {
+        // Given
+        given(appointmentRepository.findStartingBetween(any(), any(), any(), anyLong(), any()))
+                .willReturn(List.of());
+        reminderScheduler.refill(now);
+
+        Appointment appointment = appointment(now.plusHours(5));
+        reminderScheduler.schedule(appointment);
+
+        // When
+        appointment.setAppointmentDate(now.plusHours(7).toLocalDate());
+        appointment.setStartTime(now.plusHours(7).toLocalTime());
+        reminderScheduler.schedule(appointment);
+
+        // Then
+        assertThat(reminderScheduler.expire(millis(now.plusHours(4).plusSeconds(1)))).isEmpty();
+        assertThat(reminderScheduler.expire(millis(now.plusHours(6).plusSeconds(1))))
+                .extracting(Reminder::start)
+                .containsExactly(now.plusHours(7));
+    }
+
+    @Test
+    void fire_ShouldQueueOnlyRemindersOfUnchangedAppointments() {
+        // Given
+        Appointment unchanged = appointment(now.plusHours(1));
+        Appointment moved = appointment(now.plusHours(3));
+        moved.setId(2L);
+        given(appointmentRepository.findWithPeopleByIdIn(List.of(1L, 2L))).willReturn(List.of(unchanged, moved));
+
+        // When
+        reminderScheduler.fire(List.of(
+                new Reminder(1L, now.plusHours(1), HOUR),
+                new Reminder(2L, now.plusHours(2), HOUR)
+        ));
+
+        // Then
+        then(emailService).should().reminderEmails(unchanged, HOUR);
+        then(emailService).should(never()).reminderEmails(moved, HOUR);
+        then(emailService).should().queue(anyList());
+    }
+
+    @Test
+    void refill_ShouldExpandTheSeriesOccurringWithinTheHorizon() {
+        // Given
+        LocalDateTime start = now.plusDays(1).plusHours(3);
+        AppointmentSeries weekly = series(start);
+        given(appointmentRepository.findStartingBetween(any(), any(), any(), anyLong(), any()))
+                .willReturn(List.of());
+        given(appointmentSeriesRepository.findStartingBetween(any(), any(), any()))
+                .willReturn(List.of(weekly));
+
+        // When
+        reminderScheduler.refill(now);
+
+        // Then
+        assertThat(reminderScheduler.expire(millis(start.minus(DAY).plusSeconds(1))))
+                .extracting(Reminder::seriesId, Reminder::start)
+                .containsExactly(tuple(7L, start));
+    }
+
+    @Test
+    void schedule_NewSeries_ShouldTrackOccurrencesBeforeTheLoader() {
+        // Given
+        given(appointmentRepository.findStartingBetween(any(), any(), any(), anyLong(), any()))
+                .willReturn(List.of());
+        reminderScheduler.refill(now);
+        LocalDateTime start = now.plusHours(5);
+
+        // When
+        reminderScheduler.schedule(series(start));
+
+        // Then
+        assertThat(reminderScheduler.expire(millis(start.minus(HOUR).plusSeconds(1))))
+                .extracting(Reminder::seriesId, Reminder::start)
+                .containsExactly(tuple(7L, start));
+    }
+
+    @Test
+    void fire_SeriesOccurrence_ShouldQueueItsReminder() {
+        // Given
+        LocalDateTime start = now.plusHours(1);
+        AppointmentSeries weekly = series(start);
+        given(appointmentSeriesRepository.findWithPeopleByIdIn(List.of(7L))).willReturn(List.of(weekly));
+
+        // When
+        reminderScheduler.fire(List.of(
+                Reminder.ofOccurrence(7L, start, HOUR),
+                Reminder.ofOccurrence(7L, start.plusDays(1), HOUR)
+        ));
+
+        // Then
+        then(emailService).should().reminderEmails(
+                argThat(occurrence -> occurrence.getSeriesId() == 7L && occurrence.getAppointmentDate().equals(start.toLocalDate())),
+                eq(HOUR));
+        then(appointmentRepository).should(never()).findWithPeopleByIdIn(anyList());
+        then(emailService).should().queue(anyList());
+    }
+
+    @Test
+    void schedule_Disabled_ShouldNotTrackAnything() {
+        reminderScheduler = new ReminderScheduler(
+                appointmentRepository,
+                appointmentSeriesRepository,
+                emailService,
+                new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(),
+                false,
+                List.of(HOUR),
+                Duration.ofDays(2),
+                Duration.ofMinutes(15),
+                2
+        );
+
+        reminderScheduler.schedule(appointment(now.plusHours(2)));
+        reminderScheduler.refill();
+
+        then(appointmentRepository).should(never()).findStartingBetween(any(), any(), any(), anyLong(), any());
+        assertThat(reminderScheduler.expire(millis(now.plusHours(2)))).isEmpty();
+    }
+
+
+    private BookedInterval interval(Long id, LocalDateTime start) {
+        return new BookedInterval(id, 1L, 1L, start.toLocalDate(), start.toLocalTime(), start.toLocalTime().plusMinutes(30));
+    }
+
+    private AppointmentSeries series(LocalDateTime start) {
+        return AppointmentSeries.builder()
+                .id(7L)
+                .frequency(Frequency.WEEKLY)
+                .intervalCount(1)
+                .startDate(start.toLocalDate())
+                .endDate(start.toLocalDate().plusWeeks(10))
+                .startTime(start.toLocalTime())
+                .endTime(start.toLocalTime().plusMinutes(30))
+                .doctor(Doctor.builder().name("Doctor").build())
+                .patient(Patient.builder().name("Patient").email("patient@mail.com").build())
+                .build();
+    }
+
+    private Appointment appointment(LocalDateTime start) {
+        return Appointment.builder()
+                .id(1L)
+                .appointmentDate(start.toLocalDate())
+                .startTime(start.toLocalTime())
+                .endTime(start.toLocalTime().plusMinutes(30))
+                .doctor(Doctor.builder().name("Doctor").build())
+                .patient(Patient.builder().name("Patient").email("patient@mail.com").build())
+                .build();
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+}
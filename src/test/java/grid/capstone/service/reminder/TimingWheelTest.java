@@ -0,0 +1,64 @@
+package grid.capstone.service.reminder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimingWheelTest {
+
+    TimingWheel<String> wheel;
+
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel<>(1000, new int[]{60, 60, 64}, 0);
+    }
+
+    @Test
+    void advance_ShouldExpireTimersAtTheirDeadlineOnEveryLevel() {
+        // Given
+        wheel.add("seconds", 5_000);
+        wheel.add("minutes", 90_500);
+        wheel.add("hours", 7_205_000);
+
+        // When and Then
+        assertThat(wheel.advance(4_999)).isEmpty();
+        assertThat(wheel.advance(5_000)).containsExactly("seconds");
+        assertThat(wheel.advance(90_999)).isEmpty();
+        assertThat(wheel.advance(91_000)).containsExactly("minutes");
+        assertThat(wheel.advance(7_204_999)).isEmpty();
+        assertThat(wheel.advance(7_205_000)).containsExactly("hours");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_CancelledTimer_ShouldNotExpire() {
+        // Given
+        TimingWheel.Timer<String> timer = wheel.add("cancelled", 120_000);
+        wheel.add("kept", 120_000);
+
+        // When
+        wheel.cancel(timer);
+
+        // Then
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(120_000)).containsExactly("kept");
+    }
+
+    @Test
+    void advance_DeadlineAlreadyPassed_ShouldExpireOnTheNextAdvance() {
+        wheel.advance(60_000);
+
+        wheel.add("late", 30_000);
+
+        assertThat(wheel.advance(60_000)).containsExactly("late");
+    }
+
+    @Test
+    void add_BeyondTheReachOfTheWheel_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> wheel.add("too far", wheel.reachMillis() + 1_000));
+    }
+
+}
@@ -0,0 +1,124 @@
+package grid.capstone.service.schedule;
+
+import grid.capstone.dto.v1.SlotDTO;
+import grid.capstone.model.AvailabilityWindow;
+import grid.capstone.model.BookedInterval;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FreeSlotCalculatorTest {
+
+    //A Monday
+    static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    @Test
+    void freeSlots_NoAppointments_ShouldCutWholeWindow() {
+        List<AvailabilityWindow> windows = List.of(window("MONDAY", 9, 11));
+
+        List<SlotDTO> slots = FreeSlotCalculator.freeSlots(
+                1L, MONDAY, MONDAY, windows, List.of(), Duration.ofMinutes(30));
+
+        assertThat(slots).extracting(SlotDTO::getStartTime)
+                .containsExactly(LocalTime.of(9, 0), LocalTime.of(9, 30), LocalTime.of(10, 0), LocalTime.of(10, 30));
+    }
+
+    @Test
+    void freeSlots_BookedIntervals_ShouldBeSkipped() {
+        List<AvailabilityWindow> windows = List.of(window("MONDAY", 9, 12));
+        List<BookedInterval> booked = List.of(
+                booked(MONDAY, LocalTime.of(9, 30), LocalTime.of(10, 0)),
+                booked(MONDAY, LocalTime.of(9, 45), LocalTime.of(10, 30))
+        );
+
+        List<SlotDTO> slots = FreeSlotCalculator.freeSlots(
+                1L, MONDAY, MONDAY, windows, booked, Duration.ofMinutes(30));
+
+        assertThat(slots).extracting(SlotDTO::getStartTime)
+                .containsExactly(LocalTime.of(9, 0), LocalTime.of(10, 30), LocalTime.of(11, 0), LocalTime.of(11, 30));
+    }
+
+    @Test
+    void freeSlots_MultipleDays_ShouldOnlyUseMatchingWeekdays() {
+        List<AvailabilityWindow> windows = List.of(
+                window("monday", 9, 10),
+                window("WEDNESDAY", 14, 15)
+        );
+
+        List<SlotDTO> slots = FreeSlotCalculator.freeSlots(
+                1L, MONDAY, MONDAY.plusDays(6), windows, List.of(), Duration.ofMinutes(60));
+
+        assertThat(slots).extracting(SlotDTO::getDate)
+                .containsExactly(MONDAY, MONDAY.plusDays(2));
+    }
+
+    @Test
+    void freeSlots_GapShorterThanDuration_ShouldNotProduceSlot() {
+        List<AvailabilityWindow> windows = List.of(window("MONDAY", 9, 10));
+        List<BookedInterval> booked = List.of(booked(MONDAY, LocalTime.of(9, 20), LocalTime.of(10, 0)));
+
+        List<SlotDTO> slots = FreeSlotCalculator.freeSlots(
+                1L, MONDAY, MONDAY, windows, booked, Duration.ofMinutes(30));
+
+        assertThat(slots).isEmpty();
+    }
+
+    @Test
+    void freeSlots_UnknownDayOfWeek_ShouldBeIgnored() {
+        List<AvailabilityWindow> windows = List.of(window("Someday", 9, 10));
+
+        List<SlotDTO> slots = FreeSlotCalculator.freeSlots(
+                1L, MONDAY, MONDAY.plusDays(6), windows, List.of(), Duration.ofMinutes(30));
+
+        assertThat(slots).isEmpty();
+    }
+
+
+    @Test
+    void nearestSlots_ShouldAlternateAroundPreferredStart() {
+        List<AvailabilityWindow> windows = List.of(window("MONDAY", 9, 17));
+        List<BookedInterval> booked = List.of(booked(MONDAY, LocalTime.of(11, 0), LocalTime.of(12, 0)));
+
+        List<SlotDTO> slots = FreeSlotCalculator.nearestSlots(
+                1L, MONDAY, windows, booked, Duration.ofMinutes(60), LocalTime.of(11, 0), 4);
+
+        assertThat(slots).extracting(SlotDTO::getStartTime)
+                .containsExactly(LocalTime.of(12, 0), LocalTime.of(10, 0), LocalTime.of(13, 0), LocalTime.of(9, 0));
+    }
+
+    @Test
+    void nearestSlots_PreferredStartAtEndOfDay_ShouldOnlyLookBackwards() {
+        List<AvailabilityWindow> windows = List.of(window("MONDAY", 9, 12));
+        List<BookedInterval> booked = List.of(booked(MONDAY, LocalTime.of(10, 0), LocalTime.of(12, 0)));
+
+        List<SlotDTO> slots = FreeSlotCalculator.nearestSlots(
+                1L, MONDAY, windows, booked, Duration.ofMinutes(30), LocalTime.of(11, 30), 3);
+
+        assertThat(slots).extracting(SlotDTO::getStartTime)
+                .containsExactly(LocalTime.of(9, 30), LocalTime.of(9, 0));
+    }
+
+    private AvailabilityWindow window(String dayOfWeek, int startHour, int endHour) {
+        return AvailabilityWindow.builder()
+                .doctorId(1L)
+                .dayOfWeek(dayOfWeek)
+                .startTime(LocalTime.of(startHour, 0))
+                .endTime(LocalTime.of(endHour, 0))
+                .build();
+    }
+
+    private BookedInterval booked(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        return BookedInterval.builder()
+                .doctorId(1L)
+                .date(date)
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+    }
+
+}
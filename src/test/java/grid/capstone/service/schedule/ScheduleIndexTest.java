@@ -0,0 +1,225 @@
+package grid.capstone.service.schedule;
+
+import grid.capstone.model.Appointment;
+import grid.capstone.model.AppointmentSeries;
+import grid.capstone.model.BookedInterval;
+import grid.capstone.model.Doctor;
+import grid.capstone.model.Frequency;
+import grid.capstone.model.Patient;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import grid.capstone.service.schedule.ScheduleIndex.Party;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleIndexTest {
+
+    static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    AppointmentRepository appointmentRepository;
+
+    @Mock
+    AppointmentSeriesRepository appointmentSeriesRepository;
+
+    SimpleMeterRegistry meterRegistry;
+
+    ScheduleIndex scheduleIndex;
+
+    Doctor doctor;
+    Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduleIndex = new ScheduleIndex(appointmentRepository, appointmentSeriesRepository, meterRegistry, true, 100, Duration.ofMinutes(1));
+
+        doctor = Doctor.builder().id(1L).build();
+        patient = Patient.builder().id(2L).build();
+    }
+
+    @Test
+    void bookedOn_DoctorDay_ShouldBeSortedByStartTime() {
+        // Given
+        given(appointmentRepository.findDoctorDay(1L, DATE))
+                .willReturn(List.of(interval(11L, 11, 12), interval(10L, 9, 10)));
+
+        // When
+        List<BookedInterval> booked = scheduleIndex.bookedOn(Party.DOCTOR, 1L, DATE);
+
+        // Then
+        assertThat(booked).extracting(BookedInterval::getAppointmentId).containsExactly(10L, 11L);
+    }
+
+    @Test
+    void bookedOn_SeriesOccurrenceOnThatDay_ShouldBeIncluded() {
+        // Given
+        given(appointmentRepository.findDoctorDay(1L, DATE)).willReturn(List.of());
+        given(appointmentSeriesRepository.findDoctorsBetween(List.of(1L), DATE, DATE))
+                .willReturn(List.of(AppointmentSeries.builder()
+                        .id(7L)
+                        .frequency(Frequency.MONTHLY)
+                        .intervalCount(1)
+                        .startDate(DATE.minusMonths(3))
+                        .endDate(DATE.plusMonths(3))
+                        .startTime(LocalTime.of(14, 0))
+                        .endTime(LocalTime.of(15, 0))
+                        .doctor(doctor)
+                        .patient(Patient.builder().id(3L).build())
+                        .build()));
+
+        // When
+        List<BookedInterval> booked = scheduleIndex.bookedOn(Party.DOCTOR, 1L, DATE);
+
+        // Then
+        assertThat(booked).extracting(BookedInterval::getStartTime).containsExactly(LocalTime.of(14, 0));
+    }
+
+    @Test
+    void bookedOn_SecondLookup_ShouldBeServedFromMemory() {
+        // Given
+        given(appointmentRepository.findDoctorDay(1L, DATE)).willReturn(List.of());
+        given(appointmentRepository.findPatientDay(2L, DATE)).willReturn(List.of());
+
+        // When
+        scheduleIndex.bookedOn(Party.DOCTOR, 1L, DATE);
+        scheduleIndex.bookedOn(Party.PATIENT, 2L, DATE);
+        scheduleIndex.bookedOn(Party.DOCTOR, 1L, DATE);
+        scheduleIndex.bookedOn(Party.PATIENT, 2L, DATE);
+
+        // Then
+        then(appointmentRepository).should(times(1)).findDoctorDay(1L, DATE);
+        then(appointmentRepository).should(times(1)).findPatientDay(2L, DATE);
+        assertThat(meterRegistry.get("schedule.index.lookups").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("schedule.index.lookups").tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void record_SavedAppointment_ShouldBeVisibleWithoutReloading() {
+        // Given
+        given(appointmentRepository.findDoctorDay(1L, DATE)).willReturn(List.of());
+        scheduleIndex.bookedOn(Party.DOCTOR, 1L, DATE);
+
+        // When
+        scheduleIndex.record(appointment(20L, 9, 0, 10, 0), null);
+
+        // Then
+        assertThat(scheduleIndex.bookedOn(Party.DOCTOR, 1L, DATE))
+                .extracting(BookedInterval::getAppointmentId).containsExactly(20L);
+        then(appointmentRepository).should(times(1)).findDoctorDay(1L, DATE);
+    }
+
+    @Test
+    void record_MovedAppointment_ShouldFreeThePreviousDay() {
+        // Given
+        LocalDate nextDay = DATE.plusDays(1);
+        given(appointmentRepository.findDoctorDay(1L, DATE))
+                .willReturn(List.of(interval(20L, 9, 10)));
+        scheduleIndex.bookedOn(Party.DOCTOR, 1L, DATE);
+
+        Appointment moved = appointment(20L, 9, 0, 10, 0);
+        moved.setAppointmentDate(nextDay);
+
+        // When
+        scheduleIndex.record(moved, DATE);
+
+        // Then
+        assertThat(scheduleIndex.bookedOn(Party.DOCTOR, 1L, DATE)).isEmpty();
+    }
+
+    @Test
+    void bookedOn_SavedWhileLoading_ShouldNotKeepTheStaleDay() {
+        // Given
+        given(appointmentRepository.findDoctorDay(1L, DATE))
+                .willAnswer(invocation -> {
+                    scheduleIndex.record(appointment(20L, 9, 0, 10, 0), null);
+                    return List.of();
+                })
+                .willReturn(List.of(interval(20L, 9, 10)));
+
+        // When
+        List<BookedInterval> whileSaving = scheduleIndex.bookedOn(Party.DOCTOR, 1L, DATE);
+        List<BookedInterval> afterwards = scheduleIndex.bookedOn(Party.DOCTOR, 1L, DATE);
+
+        // Then
+        assertThat(whileSaving).isEmpty();
+        assertThat(afterwards).extracting(BookedInterval::getAppointmentId).containsExactly(20L);
+        then(appointmentRepository).should(times(2)).findDoctorDay(1L, DATE);
+    }
+
+    @Test
+    void overlapping_DoctorAndPatientDays_ShouldReturnEachClashOnce() {
+        // Given
+        given(appointmentRepository.findDoctorDay(1L, DATE))
+                .willReturn(List.of(interval(10L, 9, 10), interval(11L, 11, 12), interval(12L, 14, 15)));
+        given(appointmentRepository.findPatientDay(2L, DATE))
+                .willReturn(List.of(interval(10L, 9, 10)));
+
+        // When
+        List<BookedInterval> creating = scheduleIndex.overlapping(1L, 2L, DATE, LocalTime.of(9, 30), LocalTime.of(11, 30), null);
+        List<BookedInterval> updating = scheduleIndex.overlapping(1L, 2L, DATE, LocalTime.of(9, 30), LocalTime.of(11, 30), 11L);
+
+        // Then
+        assertThat(creating).extracting(BookedInterval::getAppointmentId).containsExactly(10L, 11L);
+        assertThat(updating).extracting(BookedInterval::getAppointmentId).containsExactly(10L);
+    }
+
+    @Test
+    void evictColdDays_IndexOverCapacity_ShouldKeepMaxDays() {
+        // Given
+        meterRegistry = new SimpleMeterRegistry();
+        scheduleIndex = new ScheduleIndex(appointmentRepository, appointmentSeriesRepository, meterRegistry, true, 10, Duration.ofMinutes(1));
+        given(appointmentRepository.findDoctorDay(anyLong(), any()))
+                .willReturn(List.of());
+
+        // When
+        for (int day = 0; day < 20; day++) {
+            scheduleIndex.bookedOn(Party.DOCTOR, 1L, DATE.plusDays(day));
+        }
+
+        // Then
+        assertThat(meterRegistry.get("schedule.index.days").gauge().value()).isLessThanOrEqualTo(10);
+        assertThat(meterRegistry.get("schedule.index.evictions").counter().count()).isPositive();
+    }
+
+
+    private Appointment appointment(Long id, int startHour, int startMinute, int endHour, int endMinute) {
+        return Appointment.builder()
+                .id(id)
+                .doctor(doctor)
+                .patient(patient)
+                .appointmentDate(DATE)
+                .startTime(LocalTime.of(startHour, startMinute))
+                .endTime(LocalTime.of(endHour, endMinute))
+                .build();
+    }
+
+    private BookedInterval interval(Long id, int startHour, int endHour) {
+        return BookedInterval.builder()
+                .appointmentId(id)
+                .doctorId(1L)
+                .patientId(2L)
+                .date(DATE)
+                .startTime(LocalTime.of(startHour, 0))
+                .endTime(LocalTime.of(endHour, 0))
+                .build();
+    }
+
+}
@@ -0,0 +1,258 @@
+package grid.capstone.service.schedule;
+
+import grid.capstone.dto.v1.SlotDTO;
+import grid.capstone.exception.InvalidRequestException;
+import grid.capstone.exception.ResourceNotFoundException;
+import grid.capstone.model.Appointment;
+import grid.capstone.model.AppointmentSeries;
+import grid.capstone.model.AvailabilityWindow;
+import grid.capstone.model.BookedInterval;
+import grid.capstone.model.Doctor;
+import grid.capstone.model.Frequency;
+import grid.capstone.model.Patient;
+import grid.capstone.repository.AppointmentRepository;
+import grid.capstone.repository.AppointmentSeriesRepository;
+import grid.capstone.repository.AvailabilityRepository;
+import grid.capstone.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class SlotServiceImplTest {
+
+    static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    DoctorRepository doctorRepository;
+
+    @Mock
+    AvailabilityRepository availabilityRepository;
+
+    @Mock
+    AppointmentRepository appointmentRepository;
+
+    @Mock
+    AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Mock
+    ScheduleIndex scheduleIndex;
+
+    SlotService slotService;
+
+    @BeforeEach
+    void setUp() {
+        slotService = new SlotServiceImpl(doctorRepository, availabilityRepository, appointmentRepository,
+                appointmentSeriesRepository, scheduleIndex, Runnable::run);
+    }
+
+    @Test
+    void getFreeSlots_ShouldLoadRangeOnce() {
+        // Given
+        given(doctorRepository.existsById(1L)).willReturn(true);
+        given(availabilityRepository.findWindowsByDoctorIds(List.of(1L)))
+                .willReturn(List.of(new AvailabilityWindow(1L, "MONDAY", LocalTime.of(9, 0), LocalTime.of(10, 0))));
+        given(appointmentRepository.findDoctorsBetween(List.of(1L), MONDAY, MONDAY.plusDays(13)))
+                .willReturn(List.of());
+
+        // When
+        List<SlotDTO> slots = slotService.getFreeSlots(1L, MONDAY, MONDAY.plusDays(13), 30);
+
+        // Then
+        assertThat(slots).hasSize(4);
+        assertThat(slots).extracting(SlotDTO::getDate).containsOnly(MONDAY, MONDAY.plusDays(7));
+    }
+
+    @Test
+    void getFreeSlots_WeeklySeries_ShouldBlockEveryOccurrence() {
+        // Given
+        given(doctorRepository.existsById(1L)).willReturn(true);
+        given(availabilityRepository.findWindowsByDoctorIds(List.of(1L)))
+                .willReturn(List.of(new AvailabilityWindow(1L, "MONDAY", LocalTime.of(9, 0), LocalTime.of(10, 0))));
+        given(appointmentRepository.findDoctorsBetween(List.of(1L), MONDAY, MONDAY.plusDays(13)))
+                .willReturn(List.of());
+        given(appointmentSeriesRepository.findDoctorsBetween(List.of(1L), MONDAY, MONDAY.plusDays(13)))
+                .willReturn(List.of(AppointmentSeries.builder()
+                        .id(5L)
+                        .frequency(Frequency.WEEKLY)
+                        .intervalCount(1)
+                        .startDate(MONDAY.minusWeeks(10))
+                        .endDate(MONDAY.plusWeeks(10))
+                        .startTime(LocalTime.of(9, 0))
+                        .endTime(LocalTime.of(9, 30))
+                        .doctor(Doctor.builder().id(1L).build())
+                        .patient(Patient.builder().id(2L).build())
+                        .build()));
+
+        // When
+        List<SlotDTO> slots = slotService.getFreeSlots(1L, MONDAY, MONDAY.plusDays(13), 30);
+
+        // Then
+        assertThat(slots).extracting(SlotDTO::getStartTime).containsOnly(LocalTime.of(9, 30));
+        assertThat(slots).hasSize(2);
+    }
+
+    @Test
+    void getFreeSlots_NoAvailability_ShouldNotQueryAppointments() {
+        // Given
+        given(doctorRepository.existsById(1L)).willReturn(true);
+        given(availabilityRepository.findWindowsByDoctorIds(List.of(1L))).willReturn(List.of());
+
+        // When
+        List<SlotDTO> slots = slotService.getFreeSlots(1L, MONDAY, MONDAY, 30);
+
+        // Then
+        assertThat(slots).isEmpty();
+        then(appointmentRepository).should(never()).findDoctorsBetween(any(), any(), any());
+    }
+
+    @Test
+    void getFreeSlots_DoctorDoesNotExist_ShouldThrowException() {
+        given(doctorRepository.existsById(1L)).willReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> slotService.getFreeSlots(1L, MONDAY, MONDAY, 30));
+    }
+
+    @Test
+    void getFreeSlots_InvalidRange_ShouldThrowException() {
+        assertThrows(InvalidRequestException.class, () -> slotService.getFreeSlots(1L, MONDAY, MONDAY.minusDays(1), 30));
+        assertThrows(InvalidRequestException.class, () -> slotService.getFreeSlots(1L, MONDAY, MONDAY.plusDays(100), 30));
+        assertThrows(InvalidRequestException.class, () -> slotService.getFreeSlots(1L, MONDAY, MONDAY, 0));
+    }
+
+    @Test
+    void getEarliestSlots_ShouldMergeDoctorsInStartOrder() {
+        // Given
+        given(doctorRepository.findIds(any())).willReturn(List.of(1L, 2L));
+        given(availabilityRepository.findWindowsByDoctorIds(List.of(1L, 2L)))
+                .willReturn(List.of(
+                        new AvailabilityWindow(1L, "MONDAY", LocalTime.of(9, 0), LocalTime.of(11, 0)),
+                        new AvailabilityWindow(2L, "MONDAY", LocalTime.of(8, 0), LocalTime.of(10, 0))
+                ));
+        given(appointmentRepository.findDoctorsBetween(Set.of(1L, 2L), MONDAY, MONDAY.plusDays(6)))
+                .willReturn(List.of(BookedInterval.builder()
+                        .appointmentId(10L)
+                        .doctorId(2L)
+                        .patientId(3L)
+                        .date(MONDAY)
+                        .startTime(LocalTime.of(8, 0))
+                        .endTime(LocalTime.of(9, 0))
+                        .build()));
+
+        // When
+        List<SlotDTO> slots = slotService.getEarliestSlots("Cardiology", MONDAY, MONDAY.plusDays(6), 60, 3);
+
+        // Then
+        assertThat(slots).extracting(SlotDTO::getStartTime)
+                .containsExactly(LocalTime.of(9, 0), LocalTime.of(9, 0), LocalTime.of(10, 0));
+        assertThat(slots).extracting(SlotDTO::getDoctorId)
+                .containsExactly(1L, 2L, 1L);
+    }
+
+    @Test
+    void getEarliestSlots_NoMatchingDoctors_ShouldNotLoadSchedules() {
+        // Given
+        given(doctorRepository.findIds(any())).willReturn(List.of());
+
+        // When
+        List<SlotDTO> slots = slotService.getEarliestSlots("Cardiology", MONDAY, MONDAY, 30, 10);
+
+        // Then
+        assertThat(slots).isEmpty();
+        then(availabilityRepository).should(never()).findWindowsByDoctorIds(anyCollection());
+    }
+
+    @Test
+    void getEarliestSlots_InvalidLimit_ShouldThrowException() {
+        assertThrows(InvalidRequestException.class, () -> slotService.getEarliestSlots("Cardiology", MONDAY, MONDAY, 30, 0));
+        assertThrows(InvalidRequestException.class, () -> slotService.getEarliestSlots("Cardiology", MONDAY, MONDAY, 30, 101));
+    }
+
+    @Test
+    void getAlternativeSlots_ShouldSkipPatientBookingsAndIgnoreTheMovedAppointment() {
+        // Given
+        Appointment appointment = Appointment.builder()
+                .id(7L)
+                .doctor(Doctor.builder().id(1L).build())
+                .patient(Patient.builder().id(2L).build())
+                .appointmentDate(MONDAY)
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(11, 0))
+                .build();
+
+        given(availabilityRepository.findWindowsByDoctorIds(List.of(1L)))
+                .willReturn(List.of(new AvailabilityWindow(1L, "MONDAY", LocalTime.of(9, 0), LocalTime.of(13, 0))));
+        given(appointmentRepository.findDoctorDay(1L, MONDAY)).willReturn(List.of(
+                new BookedInterval(7L, 1L, 2L, MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+                new BookedInterval(8L, 1L, 3L, MONDAY, LocalTime.of(10, 0), LocalTime.of(11, 0))
+        ));
+        given(appointmentRepository.findPatientDay(2L, MONDAY)).willReturn(List.of(
+                new BookedInterval(7L, 1L, 2L, MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+                new BookedInterval(9L, 4L, 2L, MONDAY, LocalTime.of(11, 0), LocalTime.of(12, 0))
+        ));
+
+        // When
+        List<SlotDTO> slots = slotService.getAlternativeSlots(appointment, 3);
+
+        // Then
+        assertThat(slots).extracting(SlotDTO::getStartTime)
+                .containsExactly(LocalTime.of(9, 0), LocalTime.of(12, 0));
+    }
+
+    @Test
+    void getAlternativeSlots_ScheduleIndexEnabled_ShouldReadTheDaysFromIt() {
+        // Given
+        Appointment appointment = Appointment.builder()
+                .doctor(Doctor.builder().id(1L).build())
+                .patient(Patient.builder().id(2L).build())
+                .appointmentDate(MONDAY)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(10, 0))
+                .build();
+
+        given(availabilityRepository.findWindowsByDoctorIds(List.of(1L)))
+                .willReturn(List.of(new AvailabilityWindow(1L, "MONDAY", LocalTime.of(9, 0), LocalTime.of(11, 0))));
+        given(scheduleIndex.isEnabled()).willReturn(true);
+        given(scheduleIndex.bookedOn(ScheduleIndex.Party.DOCTOR, 1L, MONDAY)).willReturn(List.of(
+                new BookedInterval(8L, 1L, 3L, MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0))
+        ));
+        given(scheduleIndex.bookedOn(ScheduleIndex.Party.PATIENT, 2L, MONDAY)).willReturn(List.of());
+
+        // When
+        List<SlotDTO> slots = slotService.getAlternativeSlots(appointment, 3);
+
+        // Then
+        assertThat(slots).extracting(SlotDTO::getStartTime).containsExactly(LocalTime.of(10, 0));
+        then(appointmentRepository).should(never()).findDoctorDay(any(), any());
+    }
+
+    @Test
+    void getAlternativeSlots_PastDay_ShouldNotLoadSchedules() {
+        Appointment appointment = Appointment.builder()
+                .doctor(Doctor.builder().id(1L).build())
+                .patient(Patient.builder().id(2L).build())
+                .appointmentDate(LocalDate.now().minusDays(1))
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(11, 0))
+                .build();
+
+        assertThat(slotService.getAlternativeSlots(appointment, 3)).isEmpty();
+        then(availabilityRepository).should(never()).findWindowsByDoctorIds(anyCollection());
+    }
+
+}
@@ -0,0 +1,100 @@
+package grid.capstone.service.security;
+
+import grid.capstone.model.Role;
+import grid.capstone.model.UserAccount;
+import grid.capstone.repository.UserAccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class UserAccountCacheTest {
+
+    static final String EMAIL = "doctor@mail.com";
+
+    @Mock
+    UserAccountRepository userAccountRepository;
+
+    SimpleMeterRegistry meterRegistry;
+
+    UserAccountCache userAccountCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userAccountCache = new UserAccountCache(userAccountRepository, meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void find_ShouldOnlyQueryOnce() {
+        // Given
+        UserAccount account = new UserAccount(1L, EMAIL, "hash", Role.ROLE_DOCTOR);
+        given(userAccountRepository.findByEmail(EMAIL)).willReturn(Optional.of(account));
+
+        // When
+        userAccountCache.find(EMAIL);
+        Optional<UserAccount> found = userAccountCache.find(EMAIL);
+
+        // Then
+        assertThat(found).contains(account);
+        then(userAccountRepository).should(times(1)).findByEmail(EMAIL);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void find_AfterEvict_ShouldQueryAgain() {
+        // Given
+        given(userAccountRepository.findByEmail(EMAIL))
+                .willReturn(Optional.of(new UserAccount(1L, EMAIL, "old", Role.ROLE_DOCTOR)))
+                .willReturn(Optional.of(new UserAccount(1L, EMAIL, "new", Role.ROLE_DOCTOR)));
+
+        // When
+        userAccountCache.find(EMAIL);
+        userAccountCache.evict(EMAIL);
+        Optional<UserAccount> found = userAccountCache.find(EMAIL);
+
+        // Then
+        assertThat(found.get().getPassword()).isEqualTo("new");
+    }
+
+    @Test
+    void find_UnknownEmail_ShouldNotBeCached() {
+        // Given
+        given(userAccountRepository.findByEmail(EMAIL)).willReturn(Optional.empty());
+
+        // When
+        userAccountCache.find(EMAIL);
+        userAccountCache.find(EMAIL);
+
+        // Then
+        then(userAccountRepository).should(times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void find_EmailInAnotherCase_ShouldShareTheEntry() {
+        // Given
+        given(userAccountRepository.findByEmail(EMAIL))
+                .willReturn(Optional.of(new UserAccount(1L, EMAIL, "old", Role.ROLE_DOCTOR)))
+                .willReturn(Optional.of(new UserAccount(1L, EMAIL, "new", Role.ROLE_DOCTOR)));
+
+        // When
+        userAccountCache.find("Doctor@Mail.com");
+        userAccountCache.evict(EMAIL);
+        Optional<UserAccount> found = userAccountCache.find("DOCTOR@MAIL.COM");
+
+        // Then
+        assertThat(found.get().getPassword()).isEqualTo("new");
+    }
+
+}
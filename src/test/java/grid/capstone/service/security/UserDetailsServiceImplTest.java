@@ -1,11 +1,9 @@
 package grid.capstone.service.security;
 
 import grid.capstone.exception.ResourceNotFoundException;
-import grid.capstone.model.Doctor;
-import grid.capstone.model.Patient;
-import grid.capstone.repository.DoctorRepository;
-import grid.capstone.repository.PatientRepository;
-import org.junit.jupiter.api.BeforeEach;
+import grid.capstone.model.Role;
+import grid.capstone.model.UserAccount;
+import grid.capstone.repository.UserAccountRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -18,39 +16,35 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 
 @ExtendWith(MockitoExtension.class)
 class UserDetailsServiceImplTest {
 
     @Mock
-    private DoctorRepository doctorRepository;
+    private UserAccountCache userAccountCache;
 
     @Mock
-    private PatientRepository patientRepository;
+    private UserAccountRepository userAccountRepository;
 
     @InjectMocks
     private UserDetailsServiceImpl userDetailsService;
 
 
-    @BeforeEach
-    void setUp() {
-    }
-
     @Test
     public void testLoadUserByUsername_WhenDoctorExists_ShouldReturnDoctor() {
         // Given
         String email = "doctor@example.com";
-        Doctor doctor = new Doctor();
-        doctor.setEmail(email);
+        UserAccount doctor = new UserAccount(1L, email, "password", Role.ROLE_DOCTOR);
 
-        given(doctorRepository.findByEmail(email)).willReturn(Optional.of(doctor));
+        given(userAccountCache.find(email)).willReturn(Optional.of(doctor));
 
         // When
         UserDetails userDetails = userDetailsService.loadUserByUsername(email);
 
         // Then
         assertThat(userDetails).isNotNull();
-        assertThat(userDetails).isInstanceOf(Doctor.class);
+        assertThat(userDetails.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_DOCTOR");
         assertThat(email).isEqualTo(userDetails.getUsername());
     }
 
@@ -58,18 +52,16 @@ class UserDetailsServiceImplTest {
     public void testLoadUserByUsername_WhenPatientExists_ShouldReturnPatient() {
         // Given
         String email = "patient@example.com";
-        Patient patient = new Patient();
-        patient.setEmail(email);
+        UserAccount patient = new UserAccount(2L, email, "password", Role.ROLE_PATIENT);
 
-        given(doctorRepository.findByEmail(email)).willReturn(Optional.empty());
-        given(patientRepository.findByEmail(email)).willReturn(Optional.of(patient));
+        given(userAccountCache.find(email)).willReturn(Optional.of(patient));
 
         // When
         UserDetails userDetails = userDetailsService.loadUserByUsername(email);
 
         // Then
         assertThat(userDetails).isNotNull();
-        assertThat(userDetails).isInstanceOf(Patient.class);
+        assertThat(userDetails.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_PATIENT");
         assertThat(email).isEqualTo(userDetails.getUsername());
     }
 
@@ -78,8 +70,7 @@ class UserDetailsServiceImplTest {
         // Given
         String email = "nonexistent@example.com";
 
-        given(doctorRepository.findByEmail(email)).willReturn(Optional.empty());
-        given(patientRepository.findByEmail(email)).willReturn(Optional.empty());
+        given(userAccountCache.find(email)).willReturn(Optional.empty());
 
         // When and Then
         assertThrows(ResourceNotFoundException.class, () -> {
@@ -87,5 +78,18 @@ class UserDetailsServiceImplTest {
         });
     }
 
+    @Test
+    public void testUpdatePassword_ShouldSaveTheNewHashAndEvictTheAccount() {
+        // Given
+        UserAccount doctor = new UserAccount(1L, "doctor@example.com", "$2a$10$old", Role.ROLE_DOCTOR);
+
+        // When
+        UserDetails updated = userDetailsService.updatePassword(doctor, "{argon2}new");
+
+        // Then
+        then(userAccountRepository).should().updatePassword(doctor, "{argon2}new");
+        then(userAccountCache).should().evict("doctor@example.com");
+        assertThat(updated.getPassword()).isEqualTo("{argon2}new");
+    }
 
-}
\ No newline at end of file
+}